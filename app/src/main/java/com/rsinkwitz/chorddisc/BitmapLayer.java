@@ -0,0 +1,78 @@
+package com.rsinkwitz.chorddisc;
+
+import android.graphics.Bitmap;
+
+/**
+ * Gecachter Bitmap-Layer (z.B. obere Scheibe oder Rahmen).
+ * Der Inhalt gilt nur für einen Schlüssel (Größe, Tonleiter, Transparenz, ...);
+ * bei abweichendem Schlüssel muss der Aufrufer den Layer neu zeichnen.
+ */
+class BitmapLayer implements CacheRegistry.Entry {
+
+    // Unveränderlicher Inhalt, damit Schlüssel und Bitmap immer zusammenpassen
+    private static final class Content {
+        final long key;
+        final Bitmap bitmap;
+
+        Content(long key, Bitmap bitmap) {
+            this.key = key;
+            this.bitmap = bitmap;
+        }
+    }
+
+    private final CacheRegistry.Priority priority;
+    private CacheRegistry registry;
+    private volatile Content content;
+    private volatile long rebuildCostNanos = 0;
+
+    BitmapLayer(CacheRegistry.Priority priority) {
+        this.priority = priority;
+    }
+
+    void setRegistry(CacheRegistry registry) {
+        this.registry = registry;
+        registry.register(this);
+    }
+
+    /**
+     * @return Bitmap zum Schlüssel oder null, wenn nicht (mehr) vorhanden
+     */
+    Bitmap get(long key) {
+        Content current = content;
+        return current != null && current.key == key ? current.bitmap : null;
+    }
+
+    /**
+     * Speichert einen neu gezeichneten Layer.
+     * @param buildNanos gemessene Zeit zum Zeichnen des Layers
+     */
+    void put(long key, Bitmap bitmap, long buildNanos) {
+        content = new Content(key, bitmap);
+        rebuildCostNanos = buildNanos;
+        if (registry != null) {
+            registry.onEntryChanged(this);
+        }
+    }
+
+    @Override
+    public CacheRegistry.Priority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public long getByteCount() {
+        Content current = content;
+        return current != null ? current.bitmap.getByteCount() : 0;
+    }
+
+    @Override
+    public long getRebuildCostNanos() {
+        return rebuildCostNanos;
+    }
+
+    @Override
+    public void evict() {
+        // Kein recycle(): der UI-Thread könnte die Bitmap gerade noch zeichnen
+        content = null;
+    }
+}
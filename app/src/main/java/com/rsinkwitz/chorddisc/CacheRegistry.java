@@ -0,0 +1,190 @@
+package com.rsinkwitz.chorddisc;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zentrale Verwaltung aller Caches (gerenderte Layer, Beschriftungs-Atlanten, PCM-Phrasen).
+ * Jeder Cache meldet sich hier an und gibt Speicher- und Aufbaukosten an.
+ * Die Registry hält ein globales Speicherbudget ein und räumt bei onTrimMemory
+ * stufenweise auf: zuerst billig wiederherstellbare Einträge, die aktuelle Tonart zuletzt.
+ */
+public class CacheRegistry {
+
+    // Prioritäten in Räumungsreihenfolge (niedrigste zuerst)
+    public enum Priority {
+        LABEL_SPRITES,      // Beschriftungs-Atlanten (sehr schnell neu erstellt)
+        RENDER_LAYER,       // Gerenderte Scheiben-Layer
+        PHRASE,             // Synthetisierte Noten (PCM)
+        CURRENT_KEY_PHRASE  // Noten der aktuellen Tonart (zuletzt geräumt)
+    }
+
+    /**
+     * Ein registrierter Cache. Alle Methoden können von beliebigen Threads aufgerufen werden.
+     */
+    public interface Entry {
+        Priority getPriority();
+
+        /** Aktuell belegte Bytes (0 wenn leer). */
+        long getByteCount();
+
+        /** Gemessene Zeit für den Neuaufbau in Nanosekunden. */
+        long getRebuildCostNanos();
+
+        /** Verwirft den Inhalt; der Cache baut ihn bei Bedarf neu auf. */
+        void evict();
+    }
+
+    // Anteil des App-Heaps (getMemoryClass), den Caches belegen dürfen
+    private static final int HEAP_FRACTION = 8;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final long heapBudgetBytes;
+    private volatile long budgetBytes;
+    private final long[] evictionCounts = new long[Priority.values().length];
+    private long evictedBytes = 0;
+
+    public CacheRegistry(Context context, DeviceProfile profile) {
+        ActivityManager activityManager =
+            (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        heapBudgetBytes = (long) activityManager.getMemoryClass() * 1024 * 1024 / HEAP_FRACTION;
+        budgetBytes = Math.min(heapBudgetBytes, profile.cacheBudgetBytes);
+    }
+
+    /**
+     * Übernimmt das Budget eines nachträglich gemessenen Profils; ist es kleiner,
+     * wird sofort bis unter das neue Budget geräumt.
+     */
+    public void setProfile(DeviceProfile profile) {
+        budgetBytes = Math.min(heapBudgetBytes, profile.cacheBudgetBytes);
+        onEntryChanged(null);
+    }
+
+    public synchronized void register(Entry entry) {
+        if (!entries.contains(entry)) {
+            entries.add(entry);
+        }
+    }
+
+    public synchronized void unregister(Entry entry) {
+        entries.remove(entry);
+    }
+
+    /**
+     * Muss nach jeder Größenänderung eines Eintrags aufgerufen werden
+     * (nicht während der Cache seine eigene Sperre hält).
+     * Räumt andere Einträge, bis das Budget eingehalten wird; passt der Eintrag
+     * selbst nicht ins Budget, wird er ebenfalls verworfen. null = nur Budget prüfen.
+     */
+    public void onEntryChanged(Entry changed) {
+        List<Entry> victims = new ArrayList<>();
+        synchronized (this) {
+            long total = getTotalBytes();
+            while (total > budgetBytes) {
+                Entry victim = findCheapestVictim(changed, victims);
+                if (victim == null) {
+                    // Nur noch der geänderte Eintrag übrig: er passt selbst nicht ins Budget
+                    if (changed != null) {
+                        victims.add(changed);
+                    }
+                    break;
+                }
+                victims.add(victim);
+                total -= victim.getByteCount();
+            }
+        }
+        evictAll(victims);
+    }
+
+    /**
+     * Reagiert auf ComponentCallbacks2.onTrimMemory mit gestufter Räumung.
+     */
+    public void onTrimMemory(int level) {
+        Priority highest;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            highest = Priority.CURRENT_KEY_PHRASE;   // Alles räumen
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            highest = Priority.PHRASE;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            highest = Priority.RENDER_LAYER;         // Layer werden im Hintergrund nicht gebraucht
+        } else {
+            highest = Priority.LABEL_SPRITES;        // TRIM_MEMORY_RUNNING_MODERATE
+        }
+
+        List<Entry> victims = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries) {
+                if (entry.getPriority().ordinal() <= highest.ordinal() && entry.getByteCount() > 0) {
+                    victims.add(entry);
+                }
+            }
+        }
+        evictAll(victims);
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.getByteCount();
+        }
+        return total;
+    }
+
+    public synchronized long getBytes(Priority priority) {
+        long total = 0;
+        for (Entry entry : entries) {
+            if (entry.getPriority() == priority) {
+                total += entry.getByteCount();
+            }
+        }
+        return total;
+    }
+
+    public synchronized long getEvictionCount(Priority priority) {
+        return evictionCounts[priority.ordinal()];
+    }
+
+    public synchronized long getEvictedBytes() {
+        return evictedBytes;
+    }
+
+    /**
+     * Sucht den nächsten zu räumenden Eintrag: niedrigste Priorität zuerst,
+     * bei gleicher Priorität der am billigsten wiederherstellbare.
+     */
+    private Entry findCheapestVictim(Entry excluded, List<Entry> alreadyChosen) {
+        Entry best = null;
+        for (Entry entry : entries) {
+            if (entry == excluded || alreadyChosen.contains(entry) || entry.getByteCount() == 0) {
+                continue;
+            }
+            if (best == null
+                    || entry.getPriority().ordinal() < best.getPriority().ordinal()
+                    || (entry.getPriority() == best.getPriority()
+                        && entry.getRebuildCostNanos() < best.getRebuildCostNanos())) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    private void evictAll(List<Entry> victims) {
+        for (Entry victim : victims) {
+            long bytes = victim.getByteCount();
+            victim.evict();
+            synchronized (this) {
+                evictionCounts[victim.getPriority().ordinal()]++;
+                evictedBytes += bytes;
+            }
+        }
+    }
+}
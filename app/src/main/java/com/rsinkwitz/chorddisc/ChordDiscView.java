@@ -1,17 +1,30 @@
 package com.rsinkwitz.chorddisc;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
-import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.animation.DecelerateInterpolator;
+import com.rsinkwitz.chorddisc.core.DiscAngle;
+import com.rsinkwitz.chorddisc.core.DiscPositions;
+import com.rsinkwitz.chorddisc.core.DiscScale;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Custom View für die interaktive Akkord-Scheibe.
@@ -20,6 +33,9 @@ import android.view.animation.DecelerateInterpolator;
  */
 public class ChordDiscView extends View {
 
+    private static final String TAG = "ChordDiscView";
+    private static final int BACKGROUND_COLOR = 0xFFF5F5F5;
+
     // Tap-Modi
     public enum TapMode {
         PLAY_CHORD,         // Spiele Akkord
@@ -40,55 +56,19 @@ public class ChordDiscView extends View {
         HARMONIC_MINOR      // Harmonisches Moll
     }
 
-    // Musikalische Daten - 19 Positionen im Quintenzirkel
-    // DEUTSCHE Notation: B = Bb, H = B
-    private static final MusicalPosition[] POSITIONS_DE = {
-        new MusicalPosition("C", true, "0"),
-        new MusicalPosition("C♯", false, "7♯"),
-        new MusicalPosition("D♭", false, "5♭"),
-        new MusicalPosition("D", true, "2♯"),
-        new MusicalPosition("D♯", false, ""),
-        new MusicalPosition("E♭", false, "3♭"),
-        new MusicalPosition("E", true, "4♯"),
-        new MusicalPosition("E♯,F♭", false, ""),
-        new MusicalPosition("F", true, "1♭"),
-        new MusicalPosition("F♯", false, "6♯"),
-        new MusicalPosition("G♭", false, ""),
-        new MusicalPosition("G", true, "1♯"),
-        new MusicalPosition("G♯", false, ""),
-        new MusicalPosition("A♭", false, "4♭"),
-        new MusicalPosition("A", true, "3♯"),
-        new MusicalPosition("A♯", false, ""),
-        new MusicalPosition("B", false, "2♭"),
-        new MusicalPosition("H", true, "5♯"),
-        new MusicalPosition("H♯,C♭", false, "")
-    };
+    // Render-Qualitätsstufen (automatisch nach Bewegung und Frame-Zeit gewählt)
+    public enum RenderQuality {
+        FULL,               // Volle Qualität im Ruhezustand
+        MOTION,             // Während Bewegung: ohne Anti-Aliasing der Kreise, ohne Drehpfeile
+        LOW                 // Bewegung bei zu langsamen Frames: Beschriftung in reduzierter Auflösung
+    }
 
-    // ENGLISCHE Notation: B = B (nicht Bb)
-    private static final MusicalPosition[] POSITIONS_EN = {
-        new MusicalPosition("C", true, "0"),
-        new MusicalPosition("C♯", false, "7♯"),
-        new MusicalPosition("D♭", false, "5♭"),
-        new MusicalPosition("D", true, "2♯"),
-        new MusicalPosition("D♯", false, ""),
-        new MusicalPosition("E♭", false, "3♭"),
-        new MusicalPosition("E", true, "4♯"),
-        new MusicalPosition("E♯,F♭", false, ""),
-        new MusicalPosition("F", true, "1♭"),
-        new MusicalPosition("F♯", false, "6♯"),
-        new MusicalPosition("G♭", false, ""),
-        new MusicalPosition("G", true, "1♯"),
-        new MusicalPosition("G♯", false, ""),
-        new MusicalPosition("A♭", false, "4♭"),
-        new MusicalPosition("A", true, "3♯"),
-        new MusicalPosition("A♯", false, ""),
-        new MusicalPosition("B♭", false, "2♭"),
-        new MusicalPosition("B", true, "5♯"),
-        new MusicalPosition("B♯,C♭", false, "")
-    };
+    // Notation dieser Scheibe (wird je nach Sprache gesetzt), Default: Englisch
+    private boolean germanNotation = false;
 
-    // Aktuelle Notation (wird je nach Sprache gesetzt)
-    private static MusicalPosition[] POSITIONS = POSITIONS_EN; // Default: Englisch
+    // Notennamen für den Beschriftungs-Atlas; Namen und Vorzeichen kommen aus DiscPositions (core)
+    private static final String[] LABELS_DE = noteLabels(true);
+    private static final String[] LABELS_EN = noteLabels(false);
 
     private static final int MAJOR_POS = 0;  // Position für Dur (blau)
     private static final int MINOR_POS = 14; // Position für Moll (rot)
@@ -114,11 +94,11 @@ public class ChordDiscView extends View {
     private float indicatorPositionRadius;
     private float indicatorSize;
 
-    // Rotation der unteren Scheibe in Grad
-    private float bottomDiscRotation = 0f;
+    // Rotation der unteren Scheibe als Festkomma-Winkel (siehe DiscAngle), immer normalisiert
+    private int bottomDiscAngle = 0;
 
     // Touch-Handling
-    private float lastTouchAngle = 0f;
+    private int lastTouchAngle = 0; // DiscAngle-Einheiten
     private boolean isDragging = false;
     private float touchDownX = 0f;
     private float touchDownY = 0f;
@@ -126,8 +106,9 @@ public class ChordDiscView extends View {
 
     // Snap-Animation
     private ValueAnimator snapAnimator;
-    private static final float ANGLE_PER_POSITION = 360f / 19f; // 18.947°
     private static final int SNAP_DURATION_MS = 500; // 0.5 Sekunden
+    private static final int SNAP_TOLERANCE = DiscAngle.UNITS_PER_TURN / 720; // 0.5°: nicht animieren
+    private static final int TAP_ANGLE_TOLERANCE = DiscAngle.UNITS_PER_TURN / 24; // ±15° um die Note
 
     // Audio & Modus
     private ChordPlayer chordPlayer;
@@ -137,6 +118,78 @@ public class ChordDiscView extends View {
     private int highlightedNoteIndex = -1; // -1 = keine Hervorhebung
     private boolean isTopDiscTransparent = false; // Transparenz der oberen Scheibe
 
+    // Gesten-Aufzeichnung zum Profilieren (null = aus)
+    private GestureRecorder gestureRecorder;
+
+    // Übungsstatistik (null = nicht protokollieren, z.B. Offscreen-Views)
+    private PracticeHistory practiceHistory;
+
+    // Render-Qualität
+    private static final float FRAME_BUDGET_MS = 16f; // Budget für einen Frame (60 fps)
+    private RenderQuality renderQuality = RenderQuality.FULL;
+    private RenderQuality qualityOverride = null; // null = automatische Auswahl
+    private RenderQuality motionQuality = RenderQuality.MOTION; // Stufe während Bewegung (laut Geräteprofil)
+    private boolean isRotating = false; // true, sobald ein Drag die Scheibe tatsächlich dreht
+    private float averageDrawMs = 0f; // Gleitender Mittelwert der onDraw-Dauer
+    private int qualityTransitionCount = 0;
+    private boolean countedInMotion = false;
+    private static int viewsInMotion = 0; // Über alle Scheiben, nur UI-Thread
+    private final int[] qualityFrameCounts = new int[RenderQuality.values().length];
+
+    // Caches: gerenderte Layer, Beschriftungs-Atlanten, Rahmen-Pfad und Treffer-Index
+    private DiscCaches caches = new DiscCaches();
+    private DiscCachePool cachePool; // null = eigene bzw. fest gesetzte Caches
+    private Paint atlasPaint;
+    private Paint layerPaint;
+    private Paint framePaint;
+    // Vorab erzeugt: onDraw läuft bei mehreren Scheiben (DiscGridLayout) pro Frame mehrfach
+    private Paint highlightFillPaint;
+    private Paint highlightStrokePaint;
+    private Paint buttonPaint;
+    private Paint buttonStrokePaint;
+    private Paint playTextPaint;
+    private Paint arrowPaint;
+    private Paint arrowHeadPaint;
+    private final android.graphics.Path arrowArcPath = new android.graphics.Path();
+    private final android.graphics.Path arrowHeadPath = new android.graphics.Path();
+    private boolean useLayerCache = true; // false = Layer direkt zeichnen (Geräteprofil)
+    private boolean compact = false;      // Kleine Scheibe im Raster: ohne Drehpfeile
+    private long layerHits = 0;    // Für den Trace-Zähler der Layer-Trefferquote
+    private long layerMisses = 0;
+
+    // Aufwärmen der Caches im Hintergrund nach onSizeChanged
+    private static final ExecutorService WARM_UP_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, "disc-warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Abschluss über den Main-Looper statt View.post: funktioniert auch ohne Fenster (Offscreen-Rendering)
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private final AtomicInteger warmUpGeneration = new AtomicInteger();
+    private final DiscLayerFactory directLayerFactory = new DiscLayerFactory(); // Nur UI-Thread
+    private DiscGeometry geometry;
+    private boolean warmUpPending = false;
+    private long skipWarmUpForState = 0; // Zustand, dessen Layer nicht ins Cache-Budget passen
+    private long sizeChangedNanos = 0;
+    private float firstFrameMs = -1f;     // onSizeChanged → erster fertiger Frame
+    private float fullyCachedMs = -1f;    // onSizeChanged → alle Artefakte im Cache
+    private Runnable cachesReadyListener;  // Einmalig nach dem ersten vollständigen Aufwärmen
+
+    // Live-Resize (Split-Screen, Freiform-Fenster, Falt-Geräte): Während sich die Größe ändert,
+    // werden die Caches der zuletzt gebauten Größe per Matrix skaliert gezeichnet. Erst wenn die
+    // Größe RESIZE_SETTLE_MS stabil ist, werden die Artefakte im Hintergrund neu gebaut und dann
+    // auf einen Schlag übernommen.
+    private static final long RESIZE_SETTLE_MS = 150;
+    private DiscGeometry resizeGeometry;  // Aktuelle View-Größe während des Live-Resize, sonst null
+    private final Matrix resizeMatrix = new Matrix();   // Gebaute Größe → aktuelle Größe
+    private final Matrix resizeInverse = new Matrix();  // Für Touch-Koordinaten
+    private final Runnable settleResize = this::settleResize;
+    private int resizeFrames = 0;
+    private long resizeDrawNanos = 0;
+
     public ChordDiscView(Context context) {
         super(context);
         this.chordPlayer = null;
@@ -168,7 +221,7 @@ public class ChordDiscView extends View {
      * @param useGermanNotation true = Deutsche Notation (B=Bb, H=B), false = Englische Notation (B=B)
      */
     public void setNotationLanguage(boolean useGermanNotation) {
-        POSITIONS = useGermanNotation ? POSITIONS_DE : POSITIONS_EN;
+        germanNotation = useGermanNotation;
         invalidate(); // Neu zeichnen mit neuer Notation
     }
 
@@ -187,20 +240,183 @@ public class ChordDiscView extends View {
         invalidate();
     }
 
+    /**
+     * Übernimmt die Einstellungen des Geräteprofils (Qualität während Bewegung).
+     */
+    public void setDeviceProfile(DeviceProfile profile) {
+        this.motionQuality = profile.motionQuality;
+        this.useLayerCache = profile.useLayerCache;
+        invalidate();
+    }
+
+    /**
+     * Verwendet die übergebenen (z.B. über einen Konfigurationswechsel erhaltenen) Caches.
+     * Muss vor dem ersten Layout aufgerufen werden.
+     */
+    void setDiscCaches(DiscCaches caches) {
+        this.caches = caches;
+        this.cachePool = null;
+    }
+
+    /**
+     * Bezieht die Caches bei jeder Größenänderung aus dem Pool, geteilt mit allen
+     * anderen Scheiben gleicher Größe (z.B. im DiscGridLayout).
+     * Muss vor dem ersten Layout aufgerufen werden.
+     */
+    void setDiscCachePool(DiscCachePool pool) {
+        this.cachePool = pool;
+    }
+
+    /**
+     * Kompakte Darstellung für kleine Scheiben (DiscGridLayout): ohne Drehpfeile.
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+        invalidate();
+    }
+
+    /**
+     * Zeichnet ab jetzt alle Touch-Events auf (null beendet nur die Weitergabe, nicht die Datei).
+     */
+    public void setGestureRecorder(GestureRecorder recorder) {
+        this.gestureRecorder = recorder;
+    }
+
+    /**
+     * Protokolliert ab jetzt jeden per Tippen gespielten Akkord und jede Tonleiter.
+     */
+    public void setPracticeHistory(PracticeHistory history) {
+        this.practiceHistory = history;
+    }
+
+    /**
+     * Rotation der unteren Scheibe in Grad (0 … 360), z.B. für Speicherstände.
+     */
+    public float getBottomDiscRotation() {
+        return DiscAngle.toDegrees(bottomDiscAngle);
+    }
+
+    /**
+     * Setzt die Rotation der unteren Scheibe in Grad ohne Animation (z.B. nach Neuerstellung).
+     */
+    public void setBottomDiscRotation(float rotation) {
+        setBottomDiscAngle(DiscAngle.fromDegrees(rotation));
+    }
+
+    /**
+     * Rotation der unteren Scheibe als Festkomma-Winkel (0 … 65535, siehe DiscAngle).
+     */
+    public int getBottomDiscAngle() {
+        return bottomDiscAngle;
+    }
+
+    public void setBottomDiscAngle(int angle) {
+        if (snapAnimator != null && snapAnimator.isRunning()) {
+            snapAnimator.cancel();
+        }
+        bottomDiscAngle = DiscAngle.normalize(angle);
+        invalidate();
+    }
+
+    public TapMode getTapMode() {
+        return tapMode;
+    }
+
+    public ChordType getChordType() {
+        return chordType;
+    }
+
+    public ScaleType getScaleType() {
+        return scaleType;
+    }
+
+    public boolean isTopDiscTransparent() {
+        return isTopDiscTransparent;
+    }
+
+    /**
+     * Erzwingt eine feste Render-Qualität (z.B. für Screenshots oder Tests).
+     * @param quality feste Qualitätsstufe oder null für automatische Auswahl
+     */
+    public void setRenderQualityOverride(RenderQuality quality) {
+        this.qualityOverride = quality;
+        invalidate();
+    }
+
+    /**
+     * Liefert die zuletzt zum Zeichnen verwendete Qualitätsstufe.
+     */
+    public RenderQuality getRenderQuality() {
+        return renderQuality;
+    }
+
+    /**
+     * Anzahl der Wechsel zwischen Qualitätsstufen seit Erstellung der View.
+     */
+    public int getQualityTransitionCount() {
+        return qualityTransitionCount;
+    }
+
+    /**
+     * Anzahl der gezeichneten Frames in der gegebenen Qualitätsstufe.
+     */
+    public int getQualityFrameCount(RenderQuality quality) {
+        return qualityFrameCounts[quality.ordinal()];
+    }
+
+    /**
+     * Zeit von onSizeChanged bis zum ersten fertig gezeichneten Frame (ms, -1 = noch keiner).
+     */
+    public float getFirstFrameMs() {
+        return firstFrameMs;
+    }
+
+    /**
+     * Zeit von onSizeChanged bis alle Artefakte im Cache sind (ms, -1 = noch nicht fertig).
+     */
+    public float getFullyCachedMs() {
+        return fullyCachedMs;
+    }
+
+    /**
+     * Meldet einmalig (UI-Thread), sobald das Aufwärmen nach dem ersten Layout abgeschlossen ist
+     * und die View ohne direkt gezeichnete Layer dargestellt werden kann.
+     * Ist das bereits der Fall, wird der Listener sofort aufgerufen.
+     */
+    public void setOnCachesReadyListener(Runnable listener) {
+        if (listener != null && geometry != null && isWarmUpComplete()) {
+            listener.run();
+            return;
+        }
+        cachesReadyListener = listener;
+    }
+
     /**
      * Spielt die Tonleiter der aktuell oben stehenden Note (beim blauen Kreis).
      * Wird vom Button aufgerufen.
      */
     public void playCurrentScale() {
         // Berechne welche Note aktuell oben steht (Dur-Position = bei blauem Kreis)
-        float normalizedRotation = -bottomDiscRotation % 360;
-        if (normalizedRotation < 0) normalizedRotation += 360;
-        int currentNote = Math.round(normalizedRotation / ANGLE_PER_POSITION) % 19;
+        int currentNote = getCurrentNoteIndex();
 
         // Spiele Tonleiter dieser Note
         playScaleForNote(currentNote);
     }
 
+    /**
+     * Dreht die Scheibe animiert, sodass die Tonart noteIndex (0-18) oben beim Indikator steht.
+     */
+    public void animateToNote(int noteIndex) {
+        rotateToNote(noteIndex);
+    }
+
+    /**
+     * Position (0-18) der Note, die aktuell oben beim Indikator steht.
+     */
+    public int getCurrentNoteIndex() {
+        return DiscAngle.topPosition(bottomDiscAngle);
+    }
+
     private void initPaints() {
         // Haupt-Kreis (schwarz)
         circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -251,28 +467,358 @@ public class ChordDiscView extends View {
         // Clear-Paint für echte transparente Löcher
         clearPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         clearPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+
+        // Beschriftung aus dem Atlas (gefiltert, da der LOW-Atlas hochskaliert wird)
+        atlasPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        // Gecachte Layer (gefiltert, da die untere Scheibe rotiert gezeichnet wird)
+        layerPaint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.ANTI_ALIAS_FLAG);
+
+        // Rahmen-Pfad in Hintergrundfarbe
+        framePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        framePaint.setColor(BACKGROUND_COLOR);
+        framePaint.setStyle(Paint.Style.FILL);
+
+        // Hervorhebung der gespielten Note (halbtransparent gefüllt, dicker Ring)
+        highlightFillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        highlightFillPaint.setColor(Color.YELLOW);
+        highlightFillPaint.setStyle(Paint.Style.FILL);
+        highlightFillPaint.setAlpha(180);
+        highlightStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        highlightStrokePaint.setColor(Color.YELLOW);
+        highlightStrokePaint.setStyle(Paint.Style.STROKE);
+        highlightStrokePaint.setStrokeWidth(10f);
+
+        // Play-Button (grün, dunkler Umriss, weißes Symbol)
+        buttonPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        buttonPaint.setColor(Color.parseColor("#4CAF50"));
+        buttonPaint.setStyle(Paint.Style.FILL);
+        buttonStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        buttonStrokePaint.setColor(Color.BLACK);
+        buttonStrokePaint.setStyle(Paint.Style.STROKE);
+        buttonStrokePaint.setStrokeWidth(4f);
+        playTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        playTextPaint.setColor(Color.WHITE);
+        playTextPaint.setTextAlign(Paint.Align.CENTER);
+        playTextPaint.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
+
+        // Drehpfeile (halbtransparent grau); Pfeilspitze doppelt so groß für bessere Sichtbarkeit
+        arrowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        arrowPaint.setColor(Color.argb(180, 80, 80, 80));
+        arrowPaint.setStyle(Paint.Style.STROKE);
+        arrowPaint.setStrokeWidth(6f);
+        arrowPaint.setStrokeCap(Paint.Cap.ROUND);
+        arrowHeadPaint = new Paint(arrowPaint);
+        arrowHeadPaint.setStyle(Paint.Style.FILL);
+        arrowHeadPath.moveTo(0, -24);
+        arrowHeadPath.lineTo(-16, 16);
+        arrowHeadPath.lineTo(16, 16);
+        arrowHeadPath.close();
     }
 
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
+        if (gestureRecorder != null) {
+            gestureRecorder.recordSize(w, h);
+        }
 
+        DiscGeometry next = DiscGeometry.forSize(w, h);
+        if (resizeGeometry != null || canScaleForResize(next)) {
+            scaleForResize(next);
+            return;
+        }
+        applyGeometry(next);
+    }
+
+    /**
+     * Übernimmt die Geometrie: Maße, Textgrößen und Caches der Größenklasse; fehlende
+     * Artefakte werden im Hintergrund gebaut.
+     */
+    private void applyGeometry(DiscGeometry next) {
         // Berechne Dimensionen basierend auf Bildschirmgröße
-        centerX = w / 2f;
-        centerY = h / 2f;
-
-        // Verwende 96% der kleineren Dimension für den Radius (volle Breite nutzen)
-        float minDimension = Math.min(w, h);
-        outerRadius = minDimension * 0.48f;
-        innerRadius = outerRadius * 0.05f;
-        noteCircleRadius = outerRadius * 0.13f;
-        notePositionRadius = outerRadius * 0.80f;
-        indicatorPositionRadius = outerRadius * 0.55f;
-        indicatorSize = outerRadius / 9f * 1.5f;
+        geometry = next;
+        if (cachePool != null && next.width > 0 && next.height > 0) {
+            caches = cachePool.obtain(geometry);
+        }
+        centerX = geometry.centerX;
+        centerY = geometry.centerY;
+        outerRadius = geometry.outerRadius;
+        innerRadius = geometry.innerRadius;
+        noteCircleRadius = geometry.noteCircleRadius;
+        notePositionRadius = geometry.notePositionRadius;
+        indicatorPositionRadius = geometry.indicatorPositionRadius;
+        indicatorSize = geometry.indicatorSize;
 
         // Passe Textgrößen an
-        textPaint.setTextSize(outerRadius * 0.12f);
-        textPaintSmall.setTextSize(outerRadius * 0.09f);
+        textPaint.setTextSize(geometry.textSize);
+        textPaintSmall.setTextSize(geometry.textSizeSmall);
+
+        // Messung: erster Frame und vollständiger Cache ab jetzt
+        sizeChangedNanos = System.nanoTime();
+        firstFrameMs = -1f;
+        fullyCachedMs = -1f;
+
+        // Aufwändige Artefakte im Hintergrund bauen, bis dahin wird direkt gezeichnet
+        startWarmUp();
+    }
+
+    /**
+     * Skalieren statt neu bauen lohnt sich, wenn die bisherige Größe vollständig gecacht ist.
+     * Views mit eigenen Caches (Offscreen-Prüfungen) übernehmen jede Größe sofort.
+     */
+    private boolean canScaleForResize(DiscGeometry next) {
+        return cachePool != null && geometry != null && geometry.width > 0 && geometry.height > 0
+            && next.width > 0 && next.height > 0 && isWarmUpComplete();
+    }
+
+    /**
+     * Zwischengröße während eines Live-Resize: nur die Matrix anpassen und die Übernahme
+     * der Größe bis zur Ruhe verschieben.
+     */
+    private void scaleForResize(DiscGeometry next) {
+        MAIN_HANDLER.removeCallbacks(settleResize);
+        // Ein laufender Neubau für eine Zwischengröße ist überholt
+        warmUpGeneration.incrementAndGet();
+        warmUpPending = false;
+
+        if (next.sameSize(geometry) || next.width == 0 || next.height == 0) {
+            resizeGeometry = null; // Zurück auf der gebauten Größe (oder unsichtbar)
+            if (!next.sameSize(geometry)) {
+                applyGeometry(next);
+            }
+            invalidate();
+            return;
+        }
+        if (resizeGeometry == null) {
+            resizeFrames = 0;
+            resizeDrawNanos = 0;
+        }
+        resizeGeometry = next;
+        float scale = next.outerRadius / geometry.outerRadius;
+        resizeMatrix.setScale(scale, scale);
+        resizeMatrix.postTranslate(next.centerX - geometry.centerX * scale, next.centerY - geometry.centerY * scale);
+        resizeMatrix.invert(resizeInverse);
+        MAIN_HANDLER.postDelayed(settleResize, RESIZE_SETTLE_MS);
+        invalidate();
+    }
+
+    /**
+     * Größe ist stabil: Artefakte für sie im Hintergrund bauen, weiter skaliert zeichnen.
+     */
+    private void settleResize() {
+        if (resizeGeometry != null) {
+            startWarmUp(resizeGeometry, cachePool.obtain(resizeGeometry));
+        }
+    }
+
+    /**
+     * Neubau für die stabile Größe fertig: Größe übernehmen, ab jetzt wieder ohne Matrix.
+     */
+    private void finishResize() {
+        DiscGeometry target = resizeGeometry;
+        resizeGeometry = null;
+        if (resizeFrames > 0) {
+            Log.i(TAG, String.format(Locale.US, "Live-Resize: %d Frames skaliert, Ø %.2f ms",
+                resizeFrames, resizeDrawNanos / 1_000_000f / resizeFrames));
+        }
+        applyGeometry(target);
+        invalidate();
+    }
+
+    /**
+     * Baut die größenabhängigen Artefakte auf einem Hintergrund-Thread:
+     * Layer der oberen Scheibe, Rahmen-Pfad, Körper der unteren Scheibe,
+     * Beschriftungs-Atlanten und Treffer-Index. Jedes Artefakt wird sofort nach
+     * Fertigstellung atomar eingesetzt; bis dahin zeichnet onDraw direkt.
+     */
+    private void startWarmUp() {
+        startWarmUp(geometry, caches);
+    }
+
+    /**
+     * Aufwärmen für eine bestimmte Geometrie, auch eine noch nicht übernommene (Live-Resize).
+     */
+    private void startWarmUp(final DiscGeometry warmGeometry, final DiscCaches warmCaches) {
+        if (warmGeometry == null || warmGeometry.width == 0 || warmGeometry.height == 0) {
+            return;
+        }
+
+        // Zustand auf dem UI-Thread festhalten (Paints und Felder ändern sich hier)
+        final int generation = warmUpGeneration.incrementAndGet();
+        final boolean withLayers = useLayerCache;
+        final long topKey = topDiscLayerKey(warmGeometry);
+        final boolean[] holes = holeMask();
+        final int discColor = topDiscPaint.getColor();
+        final long labelKey = labelAtlasKey(warmGeometry.textSize);
+        final String[] labels = germanNotation ? LABELS_DE : LABELS_EN;
+        final Paint labelPaint = new Paint(textPaint);
+        labelPaint.setTextSize(warmGeometry.textSize);
+        warmUpPending = true;
+
+        WARM_UP_EXECUTOR.execute(() -> {
+            DiscLayerFactory factory = new DiscLayerFactory();
+
+            if (withLayers && warmCaches.topDiscLayer.get(topKey) == null) {
+                long start = System.nanoTime();
+                Bitmap layer = factory.createTopDiscLayer(warmGeometry, holes, discColor);
+                warmCaches.topDiscLayer.put(topKey, layer, System.nanoTime() - start);
+                postInvalidate();
+            }
+            if (warmUpGeneration.get() != generation) return; // Überholt
+
+            DiscLayerFactory.FrameShape frame = warmCaches.frameShape;
+            if (frame == null || !frame.geometry.sameSize(warmGeometry)) {
+                warmCaches.frameShape = factory.createFrameShape(warmGeometry);
+                postInvalidate();
+            }
+            if (warmUpGeneration.get() != generation) return;
+
+            if (withLayers && warmCaches.bottomDiscLayer.get(warmGeometry.sizeKey()) == null) {
+                long start = System.nanoTime();
+                Bitmap body = factory.createBottomDiscBody(warmGeometry);
+                warmCaches.bottomDiscLayer.put(warmGeometry.sizeKey(), body, System.nanoTime() - start);
+                postInvalidate();
+            }
+            if (warmUpGeneration.get() != generation) return;
+
+            if (withLayers) {
+                if (warmCaches.labelAtlas.peek(labelKey) == null) {
+                    warmCaches.labelAtlas.build(labelKey, labels, labelPaint);
+                }
+                if (warmCaches.labelAtlasLow.peek(labelKey) == null) {
+                    warmCaches.labelAtlasLow.build(labelKey, labels, labelPaint);
+                }
+                postInvalidate();
+            }
+            if (warmUpGeneration.get() != generation) return;
+
+            HitTestIndex index = warmCaches.hitTestIndex;
+            if (index == null || !index.geometry.sameSize(warmGeometry)) {
+                warmCaches.hitTestIndex = new HitTestIndex(warmGeometry);
+            }
+
+            MAIN_HANDLER.post(() -> onWarmUpFinished(generation, warmGeometry));
+        });
+    }
+
+    /**
+     * Abschluss des Aufwärmens (UI-Thread): Messwert festhalten. Fehlen danach noch Artefakte,
+     * passen sie nicht ins Cache-Budget; für diesen Zustand wird dann nicht erneut aufgewärmt.
+     */
+    private void onWarmUpFinished(int generation, DiscGeometry warmGeometry) {
+        if (generation != warmUpGeneration.get()) {
+            return;
+        }
+        warmUpPending = false;
+        if (resizeGeometry != null && warmGeometry.sameSize(resizeGeometry)) {
+            finishResize();
+            return;
+        }
+
+        if (needsWarmUp()) {
+            skipWarmUpForState = warmUpStateKey();
+        } else if (fullyCachedMs < 0) {
+            fullyCachedMs = (System.nanoTime() - sizeChangedNanos) / 1_000_000f;
+            Log.i(TAG, "Caches bereit nach " + fullyCachedMs + " ms (erster Frame nach "
+                + firstFrameMs + " ms)");
+        }
+        invalidate();
+
+        // Auch bei nicht ins Budget passenden Layern melden, sonst bliebe der Platzhalter stehen
+        if (cachesReadyListener != null) {
+            Runnable listener = cachesReadyListener;
+            cachesReadyListener = null;
+            listener.run();
+        }
+    }
+
+    /**
+     * true, wenn für den aktuellen Zustand noch Artefakte fehlen
+     * (z.B. nach Wechsel von Tonleiter/Notation oder nach Räumung durch die CacheRegistry).
+     */
+    private boolean needsWarmUp() {
+        DiscLayerFactory.FrameShape frame = caches.frameShape;
+        HitTestIndex index = caches.hitTestIndex;
+        if (frame == null || !frame.geometry.sameSize(geometry)
+                || index == null || !index.geometry.sameSize(geometry)) {
+            return true;
+        }
+        if (!useLayerCache) {
+            return false;
+        }
+        long labelKey = labelAtlasKey();
+        return caches.topDiscLayer.get(topDiscLayerKey()) == null
+            || caches.bottomDiscLayer.get(geometry.sizeKey()) == null
+            || caches.labelAtlas.peek(labelKey) == null
+            || caches.labelAtlasLow.peek(labelKey) == null;
+    }
+
+    /**
+     * true, wenn kein Aufwärmen läuft und alle (ins Budget passenden) Artefakte bereitstehen.
+     */
+    boolean isWarmUpComplete() {
+        return !warmUpPending && (!needsWarmUp() || warmUpStateKey() == skipWarmUpForState);
+    }
+
+    /**
+     * true bei deutscher Notation (B = Bb, H = B).
+     */
+    public boolean isGermanNotation() {
+        return germanNotation;
+    }
+
+    private long warmUpStateKey() {
+        return topDiscLayerKey() * 31 + labelAtlasKey();
+    }
+
+    /**
+     * Schlüssel des Layers der oberen Scheibe: Größe, Tonleiter-Typ und Transparenz.
+     */
+    private long topDiscLayerKey() {
+        return topDiscLayerKey(geometry);
+    }
+
+    private long topDiscLayerKey(DiscGeometry geometry) {
+        return ((long) geometry.width << 32) | ((long) geometry.height << 16)
+            | (scaleType.ordinal() << 1) | (isTopDiscTransparent ? 1 : 0);
+    }
+
+    /**
+     * Schlüssel der Beschriftungs-Atlanten: Textgröße und Notation.
+     */
+    private long labelAtlasKey() {
+        return labelAtlasKey(textPaint.getTextSize());
+    }
+
+    private long labelAtlasKey(float textSize) {
+        return ((long) Float.floatToIntBits(textSize) << 1)
+            | (germanNotation ? 1 : 0);
+    }
+
+    /**
+     * Lochmaske der oberen Scheibe für den aktuellen Tonleiter-Typ.
+     */
+    private boolean[] holeMask() {
+        boolean[] holes = new boolean[19];
+        for (int i = 0; i < 19; i++) {
+            holes[i] = shouldShowHole(i);
+        }
+        return holes;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (getDisplay() != null) {
+            PerfMetrics.get().setRefreshRate(getDisplay().getRefreshRate());
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        updateFrameMonitoring(false);
+        super.onDetachedFromWindow();
     }
 
     @Override
@@ -281,36 +827,155 @@ public class ChordDiscView extends View {
 
         if (outerRadius == 0) return; // Noch nicht initialisiert
 
+        PerfTrace.begin("ChordDiscView.onDraw");
+        PerfMetrics metrics = PerfMetrics.get();
+        long drawStart = System.nanoTime();
+        updateRenderQuality();
+
+        // Frame-Abstände nur während Bewegung messen (sonst zeichnet die View nicht kontinuierlich)
+        updateFrameMonitoring(isInMotion());
+
         // Hintergrund
-        canvas.drawColor(Color.parseColor("#F5F5F5"));
+        canvas.drawColor(BACKGROUND_COLOR);
+
+        // Live-Resize: in der gebauten Größe zeichnen und auf die aktuelle skalieren
+        int resizeSaveCount = -1;
+        if (resizeGeometry != null) {
+            resizeSaveCount = canvas.save();
+            canvas.concat(resizeMatrix);
+            canvas.clipRect(0, 0, geometry.width, geometry.height);
+        }
 
         // Zeichne untere (drehbare) Scheibe
+        PerfTrace.begin("ChordDiscView.drawBottomDisc");
         drawBottomDisc(canvas);
+        PerfTrace.end();
+        long stageEnd = System.nanoTime();
+        metrics.recordDrawStage(PerfMetrics.DrawStage.BOTTOM_DISC, stageEnd - drawStart);
+        long stageStart = stageEnd;
 
         // Zeichne obere (feste) Scheibe mit Löchern
+        PerfTrace.begin("ChordDiscView.drawTopDisc");
         drawTopDisc(canvas);
+        PerfTrace.end();
+        stageEnd = System.nanoTime();
+        metrics.recordDrawStage(PerfMetrics.DrawStage.TOP_DISC, stageEnd - stageStart);
+        stageStart = stageEnd;
 
         // Zeichne opaken Rahmen um die Scheiben, um herausragende Texte zu verdecken
+        PerfTrace.begin("ChordDiscView.drawOpaqueFrame");
         drawOpaqueFrame(canvas);
+        PerfTrace.end();
+        stageEnd = System.nanoTime();
+        metrics.recordDrawStage(PerfMetrics.DrawStage.FRAME, stageEnd - stageStart);
+        stageStart = stageEnd;
 
         // Zeichne zentralen Play-Button über allem
+        PerfTrace.begin("ChordDiscView.drawCentralPlayButton");
         drawCentralPlayButton(canvas);
+        PerfTrace.end();
+        stageEnd = System.nanoTime();
+        metrics.recordDrawStage(PerfMetrics.DrawStage.BUTTON, stageEnd - stageStart);
+        stageStart = stageEnd;
+
+        // Zeichne Drehpfeile als Hinweis (nur in voller Qualität, während Bewegung dekorativ)
+        if (renderQuality == RenderQuality.FULL && !compact) {
+            PerfTrace.begin("ChordDiscView.drawRotationArrows");
+            drawRotationArrows(canvas);
+            PerfTrace.end();
+            stageEnd = System.nanoTime();
+            metrics.recordDrawStage(PerfMetrics.DrawStage.ARROWS, stageEnd - stageStart);
+        }
+
+        if (resizeSaveCount >= 0) {
+            canvas.restoreToCount(resizeSaveCount);
+            resizeFrames++;
+            resizeDrawNanos += stageEnd - drawStart;
+        }
+
+        // Gleitender Mittelwert der Zeichendauer für die Qualitätsauswahl
+        long drawEnd = stageEnd;
+        metrics.recordDrawStage(PerfMetrics.DrawStage.TOTAL, drawEnd - drawStart);
+        float drawMs = (drawEnd - drawStart) / 1_000_000f;
+        averageDrawMs = averageDrawMs == 0f ? drawMs : averageDrawMs * 0.8f + drawMs * 0.2f;
+
+        if (firstFrameMs < 0) {
+            firstFrameMs = (drawEnd - sizeChangedNanos) / 1_000_000f;
+        }
+
+        // Fehlende Artefakte (z.B. nach Tonleiter-Wechsel oder Räumung) im Hintergrund nachbauen
+        if (resizeGeometry == null && !warmUpPending && needsWarmUp() && warmUpStateKey() != skipWarmUpForState) {
+            startWarmUp();
+        }
+        PerfTrace.end();
+    }
+
+    /**
+     * Misst Frame-Abstände, solange sich mindestens eine Scheibe bewegt
+     * (bei mehreren Scheiben darf eine ruhende die Messung nicht abschalten).
+     */
+    private void updateFrameMonitoring(boolean inMotion) {
+        if (inMotion == countedInMotion) {
+            return;
+        }
+        countedInMotion = inMotion;
+        viewsInMotion += inMotion ? 1 : -1;
+        PerfMetrics.get().setFrameMonitoring(viewsInMotion > 0);
+    }
 
-        // Zeichne Drehpfeile als Hinweis
-        drawRotationArrows(canvas);
+    /**
+     * Wählt die Qualitätsstufe anhand von Bewegungszustand und gemessener Zeichendauer
+     * und passt die Paint-Objekte bei einem Wechsel an.
+     */
+    private void updateRenderQuality() {
+        RenderQuality quality;
+        if (qualityOverride != null) {
+            quality = qualityOverride;
+        } else if (!isInMotion()) {
+            quality = RenderQuality.FULL;
+        } else if (averageDrawMs > FRAME_BUDGET_MS) {
+            quality = RenderQuality.LOW;
+        } else {
+            quality = motionQuality;
+        }
+
+        if (quality != renderQuality) {
+            renderQuality = quality;
+            qualityTransitionCount++;
+            applyRenderQuality(quality);
+        }
+        qualityFrameCounts[quality.ordinal()]++;
+    }
+
+    /**
+     * Schaltet Anti-Aliasing der Kreise (und bei LOW ohne Atlas auch der Texte) ein oder aus.
+     * Die obere Scheibe ist ein gecachter Layer und behält immer volle Qualität.
+     */
+    private void applyRenderQuality(RenderQuality quality) {
+        boolean shapesAntiAlias = quality == RenderQuality.FULL;
+        boolean textAntiAlias = quality != RenderQuality.LOW;
+
+        circlePaint.setAntiAlias(shapesAntiAlias);
+        holePaint.setAntiAlias(shapesAntiAlias);
+        majorPaint.setAntiAlias(shapesAntiAlias);
+        minorPaint.setAntiAlias(shapesAntiAlias);
+        rectPaint.setAntiAlias(shapesAntiAlias);
+
+        textPaint.setAntiAlias(textAntiAlias);
+        textPaintSmall.setAntiAlias(textAntiAlias);
+    }
+
+    /**
+     * true, solange die Scheibe per Drag oder Snap-Animation bewegt wird.
+     */
+    private boolean isInMotion() {
+        return isRotating || (snapAnimator != null && snapAnimator.isRunning());
     }
 
     /**
      * Zeichnet zwei gebogene Doppelpfeile als Hinweis zum Drehen der Scheibe
      */
     private void drawRotationArrows(Canvas canvas) {
-        // Paint für die Pfeile (halbtransparent grau)
-        Paint arrowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        arrowPaint.setColor(Color.argb(180, 80, 80, 80));
-        arrowPaint.setStyle(Paint.Style.STROKE);
-        arrowPaint.setStrokeWidth(6f);
-        arrowPaint.setStrokeCap(Paint.Cap.ROUND);
-
         // Radius für die Pfeile (zwischen innerem Button und Noten)
         float arrowRadius = (innerRadius * 4f + notePositionRadius) / 2f;
 
@@ -318,9 +983,9 @@ public class ChordDiscView extends View {
         // In Android: 0° = rechts, 90° = unten, 180° = links, 270° = oben
         canvas.save();
         canvas.translate(centerX, centerY);
-        android.graphics.Path leftArrow = new android.graphics.Path();
-        leftArrow.addArc(-arrowRadius, -arrowRadius, arrowRadius, arrowRadius, 150, 60);
-        canvas.drawPath(leftArrow, arrowPaint);
+        arrowArcPath.reset();
+        arrowArcPath.addArc(-arrowRadius, -arrowRadius, arrowRadius, arrowRadius, 150, 60);
+        canvas.drawPath(arrowArcPath, arrowPaint);
         canvas.restore();
 
         // Linke Pfeilspitze bei 150° (oberes Ende, zeigt nach unten/cw)
@@ -329,7 +994,7 @@ public class ChordDiscView extends View {
         canvas.rotate(150);
         canvas.translate(arrowRadius, 0);
         canvas.rotate(0);  // 90° - 90° = 0°
-        drawArrowHead(canvas, arrowPaint);
+        drawArrowHead(canvas);
         canvas.restore();
 
         // Linke Pfeilspitze bei 210° (unteres Ende, zeigt nach oben/ccw)
@@ -338,15 +1003,15 @@ public class ChordDiscView extends View {
         canvas.rotate(210);
         canvas.translate(arrowRadius, 0);
         canvas.rotate(-180);  // -90° - 90° = -180°
-        drawArrowHead(canvas, arrowPaint);
+        drawArrowHead(canvas);
         canvas.restore();
 
         // RECHTER Bogen: Von -30° bis +30° (rechte Seite)
         canvas.save();
         canvas.translate(centerX, centerY);
-        android.graphics.Path rightArrow = new android.graphics.Path();
-        rightArrow.addArc(-arrowRadius, -arrowRadius, arrowRadius, arrowRadius, -30, 60);
-        canvas.drawPath(rightArrow, arrowPaint);
+        arrowArcPath.reset();
+        arrowArcPath.addArc(-arrowRadius, -arrowRadius, arrowRadius, arrowRadius, -30, 60);
+        canvas.drawPath(arrowArcPath, arrowPaint);
         canvas.restore();
 
         // Rechte Pfeilspitze bei -30° (oberes Ende, zeigt nach unten/cw)
@@ -355,7 +1020,7 @@ public class ChordDiscView extends View {
         canvas.rotate(-30);
         canvas.translate(arrowRadius, 0);
         canvas.rotate(0);  // 90° - 90° = 0°
-        drawArrowHead(canvas, arrowPaint);
+        drawArrowHead(canvas);
         canvas.restore();
 
         // Rechte Pfeilspitze bei 30° (unteres Ende, zeigt nach oben/ccw)
@@ -364,24 +1029,15 @@ public class ChordDiscView extends View {
         canvas.rotate(30);
         canvas.translate(arrowRadius, 0);
         canvas.rotate(-180);  // -90° - 90° = -180°
-        drawArrowHead(canvas, arrowPaint);
+        drawArrowHead(canvas);
         canvas.restore();
     }
 
     /**
      * Zeichnet eine Pfeilspitze (doppelt so groß für bessere Sichtbarkeit)
      */
-    private void drawArrowHead(Canvas canvas, Paint paint) {
-        android.graphics.Path arrowHead = new android.graphics.Path();
-        arrowHead.moveTo(0, -24);    // Spitze (doppelt so lang: 24 statt 12)
-        arrowHead.lineTo(-16, 16);   // Links (doppelt so breit: 16 statt 8)
-        arrowHead.lineTo(16, 16);    // Rechts (doppelt so breit: 16 statt 8)
-        arrowHead.close();
-
-        Paint fillPaint = new Paint(paint);
-        fillPaint.setStyle(Paint.Style.FILL);
-        fillPaint.setColor(Color.argb(180, 80, 80, 80)); // Gleiche Farbe wie Linie
-        canvas.drawPath(arrowHead, fillPaint);
+    private void drawArrowHead(Canvas canvas) {
+        canvas.drawPath(arrowHeadPath, arrowHeadPaint);
     }
 
     /**
@@ -394,25 +1050,12 @@ public class ChordDiscView extends View {
         // Button-Radius (größer als innerRadius)
         float buttonRadius = innerRadius * 4f;
 
-        // Button-Hintergrund (grün)
-        Paint buttonPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        buttonPaint.setColor(Color.parseColor("#4CAF50")); // Grün
-        buttonPaint.setStyle(Paint.Style.FILL);
+        // Button-Hintergrund (grün) und Umriss (dunkel)
         canvas.drawCircle(0, 0, buttonRadius, buttonPaint);
-
-        // Button-Umriss (dunkel)
-        Paint buttonStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        buttonStrokePaint.setColor(Color.BLACK);
-        buttonStrokePaint.setStyle(Paint.Style.STROKE);
-        buttonStrokePaint.setStrokeWidth(4f);
         canvas.drawCircle(0, 0, buttonRadius, buttonStrokePaint);
 
         // Play-Symbol (▶) - großer Text
-        Paint playTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        playTextPaint.setColor(Color.WHITE);
         playTextPaint.setTextSize(buttonRadius * 1.2f);
-        playTextPaint.setTextAlign(Paint.Align.CENTER);
-        playTextPaint.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
 
         // Zeichne das Play-Symbol leicht nach rechts versetzt (wegen Dreieck-Form)
         canvas.drawText("▶", buttonRadius * 0.1f, playTextPaint.getTextSize() * 0.35f, playTextPaint);
@@ -424,50 +1067,56 @@ public class ChordDiscView extends View {
      * Zeichnet die untere drehbare Scheibe mit allen 19 Notenpositionen
      */
     private void drawBottomDisc(Canvas canvas) {
+        LabelAtlas.Sprites labels = obtainLabelSprites();
+        Bitmap body = useLayerCache ? caches.bottomDiscLayer.get(geometry.sizeKey()) : null;
+        countLayerLookup(body);
+
+        float rotationDegrees = DiscAngle.toDegrees(bottomDiscAngle);
         canvas.save();
         canvas.translate(centerX, centerY);
-        canvas.rotate(bottomDiscRotation);
+        canvas.rotate(rotationDegrees);
 
-        // Äußerer Kreis
-        canvas.drawCircle(0, 0, outerRadius, circlePaint);
+        if (body != null) {
+            // Gecachter Körper (alle Kreise), nur noch rotiert
+            canvas.drawBitmap(body, -body.getWidth() / 2f, -body.getHeight() / 2f, layerPaint);
+        } else {
+            // Äußerer Kreis
+            canvas.drawCircle(0, 0, outerRadius, circlePaint);
 
-        // Innerer kleiner Kreis (Zentrum)
-        canvas.drawCircle(0, 0, innerRadius, circlePaint);
+            // Innerer kleiner Kreis (Zentrum)
+            canvas.drawCircle(0, 0, innerRadius, circlePaint);
+        }
 
         // Zeichne alle 19 Noten-Positionen
         for (int i = 0; i < 19; i++) {
-            float angle = 360f / 19f * i;
+            float angle = DiscAngle.positionDegrees(i);
             canvas.save();
             canvas.rotate(angle);
             canvas.translate(0, -notePositionRadius);
 
-            // Kreis für die Note
-            canvas.drawCircle(0, 0, noteCircleRadius, holePaint);
-            canvas.drawCircle(0, 0, noteCircleRadius, circlePaint);
+            // Kreis für die Note (im gecachten Körper bereits enthalten)
+            if (body == null) {
+                canvas.drawCircle(0, 0, noteCircleRadius, holePaint);
+                canvas.drawCircle(0, 0, noteCircleRadius, circlePaint);
+            }
 
             // Visuelle Hervorhebung für aktuell gespielte Note (Tonleiter-Modus)
             if (i == highlightedNoteIndex) {
-                // Gelber Hintergrund (gefüllt)
-                Paint highlightFillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-                highlightFillPaint.setColor(Color.YELLOW);
-                highlightFillPaint.setStyle(Paint.Style.FILL);
-                highlightFillPaint.setAlpha(180); // Halbtransparent für bessere Sichtbarkeit
+                // Gelber Hintergrund (gefüllt) und gelber Ring (Umriss)
                 canvas.drawCircle(0, 0, noteCircleRadius * 1.4f, highlightFillPaint);
-
-                // Gelber Ring (Umriss)
-                Paint highlightStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-                highlightStrokePaint.setColor(Color.YELLOW);
-                highlightStrokePaint.setStyle(Paint.Style.STROKE);
-                highlightStrokePaint.setStrokeWidth(10f); // Dicker für bessere Sichtbarkeit
                 canvas.drawCircle(0, 0, noteCircleRadius * 1.5f, highlightStrokePaint);
             }
 
             // Text - rotiert zurück, damit er immer aufrecht steht
             canvas.save();
-            canvas.rotate(-angle - bottomDiscRotation);
+            canvas.rotate(-angle - rotationDegrees);
 
-            // Notenname
-            canvas.drawText(POSITIONS[i].note, 0, textPaint.getTextSize() * 0.3f, textPaint);
+            // Notenname (aus dem Atlas oder direkt)
+            if (labels != null) {
+                labels.draw(canvas, i, atlasPaint);
+            } else {
+                canvas.drawText(DiscPositions.note(i, germanNotation), 0, textPaint.getTextSize() * 0.3f, textPaint);
+            }
 
             canvas.restore();
             canvas.restore();
@@ -479,18 +1128,13 @@ public class ChordDiscView extends View {
         canvas.save();
         canvas.translate(centerX, centerY);
 
-        // Berechne, welche Note beim Indikator steht (oben bei 0°)
-        // Bei bottomDiscRotation = -X° ist Note X oben (wegen canvas.rotate im Uhrzeigersinn)
-        float normalizedRotation = -bottomDiscRotation % 360;
-        if (normalizedRotation < 0) normalizedRotation += 360;
-
-        // Finde die Note, die am nächsten bei 0° (oben) steht
-        float anglePerPosition = 360f / 19f;
-        int indicatorNoteIndex = Math.round(normalizedRotation / anglePerPosition) % 19;
+        // Note, die beim Indikator (oben bei 0°) am nächsten steht
+        int indicatorNoteIndex = DiscAngle.topPosition(bottomDiscAngle);
 
         // Zeichne Vorzeichen der aktuellen Note beim Indikator
-        if (!POSITIONS[indicatorNoteIndex].sharpFlat.isEmpty()) {
-            canvas.drawText(POSITIONS[indicatorNoteIndex].sharpFlat, 0,
+        String sharpFlat = DiscPositions.sharpFlat(indicatorNoteIndex);
+        if (!sharpFlat.isEmpty()) {
+            canvas.drawText(sharpFlat, 0,
                 -indicatorPositionRadius + indicatorSize * 0.1f,
                 textPaintSmall);
         }
@@ -498,86 +1142,86 @@ public class ChordDiscView extends View {
         canvas.restore();
     }
 
+    /**
+     * Liefert die Beschriftungs-Sprites für die aktuelle Notation und Textgröße
+     * (bei LOW aus dem Atlas mit reduzierter Auflösung).
+     * @return Sprites oder null, wenn (noch) direkt gezeichnet wird
+     */
+    private LabelAtlas.Sprites obtainLabelSprites() {
+        if (!useLayerCache) {
+            return null;
+        }
+        LabelAtlas atlas = renderQuality == RenderQuality.LOW ? caches.labelAtlasLow : caches.labelAtlas;
+        return atlas.peek(labelAtlasKey());
+    }
+
+    /**
+     * Beschriftungen der 19 Positionen in der aktuellen Notation (z.B. für Dateinamen beim Export).
+     */
+    public String[] getNoteLabels() {
+        return (germanNotation ? LABELS_DE : LABELS_EN).clone();
+    }
+
+    private static String[] noteLabels(boolean german) {
+        String[] labels = new String[19];
+        for (int i = 0; i < 19; i++) {
+            labels[i] = DiscPositions.note(i, german);
+        }
+        return labels;
+    }
+
     /**
      * Bestimmt ob an Position i ein Loch gezeichnet werden soll,
      * basierend auf dem gewählten Tonleiter-Typ.
      * Die Löcher sind FEST wie die obere Scheibe, unabhängig von der Rotation!
      */
     private boolean shouldShowHole(int position) {
-        // Bei Dur: Original-Löcher aus POSITIONS array
-        if (scaleType == ScaleType.MAJOR) {
-            return POSITIONS[position].hole;
-        }
-
-        // Bei Moll: Feste Löcher für Moll-Tonleitern
-        // Diese Positionen entsprechen den Noten einer Moll-Tonleiter ausgehend von Position 0 (C)
-        // Wenn C-Moll bei C oben steht, zeigen die Löcher: C, D, Eb, F, G, Ab, Bb
-
-        if (scaleType == ScaleType.NATURAL_MINOR) {
-            // Natürliches Moll ausgehend von C (Position 0):
-            // C(0), D(3), Eb(5), F(8), G(11), Ab(13), Bb(16)
-            // 7 Noten + C oben = 8 Löcher
-            int[] naturalMinorHoles = {0, 3, 5, 8, 11, 13, 16};
-            for (int hole : naturalMinorHoles) {
-                if (position == hole) return true;
-            }
-            return false;
+        // Feste Loch-Sätze ausgehend von Position 0 (C oben), gemeinsam mit den Vorlagen in core
+        return toDiscScale(scaleType).isHole(position);
+    }
 
-        } else { // HARMONIC_MINOR
-            // Harmonisches Moll ausgehend von C (Position 0):
-            // C(0), D(3), Eb(5), F(8), G(11), Ab(13), H(17)
-            // 7 Noten + C oben = 8 Löcher (H statt Bb!)
-            int[] harmonicMinorHoles = {0, 3, 5, 8, 11, 13, 17};
-            for (int hole : harmonicMinorHoles) {
-                if (position == hole) return true;
-            }
-            return false;
+    /**
+     * Zählt Treffer und Fehlschläge des Layer-Caches für den Trace (nur Build-Typ "profile").
+     */
+    private void countLayerLookup(Bitmap cached) {
+        if (!PerfTrace.ENABLED || !useLayerCache) {
+            return;
+        }
+        if (cached != null) {
+            layerHits++;
+        } else {
+            layerMisses++;
         }
+        PerfTrace.hitRate(PerfTrace.COUNTER_LAYER_HIT_RATE, layerHits, layerMisses);
     }
 
     /**
      * Zeichnet die obere feste Scheibe mit Löchern und Indikator
      */
     private void drawTopDisc(Canvas canvas) {
-        // Erstelle ein Bitmap für die obere Scheibe mit echter Transparenz
-        Bitmap topDiscBitmap = Bitmap.createBitmap(canvas.getWidth(), canvas.getHeight(), Bitmap.Config.ARGB_8888);
-        Canvas topDiscCanvas = new Canvas(topDiscBitmap);
-
-        topDiscCanvas.save();
-        topDiscCanvas.translate(centerX, centerY);
-
-        // Zeichne die gefüllte obere Scheibe
-        topDiscCanvas.drawCircle(0, 0, outerRadius, topDiscPaint);
-
-        // Schneide echte Löcher aus (hole = true)
-        for (int i = 0; i < 19; i++) {
-            if (shouldShowHole(i)) {
-                float angle = 360f / 19f * i;
-                topDiscCanvas.save();
-                topDiscCanvas.rotate(angle);
-                topDiscCanvas.translate(0, -notePositionRadius);
-
-                // Schneide ein echtes transparentes Loch aus
-                topDiscCanvas.drawCircle(0, 0, noteCircleRadius, clearPaint);
-
-                topDiscCanvas.restore();
-            }
+        Bitmap layer = useLayerCache ? caches.topDiscLayer.get(topDiscLayerKey()) : null;
+        countLayerLookup(layer);
+        if (layer != null) {
+            // Gecachter Layer aus dem Hintergrund-Aufwärmen
+            canvas.drawBitmap(layer, 0, 0, null);
+        } else {
+            // Erstelle ein Bitmap für die obere Scheibe mit echter Transparenz
+            Bitmap topDiscBitmap = Bitmap.createBitmap(canvas.getWidth(), canvas.getHeight(), Bitmap.Config.ARGB_8888);
+            directLayerFactory.paintTopDiscBody(new Canvas(topDiscBitmap), geometry, holeMask(),
+                topDiscPaint.getColor());
+
+            // Zeichne das Bitmap auf den Haupt-Canvas
+            canvas.drawBitmap(topDiscBitmap, 0, 0, null);
+            topDiscBitmap.recycle();
         }
 
-        // Schneide ein echtes transparentes Rechteck für den Indikator aus
-        float rectLeft = -indicatorSize / 2;
-        float rectTop = -indicatorPositionRadius - indicatorSize / 2;
-        RectF rect = new RectF(rectLeft, rectTop,
-            rectLeft + indicatorSize, rectTop + indicatorSize);
-        topDiscCanvas.drawRect(rect, clearPaint);
-
-        topDiscCanvas.restore();
-
-        // Zeichne das Bitmap auf den Haupt-Canvas
-        canvas.drawBitmap(topDiscBitmap, 0, 0, null);
-        topDiscBitmap.recycle();
+        drawTopDiscOutlines(canvas);
+    }
 
-        // Zeichne die Umrisse über alles drüber
+    /**
+     * Zeichnet die Umrisse und Dur/Moll-Markierungen der oberen Scheibe über alles drüber.
+     */
+    private void drawTopDiscOutlines(Canvas canvas) {
         canvas.save();
         canvas.translate(centerX, centerY);
 
@@ -613,9 +1257,7 @@ public class ChordDiscView extends View {
         // Umriss des Indikator-Rechtecks
         float rectLeft2 = -indicatorSize / 2;
         float rectTop2 = -indicatorPositionRadius - indicatorSize / 2;
-        RectF rect2 = new RectF(rectLeft2, rectTop2,
-            rectLeft2 + indicatorSize, rectTop2 + indicatorSize);
-        canvas.drawRect(rect2, rectPaint);
+        canvas.drawRect(rectLeft2, rectTop2, rectLeft2 + indicatorSize, rectTop2 + indicatorSize, rectPaint);
 
         canvas.restore();
     }
@@ -624,22 +1266,34 @@ public class ChordDiscView extends View {
      * Zeichnet einen opaken Rahmen um die Scheiben, um herausragende Texte zu verdecken
      */
     private void drawOpaqueFrame(Canvas canvas) {
+        DiscLayerFactory.FrameShape frame = caches.frameShape;
+        if (frame != null && frame.geometry.sameSize(geometry)) {
+            // Vorberechneter Pfad: Fläche mit ausgespartem Scheibenkreis, ohne eigenes Bitmap
+            canvas.drawPath(frame.path, framePaint);
+            return;
+        }
+
         // Erstelle ein Bitmap für den Rahmen mit echter Transparenz
         Bitmap frameBitmap = Bitmap.createBitmap(canvas.getWidth(), canvas.getHeight(), Bitmap.Config.ARGB_8888);
-        Canvas frameCanvas = new Canvas(frameBitmap);
+        paintOpaqueFrame(new Canvas(frameBitmap));
+
+        // Zeichne das Bitmap auf den Haupt-Canvas
+        canvas.drawBitmap(frameBitmap, 0, 0, null);
+        frameBitmap.recycle();
+    }
 
+    /**
+     * Füllt den Bereich mit der Hintergrundfarbe und schneidet die Scheibe aus.
+     */
+    private void paintOpaqueFrame(Canvas frameCanvas) {
         // Zeichne den gesamten Bereich mit der Hintergrundfarbe
-        frameCanvas.drawColor(Color.parseColor("#F5F5F5"));
+        frameCanvas.drawColor(BACKGROUND_COLOR);
 
         // Schneide einen Kreis in der Größe der Scheiben aus
         frameCanvas.save();
         frameCanvas.translate(centerX, centerY);
         frameCanvas.drawCircle(0, 0, outerRadius, clearPaint);
         frameCanvas.restore();
-
-        // Zeichne das Bitmap auf den Haupt-Canvas
-        canvas.drawBitmap(frameBitmap, 0, 0, null);
-        frameBitmap.recycle();
     }
 
     /**
@@ -651,69 +1305,77 @@ public class ChordDiscView extends View {
             snapAnimator.cancel();
         }
 
-        // Bei bottomDiscRotation = -X° ist Note X oben
-        // Invertiere für die Berechnung
-        float normalizedRotation = -bottomDiscRotation % 360;
-        if (normalizedRotation < 0) normalizedRotation += 360;
-
-        // Finde nächste Snap-Position
-        float currentPositionFloat = normalizedRotation / ANGLE_PER_POSITION;
-        int nearestPosition = Math.round(currentPositionFloat);
-
-        // Zielrotation ist negativ (weil canvas.rotate im Uhrzeigersinn dreht)
-        float targetRotation = -(nearestPosition * ANGLE_PER_POSITION);
-
-        // Normalisiere aktuelle Rotation für Vergleich
-        float normalizedCurrent = bottomDiscRotation % 360;
-        if (normalizedCurrent < 0) normalizedCurrent += 360;
-
-        float normalizedTarget = targetRotation % 360;
-        if (normalizedTarget < 0) normalizedTarget += 360;
-
-        // Berechne kürzesten Weg zum Ziel
-        float deltaRotation = normalizedTarget - normalizedCurrent;
-        if (deltaRotation > 180) deltaRotation -= 360;
-        if (deltaRotation < -180) deltaRotation += 360;
+        // Drehung, bei der die nächstgelegene Note genau oben steht, auf kürzestem Weg
+        int target = DiscAngle.snap(bottomDiscAngle);
+        int delta = DiscAngle.delta(bottomDiscAngle, target);
 
         // Wenn bereits sehr nah, nicht animieren
-        if (Math.abs(deltaRotation) < 0.5f) {
-            bottomDiscRotation = targetRotation;
+        if (Math.abs(delta) < SNAP_TOLERANCE) {
+            bottomDiscAngle = target;
             invalidate();
             return;
         }
+        animateRotation(delta);
+    }
 
-        // Erstelle Animation
-        final float startRotation = bottomDiscRotation;
-        final float endRotation = bottomDiscRotation + deltaRotation;
+    /**
+     * Dreht die Scheibe animiert um delta Einheiten (DiscAngle); das Ziel wird exakt erreicht.
+     */
+    private void animateRotation(int delta) {
+        final int startAngle = bottomDiscAngle;
 
         snapAnimator = ValueAnimator.ofFloat(0f, 1f);
         snapAnimator.setDuration(SNAP_DURATION_MS);
         snapAnimator.setInterpolator(new DecelerateInterpolator());
 
         snapAnimator.addUpdateListener(animation -> {
+            PerfTrace.begin("ChordDiscView.snapUpdate");
             float progress = (float) animation.getAnimatedValue();
-            bottomDiscRotation = startRotation + (endRotation - startRotation) * progress;
+            bottomDiscAngle = DiscAngle.normalize(startAngle + Math.round(delta * progress));
             invalidate();
+            PerfTrace.end();
         });
+        snapAnimator.addListener(restAtEndListener);
 
         snapAnimator.start();
     }
 
+    /**
+     * Zeichnet nach dem Ende einer Animation erneut, damit die Scheibe
+     * im Ruhezustand wieder in voller Qualität erscheint.
+     */
+    private final AnimatorListenerAdapter restAtEndListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            invalidate();
+        }
+    };
+
     /**
      * Findet die Note, die an der gegebenen Position getippt wurde
      * @return Index der Note oder -1, wenn keine Note getroffen
      */
     private int findTappedNote(float touchX, float touchY) {
+        PerfTrace.begin("ChordDiscView.findTappedNote");
+        try {
+            return locateTappedNote(touchX, touchY);
+        } finally {
+            PerfTrace.end();
+        }
+    }
+
+    private int locateTappedNote(float touchX, float touchY) {
         // Transformiere Touch-Position ins Scheiben-Koordinatensystem
         float x = touchX - centerX;
         float y = touchY - centerY;
 
-        // Berechne Winkel und Distanz vom Zentrum
-        // atan2 gibt -90° für oben, 0° für rechts, +90° für unten
-        // Canvas rotate gibt 0° für oben, 90° für rechts, 180° für unten
-        // Daher: +90° um von atan2 zu Canvas-Koordinaten zu konvertieren
-        float touchAngleRaw = (float) Math.toDegrees(Math.atan2(y, x));
-        float touchAngle = touchAngleRaw + 90f; // Konvertiere: -90°(oben) → 0°(oben)
+        // Vorberechneter Index aus dem Aufwärmen (sonst direkte Berechnung)
+        HitTestIndex index = caches.hitTestIndex;
+        if (index != null && index.geometry.sameSize(geometry)) {
+            return index.find(x, y, bottomDiscAngle);
+        }
+
+        // Berechne Distanz vom Zentrum
         float distance = (float) Math.sqrt(x * x + y * y);
 
         // Prüfe, ob Touch im Bereich der Noten ist
@@ -724,38 +1386,13 @@ public class ChordDiscView extends View {
             return -1; // Nicht im Noten-Bereich
         }
 
-        // Normalisiere Touch-Winkel (0-360)
-        while (touchAngle < 0) touchAngle += 360;
-        while (touchAngle >= 360) touchAngle -= 360;
-
-        // Finde die Note, die am nächsten zum Touch-Winkel ist
-        // Jede Note i ist bei (i * ANGLE_PER_POSITION + bottomDiscRotation) Grad
-        float minAngleDiff = 360;
-        int closestNoteIndex = -1;
-
-        for (int i = 0; i < 19; i++) {
-            // Berechne wo Note i aktuell auf dem Bildschirm ist (in Canvas-Koordinaten)
-            float noteScreenAngle = (i * ANGLE_PER_POSITION + bottomDiscRotation);
-            while (noteScreenAngle < 0) noteScreenAngle += 360;
-            while (noteScreenAngle >= 360) noteScreenAngle -= 360;
-
-            // Berechne Winkel-Differenz (kürzester Weg)
-            float angleDiff = Math.abs(touchAngle - noteScreenAngle);
-            if (angleDiff > 180) angleDiff = 360 - angleDiff;
-
-            // Merke die nächste Note
-            if (angleDiff < minAngleDiff) {
-                minAngleDiff = angleDiff;
-                closestNoteIndex = i;
-            }
-        }
+        // Touch-Winkel (0 = oben) in das Koordinatensystem der Scheibe, dort nächste Note
+        int discAngle = DiscAngle.fromScreenRadians(Math.atan2(y, x)) - bottomDiscAngle;
+        int closestNoteIndex = DiscAngle.nearestPosition(discAngle);
+        int angleDiff = Math.abs(DiscAngle.delta(DiscAngle.positionAngle(closestNoteIndex), discAngle));
 
         // Nur akzeptieren, wenn innerhalb von ±15° der Note
-        if (minAngleDiff < 15) {
-            return closestNoteIndex;
-        }
-
-        return -1;
+        return angleDiff < TAP_ANGLE_TOLERANCE ? closestNoteIndex : -1;
     }
 
     /**
@@ -767,44 +1404,10 @@ public class ChordDiscView extends View {
             snapAnimator.cancel();
         }
 
-        // Um Note X nach oben zu bringen:
-        // - Note X ist bei Position X * ANGLE_PER_POSITION
-        // - canvas.rotate dreht im Uhrzeigersinn, Noten wandern gegen Uhrzeigersinn
-        // - Um Note X von ihrer Position nach 0° (oben) zu bringen:
-        //   Scheibe muss um -(X * ANGLE_PER_POSITION) drehen
-        float targetRotation = -(noteIndex * ANGLE_PER_POSITION);
-
-        // Normalisiere aktuelle Rotation
-        float normalizedCurrentRotation = bottomDiscRotation % 360;
-        if (normalizedCurrentRotation < 0) normalizedCurrentRotation += 360;
-
-        // Normalisiere Zielrotation
-        float normalizedTargetRotation = targetRotation % 360;
-        if (normalizedTargetRotation < 0) normalizedTargetRotation += 360;
-
-        // Berechne Differenz zur Zielposition
-        float deltaRotation = normalizedTargetRotation - normalizedCurrentRotation;
-
-        // Korrigiere für kürzesten Weg (niemals mehr als 180° drehen)
-        while (deltaRotation > 180) deltaRotation -= 360;
-        while (deltaRotation < -180) deltaRotation += 360;
-
-
-        // Erstelle Animation
-        final float startRotation = bottomDiscRotation;
-        final float endRotation = bottomDiscRotation + deltaRotation;
-
-        snapAnimator = ValueAnimator.ofFloat(0f, 1f);
-        snapAnimator.setDuration(SNAP_DURATION_MS);
-        snapAnimator.setInterpolator(new DecelerateInterpolator());
-
-        snapAnimator.addUpdateListener(animation -> {
-            float progress = (float) animation.getAnimatedValue();
-            bottomDiscRotation = startRotation + (endRotation - startRotation) * progress;
-            invalidate();
-        });
-
-        snapAnimator.start();
+        // Um Note X nach oben zu bringen, dreht die Scheibe um -(Winkel von X);
+        // canvas.rotate dreht im Uhrzeigersinn, kürzester Weg (niemals mehr als 180°)
+        int target = DiscAngle.rotationForTop(noteIndex);
+        animateRotation(DiscAngle.delta(bottomDiscAngle, target));
     }
 
     @Override
@@ -815,6 +1418,28 @@ public class ChordDiscView extends View {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        PerfTrace.begin("ChordDiscView.onTouchEvent");
+        try {
+            if (gestureRecorder != null) {
+                gestureRecorder.record(event);
+            }
+            if (resizeGeometry != null) {
+                // Während des Live-Resize gelten die Maße der gebauten Größe
+                MotionEvent mapped = MotionEvent.obtain(event);
+                mapped.transform(resizeInverse);
+                try {
+                    return handleTouchEvent(mapped);
+                } finally {
+                    mapped.recycle();
+                }
+            }
+            return handleTouchEvent(event);
+        } finally {
+            PerfTrace.end();
+        }
+    }
+
+    private boolean handleTouchEvent(MotionEvent event) {
         float x = event.getX() - centerX;
         float y = event.getY() - centerY;
 
@@ -840,8 +1465,8 @@ public class ChordDiscView extends View {
                     isDragging = true;
                     touchDownX = event.getX();
                     touchDownY = event.getY();
-                    // Konvertiere atan2 zu Canvas-Koordinaten: +90°
-                    lastTouchAngle = (float) Math.toDegrees(Math.atan2(y, x)) + 90f;
+                    // Konvertiere atan2 zu Canvas-Koordinaten (0 = oben)
+                    lastTouchAngle = DiscAngle.fromScreenRadians(Math.atan2(y, x));
                     return true;
                 }
                 break;
@@ -855,17 +1480,12 @@ public class ChordDiscView extends View {
                     );
 
                     if (moveDistance > TAP_THRESHOLD) {
-                        // Es ist ein Drag, drehe die Scheibe
-                        // Konvertiere atan2 zu Canvas-Koordinaten: +90°
-                        float currentAngle = (float) Math.toDegrees(Math.atan2(y, x)) + 90f;
-                        float deltaAngle = currentAngle - lastTouchAngle;
-
-                        // Normalisiere den Winkel
-                        if (deltaAngle > 180) deltaAngle -= 360;
-                        if (deltaAngle < -180) deltaAngle += 360;
-
-                        bottomDiscRotation += deltaAngle;
+                        // Es ist ein Drag, drehe die Scheibe um die (kürzeste) Winkeländerung
+                        int currentAngle = DiscAngle.fromScreenRadians(Math.atan2(y, x));
+                        bottomDiscAngle = DiscAngle.normalize(
+                            bottomDiscAngle + DiscAngle.delta(lastTouchAngle, currentAngle));
                         lastTouchAngle = currentAngle;
+                        isRotating = true;
 
                         invalidate(); // Neuzeichnen
                     }
@@ -896,6 +1516,10 @@ public class ChordDiscView extends View {
                     }
                 }
                 isDragging = false;
+                if (isRotating) {
+                    isRotating = false;
+                    invalidate(); // Ruhezustand (oder Snap-Start) in passender Qualität zeichnen
+                }
                 break;
         }
 
@@ -916,6 +1540,25 @@ public class ChordDiscView extends View {
         }
     }
 
+    /**
+     * Bestimmt, ob für die Note ein Dur-Akkord gespielt wird (laut Akkord-Typ und aktueller Tonika).
+     * Wird auch für den WAV-Export verwendet, damit dieser genau das Gespielte enthält.
+     */
+    public boolean isMajorChordFor(int noteIndex) {
+        switch (chordType) {
+            case ALL_MAJOR:
+                return true; // Immer Dur
+
+            case ALL_MINOR:
+                return false; // Immer Moll
+
+            case HARMONIC:
+            default:
+                // Harmonische Logik: Berechne basierend auf Tonika (Note oben)
+                return shouldPlayMajorChord(noteIndex, DiscAngle.topPosition(bottomDiscAngle));
+        }
+    }
+
     /**
      * Spielt den Akkord für die getippte Note.
      * Bestimmt automatisch, ob Dur oder Moll gespielt werden soll.
@@ -925,30 +1568,46 @@ public class ChordDiscView extends View {
             return;
         }
 
-        // Bestimme Akkord-Typ basierend auf Einstellung
-        boolean isMajor;
+        boolean isMajor = isMajorChordFor(noteIndex);
 
-        switch (chordType) {
-            case ALL_MAJOR:
-                isMajor = true; // Immer Dur
-                break;
-
-            case ALL_MINOR:
-                isMajor = false; // Immer Moll
-                break;
+        // Spiele den Akkord (Stereo-Mitte und Tonika der reinen Stimmung ist die Note oben)
+        chordPlayer.setPanCenter(getCurrentNoteIndex());
+        chordPlayer.setTonic(getCurrentNoteIndex());
+        boolean started = chordPlayer.playChord(noteIndex, isMajor);
+        // Nur Gespieltes zählen: während einer Wiedergabe verwirft der Player den Tap
+        if (started && practiceHistory != null) {
+            practiceHistory.recordChord(noteIndex, isMajor, getCurrentNoteIndex());
+        }
+    }
 
-            case HARMONIC:
+    /**
+     * Konvertiert ScaleType zu DiscScale (Loch-Sätze der oberen Scheibe).
+     */
+    static DiscScale toDiscScale(ScaleType type) {
+        switch (type) {
+            case NATURAL_MINOR:
+                return DiscScale.NATURAL_MINOR;
+            case HARMONIC_MINOR:
+                return DiscScale.HARMONIC_MINOR;
+            case MAJOR:
             default:
-                // Harmonische Logik: Berechne basierend auf Tonika
-                float normalizedRotation = -bottomDiscRotation % 360;
-                if (normalizedRotation < 0) normalizedRotation += 360;
-                int tonika = Math.round(normalizedRotation / ANGLE_PER_POSITION) % 19;
-                isMajor = shouldPlayMajorChord(noteIndex, tonika);
-                break;
+                return DiscScale.MAJOR;
         }
+    }
 
-        // Spiele den Akkord
-        chordPlayer.playChord(noteIndex, isMajor);
+    /**
+     * Konvertiert ScaleType zu ChordPlayer.ScaleType.
+     */
+    static ChordPlayer.ScaleType toPlayerScaleType(ScaleType type) {
+        switch (type) {
+            case NATURAL_MINOR:
+                return ChordPlayer.ScaleType.NATURAL_MINOR;
+            case HARMONIC_MINOR:
+                return ChordPlayer.ScaleType.HARMONIC_MINOR;
+            case MAJOR:
+            default:
+                return ChordPlayer.ScaleType.MAJOR;
+        }
     }
 
     /**
@@ -959,25 +1618,12 @@ public class ChordDiscView extends View {
             return;
         }
 
-        // Konvertiere ScaleType zu ChordPlayer.ScaleType
-        ChordPlayer.ScaleType playerScaleType;
-        switch (scaleType) {
-            case MAJOR:
-                playerScaleType = ChordPlayer.ScaleType.MAJOR;
-                break;
-            case NATURAL_MINOR:
-                playerScaleType = ChordPlayer.ScaleType.NATURAL_MINOR;
-                break;
-            case HARMONIC_MINOR:
-                playerScaleType = ChordPlayer.ScaleType.HARMONIC_MINOR;
-                break;
-            default:
-                playerScaleType = ChordPlayer.ScaleType.MAJOR;
-                break;
-        }
+        ChordPlayer.ScaleType playerScaleType = toPlayerScaleType(scaleType);
 
         // Spiele Tonleiter mit Callback für visuelle Hervorhebung
-        chordPlayer.playScale(noteIndex, playerScaleType, new ChordPlayer.ScaleNoteCallback() {
+        chordPlayer.setPanCenter(getCurrentNoteIndex());
+        chordPlayer.setTonic(getCurrentNoteIndex());
+        boolean started = chordPlayer.playScale(noteIndex, playerScaleType, new ChordPlayer.ScaleNoteCallback() {
             @Override
             public void onNotePlay(int rootIndex, int intervalInHalftones) {
                 // Berechne welche Note hervorgehoben werden soll
@@ -991,6 +1637,9 @@ public class ChordDiscView extends View {
                 invalidate();
             }
         });
+        if (started && practiceHistory != null) {
+            practiceHistory.recordScale(noteIndex, scaleType, getCurrentNoteIndex());
+        }
     }
 
     /**
@@ -1056,20 +1705,5 @@ public class ChordDiscView extends View {
         // Alle anderen: Dur
         return true;
     }
-
-    /**
-     * Datenklasse für musikalische Positionen
-     */
-    private static class MusicalPosition {
-        String note;
-        boolean hole;
-        String sharpFlat;
-
-        MusicalPosition(String note, boolean hole, String sharpFlat) {
-            this.note = note;
-            this.hole = hole;
-            this.sharpFlat = sharpFlat;
-        }
-    }
 }
 
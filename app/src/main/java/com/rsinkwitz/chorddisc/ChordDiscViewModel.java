@@ -0,0 +1,128 @@
+package com.rsinkwitz.chorddisc;
+
+import android.app.Application;
+import androidx.lifecycle.AndroidViewModel;
+
+/**
+ * Hält Audio-Engine, Caches und Scheiben-Zustand über Konfigurationswechsel
+ * (Drehung, Sprachwechsel) hinweg. Eine laufende Wiedergabe wird dabei nicht unterbrochen;
+ * nach der Neuerstellung müssen nur größenabhängige Artefakte neu gebaut werden.
+ */
+public class ChordDiscViewModel extends AndroidViewModel {
+
+    private DeviceProfile deviceProfile;
+    private CacheRegistry cacheRegistry;
+    private ChordPlayer chordPlayer;
+    private final DiscCachePool discCachePool = new DiscCachePool();
+    private DeviceProfile.ProbeListener profileListener; // Aktuelle Activity, null wenn keine
+
+    // Zustand der Scheibe
+    float bottomDiscRotation = 0f;
+    ChordDiscView.TapMode tapMode = ChordDiscView.TapMode.PLAY_CHORD;
+    ChordDiscView.ChordType chordType = ChordDiscView.ChordType.HARMONIC;
+    ChordDiscView.ScaleType scaleType = ChordDiscView.ScaleType.MAJOR;
+    boolean topDiscTransparent = false;
+
+    public ChordDiscViewModel(Application application) {
+        super(application);
+    }
+
+    /**
+     * Initialisiert Profil, Cache-Verwaltung und Audio-Engine beim ersten Aufruf.
+     * Startet mit dem gespeicherten Profil; eine nötige Messung läuft im Hintergrund.
+     * @return true, wenn bereits initialisiert war (Engine wird weiterverwendet)
+     */
+    boolean initialize() {
+        if (chordPlayer != null) {
+            return true;
+        }
+        deviceProfile = DeviceProfile.loadSaved(getApplication());
+        cacheRegistry = new CacheRegistry(getApplication(), deviceProfile);
+        chordPlayer = new ChordPlayer(getApplication(), deviceProfile);
+        chordPlayer.setCacheRegistry(cacheRegistry);
+        discCachePool.setRegistry(cacheRegistry);
+        DeviceProfile.probeInBackground(getApplication(), this::onProfileMeasured);
+        return false;
+    }
+
+    /**
+     * Meldet ein nachträglich gemessenes Profil an die Activity (null zum Abmelden).
+     */
+    void setProfileListener(DeviceProfile.ProbeListener listener) {
+        profileListener = listener;
+    }
+
+    /**
+     * Übernimmt das gemessene Profil für Caches und Scheiben. Abtastrate, Puffer und Effekte
+     * der laufenden Audio-Engine bleiben bis zum nächsten Start unverändert.
+     */
+    private void onProfileMeasured(DeviceProfile profile) {
+        if (chordPlayer == null) {
+            return; // ViewModel bereits verworfen
+        }
+        deviceProfile = profile;
+        cacheRegistry.setProfile(profile);
+        if (profileListener != null) {
+            profileListener.onProfileMeasured(profile);
+        }
+    }
+
+    DeviceProfile getDeviceProfile() {
+        return deviceProfile;
+    }
+
+    CacheRegistry getCacheRegistry() {
+        return cacheRegistry;
+    }
+
+    ChordPlayer getChordPlayer() {
+        return chordPlayer;
+    }
+
+    DiscCachePool getDiscCachePool() {
+        return discCachePool;
+    }
+
+    /**
+     * Merkt sich Rotation und Modi der View vor ihrer Zerstörung.
+     */
+    void saveDiscState(ChordDiscView view) {
+        bottomDiscRotation = view.getBottomDiscRotation();
+        tapMode = view.getTapMode();
+        chordType = view.getChordType();
+        scaleType = view.getScaleType();
+        topDiscTransparent = view.isTopDiscTransparent();
+    }
+
+    /**
+     * Übernimmt den beim letzten Lauf gespeicherten Zustand (Kaltstart).
+     */
+    void applySnapshot(DiscSnapshot snapshot) {
+        bottomDiscRotation = snapshot.bottomDiscRotation;
+        tapMode = snapshot.tapMode;
+        chordType = snapshot.chordType;
+        scaleType = snapshot.scaleType;
+        topDiscTransparent = snapshot.topDiscTransparent;
+    }
+
+    /**
+     * Überträgt den gemerkten Zustand auf eine neu erstellte View.
+     */
+    void restoreDiscState(ChordDiscView view) {
+        view.setTapMode(tapMode);
+        view.setChordType(chordType);
+        view.setScaleType(scaleType);
+        view.setTopDiscTransparent(topDiscTransparent);
+        view.setBottomDiscRotation(bottomDiscRotation);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        profileListener = null;
+        if (chordPlayer != null) {
+            chordPlayer.release();
+            chordPlayer = null;
+        }
+    }
+}
@@ -4,60 +4,229 @@ import android.content.Context;
 import android.media.AudioAttributes;
 import android.media.AudioFormat;
 import android.media.AudioTrack;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import com.rsinkwitz.chorddisc.core.DiscPositions;
+import com.rsinkwitz.chorddisc.core.EffectsBus;
+import com.rsinkwitz.chorddisc.core.PcmSink;
+import com.rsinkwitz.chorddisc.core.PhraseType;
+import com.rsinkwitz.chorddisc.core.PitchTable;
+import com.rsinkwitz.chorddisc.core.Progression;
+import com.rsinkwitz.chorddisc.core.ProgressionRenderer;
+import com.rsinkwitz.chorddisc.core.SineTone;
+import com.rsinkwitz.chorddisc.core.StereoPan;
+import com.rsinkwitz.chorddisc.core.TuningSystem;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Klasse zum Generieren und Abspielen von Akkorden mittels Sinuswellen-Synthese.
- * Unterstützt Dur- und Moll-Akkorde.
+ * Unterstützt Dur- und Moll-Akkorde. In Stereo steht jeder Ton nach seiner Lage auf der
+ * Scheibe im Panorama (StereoPan); die Noten bleiben mono im Cache und werden beim Schreiben
+ * blockweise verteilt. Optional läuft die Ausgabe durch einen Effektweg mit Hall und Chorus
+ * (EffectsBus), der auf schwachen Geräten fehlt und sich bei zu wenig Reserve selbst abschaltet.
  */
 public class ChordPlayer {
 
-    private static final int SAMPLE_RATE = 44100;
-    private static final int NOTE_DURATION_MS = 250; // 0.25 Sekunden pro Note (doppelt so schnell)
-    private static final int NOTE_DURATION_LONG_MS = 500; // 0.5 Sekunden für dritten Ton
-    private static final double AMPLITUDE = 0.6; // Lautstärke (0.0 - 1.0) - verdoppelt
+    private static final String TAG = "ChordPlayer";
 
-    private AudioTrack audioTrack;
+    static final int NOTE_DURATION_MS = PhraseType.EIGHTH_MS; // 0.25 Sekunden pro Note, Schlusston doppelt
+
+    private final int sampleRate; // Abtastrate laut Geräteprofil (44.1 kHz oder 22.05 kHz)
+    private final int bufferMultiplier; // Vielfaches der minimalen Puffergröße
     private final Handler handler;
+
+    // AudioTrack wird im Hintergrund erstellt; Wiedergaben davor warten auf das Future
+    private final FutureTask<AudioTrack> audioTrackReady = new FutureTask<>(this::createAudioTrack);
+    private volatile AudioTrack audioTrack;
+    private volatile boolean released = false;
+    private volatile boolean stereo = false;
+    private volatile int panCenter = 0; // Position oben auf der Scheibe (Mitte des Stereobilds)
+
+    // Cache für synthetisierte Noten: Tonleiter der aktuellen Tonart wird zuletzt geräumt
+    private static final int MAX_CACHED_NOTES = 48;
+    private final PhraseCache notePhrases =
+        new PhraseCache(CacheRegistry.Priority.PHRASE, MAX_CACHED_NOTES);
+    private final PhraseCache currentKeyPhrases =
+        new PhraseCache(CacheRegistry.Priority.CURRENT_KEY_PHRASE, 16);
+    private long currentKeyId = -1; // Grundton und Typ der zuletzt gespielten Tonleiter
     private boolean isPlaying = false;
 
-    // Frequenzen der Noten in Hz (erweitert um volle Oktave für Akkorde)
-    // C4 bis G#5 (damit H-Dur möglich ist: H4 + 7 = F#5)
-    private static final double[] NOTE_FREQUENCIES = {
-        261.63,  // 0:  C4
-        277.18,  // 1:  C#4/Db4
-        293.66,  // 2:  D4
-        311.13,  // 3:  D#4/Eb4
-        329.63,  // 4:  E4
-        349.23,  // 5:  F4
-        369.99,  // 6:  F#4/Gb4
-        392.00,  // 7:  G4
-        415.30,  // 8:  G#4/Ab4
-        440.00,  // 9:  A4 (Kammerton)
-        466.16,  // 10: A#4/Bb4
-        493.88,  // 11: B4/H4
-        523.25,  // 12: C5 (oktaviert)
-        554.37,  // 13: C#5/Db5
-        587.33,  // 14: D5
-        622.25,  // 15: D#5/Eb5
-        659.25,  // 16: E5
-        698.46,  // 17: F5
-        739.99,  // 18: F#5/Gb5
-        783.99   // 19: G5
-    };
+    // Übungsfolge: wird blockweise gerendert und lückenlos in den AudioTrack gestreamt
+    private static final int PROGRESSION_BLOCK_FRAMES = 1024;
+    private static final int OUTPUT_BLOCK_FRAMES = 1024;
+    private final short[] outputBlock = new short[2 * OUTPUT_BLOCK_FRAMES]; // Nur Wiedergabe-Thread
+
+    // Hall und Chorus: Leitungen beim Start angelegt, null auf schwachen Geräten
+    private static final int EFFECTS_TAIL_MS = 800; // Ausklingen nach der letzten Note
+    private final EffectsBus effects;
+    private boolean effectsOffLogged = false;
+    private static final Object PROGRESSION_TOKEN = new Object(); // Für verzögerte Scheiben-Callbacks
+    private volatile ProgressionRenderer progression;
+
+    // Zähler für Trace-Aufzeichnungen (Build-Typ "profile")
+    private final AtomicInteger activeVoices = new AtomicInteger();
+    private final AtomicInteger pendingCallbacks = new AtomicInteger();
+    private long phraseHits = 0;   // Nur vom Wiedergabe-Thread (isPlaying verhindert Überlappung)
+    private long phraseMisses = 0;
+
+    // Tonhöhen aus der Tabelle der gewählten Stimmung; Grundtöne liegen in der Oktave C4 … H4
+    static final int BASE_OCTAVE = PitchTable.MIDDLE_OCTAVE;
+    private volatile PitchTable pitchTable;
 
     public ChordPlayer(Context context) {
+        this(context, DeviceProfile.forClass(DeviceProfile.PerformanceClass.MID));
+    }
+
+    public ChordPlayer(Context context, DeviceProfile profile) {
         handler = new Handler(Looper.getMainLooper());
-        initAudioTrack();
+        sampleRate = profile.audioSampleRate;
+        bufferMultiplier = profile.audioBufferMultiplier;
+        pitchTable = new PitchTable(TuningSystem.EQUAL_12, PitchTable.DEFAULT_REFERENCE_A, sampleRate);
+        effects = profile.performanceClass == DeviceProfile.PerformanceClass.LOW ? null : new EffectsBus(sampleRate);
+        PerfMetrics.get().setEffectsBus(effects);
+
+        // Audio-Engine nicht auf dem UI-Thread aufbauen: die meisten Sitzungen beginnen
+        // mit dem Drehen der Scheibe, nicht mit einer Wiedergabe
+        Thread initThread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+            audioTrackReady.run();
+        }, "audio-init");
+        initThread.setDaemon(true);
+        initThread.start();
+    }
+
+    /**
+     * Future, das erfüllt ist, sobald der AudioTrack bereitsteht.
+     */
+    public Future<AudioTrack> getReadyFuture() {
+        return audioTrackReady;
+    }
+
+    public boolean isReady() {
+        return audioTrackReady.isDone();
+    }
+
+    /**
+     * Wählt Stimmungssystem und Kammerton. Die Tabelle wird einmal berechnet und ersetzt die
+     * bisherige; bereits synthetisierte Noten bleiben gültig, da der Cache nach Tonhöhe sortiert.
+     * Die Tonika (siehe setTonic) bleibt erhalten.
+     */
+    public void setTuning(TuningSystem system, double referenceA) {
+        pitchTable = new PitchTable(system, referenceA, sampleRate, pitchTable.getTonic());
+        ProgressionRenderer renderer = progression;
+        if (renderer != null) {
+            renderer.setPitchTable(pitchTable);
+        }
+    }
+
+    public TuningSystem getTuningSystem() {
+        return pitchTable.getSystem();
+    }
+
+    public double getReferenceA() {
+        return pitchTable.getReferenceA();
+    }
+
+    /**
+     * Schaltet die Stereo-Wiedergabe ein oder aus; gilt ab der nächsten Wiedergabe
+     * (der AudioTrack wird dann mit passender Kanalzahl neu erstellt).
+     */
+    public void setStereo(boolean stereo) {
+        this.stereo = stereo;
+    }
+
+    public boolean isStereo() {
+        return stereo;
+    }
+
+    /**
+     * Schaltet Hall und Chorus ein oder aus (ohne Wirkung, wenn nicht verfügbar).
+     * Beim Einschalten wird eine frühere automatische Abschaltung aufgehoben.
+     */
+    public void setEffectsEnabled(boolean enabled) {
+        if (effects != null) {
+            effectsOffLogged = false;
+            effects.setEnabled(enabled);
+        }
+    }
+
+    public boolean isEffectsEnabled() {
+        return effects != null && effects.isEnabled();
+    }
+
+    /**
+     * false auf Geräten der Leistungsklasse LOW: dort gibt es keinen Effektweg.
+     */
+    public boolean isEffectsAvailable() {
+        return effects != null;
+    }
+
+    /**
+     * true, wenn der Effektweg eingeschaltet ist, sich aber wegen zu hoher Rechenzeit
+     * abgeschaltet hat.
+     */
+    public boolean isEffectsAutoDisabled() {
+        return effects != null && effects.isEnabled() && effects.isAutoDisabled();
+    }
+
+    /**
+     * Position (0-18), die oben auf der Scheibe steht; dort liegt die Mitte des Stereobilds.
+     * Wird beim Start einer Wiedergabe übernommen.
+     */
+    public void setPanCenter(int position) {
+        panCenter = position;
+    }
+
+    /**
+     * Tonika (Position 0-18, die Tonart oben auf der Scheibe), auf die sich die reine Stimmung
+     * bezieht. Ändert sich die Tonhöhenklasse, wird die Tabelle einmal neu berechnet; in den
+     * anderen Stimmungen bleibt sie unverändert. Übungsfolgen stimmen nach ihrer eigenen Tonart.
+     */
+    public void setTonic(int position) {
+        pitchTable = pitchTable.withTonic(position);
+    }
+
+    /**
+     * Meldet die Noten-Caches bei der zentralen Cache-Verwaltung an.
+     */
+    public void setCacheRegistry(CacheRegistry registry) {
+        notePhrases.setRegistry(registry);
+        currentKeyPhrases.setRegistry(registry);
+    }
+
+    /**
+     * Erstellt den AudioTrack (Hintergrund-Thread "audio-init").
+     */
+    private AudioTrack createAudioTrack() {
+        AudioTrack track = buildAudioTrack(stereo);
+        synchronized (this) {
+            if (released) {
+                // release() kam vor Abschluss der Initialisierung
+                track.release();
+                return null;
+            }
+            audioTrack = track;
+        }
+        return track;
     }
 
-    private void initAudioTrack() {
+    private AudioTrack buildAudioTrack(boolean stereo) {
+        PerfTrace.begin("ChordPlayer.createAudioTrack");
+        int channelMask = stereo ? AudioFormat.CHANNEL_OUT_STEREO : AudioFormat.CHANNEL_OUT_MONO;
         int bufferSize = AudioTrack.getMinBufferSize(
-            SAMPLE_RATE,
-            AudioFormat.CHANNEL_OUT_MONO,
+            sampleRate,
+            channelMask,
             AudioFormat.ENCODING_PCM_16BIT
-        );
+        ) * bufferMultiplier;
 
         AudioAttributes audioAttributes = new AudioAttributes.Builder()
             .setUsage(AudioAttributes.USAGE_MEDIA)
@@ -65,118 +234,332 @@ public class ChordPlayer {
             .build();
 
         AudioFormat audioFormat = new AudioFormat.Builder()
-            .setSampleRate(SAMPLE_RATE)
+            .setSampleRate(sampleRate)
             .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
-            .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+            .setChannelMask(channelMask)
             .build();
 
-        audioTrack = new AudioTrack(
+        AudioTrack track = new AudioTrack(
             audioAttributes,
             audioFormat,
             bufferSize,
             AudioTrack.MODE_STREAM,
             0 // Session ID = 0 (kompatibel mit API 21)
         );
+        PerfTrace.end();
+        return track;
+    }
+
+    /**
+     * Wartet auf den AudioTrack (nur vom Wiedergabe-Thread). Wiedergaben, die vor Abschluss
+     * der Initialisierung angefordert wurden, starten so, sobald die Engine bereit ist.
+     * Passt die Kanalzahl nicht mehr zur Einstellung, wird der AudioTrack ersetzt
+     * (Wiedergaben überlappen nicht, der alte Track spielt also nicht mehr).
+     * @return AudioTrack oder null nach release() bzw. bei einem Fehler
+     */
+    private AudioTrack awaitAudioTrack() {
+        try {
+            audioTrackReady.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Log.e(TAG, "AudioTrack konnte nicht erstellt werden", e.getCause());
+            return null;
+        }
+        boolean wantStereo = stereo;
+        AudioTrack track = audioTrack;
+        if (track == null || track.getChannelCount() == (wantStereo ? 2 : 1)) {
+            return track;
+        }
+        AudioTrack replacement = buildAudioTrack(wantStereo);
+        synchronized (this) {
+            if (released) {
+                replacement.release();
+                return null;
+            }
+            track.release();
+            audioTrack = replacement;
+        }
+        return replacement;
     }
 
     /**
      * Spielt einen Akkord als Arpegggio (nacheinander).
      * @param noteIndex Index der Grundnote (0-18)
      * @param isMajor true für Dur, false für Moll
+     * @return false, wenn noch etwas spielt und der Akkord verworfen wurde
      */
-    public void playChord(int noteIndex, boolean isMajor) {
+    public boolean playChord(int noteIndex, boolean isMajor) {
         if (isPlaying) {
-            return; // Verhindere überlappende Akkorde
+            return false; // Verhindere überlappende Akkorde
         }
 
         isPlaying = true;
+        PerfMetrics.get().markTap();
 
-        // Berechne die Noten des Akkords (Grundton, Terz, Quinte)
-        int root = getNoteFrequencyIndex(noteIndex);
-        int third = root + (isMajor ? 4 : 3); // Dur: +4 Halbtöne, Moll: +3 Halbtöne
-        int fifth = root + 7; // Quinte: +7 Halbtöne
+        Note[] notes = chordNotes(noteIndex, isMajor);
+        int center = panCenter;
 
         // Spiele die Noten nacheinander (ohne Pausen zwischen den Tönen)
         new Thread(() -> {
-            playNote(root, NOTE_DURATION_MS);
-            playNote(third, NOTE_DURATION_MS);
-            playNote(fifth, NOTE_DURATION_LONG_MS); // Dritter Ton länger
+            clearEffects();
+            for (Note note : notes) {
+                playNote(note, notePhrases, center);
+            }
+            playEffectsTail();
 
             // Erst nach allen drei Noten isPlaying zurücksetzen
-            handler.post(() -> isPlaying = false);
+            postToMain("ChordPlayer.playbackFinished", () -> isPlaying = false);
         }).start();
+        return true;
+    }
+
+    /**
+     * Eine Note einer Phrase: Grundton, Intervall zum Grundton und Dauer.
+     * Die Tonhöhe ergibt sich erst aus der PitchTable der gewählten Stimmung.
+     */
+    static final class Note {
+        final int rootIndex;  // Position des Grundtons auf der Scheibe (0-18)
+        final int durationMs;
+        final int interval;   // Halbtöne über dem Grundton (auch für die Hervorhebung)
+
+        Note(int rootIndex, int durationMs, int interval) {
+            this.rootIndex = rootIndex;
+            this.durationMs = durationMs;
+            this.interval = interval;
+        }
+
+        double phaseIncrement(PitchTable table) {
+            return table.phaseIncrement(rootIndex, interval, BASE_OCTAVE);
+        }
+    }
+
+    /**
+     * Noten eines Akkords als Arpeggio: Grundton, Terz, Quinte (dritter Ton länger).
+     * @param noteIndex Index der Grundnote (0-18)
+     */
+    static Note[] chordNotes(int noteIndex, boolean isMajor) {
+        return phraseNotes(noteIndex, isMajor ? PhraseType.MAJOR_CHORD : PhraseType.MINOR_CHORD);
+    }
+
+    /**
+     * Noten einer Tonleiter auf- und abwärts, der abschließende Grundton länger.
+     * @param rootIndex Index der Grundnote (0-18)
+     */
+    static Note[] scaleNotes(int rootIndex, ScaleType scaleType) {
+        return phraseNotes(rootIndex, scalePhrase(scaleType));
+    }
+
+    /**
+     * Phrase einer Tonleiter (Intervalle siehe PhraseType).
+     */
+    static PhraseType scalePhrase(ScaleType scaleType) {
+        switch (scaleType) {
+            case NATURAL_MINOR:
+                return PhraseType.NATURAL_MINOR_SCALE;  // W-H-W-W-H-W-W
+            case HARMONIC_MINOR:
+                return PhraseType.HARMONIC_MINOR_SCALE; // W-H-W-W-H-1.5-H
+            case MAJOR:
+            default:
+                return PhraseType.MAJOR_SCALE;          // W-W-H-W-W-W-H
+        }
+    }
+
+    /**
+     * Noten einer Phrase mit den Dauern der Einzelwiedergabe (ein Achtel = NOTE_DURATION_MS).
+     * Dieselben Phrasen rendert das Audio-Prüfwerkzeug in tools auf der JVM.
+     */
+    static Note[] phraseNotes(int rootIndex, PhraseType type) {
+        Note[] notes = new Note[type.noteCount()];
+        for (int n = 0; n < notes.length; n++) {
+            notes[n] = new Note(rootIndex, type.eighths(n) * NOTE_DURATION_MS, type.interval(n));
+        }
+        return notes;
+    }
+
+    // Positionen der Scheibe (0-18) im Quintenzirkel: C G D A E H F# Db Ab Eb B F
+    static final int[] CIRCLE_OF_FIFTHS = {0, 11, 3, 14, 6, 17, 9, 2, 13, 5, 16, 8};
+
+    /**
+     * Geht vom Grundton noteIndex (0-18) steps Quinten im Quintenzirkel weiter
+     * (1 = Dominante, -1 = Subdominante). Enharmonische Positionen werden über
+     * die Tonhöhe zugeordnet, das Ergebnis ist immer eine der 12 gebräuchlichen Tonarten.
+     */
+    static int circleOfFifthsStep(int noteIndex, int steps) {
+        int pitchClass = getNoteFrequencyIndex(noteIndex);
+        for (int i = 0; i < CIRCLE_OF_FIFTHS.length; i++) {
+            if (getNoteFrequencyIndex(CIRCLE_OF_FIFTHS[i]) == pitchClass) {
+                int count = CIRCLE_OF_FIFTHS.length;
+                return CIRCLE_OF_FIFTHS[((i + steps) % count + count) % count];
+            }
+        }
+        return noteIndex;
     }
 
     /**
-     * Konvertiert noteIndex (0-18) zu einem Frequenz-Array-Index.
-     */
-    private int getNoteFrequencyIndex(int noteIndex) {
-        // Mapping: 0=C, 1=C#, 2=Db, 3=D, 4=D#, 5=Eb, 6=E, 7=E#/Fb, 8=F, ...
-        // Vereinfachung: Enharmonische Verwechslungen auf gleiche Frequenz mappen
-        int[] mapping = {
-            0,  // C
-            1,  // C# (Position 1)
-            1,  // Db (Position 2) -> gleich wie C#
-            2,  // D
-            3,  // D#
-            3,  // Eb -> gleich wie D#
-            4,  // E
-            4,  // E#/Fb -> gleich wie E (selten)
-            5,  // F
-            6,  // F#
-            6,  // Gb -> gleich wie F#
-            7,  // G
-            8,  // G#
-            8,  // Ab -> gleich wie G#
-            9,  // A
-            10, // A#
-            10, // B (Position 16) -> gleich wie A#
-            11, // H
-            0   // H#/Cb (Position 18) -> gleich wie C
-        };
-
-        if (noteIndex < 0 || noteIndex >= mapping.length) {
+     * Tonhöhenklasse (0 = C … 11 = H) der Position noteIndex (0-18); Enharmonik fällt zusammen.
+     */
+    static int getNoteFrequencyIndex(int noteIndex) {
+        if (noteIndex < 0 || noteIndex >= 19) {
             return 0; // Fallback auf C
         }
+        return DiscPositions.pitchClass(noteIndex);
+    }
 
-        return mapping[noteIndex];
+    /**
+     * Ein Sample einer Note: Sinus mit linearem Fade-out in den letzten 100 ms (siehe SineTone).
+     * Gemeinsame Formel für Wiedergabe und WAV-Export.
+     * @param phaseIncrement Radiant pro Sample aus der PitchTable
+     */
+    static double noteSample(double phaseIncrement, int i, int numSamples, int sampleRate) {
+        return SineTone.sample(phaseIncrement, i, numSamples, sampleRate);
     }
 
     /**
      * Spielt eine einzelne Note mit variabler Dauer.
-     * @param frequencyIndex Index im Frequenz-Array
-     * @param durationMs Dauer in Millisekunden
+     * Bereits synthetisierte Noten kommen aus dem Cache.
+     * @param cache Cache, in dem eine neu synthetisierte Note abgelegt wird
+     * @param center Position oben auf der Scheibe beim Start der Wiedergabe (Stereo-Mitte)
      */
-    private void playNote(int frequencyIndex, int durationMs) {
-        if (frequencyIndex < 0 || frequencyIndex >= NOTE_FREQUENCIES.length) {
-            return;
+    private void playNote(Note note, PhraseCache cache, int center) {
+        double increment = note.phaseIncrement(pitchTable);
+        if (increment == 0) {
+            return; // Außerhalb des Tonumfangs
         }
 
-        double frequency = NOTE_FREQUENCIES[frequencyIndex];
-        int numSamples = (SAMPLE_RATE * durationMs) / 1000;
-        short[] buffer = new short[numSamples];
+        long key = PhraseCache.key(increment, note.durationMs);
+        short[] buffer = currentKeyPhrases.get(key);
+        if (buffer == null) {
+            buffer = notePhrases.get(key);
+        }
+        if (buffer == null) {
+            phraseMisses++;
+            PerfTrace.begin("ChordPlayer.synthesizeNote");
+            long start = System.nanoTime();
+            buffer = synthesizeNote(increment, note.durationMs);
+            long synthNanos = System.nanoTime() - start;
+            PerfTrace.end();
+            cache.put(key, buffer, synthNanos);
+            PerfMetrics.get().recordNoteSynthesis(synthNanos);
+        } else {
+            phraseHits++;
+        }
+        PerfTrace.hitRate(PerfTrace.COUNTER_PHRASE_HIT_RATE, phraseHits, phraseMisses);
 
-        // Generiere Sinuswelle mit Envelope (Fade-out)
-        for (int i = 0; i < numSamples; i++) {
-            double time = (double) i / SAMPLE_RATE;
-            double sample = Math.sin(2.0 * Math.PI * frequency * time);
-
-            // Envelope: Linear fade-out in den letzten 100ms
-            double envelope = 1.0;
-            int fadeStartSample = numSamples - (SAMPLE_RATE * 100 / 1000);
-            if (i > fadeStartSample) {
-                envelope = 1.0 - ((double)(i - fadeStartSample) / (numSamples - fadeStartSample));
+        // Spiele Audio synchron (blockiert bis fertig)
+        AudioTrack track = awaitAudioTrack();
+        if (track != null && track.getState() == AudioTrack.STATE_INITIALIZED) {
+            PerfTrace.counter(PerfTrace.COUNTER_VOICES, activeVoices.incrementAndGet());
+            track.play();
+            PerfMetrics.get().onFirstSampleWritten();
+            PerfTrace.begin("AudioTrack.write");
+            writeNote(track, buffer, StereoPan.offset(note.rootIndex, note.interval, center));
+            PerfTrace.end();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                PerfMetrics.get().setAudioUnderruns(track.getUnderrunCount());
             }
+            track.stop();
+            PerfTrace.counter(PerfTrace.COUNTER_VOICES, activeVoices.decrementAndGet());
+        }
+    }
 
-            buffer[i] = (short) (sample * AMPLITUDE * envelope * Short.MAX_VALUE);
+    /**
+     * Schreibt eine Mono-Note aus dem Cache. Ohne Stereo und Effekte unverändert in einem Stück,
+     * sonst blockweise über outputBlock: in Stereo mit der Verstärkung ihrer Position verteilt,
+     * danach durch den Effektweg (der Cache bleibt unberührt).
+     */
+    private void writeNote(AudioTrack track, short[] mono, int panOffset) {
+        int channels = track.getChannelCount();
+        boolean withEffects = effects != null && effects.isActive();
+        if (channels == 1 && !withEffects) {
+            track.write(mono, 0, mono.length);
+            return;
         }
+        for (int from = 0; from < mono.length; from += OUTPUT_BLOCK_FRAMES) {
+            int frames = Math.min(OUTPUT_BLOCK_FRAMES, mono.length - from);
+            if (channels == 2) {
+                StereoPan.interleave(mono, from, frames, panOffset, outputBlock, 0);
+            } else {
+                System.arraycopy(mono, from, outputBlock, 0, frames);
+            }
+            processEffects(outputBlock, frames, channels);
+            track.write(outputBlock, 0, channels * frames);
+        }
+    }
 
-        // Spiele Audio synchron (blockiert bis fertig)
-        if (audioTrack.getState() == AudioTrack.STATE_INITIALIZED) {
-            audioTrack.play();
-            audioTrack.write(buffer, 0, buffer.length);
-            audioTrack.stop();
+    private void processEffects(short[] block, int frames, int channels) {
+        if (effects == null) {
+            return;
+        }
+        effects.process(block, 0, frames, channels);
+        if (effects.isAutoDisabled() && !effectsOffLogged) {
+            effectsOffLogged = true;
+            Log.w(TAG, String.format(Locale.US, "Effekte abgeschaltet: %.0f %% der Blockfrist (erlaubt %.0f %%)",
+                effects.getAverageLoad() * 100, effects.getMaxLoad() * 100));
+        }
+    }
+
+    /**
+     * Leert Hallfahne und Chorus vor einer neuen Wiedergabe (Wiedergabe-Thread).
+     */
+    private void clearEffects() {
+        if (effects != null && effects.isActive()) {
+            effects.clear();
+        }
+    }
+
+    /**
+     * Lässt den Hall nach der letzten Note ausklingen: Stille durch den Effektweg.
+     */
+    private void playEffectsTail() {
+        if (effects == null || !effects.isActive()) {
+            return;
         }
+        AudioTrack track = awaitAudioTrack();
+        if (track == null || track.getState() != AudioTrack.STATE_INITIALIZED) {
+            return;
+        }
+        int channels = track.getChannelCount();
+        int remaining = SineTone.sampleCount(EFFECTS_TAIL_MS, sampleRate);
+        track.play();
+        while (remaining > 0 && effects.isActive()) {
+            int frames = Math.min(OUTPUT_BLOCK_FRAMES, remaining);
+            Arrays.fill(outputBlock, 0, channels * frames, (short) 0);
+            processEffects(outputBlock, frames, channels);
+            track.write(outputBlock, 0, channels * frames);
+            remaining -= frames;
+        }
+        track.stop();
+    }
+
+    /**
+     * Stellt einen Callback in die Warteschlange des UI-Threads.
+     * Im Trace erscheinen Abschnitt und Warteschlangenlänge.
+     */
+    private void postToMain(String sectionName, Runnable runnable) {
+        if (!PerfTrace.ENABLED) {
+            handler.post(runnable);
+            return;
+        }
+        PerfTrace.counter(PerfTrace.COUNTER_QUEUE_DEPTH, pendingCallbacks.incrementAndGet());
+        Runnable traced = PerfTrace.wrap(sectionName, runnable);
+        handler.post(() -> {
+            PerfTrace.counter(PerfTrace.COUNTER_QUEUE_DEPTH, pendingCallbacks.decrementAndGet());
+            traced.run();
+        });
+    }
+
+    /**
+     * Erzeugt eine Sinuswelle mit Fade-out für die gegebene Note.
+     */
+    private short[] synthesizeNote(double phaseIncrement, int durationMs) {
+        int numSamples = SineTone.sampleCount(durationMs, sampleRate);
+        short[] buffer = new short[numSamples];
+
+        // Generiere Sinuswelle mit Envelope (Fade-out)
+        SineTone.render(phaseIncrement, 0, numSamples, numSamples, sampleRate, buffer, 0);
+        return buffer;
     }
 
     /**
@@ -184,66 +567,172 @@ public class ChordPlayer {
      * @param rootIndex Index der Grundnote (0-18)
      * @param scaleType Tonleiter-Typ (Dur, nat. Moll, harm. Moll)
      * @param callback Wird für jeden gespielten Ton aufgerufen (für visuelle Hervorhebung)
+     * @return false, wenn noch etwas spielt und die Tonleiter verworfen wurde
      */
-    public void playScale(int rootIndex, ScaleType scaleType, ScaleNoteCallback callback) {
+    public boolean playScale(int rootIndex, ScaleType scaleType, ScaleNoteCallback callback) {
         if (isPlaying) {
-            return;
+            return false;
         }
 
         isPlaying = true;
+        PerfMetrics.get().markTap();
 
-        // Bestimme Tonleiter-Intervalle (in Halbtönen)
-        int[] intervals;
-        switch (scaleType) {
-            case MAJOR:
-                intervals = new int[]{0, 2, 4, 5, 7, 9, 11, 12}; // Dur: W-W-H-W-W-W-H
-                break;
-            case NATURAL_MINOR:
-                intervals = new int[]{0, 2, 3, 5, 7, 8, 10, 12}; // Nat. Moll: W-H-W-W-H-W-W
-                break;
-            case HARMONIC_MINOR:
-                intervals = new int[]{0, 2, 3, 5, 7, 8, 11, 12}; // Harm. Moll: W-H-W-W-H-1.5-H
-                break;
-            default:
-                intervals = new int[]{0, 2, 4, 5, 7, 9, 11, 12};
-                break;
-        }
+        Note[] notes = scaleNotes(rootIndex, scaleType);
+        int center = panCenter;
 
-        int root = getNoteFrequencyIndex(rootIndex);
+        // Neue Tonart: Noten der vorherigen Tonart verwerfen (werden bei Bedarf neu erzeugt)
+        long keyId = ((long) rootIndex << 8) | scaleType.ordinal();
+        if (keyId != currentKeyId) {
+            currentKeyId = keyId;
+            currentKeyPhrases.clear();
+        }
 
         new Thread(() -> {
-            // Aufwärts
-            for (int interval : intervals) {
-                int noteFreqIndex = root + interval;
-                if (callback != null) {
-                    handler.post(() -> callback.onNotePlay(rootIndex, interval));
-                }
-                playNote(noteFreqIndex, NOTE_DURATION_MS);
-            }
+            // Vor Abschluss der Initialisierung angefordert: erst hervorheben, wenn der Ton kommt
+            awaitAudioTrack();
+            clearEffects();
 
-            // Abwärts (ohne erste und letzte Note zu wiederholen)
-            for (int i = intervals.length - 2; i >= 1; i--) {
-                final int currentInterval = intervals[i];
-                int noteFreqIndex = root + currentInterval;
+            for (Note note : notes) {
                 if (callback != null) {
-                    handler.post(() -> callback.onNotePlay(rootIndex, currentInterval));
+                    postToMain("ChordPlayer.onNotePlay", () -> callback.onNotePlay(rootIndex, note.interval));
                 }
-                playNote(noteFreqIndex, NOTE_DURATION_MS);
+                playNote(note, currentKeyPhrases, center);
             }
-
-            // Letzte Note (Grundton) länger
-            if (callback != null) {
-                handler.post(() -> callback.onNotePlay(rootIndex, 0));
-            }
-            playNote(root, NOTE_DURATION_LONG_MS);
+            playEffectsTail();
 
             // Hervorhebung zurücksetzen
             if (callback != null) {
-                handler.post(() -> callback.onScaleFinished());
+                postToMain("ChordPlayer.onScaleFinished", () -> callback.onScaleFinished());
             }
 
-            handler.post(() -> isPlaying = false);
+            postToMain("ChordPlayer.playbackFinished", () -> isPlaying = false);
         }).start();
+        return true;
+    }
+
+    /**
+     * Spielt eine Übungsfolge endlos und ohne Lücken, bis stopProgression() aufgerufen wird.
+     * Gerendert wird nur ein Block voraus (plus AudioTrack-Puffer), der Speicherbedarf ist
+     * unabhängig von der Dauer. Der Listener wird auf dem UI-Thread aufgerufen, wenn eine
+     * neue Phrase hörbar wird (zeitlich am Wiedergabekopf ausgerichtet).
+     * @param bpm Tempo in Vierteln pro Minute (120 = Tempo der Einzelwiedergabe)
+     */
+    public void playProgression(Progression sequence, double bpm, ProgressionListener listener) {
+        if (isPlaying) {
+            return;
+        }
+        isPlaying = true;
+        PerfMetrics.get().markTap();
+
+        ProgressionRenderer renderer = new ProgressionRenderer(sequence, pitchTable, bpm, null);
+        progression = renderer;
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+            AudioTrack track = awaitAudioTrack();
+            if (track != null && track.getState() == AudioTrack.STATE_INITIALIZED) {
+                streamProgression(renderer, track, listener);
+            }
+            postToMain("ChordPlayer.playbackFinished", () -> isPlaying = false);
+        }, "progression");
+        thread.start();
+    }
+
+    private void streamProgression(ProgressionRenderer renderer, AudioTrack track, ProgressionListener listener) {
+        AudioTrackSink sink = new AudioTrackSink(track);
+        renderer.setListener((frame, root, type) -> {
+            if (listener == null) {
+                return;
+            }
+            // Erst melden, wenn die Phrase aus dem Lautsprecher kommt
+            long delayMs = Math.max(0, (frame - sink.getPlayedFrames()) * 1000 / sampleRate);
+            handler.postAtTime(() -> {
+                if (progression == renderer) {
+                    listener.onPhrase(root, type);
+                }
+            }, PROGRESSION_TOKEN, SystemClock.uptimeMillis() + delayMs);
+        });
+
+        int channels = track.getChannelCount();
+        short[] block = new short[PROGRESSION_BLOCK_FRAMES * channels];
+        clearEffects();
+        PerfTrace.counter(PerfTrace.COUNTER_VOICES, activeVoices.incrementAndGet());
+        track.play();
+        PerfMetrics.get().onFirstSampleWritten();
+        while (progression == renderer) {
+            if (channels == 2) {
+                renderer.renderStereo(block, 0, PROGRESSION_BLOCK_FRAMES);
+            } else {
+                renderer.render(block, 0, PROGRESSION_BLOCK_FRAMES);
+            }
+            processEffects(block, PROGRESSION_BLOCK_FRAMES, channels);
+            sink.write(block, 0, block.length);
+        }
+        // Sofort verstummen statt den Puffer auslaufen zu lassen
+        track.pause();
+        track.flush();
+        PerfTrace.counter(PerfTrace.COUNTER_VOICES, activeVoices.decrementAndGet());
+    }
+
+    /**
+     * Ändert das Tempo der laufenden Übungsfolge ab der nächsten Note.
+     */
+    public void setProgressionTempo(double bpm) {
+        ProgressionRenderer renderer = progression;
+        if (renderer != null) {
+            renderer.setTempo(bpm);
+        }
+    }
+
+    /**
+     * Tempo der laufenden Übungsfolge oder 0, wenn keine läuft.
+     */
+    public double getProgressionTempo() {
+        ProgressionRenderer renderer = progression;
+        return renderer != null ? renderer.getTempo() : 0;
+    }
+
+    public boolean isProgressionPlaying() {
+        return progression != null;
+    }
+
+    /**
+     * Beendet die Übungsfolge nach dem aktuellen Block; ausstehende Scheiben-Callbacks entfallen.
+     */
+    public void stopProgression() {
+        progression = null;
+        handler.removeCallbacksAndMessages(PROGRESSION_TOKEN);
+    }
+
+    /**
+     * Callback für Übungsfolgen (UI-Thread).
+     */
+    public interface ProgressionListener {
+        void onPhrase(int rootIndex, PhraseType type);
+    }
+
+    /**
+     * Schreibt in den AudioTrack; der Wiedergabekopf zählt ab Beginn der Übungsfolge.
+     */
+    private static final class AudioTrackSink implements PcmSink {
+        private final AudioTrack track;
+        private final long startHead;
+
+        AudioTrackSink(AudioTrack track) {
+            this.track = track;
+            this.startHead = track.getPlaybackHeadPosition() & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public void write(short[] pcm, int offset, int length) {
+            PerfTrace.begin("AudioTrack.write");
+            track.write(pcm, offset, length);
+            PerfTrace.end();
+        }
+
+        @Override
+        public long getPlayedFrames() {
+            return (track.getPlaybackHeadPosition() & 0xFFFFFFFFL) - startHead;
+        }
     }
 
     /**
@@ -266,7 +755,9 @@ public class ChordPlayer {
     /**
      * Gibt Ressourcen frei.
      */
-    public void release() {
+    public synchronized void release() {
+        released = true;
+        stopProgression();
         if (audioTrack != null) {
             audioTrack.release();
             audioTrack = null;
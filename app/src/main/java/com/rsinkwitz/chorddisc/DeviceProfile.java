@@ -0,0 +1,283 @@
+package com.rsinkwitz.chorddisc;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Leistungsprofil des Geräts.
+ * Wird beim ersten Start einer App-Version durch eine kurze Messung im Hintergrund bestimmt
+ * und legt Cache-Größen, Layer-Strategie, Audio-Parameter und Render-Qualität fest.
+ * Bis die Messung fertig ist, gilt das zuletzt gespeicherte Profil bzw. die mittlere Klasse.
+ */
+public class DeviceProfile {
+
+    // Leistungsklassen
+    public enum PerformanceClass {
+        LOW,                // Alte/schwache Geräte (z.B. API 21, wenig RAM)
+        MID,                // Durchschnittliche Geräte
+        HIGH                // Aktuelle, schnelle Geräte
+    }
+
+    private static final String PREFS_NAME = "device_profile";
+    private static final String KEY_VERSION_CODE = "version_code";
+    private static final String KEY_CLASS = "performance_class";
+    private static final String KEY_OVERRIDE = "override_class";
+
+    // Grenzwerte für die Klassifizierung
+    private static final int LOW_MEMORY_CLASS_MB = 64;
+    private static final int HIGH_MEMORY_CLASS_MB = 256;
+    private static final long HIGH_TOTAL_MEM_BYTES = 4L * 1024 * 1024 * 1024;
+    private static final float LOW_RENDER_BENCH_MS = 12f;
+    private static final float HIGH_RENDER_BENCH_MS = 4f;
+    private static final float LOW_SYNTH_BENCH_MS = 8f;
+    private static final float HIGH_SYNTH_BENCH_MS = 2f;
+
+    // Klasse, solange noch keine Messung vorliegt (wie ChordPlayer ohne Profil)
+    static final PerformanceClass DEFAULT_CLASS = PerformanceClass.MID;
+
+    // Messung läuft einmal, nicht auf dem UI-Thread
+    private static final ExecutorService PROBE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "device-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Empfängt das gemessene Profil (auf dem UI-Thread).
+     */
+    public interface ProbeListener {
+        void onProfileMeasured(DeviceProfile profile);
+    }
+
+    // Override für Tests (hat Vorrang vor gespeichertem Profil)
+    private static PerformanceClass testOverride = null;
+
+    public final PerformanceClass performanceClass;
+    public final int cacheBudgetBytes;      // Obergrenze für gecachte Layer/Phrasen
+    public final boolean useLayerCache;     // true = Layer als Bitmap cachen, false = direkt zeichnen
+    public final int audioSampleRate;       // Abtastrate der Synthese in Hz
+    public final int audioBufferMultiplier; // Vielfaches von AudioTrack.getMinBufferSize
+    public final ChordDiscView.RenderQuality motionQuality; // Qualität während Bewegung
+
+    private DeviceProfile(PerformanceClass performanceClass, int cacheBudgetBytes, boolean useLayerCache,
+                          int audioSampleRate, int audioBufferMultiplier,
+                          ChordDiscView.RenderQuality motionQuality) {
+        this.performanceClass = performanceClass;
+        this.cacheBudgetBytes = cacheBudgetBytes;
+        this.useLayerCache = useLayerCache;
+        this.audioSampleRate = audioSampleRate;
+        this.audioBufferMultiplier = audioBufferMultiplier;
+        this.motionQuality = motionQuality;
+    }
+
+    /**
+     * Liefert das feste Profil zu einer Leistungsklasse.
+     */
+    public static DeviceProfile forClass(PerformanceClass performanceClass) {
+        switch (performanceClass) {
+            case LOW:
+                // 22.05 kHz halbiert die Synthese-Arbeit, größerer Puffer gegen Aussetzer
+                return new DeviceProfile(PerformanceClass.LOW, 4 * 1024 * 1024, false,
+                    22050, 4, ChordDiscView.RenderQuality.LOW);
+            case HIGH:
+                return new DeviceProfile(PerformanceClass.HIGH, 32 * 1024 * 1024, true,
+                    44100, 1, ChordDiscView.RenderQuality.MOTION);
+            case MID:
+            default:
+                return new DeviceProfile(PerformanceClass.MID, 12 * 1024 * 1024, true,
+                    44100, 2, ChordDiscView.RenderQuality.MOTION);
+        }
+    }
+
+    /**
+     * Erzwingt eine Leistungsklasse für Tests (null = normales Verhalten).
+     */
+    public static void setTestOverride(PerformanceClass performanceClass) {
+        testOverride = performanceClass;
+    }
+
+    /**
+     * Speichert eine dauerhafte Leistungsklasse (z.B. zum Testen auf einem Gerät).
+     * @param performanceClass erzwungene Klasse oder null zum Zurücksetzen
+     */
+    public static void setPersistentOverride(Context context, PerformanceClass performanceClass) {
+        SharedPreferences.Editor editor = prefs(context).edit();
+        if (performanceClass == null) {
+            editor.remove(KEY_OVERRIDE);
+        } else {
+            editor.putString(KEY_OVERRIDE, performanceClass.name());
+        }
+        editor.apply();
+    }
+
+    /**
+     * Liefert sofort ein Profil ohne Messung: Override, sonst die zuletzt gemessene Klasse
+     * (auch aus einer älteren App-Version), sonst DEFAULT_CLASS.
+     */
+    public static DeviceProfile loadSaved(Context context) {
+        if (testOverride != null) {
+            return forClass(testOverride);
+        }
+        SharedPreferences prefs = prefs(context);
+        PerformanceClass override = parseClass(prefs.getString(KEY_OVERRIDE, null));
+        if (override != null) {
+            return forClass(override);
+        }
+        PerformanceClass stored = parseClass(prefs.getString(KEY_CLASS, null));
+        return forClass(stored != null ? stored : DEFAULT_CLASS);
+    }
+
+    /**
+     * Startet die Messung im Hintergrund, falls für diese App-Version noch keine vorliegt
+     * und keine Klasse erzwungen ist. Das Ergebnis wird gespeichert und dem Listener auf dem
+     * UI-Thread gemeldet; ohne Messung wird der Listener nicht aufgerufen.
+     */
+    public static void probeInBackground(Context context, ProbeListener listener) {
+        if (testOverride != null) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        PROBE_EXECUTOR.execute(() -> {
+            SharedPreferences prefs = prefs(appContext);
+            if (parseClass(prefs.getString(KEY_OVERRIDE, null)) != null) {
+                return;
+            }
+            long versionCode = getVersionCode(appContext);
+            PerformanceClass stored = parseClass(prefs.getString(KEY_CLASS, null));
+            if (stored != null && prefs.getLong(KEY_VERSION_CODE, -1) == versionCode) {
+                return;
+            }
+            PerformanceClass measured = probe(appContext);
+            prefs.edit()
+                .putLong(KEY_VERSION_CODE, versionCode)
+                .putString(KEY_CLASS, measured.name())
+                .apply();
+            DeviceProfile profile = forClass(measured);
+            mainHandler.post(() -> listener.onProfileMeasured(profile));
+        });
+    }
+
+    /**
+     * Klassifiziert das Gerät anhand von Speicher, Kernen und einer kurzen
+     * Zeichen-/Synthese-Messung. Läuft auf einem Hintergrund-Thread.
+     */
+    static PerformanceClass probe(Context context) {
+        ActivityManager activityManager =
+            (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+
+        int memoryClassMb = activityManager.getMemoryClass();
+        boolean lowRam = activityManager.isLowRamDevice();
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        float renderMs = benchmarkRender();
+        float synthMs = benchmarkSynth();
+
+        if (lowRam || cores <= 2 || memoryClassMb <= LOW_MEMORY_CLASS_MB
+                || renderMs > LOW_RENDER_BENCH_MS || synthMs > LOW_SYNTH_BENCH_MS) {
+            return PerformanceClass.LOW;
+        }
+        if (cores >= 8 && memoryClassMb >= HIGH_MEMORY_CLASS_MB && memoryInfo.totalMem >= HIGH_TOTAL_MEM_BYTES
+                && renderMs < HIGH_RENDER_BENCH_MS && synthMs < HIGH_SYNTH_BENCH_MS) {
+            return PerformanceClass.HIGH;
+        }
+        return PerformanceClass.MID;
+    }
+
+    /**
+     * Zeichnet eine verkleinerte Scheibe (19 Kreise mit Text) in ein Software-Bitmap.
+     * @return Dauer eines Durchgangs in Millisekunden (bester von 3)
+     */
+    private static float benchmarkRender() {
+        Bitmap bitmap = Bitmap.createBitmap(256, 256, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(2f);
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setTextSize(14f);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            canvas.drawColor(Color.WHITE);
+            canvas.save();
+            canvas.translate(128, 128);
+            canvas.drawCircle(0, 0, 120, paint);
+            for (int i = 0; i < 19; i++) {
+                canvas.save();
+                canvas.rotate(360f / 19f * i);
+                canvas.translate(0, -96);
+                canvas.drawCircle(0, 0, 16, paint);
+                canvas.drawText("C♯", 0, 5, textPaint);
+                canvas.restore();
+            }
+            canvas.restore();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        bitmap.recycle();
+        return best / 1_000_000f;
+    }
+
+    /**
+     * Erzeugt eine Note (0.25 s bei 44.1 kHz) wie ChordPlayer.playNote.
+     * @return Dauer eines Durchgangs in Millisekunden (bester von 3)
+     */
+    private static float benchmarkSynth() {
+        int numSamples = 44100 / 4;
+        short[] buffer = new short[numSamples];
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < numSamples; i++) {
+                double sample = Math.sin(2.0 * Math.PI * 440.0 * i / 44100.0);
+                buffer[i] = (short) (sample * 0.6 * Short.MAX_VALUE);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000f;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static PerformanceClass parseClass(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return PerformanceClass.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null; // Unbekannter Wert aus älterer Version
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static long getVersionCode(Context context) {
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                return info.getLongVersionCode();
+            }
+            return info.versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.rsinkwitz.chorddisc;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches der Scheibe je Größenklasse (View-Größe), geteilt von allen Scheiben gleicher Größe.
+ * Mehrere Scheiben (Vergleichsansicht, Raster der 12 Dur-Tonarten) unterscheiden sich nur in
+ * Rotation und Hervorhebung: obere Scheibe, Körper der unteren Scheibe, Beschriftungs-Atlanten,
+ * Rahmen und Treffer-Index werden pro Größe nur einmal gebaut, und mit Hardware-Beschleunigung
+ * wird jede geteilte Bitmap nur einmal als Textur hochgeladen.
+ */
+final class DiscCachePool {
+
+    // Hauptscheibe, Vergleichsansicht und Raster gleichzeitig; ältere Größen werden geräumt
+    private static final int MAX_SIZE_CLASSES = 3;
+
+    private final LinkedHashMap<Long, DiscCaches> bySize = new LinkedHashMap<>(4, 0.75f, true);
+    private CacheRegistry registry;
+
+    synchronized void setRegistry(CacheRegistry registry) {
+        this.registry = registry;
+        for (DiscCaches caches : bySize.values()) {
+            caches.setRegistry(registry);
+        }
+    }
+
+    /**
+     * Liefert die Caches für die Größe der Geometrie (legt sie bei Bedarf an).
+     * Nur vom UI-Thread aufrufen (onSizeChanged).
+     */
+    synchronized DiscCaches obtain(DiscGeometry geometry) {
+        long key = geometry.sizeKey();
+        DiscCaches caches = bySize.get(key);
+        if (caches == null) {
+            caches = new DiscCaches();
+            if (registry != null) {
+                caches.setRegistry(registry);
+            }
+            bySize.put(key, caches);
+            trim();
+        }
+        return caches;
+    }
+
+    /**
+     * Anzahl der aktuell gehaltenen Größenklassen (für das Mess-Overlay).
+     */
+    synchronized int getSizeClassCount() {
+        return bySize.size();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Long, DiscCaches>> iterator = bySize.entrySet().iterator();
+        while (bySize.size() > MAX_SIZE_CLASSES && iterator.hasNext()) {
+            DiscCaches eldest = iterator.next().getValue();
+            iterator.remove();
+            eldest.release();
+        }
+    }
+}
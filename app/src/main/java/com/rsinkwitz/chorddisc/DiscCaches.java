@@ -0,0 +1,45 @@
+package com.rsinkwitz.chorddisc;
+
+/**
+ * Sammlung der gecachten Artefakte einer Scheibe.
+ * Gehört nicht zur View, damit sie (wie die Audio-Engine) Konfigurationswechsel
+ * im ViewModel überlebt; Artefakte passender Größe werden dann unverändert weiterverwendet.
+ * Über den DiscCachePool teilen sich alle Scheiben gleicher Größe eine Instanz.
+ */
+final class DiscCaches {
+
+    final BitmapLayer topDiscLayer = new BitmapLayer(CacheRegistry.Priority.RENDER_LAYER);
+    final BitmapLayer bottomDiscLayer = new BitmapLayer(CacheRegistry.Priority.RENDER_LAYER);
+    final LabelAtlas labelAtlas = new LabelAtlas(1f);
+    final LabelAtlas labelAtlasLow = new LabelAtlas(0.5f); // Reduzierte Auflösung für LOW
+    volatile DiscLayerFactory.FrameShape frameShape;
+    volatile HitTestIndex hitTestIndex;
+    private CacheRegistry registry;
+
+    /**
+     * Meldet Layer und Beschriftungs-Atlanten bei der zentralen Cache-Verwaltung an.
+     */
+    void setRegistry(CacheRegistry registry) {
+        this.registry = registry;
+        topDiscLayer.setRegistry(registry);
+        bottomDiscLayer.setRegistry(registry);
+        labelAtlas.setRegistry(registry);
+        labelAtlasLow.setRegistry(registry);
+    }
+
+    /**
+     * Verwirft alle Artefakte und meldet sie bei der Cache-Verwaltung ab
+     * (Größenklasse wird nicht mehr gebraucht).
+     */
+    void release() {
+        CacheRegistry.Entry[] entries = {topDiscLayer, bottomDiscLayer, labelAtlas, labelAtlasLow};
+        for (CacheRegistry.Entry entry : entries) {
+            entry.evict();
+            if (registry != null) {
+                registry.unregister(entry);
+            }
+        }
+        frameShape = null;
+        hitTestIndex = null;
+    }
+}
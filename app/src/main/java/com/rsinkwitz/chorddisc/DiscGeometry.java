@@ -0,0 +1,59 @@
+package com.rsinkwitz.chorddisc;
+
+import com.rsinkwitz.chorddisc.core.DiscProportions;
+
+/**
+ * Unveränderliche Geometrie der Scheibe für eine View-Größe.
+ * Kann gefahrlos an Hintergrund-Threads übergeben werden.
+ */
+final class DiscGeometry {
+
+    final int width;
+    final int height;
+    final float centerX;
+    final float centerY;
+    final float outerRadius;
+    final float innerRadius;
+    final float noteCircleRadius;
+    final float notePositionRadius;
+    final float indicatorPositionRadius;
+    final float indicatorSize;
+    final float textSize;
+    final float textSizeSmall;
+
+    private DiscGeometry(int width, int height) {
+        this.width = width;
+        this.height = height;
+        centerX = width / 2f;
+        centerY = height / 2f;
+
+        // Verwende 96% der kleineren Dimension für den Radius (volle Breite nutzen)
+        float minDimension = Math.min(width, height);
+        outerRadius = minDimension * DiscProportions.OUTER_RADIUS_OF_MIN_DIMENSION;
+        innerRadius = outerRadius * DiscProportions.INNER_RADIUS;
+        noteCircleRadius = outerRadius * DiscProportions.NOTE_CIRCLE_RADIUS;
+        notePositionRadius = outerRadius * DiscProportions.NOTE_POSITION_RADIUS;
+        indicatorPositionRadius = outerRadius * DiscProportions.INDICATOR_POSITION_RADIUS;
+        indicatorSize = outerRadius * DiscProportions.INDICATOR_SIZE;
+        textSize = outerRadius * DiscProportions.TEXT_SIZE;
+        textSizeSmall = outerRadius * DiscProportions.TEXT_SIZE_SMALL;
+    }
+
+    static DiscGeometry forSize(int width, int height) {
+        return new DiscGeometry(width, height);
+    }
+
+    /**
+     * true, wenn beide Geometrien zur gleichen View-Größe gehören.
+     */
+    boolean sameSize(DiscGeometry other) {
+        return other != null && width == other.width && height == other.height;
+    }
+
+    /**
+     * Schlüssel für größenabhängige Caches.
+     */
+    long sizeKey() {
+        return ((long) width << 32) | (height & 0xFFFFFFFFL);
+    }
+}
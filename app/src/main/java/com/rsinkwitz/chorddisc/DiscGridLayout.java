@@ -0,0 +1,144 @@
+package com.rsinkwitz.chorddisc;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Zeigt mehrere unabhängige Scheiben gleichzeitig, z.B. für den Unterricht zu Modulationen:
+ * die aktuelle Tonart zwischen Subdominante und Dominante oder alle 12 Dur-Tonarten im Raster.
+ * Jede Zelle ist eine eigene ChordDiscView mit eigener Rotation; alle Zellen sind gleich groß
+ * und teilen sich daher über den DiscCachePool Layer, Atlanten und Rahmen.
+ */
+public class DiscGridLayout extends ViewGroup {
+
+    public enum Mode {
+        RELATED_KEYS,       // Subdominante, aktuelle Tonart, Dominante
+        ALL_MAJOR_KEYS      // Alle 12 Dur-Tonarten im Quintenzirkel
+    }
+
+    private static final int BACKGROUND_COLOR = 0xFFF5F5F5;
+
+    private final ChordPlayer chordPlayer;
+    private DeviceProfile deviceProfile;
+    private final DiscCachePool cachePool;
+    private int columns = 1;
+    private int rows = 1;
+    private int cellSize = 0;
+
+    public DiscGridLayout(Context context, ChordPlayer chordPlayer, DeviceProfile deviceProfile,
+                          DiscCachePool cachePool) {
+        super(context);
+        this.chordPlayer = chordPlayer;
+        this.deviceProfile = deviceProfile;
+        this.cachePool = cachePool;
+        setBackgroundColor(BACKGROUND_COLOR);
+        // Berührungen nicht an die darunterliegende Hauptscheibe weiterreichen
+        setClickable(true);
+    }
+
+    /**
+     * Zeigt die Scheiben des Modus. Einstellungen (Tonleiter, Akkord-Typ, Tap-Modus,
+     * Transparenz, Notation) und Ausgangsrotation kommen von der Hauptscheibe; jede Scheibe dreht sich
+     * von dort animiert in ihre Tonart.
+     */
+    public void show(Mode mode, ChordDiscView source) {
+        int[] keys = keysFor(mode, source.getCurrentNoteIndex());
+        ensureDiscCount(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            ChordDiscView disc = (ChordDiscView) getChildAt(i);
+            disc.setTapMode(source.getTapMode());
+            disc.setChordType(source.getChordType());
+            disc.setScaleType(source.getScaleType());
+            disc.setTopDiscTransparent(source.isTopDiscTransparent());
+            disc.setNotationLanguage(source.isGermanNotation());
+            disc.setCompact(mode == Mode.ALL_MAJOR_KEYS);
+            disc.setBottomDiscRotation(source.getBottomDiscRotation());
+            disc.animateToNote(keys[i]);
+        }
+        requestLayout();
+    }
+
+    /**
+     * Überträgt eine geänderte Notation auf alle Scheiben.
+     */
+    public void setNotationLanguage(boolean useGermanNotation) {
+        for (int i = 0; i < getChildCount(); i++) {
+            ((ChordDiscView) getChildAt(i)).setNotationLanguage(useGermanNotation);
+        }
+    }
+
+    /**
+     * Überträgt ein nachträglich gemessenes Geräteprofil auf alle Scheiben.
+     */
+    public void setDeviceProfile(DeviceProfile profile) {
+        deviceProfile = profile;
+        for (int i = 0; i < getChildCount(); i++) {
+            ((ChordDiscView) getChildAt(i)).setDeviceProfile(profile);
+        }
+    }
+
+    private static int[] keysFor(Mode mode, int currentNote) {
+        if (mode == Mode.ALL_MAJOR_KEYS) {
+            return ChordPlayer.CIRCLE_OF_FIFTHS.clone();
+        }
+        return new int[]{
+            ChordPlayer.circleOfFifthsStep(currentNote, -1),
+            currentNote,
+            ChordPlayer.circleOfFifthsStep(currentNote, 1)
+        };
+    }
+
+    /**
+     * Legt fehlende Scheiben an bzw. entfernt überzählige; vorhandene werden weiterverwendet.
+     */
+    private void ensureDiscCount(int count) {
+        while (getChildCount() > count) {
+            removeViewAt(getChildCount() - 1);
+        }
+        while (getChildCount() < count) {
+            ChordDiscView disc = new ChordDiscView(getContext(), chordPlayer);
+            disc.setDeviceProfile(deviceProfile);
+            disc.setDiscCachePool(cachePool);
+            addView(disc);
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = MeasureSpec.getSize(heightMeasureSpec);
+        setMeasuredDimension(width, height);
+
+        // Spaltenzahl mit den größten quadratischen Zellen wählen
+        int count = Math.max(1, getChildCount());
+        cellSize = 0;
+        for (int cols = 1; cols <= count; cols++) {
+            int r = (count + cols - 1) / cols;
+            int size = Math.min(width / cols, height / r);
+            if (size > cellSize) {
+                cellSize = size;
+                columns = cols;
+                rows = r;
+            }
+        }
+
+        // Alle Zellen exakt gleich groß: eine Größenklasse im DiscCachePool
+        int cellSpec = MeasureSpec.makeMeasureSpec(cellSize, MeasureSpec.EXACTLY);
+        for (int i = 0; i < getChildCount(); i++) {
+            getChildAt(i).measure(cellSpec, cellSpec);
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        int offsetX = (right - left - columns * cellSize) / 2;
+        int offsetY = (bottom - top - rows * cellSize) / 2;
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            int x = offsetX + (i % columns) * cellSize;
+            int y = offsetY + (i / columns) * cellSize;
+            child.layout(x, y, x + cellSize, y + cellSize);
+        }
+    }
+}
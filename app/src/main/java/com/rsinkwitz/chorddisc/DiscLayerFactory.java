@@ -0,0 +1,146 @@
+package com.rsinkwitz.chorddisc;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+
+/**
+ * Erzeugt die aufwändigen, größenabhängigen Artefakte der Scheibe
+ * (obere Scheibe, Körper der unteren Scheibe, Rahmen-Pfad).
+ * Jede Instanz hat eigene Paint-Objekte und kann daher auf einem Hintergrund-Thread laufen.
+ */
+final class DiscLayerFactory {
+
+    private static final float CIRCLE_STROKE_WIDTH = 3f;
+
+    /**
+     * Rahmen um die Scheiben als Pfad (Rechteck minus Kreis), gültig für eine Geometrie.
+     */
+    static final class FrameShape {
+        final DiscGeometry geometry;
+        final Path path;
+
+        FrameShape(DiscGeometry geometry, Path path) {
+            this.geometry = geometry;
+            this.path = path;
+        }
+    }
+
+    private final Paint circlePaint;
+    private final Paint holePaint;
+    private final Paint topDiscPaint;
+    private final Paint clearPaint;
+
+    DiscLayerFactory() {
+        circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        circlePaint.setColor(Color.BLACK);
+        circlePaint.setStyle(Paint.Style.STROKE);
+        circlePaint.setStrokeWidth(CIRCLE_STROKE_WIDTH);
+
+        holePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        holePaint.setColor(Color.WHITE);
+        holePaint.setStyle(Paint.Style.FILL);
+
+        topDiscPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        topDiscPaint.setStyle(Paint.Style.FILL);
+
+        clearPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        clearPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+    }
+
+    /**
+     * Erstellt den Layer der oberen Scheibe in View-Größe.
+     * @param holes true an jeder Position mit Loch
+     * @param discColor Farbe der Scheibe (deckend oder transparent)
+     */
+    Bitmap createTopDiscLayer(DiscGeometry geometry, boolean[] holes, int discColor) {
+        Bitmap layer = Bitmap.createBitmap(geometry.width, geometry.height, Bitmap.Config.ARGB_8888);
+        paintTopDiscBody(new Canvas(layer), geometry, holes, discColor);
+        return layer;
+    }
+
+    /**
+     * Zeichnet die gefüllte obere Scheibe mit ausgeschnittenen Löchern und Indikator-Fenster
+     * (CLEAR-Modus braucht ein eigenes Bitmap als Ziel).
+     */
+    void paintTopDiscBody(Canvas topDiscCanvas, DiscGeometry geometry, boolean[] holes, int discColor) {
+        topDiscPaint.setColor(discColor);
+
+        topDiscCanvas.save();
+        topDiscCanvas.translate(geometry.centerX, geometry.centerY);
+
+        // Zeichne die gefüllte obere Scheibe
+        topDiscCanvas.drawCircle(0, 0, geometry.outerRadius, topDiscPaint);
+
+        // Schneide echte Löcher aus
+        for (int i = 0; i < 19; i++) {
+            if (holes[i]) {
+                float angle = 360f / 19f * i;
+                topDiscCanvas.save();
+                topDiscCanvas.rotate(angle);
+                topDiscCanvas.translate(0, -geometry.notePositionRadius);
+
+                // Schneide ein echtes transparentes Loch aus
+                topDiscCanvas.drawCircle(0, 0, geometry.noteCircleRadius, clearPaint);
+
+                topDiscCanvas.restore();
+            }
+        }
+
+        // Schneide ein echtes transparentes Rechteck für den Indikator aus
+        float rectLeft = -geometry.indicatorSize / 2;
+        float rectTop = -geometry.indicatorPositionRadius - geometry.indicatorSize / 2;
+        topDiscCanvas.drawRect(rectLeft, rectTop,
+            rectLeft + geometry.indicatorSize, rectTop + geometry.indicatorSize, clearPaint);
+
+        topDiscCanvas.restore();
+    }
+
+    /**
+     * Erstellt den Körper der unteren Scheibe (Kreise ohne Beschriftung und Hervorhebung),
+     * zentriert in einem quadratischen Bitmap. Wird beim Zeichnen nur noch rotiert.
+     */
+    Bitmap createBottomDiscBody(DiscGeometry geometry) {
+        int size = bottomDiscBodySize(geometry);
+        Bitmap body = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(body);
+        canvas.translate(size / 2f, size / 2f);
+
+        // Äußerer und innerer Kreis
+        canvas.drawCircle(0, 0, geometry.outerRadius, circlePaint);
+        canvas.drawCircle(0, 0, geometry.innerRadius, circlePaint);
+
+        // Kreise der 19 Noten-Positionen
+        for (int i = 0; i < 19; i++) {
+            canvas.save();
+            canvas.rotate(360f / 19f * i);
+            canvas.translate(0, -geometry.notePositionRadius);
+            canvas.drawCircle(0, 0, geometry.noteCircleRadius, holePaint);
+            canvas.drawCircle(0, 0, geometry.noteCircleRadius, circlePaint);
+            canvas.restore();
+        }
+        return body;
+    }
+
+    /**
+     * Kantenlänge des Bitmaps für den Körper der unteren Scheibe (inkl. Strichbreite).
+     */
+    static int bottomDiscBodySize(DiscGeometry geometry) {
+        return (int) Math.ceil(2 * geometry.outerRadius + 2 * CIRCLE_STROKE_WIDTH);
+    }
+
+    /**
+     * Rahmen als Pfad: gesamte Fläche mit ausgespartem Scheibenkreis (Even-Odd-Füllung).
+     */
+    FrameShape createFrameShape(DiscGeometry geometry) {
+        Path path = new Path();
+        path.setFillType(Path.FillType.EVEN_ODD);
+        path.addRect(0, 0, geometry.width, geometry.height, Path.Direction.CW);
+        path.addCircle(geometry.centerX, geometry.centerY, geometry.outerRadius, Path.Direction.CW);
+        return new FrameShape(geometry, path);
+    }
+}
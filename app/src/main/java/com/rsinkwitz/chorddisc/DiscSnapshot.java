@@ -0,0 +1,154 @@
+package com.rsinkwitz.chorddisc;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.util.Log;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Letztes gezeichnetes Bild der Scheibe samt Rotation und Modi.
+ * Wird beim Pausieren gespeichert und beim nächsten Kaltstart sofort als Platzhalter
+ * angezeigt, bis die echte View ihre Caches aufgebaut hat.
+ */
+public class DiscSnapshot {
+
+    private static final String TAG = "DiscSnapshot";
+    private static final String PREFS_NAME = "disc_snapshot";
+    private static final String IMAGE_FILE = "disc_snapshot.webp";
+    private static final int IMAGE_QUALITY = 80; // Verlustbehaftet: ein Platzhalter muss klein sein
+
+    private static final String KEY_VALID = "valid";
+    private static final String KEY_ROTATION = "rotation";
+    private static final String KEY_TAP_MODE = "tap_mode";
+    private static final String KEY_CHORD_TYPE = "chord_type";
+    private static final String KEY_SCALE_TYPE = "scale_type";
+    private static final String KEY_TRANSPARENT = "transparent";
+    private static final String KEY_GERMAN = "german_notation";
+    private static final String KEY_WIDTH = "width";
+    private static final String KEY_HEIGHT = "height";
+
+    public final float bottomDiscRotation;
+    public final ChordDiscView.TapMode tapMode;
+    public final ChordDiscView.ChordType chordType;
+    public final ChordDiscView.ScaleType scaleType;
+    public final boolean topDiscTransparent;
+    public final boolean germanNotation;
+    public final int width;
+    public final int height;
+
+    private DiscSnapshot(float bottomDiscRotation, ChordDiscView.TapMode tapMode,
+                         ChordDiscView.ChordType chordType, ChordDiscView.ScaleType scaleType,
+                         boolean topDiscTransparent, boolean germanNotation, int width, int height) {
+        this.bottomDiscRotation = bottomDiscRotation;
+        this.tapMode = tapMode;
+        this.chordType = chordType;
+        this.scaleType = scaleType;
+        this.topDiscTransparent = topDiscTransparent;
+        this.germanNotation = germanNotation;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Lädt Zustand des letzten Laufs (ohne Bild).
+     * @return null, wenn keiner gespeichert ist oder die Werte nicht lesbar sind
+     */
+    public static DiscSnapshot loadState(Context context) {
+        SharedPreferences prefs = prefs(context);
+        if (!prefs.getBoolean(KEY_VALID, false)) {
+            return null;
+        }
+        try {
+            return new DiscSnapshot(
+                prefs.getFloat(KEY_ROTATION, 0f),
+                ChordDiscView.TapMode.valueOf(prefs.getString(KEY_TAP_MODE, "")),
+                ChordDiscView.ChordType.valueOf(prefs.getString(KEY_CHORD_TYPE, "")),
+                ChordDiscView.ScaleType.valueOf(prefs.getString(KEY_SCALE_TYPE, "")),
+                prefs.getBoolean(KEY_TRANSPARENT, false),
+                prefs.getBoolean(KEY_GERMAN, false),
+                prefs.getInt(KEY_WIDTH, 0),
+                prefs.getInt(KEY_HEIGHT, 0));
+        } catch (IllegalArgumentException e) {
+            return null; // Unbekannter Wert aus älterer Version
+        }
+    }
+
+    /**
+     * Dekodiert das gespeicherte Bild (null, wenn keines vorhanden ist).
+     */
+    public static Bitmap loadImage(Context context) {
+        File file = imageFile(context);
+        if (!file.isFile()) {
+            return null;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = Bitmap.Config.RGB_565; // Kein Alpha nötig, halber Speicher
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    /**
+     * Zeichnet die View in ein Bitmap (UI-Thread) und speichert Bild und Zustand im Hintergrund.
+     * Das Bild wird erst geschrieben und danach als gültig markiert, damit ein Abbruch
+     * keinen Zustand ohne passendes Bild hinterlässt.
+     */
+    public static void save(Context context, ChordDiscView view) {
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        if (width == 0 || height == 0) {
+            return;
+        }
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+        view.draw(new Canvas(bitmap));
+
+        final Context appContext = context.getApplicationContext();
+        final SharedPreferences.Editor state = prefs(appContext).edit()
+            .putFloat(KEY_ROTATION, view.getBottomDiscRotation())
+            .putString(KEY_TAP_MODE, view.getTapMode().name())
+            .putString(KEY_CHORD_TYPE, view.getChordType().name())
+            .putString(KEY_SCALE_TYPE, view.getScaleType().name())
+            .putBoolean(KEY_TRANSPARENT, view.isTopDiscTransparent())
+            .putBoolean(KEY_GERMAN, view.isGermanNotation())
+            .putInt(KEY_WIDTH, width)
+            .putInt(KEY_HEIGHT, height)
+            .putBoolean(KEY_VALID, true);
+
+        new Thread(() -> {
+            File file = imageFile(appContext);
+            File temp = new File(file.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(temp)) {
+                bitmap.compress(webpFormat(), IMAGE_QUALITY, out);
+            } catch (IOException e) {
+                Log.w(TAG, "Snapshot nicht gespeichert", e);
+                return;
+            } finally {
+                bitmap.recycle();
+            }
+            if (temp.renameTo(file)) {
+                state.apply();
+            }
+        }, "disc-snapshot").start();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return Bitmap.CompressFormat.WEBP_LOSSY;
+        }
+        return Bitmap.CompressFormat.WEBP;
+    }
+
+    private static File imageFile(Context context) {
+        return new File(context.getFilesDir(), IMAGE_FILE);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,127 @@
+package com.rsinkwitz.chorddisc;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import com.rsinkwitz.chorddisc.core.GestureLog;
+import com.rsinkwitz.chorddisc.core.GestureLogWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Zeichnet jedes MotionEvent, das ChordDiscView.onTouchEvent erreicht, mit allen historischen
+ * Samples und Zeigerdaten in eine Binärdatei auf (Format siehe GestureLog). Der UI-Thread
+ * schreibt nur in vorab angelegte Puffer, die Datei schreibt der Thread des GestureLogWriter.
+ * Abspielen mit GestureReplay (Gerät) oder GestureTool (JVM).
+ */
+public class GestureRecorder {
+
+    static final String FILE_PREFIX = "gestures-";
+    static final String FILE_SUFFIX = ".cdgl";
+
+    private final File file;
+    private final GestureLogWriter writer;
+    private final long startUptime;
+
+    /**
+     * Beginnt die Aufzeichnung nach files/metrics/ (Verzeichnis und Datei legt der Schreib-Thread
+     * an) und schreibt den Ausgangszustand der Scheibe.
+     */
+    public GestureRecorder(Context context, ChordDiscView view) {
+        long now = System.currentTimeMillis();
+        file = new File(PerfMetrics.metricsPath(context), FILE_PREFIX + now + FILE_SUFFIX);
+        writer = new GestureLogWriter(file, now);
+        startUptime = SystemClock.uptimeMillis();
+
+        ByteBuffer out = writer.begin(GestureLog.STATE_BYTES);
+        if (out != null) {
+            out.put(GestureLog.TYPE_STATE)
+                .putFloat(view.getBottomDiscRotation())
+                .put((byte) view.getScaleType().ordinal())
+                .put((byte) view.getChordType().ordinal())
+                .put((byte) view.getTapMode().ordinal())
+                .put((byte) (view.isTopDiscTransparent() ? 1 : 0));
+        }
+        recordSize(view.getWidth(), view.getHeight());
+    }
+
+    /**
+     * Neue Größe der View (Replay passt die Offscreen-View an).
+     */
+    public void recordSize(int width, int height) {
+        ByteBuffer out = writer.begin(GestureLog.SIZE_BYTES);
+        if (out != null) {
+            out.put(GestureLog.TYPE_SIZE).putInt(width).putInt(height);
+        }
+    }
+
+    /**
+     * Schreibt das Event; allokiert nicht (nur UI-Thread).
+     */
+    public void record(MotionEvent event) {
+        int pointerCount = event.getPointerCount();
+        int historySize = event.getHistorySize();
+        ByteBuffer out = writer.begin(GestureLog.eventBytes(pointerCount, historySize));
+        if (out == null) {
+            return;
+        }
+        int action = event.getActionMasked();
+        out.put(GestureLog.TYPE_EVENT)
+            .put((byte) action)
+            .put((byte) event.getActionIndex())
+            .put((byte) pointerCount)
+            .putShort((short) historySize)
+            .putInt((int) (event.getDownTime() - startUptime));
+        for (int p = 0; p < pointerCount; p++) {
+            out.put((byte) event.getPointerId(p)).put((byte) event.getToolType(p));
+        }
+        for (int h = 0; h < historySize; h++) {
+            out.putInt((int) (event.getHistoricalEventTime(h) - startUptime));
+            for (int p = 0; p < pointerCount; p++) {
+                out.putFloat(event.getHistoricalX(p, h))
+                    .putFloat(event.getHistoricalY(p, h))
+                    .putFloat(event.getHistoricalPressure(p, h))
+                    .putFloat(event.getHistoricalSize(p, h));
+            }
+        }
+        out.putInt((int) (event.getEventTime() - startUptime));
+        for (int p = 0; p < pointerCount; p++) {
+            out.putFloat(event.getX(p))
+                .putFloat(event.getY(p))
+                .putFloat(event.getPressure(p))
+                .putFloat(event.getSize(p));
+        }
+
+        // Am Gestenende schreiben, damit ein Absturz höchstens die laufende Geste kostet
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Beendet die Aufzeichnung; die Datei wird im Hintergrund fertig geschrieben.
+     */
+    public void stop() {
+        writer.close();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getRecordCount() {
+        return writer.getRecordCount();
+    }
+
+    public long getDroppedCount() {
+        return writer.getDroppedRecordCount();
+    }
+
+    /**
+     * Fehler beim Anlegen oder Schreiben der Datei, null wenn keiner (bisher).
+     */
+    public IOException getFailure() {
+        return writer.getFailure();
+    }
+}
@@ -0,0 +1,320 @@
+package com.rsinkwitz.chorddisc;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.InputDevice;
+import android.view.MotionEvent;
+import android.view.View;
+import com.rsinkwitz.chorddisc.core.GestureLog;
+import com.rsinkwitz.chorddisc.core.GestureLogReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Spielt eine Gesten-Aufzeichnung (GestureRecorder) deterministisch in eine eigene
+ * Offscreen-ChordDiscView ab: Die Events gehen in der aufgezeichneten Reihenfolge an
+ * onTouchEvent, gezeichnet wird nach simulierter VSync – immer dann, wenn die Zeit eines
+ * Events ein neues 16-ms-Raster erreicht – unabhängig von der Wanduhr. Pro Frame werden
+ * Zeichendauer und allokierte Bytes erfasst; der Bericht landet unter files/metrics/.
+ * Gleiche Aufzeichnung, gleiche Frames: Vorher/Nachher-Vergleiche für Render- und
+ * Eingabeänderungen. Die Notation ist fest (Englisch), unabhängig von der Sprache der App.
+ * Läuft schrittweise auf dem UI-Thread, damit die App bedienbar bleibt.
+ */
+public class GestureReplay {
+
+    private static final String TAG = "GestureReplay";
+    private static final int FRAME_INTERVAL_MS = 16;
+    private static final int FRAMES_PER_STEP = 30;
+
+    /**
+     * Ergebnis eines Laufs (Aufruf auf dem UI-Thread).
+     */
+    public interface Listener {
+        void onFinished(Result result);
+    }
+
+    public static final class Result {
+        public final boolean completed;
+        public final int events;
+        public final int frames;
+        public final double medianFrameMs;
+        public final double maxFrameMs;
+        public final JSONObject report;
+
+        Result(boolean completed, int events, int frames, double medianFrameMs, double maxFrameMs,
+               JSONObject report) {
+            this.completed = completed;
+            this.events = events;
+            this.frames = frames;
+            this.medianFrameMs = medianFrameMs;
+            this.maxFrameMs = maxFrameMs;
+            this.report = report;
+        }
+    }
+
+    private final Context context;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private Listener listener;
+    private File logFile;
+    private GestureLogReader reader;
+    private String error;
+
+    private ChordDiscView view;
+    private Bitmap bitmap;
+    private Canvas canvas;
+    private long baseUptime;
+    private long nextFrameTime = Long.MIN_VALUE;
+    private int events = 0;
+    private int frames = 0;
+    private long[] frameNanos = new long[1024];
+    private long[] frameAllocatedBytes = new long[1024];
+
+    // Wiederverwendete Zeigerdaten für MotionEvent.obtain
+    private MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[0];
+    private MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[0];
+
+    public GestureReplay(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Neueste Aufzeichnung unter files/metrics/ oder null.
+     */
+    static File latestRecording(Context context) throws IOException {
+        File[] files = PerfMetrics.metricsDir(context).listFiles((dir, name) ->
+            name.startsWith(GestureRecorder.FILE_PREFIX) && name.endsWith(GestureRecorder.FILE_SUFFIX));
+        if (files == null || files.length == 0) {
+            return null;
+        }
+        Arrays.sort(files); // Zeitstempel im Namen
+        return files[files.length - 1];
+    }
+
+    /**
+     * Startet das Abspielen (nur vom UI-Thread).
+     */
+    public void run(File file, Listener listener) {
+        this.listener = listener;
+        this.logFile = file;
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            reader = new GestureLogReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            Log.w(TAG, "Aufzeichnung nicht lesbar: " + file, e);
+            error = e.getMessage();
+            finish();
+            return;
+        }
+
+        // Eigene View mit eigenen Caches (ohne Registry), damit die sichtbare View unberührt bleibt
+        view = new ChordDiscView(context);
+        view.setDiscCaches(new DiscCaches());
+        view.setRenderQualityOverride(null);
+        baseUptime = SystemClock.uptimeMillis();
+        handler.post(this::step);
+    }
+
+    /**
+     * Verarbeitet Datensätze, bis FRAMES_PER_STEP Frames gezeichnet sind, und gibt dann den
+     * UI-Thread frei.
+     */
+    private void step() {
+        int stepFrames = frames;
+        try {
+            while (frames - stepFrames < FRAMES_PER_STEP) {
+                if (!reader.next()) {
+                    if (canvas != null) {
+                        drawFrame(); // Endzustand
+                    }
+                    finish();
+                    return;
+                }
+                switch (reader.getType()) {
+                    case GestureLog.TYPE_STATE:
+                        applyState();
+                        break;
+                    case GestureLog.TYPE_SIZE:
+                        resize(reader.getWidth(), reader.getHeight());
+                        break;
+                    case GestureLog.TYPE_EVENT:
+                    default:
+                        replayEvent();
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Aufzeichnung beschädigt", e);
+            error = e.getMessage();
+            finish();
+            return;
+        }
+        handler.post(this::step);
+    }
+
+    private void applyState() {
+        view.setBottomDiscRotation(reader.getRotation());
+        view.setScaleType(enumValue(ChordDiscView.ScaleType.values(), reader.getScaleType()));
+        view.setChordType(enumValue(ChordDiscView.ChordType.values(), reader.getChordType()));
+        view.setTapMode(enumValue(ChordDiscView.TapMode.values(), reader.getTapMode()));
+        view.setTopDiscTransparent(reader.isTransparent());
+    }
+
+    private static <T> T enumValue(T[] values, int ordinal) {
+        return values[ordinal >= 0 && ordinal < values.length ? ordinal : 0];
+    }
+
+    private void resize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return; // Aufzeichnung vor dem ersten Layout begonnen
+        }
+        if (bitmap != null) {
+            bitmap.recycle();
+        }
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(bitmap);
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+    }
+
+    /**
+     * Baut das MotionEvent samt historischer Samples nach und zeichnet, wenn ein neues
+     * Frame-Raster erreicht ist.
+     */
+    private void replayEvent() {
+        int pointerCount = reader.getPointerCount();
+        if (properties.length < pointerCount) {
+            properties = Arrays.copyOf(properties, pointerCount);
+            coords = Arrays.copyOf(coords, pointerCount);
+            for (int p = 0; p < pointerCount; p++) {
+                if (properties[p] == null) {
+                    properties[p] = new MotionEvent.PointerProperties();
+                    coords[p] = new MotionEvent.PointerCoords();
+                }
+            }
+        }
+        for (int p = 0; p < pointerCount; p++) {
+            properties[p].clear();
+            properties[p].id = reader.getPointerId(p);
+            properties[p].toolType = reader.getToolType(p);
+        }
+
+        int action = reader.getAction() | (reader.getActionIndex() << MotionEvent.ACTION_POINTER_INDEX_SHIFT);
+        fillCoords(0, pointerCount);
+        MotionEvent event = MotionEvent.obtain(baseUptime + reader.getDownTime(), baseUptime + reader.getEventTime(0),
+            action, pointerCount, properties, coords, 0, 0, 1f, 1f, 0, 0, InputDevice.SOURCE_TOUCHSCREEN, 0);
+        for (int s = 1; s < reader.getSampleCount(); s++) {
+            fillCoords(s, pointerCount);
+            event.addBatch(baseUptime + reader.getEventTime(s), coords, 0);
+        }
+        view.onTouchEvent(event);
+        event.recycle();
+        events++;
+
+        long eventTime = reader.getEventTime(reader.getSampleCount() - 1);
+        if (canvas != null && eventTime >= nextFrameTime) {
+            drawFrame();
+            nextFrameTime = (eventTime / FRAME_INTERVAL_MS + 1) * FRAME_INTERVAL_MS;
+        }
+    }
+
+    private void fillCoords(int sample, int pointerCount) {
+        for (int p = 0; p < pointerCount; p++) {
+            MotionEvent.PointerCoords c = coords[p];
+            c.clear();
+            c.x = reader.getX(sample, p);
+            c.y = reader.getY(sample, p);
+            c.pressure = reader.getPressure(sample, p);
+            c.size = reader.getSize(sample, p);
+        }
+    }
+
+    private void drawFrame() {
+        if (frames == frameNanos.length) {
+            frameNanos = Arrays.copyOf(frameNanos, frames * 2);
+            frameAllocatedBytes = Arrays.copyOf(frameAllocatedBytes, frames * 2);
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        view.draw(canvas);
+        frameNanos[frames] = System.nanoTime() - start;
+        frameAllocatedBytes[frames] = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        frames++;
+    }
+
+    private void finish() {
+        long[] nanos = Arrays.copyOf(frameNanos, frames);
+        long[] allocatedBytes = Arrays.copyOf(frameAllocatedBytes, frames);
+        long totalAllocatedBytes = 0;
+        for (long bytes : allocatedBytes) {
+            totalAllocatedBytes = bytes < 0 || totalAllocatedBytes < 0 ? -1 : totalAllocatedBytes + bytes;
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(allocatedBytes);
+        double medianMs = frames == 0 ? 0 : nanos[frames / 2] / 1_000_000.0;
+        double maxMs = frames == 0 ? 0 : nanos[frames - 1] / 1_000_000.0;
+
+        JSONObject report = new JSONObject();
+        try {
+            report.put("recording", logFile.getName());
+            report.put("timestampMs", System.currentTimeMillis());
+            report.put("events", events);
+            report.put("frames", frames);
+            report.put("medianFrameMs", medianMs);
+            report.put("p95FrameMs", frames == 0 ? 0 : nanos[(int) (frames * 0.95)] / 1_000_000.0);
+            report.put("maxFrameMs", maxMs);
+            report.put("medianAllocatedBytes", frames == 0 ? 0 : allocatedBytes[frames / 2]);
+            report.put("totalAllocatedBytes", totalAllocatedBytes);
+            if (view != null) {
+                report.put("qualityTransitions", view.getQualityTransitionCount());
+                report.put("finalRotation", view.getBottomDiscRotation());
+            }
+            if (error != null) {
+                report.put("error", error);
+            }
+            File file = PerfMetrics.writeJson(context, "replay-" + System.currentTimeMillis() + ".json", report);
+            Log.i(TAG, "Bericht: " + file);
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Bericht nicht gespeichert", e);
+        }
+
+        if (bitmap != null) {
+            bitmap.recycle();
+            bitmap = null;
+        }
+        // Die Offscreen-Frames sollen die Messwerte der sichtbaren View nicht verfälschen
+        PerfMetrics.get().reset();
+        listener.onFinished(new Result(error == null, events, frames, medianMs, maxMs, report));
+    }
+
+    /**
+     * Seit Prozessstart allokierte Bytes (Laufzeitstatistik von ART, ab Android 6),
+     * -1 wenn nicht verfügbar. Zählt in ganzen Thread-Puffern, also nur grob je Frame.
+     */
+    private static long allocatedBytes() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return -1;
+        }
+        String value = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
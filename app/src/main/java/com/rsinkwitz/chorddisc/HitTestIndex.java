@@ -0,0 +1,55 @@
+package com.rsinkwitz.chorddisc;
+
+import com.rsinkwitz.chorddisc.core.DiscAngle;
+
+/**
+ * Vorberechneter Index für die Treffererkennung beim Tippen auf eine Note.
+ * Ersetzt Wurzel und Schleife über alle 19 Noten durch quadrierte Abstände
+ * und eine Tabelle Winkel → nächste Position, indiziert mit den oberen 12 Bit des
+ * Festkomma-Winkels (siehe DiscAngle, ca. 0.09° je Eintrag).
+ */
+final class HitTestIndex {
+
+    private static final int BUCKET_BITS = 12;
+    private static final int BUCKET_SHIFT = DiscAngle.BITS - BUCKET_BITS;
+    private static final int MAX_ANGLE_DIFF = DiscAngle.UNITS_PER_TURN / 24; // ±15° um die Note
+
+    final DiscGeometry geometry;
+    private final float minDistanceSq;
+    private final float maxDistanceSq;
+    private final byte[] positionForAngle = new byte[1 << BUCKET_BITS];
+
+    HitTestIndex(DiscGeometry geometry) {
+        this.geometry = geometry;
+
+        // Gleicher Ring wie bisher: Notenkreis ± 1.2 * Radius
+        float minDistance = geometry.notePositionRadius - geometry.noteCircleRadius * 1.2f;
+        float maxDistance = geometry.notePositionRadius + geometry.noteCircleRadius * 1.2f;
+        minDistanceSq = minDistance * minDistance;
+        maxDistanceSq = maxDistance * maxDistance;
+
+        for (int bucket = 0; bucket < positionForAngle.length; bucket++) {
+            int angle = (bucket << BUCKET_SHIFT) + (1 << (BUCKET_SHIFT - 1)); // Mitte des Eintrags
+            int nearest = DiscAngle.nearestPosition(angle);
+            int diff = Math.abs(DiscAngle.delta(DiscAngle.positionAngle(nearest), angle));
+            positionForAngle[bucket] = (byte) (diff < MAX_ANGLE_DIFF ? nearest : -1);
+        }
+    }
+
+    /**
+     * @param x Touch-X relativ zum Mittelpunkt
+     * @param y Touch-Y relativ zum Mittelpunkt
+     * @param rotation aktuelle Rotation der unteren Scheibe (DiscAngle-Einheiten)
+     * @return Index der Note oder -1, wenn keine Note getroffen
+     */
+    int find(float x, float y, int rotation) {
+        float distanceSq = x * x + y * y;
+        if (distanceSq < minDistanceSq || distanceSq > maxDistanceSq) {
+            return -1; // Nicht im Noten-Bereich
+        }
+
+        // atan2 → Winkel der Scheibe (0 = oben), dann in das Koordinatensystem der Scheibe
+        int angle = DiscAngle.normalize(DiscAngle.fromScreenRadians(Math.atan2(y, x)) - rotation);
+        return positionForAngle[angle >>> BUCKET_SHIFT];
+    }
+}
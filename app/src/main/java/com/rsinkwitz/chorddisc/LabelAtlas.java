@@ -0,0 +1,137 @@
+package com.rsinkwitz.chorddisc;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Atlas mit vorgerenderten Notennamen (ein Sprite pro Position).
+ * Ersetzt drawText pro Note und Frame durch ein drawBitmap aus dem Atlas.
+ * Mit scale &lt; 1 entsteht ein Atlas in reduzierter Auflösung für schnelle Frames.
+ */
+class LabelAtlas implements CacheRegistry.Entry {
+
+    private static final int COLUMNS = 5;
+
+    /**
+     * Unveränderlicher Satz von Sprites; kann nach einem evict() noch fertig gezeichnet werden.
+     */
+    static final class Sprites {
+        final long key;
+        private final Bitmap bitmap;
+        private final int cellWidth;   // Zellgröße im Atlas (skaliert)
+        private final int cellHeight;
+        private final float drawWidth; // Zielgröße auf dem Canvas (unskaliert)
+        private final float drawHeight;
+        private final Rect src = new Rect();
+        private final RectF dst = new RectF();
+
+        Sprites(long key, Bitmap bitmap, int cellWidth, int cellHeight, float drawWidth, float drawHeight) {
+            this.key = key;
+            this.bitmap = bitmap;
+            this.cellWidth = cellWidth;
+            this.cellHeight = cellHeight;
+            this.drawWidth = drawWidth;
+            this.drawHeight = drawHeight;
+            dst.set(-drawWidth / 2, -drawHeight / 2, drawWidth / 2, drawHeight / 2);
+        }
+
+        /**
+         * Zeichnet Sprite index zentriert um den Ursprung des Canvas.
+         * Nur vom UI-Thread aufrufen (src wird wiederverwendet).
+         */
+        void draw(Canvas canvas, int index, Paint paint) {
+            int left = (index % COLUMNS) * cellWidth;
+            int top = (index / COLUMNS) * cellHeight;
+            src.set(left, top, left + cellWidth, top + cellHeight);
+            canvas.drawBitmap(bitmap, src, dst, paint);
+        }
+    }
+
+    private final float scale;
+    private CacheRegistry registry;
+    private volatile Sprites sprites;
+    private volatile long rebuildCostNanos = 0;
+
+    LabelAtlas(float scale) {
+        this.scale = scale;
+    }
+
+    void setRegistry(CacheRegistry registry) {
+        this.registry = registry;
+        registry.register(this);
+    }
+
+    /**
+     * @return Sprites zum Schlüssel oder null, wenn (noch) nicht aufgebaut
+     */
+    Sprites peek(long key) {
+        Sprites current = sprites;
+        return current != null && current.key == key ? current : null;
+    }
+
+    /**
+     * Baut die Sprites neu auf und ersetzt den bisherigen Inhalt atomar.
+     * Darf auf einem Hintergrund-Thread laufen.
+     * @param labels Beschriftungen in Positions-Reihenfolge
+     * @param textPaint Paint der Beschriftung (wird kopiert, immer mit Anti-Aliasing)
+     */
+    Sprites build(long key, String[] labels, Paint textPaint) {
+        long start = System.nanoTime();
+        Paint paint = new Paint(textPaint);
+        paint.setAntiAlias(true);
+        paint.setTextAlign(Paint.Align.CENTER);
+
+        // Zellgröße: breiteste Beschriftung plus etwas Rand
+        float maxWidth = 0;
+        for (String label : labels) {
+            maxWidth = Math.max(maxWidth, paint.measureText(label));
+        }
+        float drawWidth = (float) Math.ceil(maxWidth + paint.getTextSize() * 0.2f);
+        float drawHeight = (float) Math.ceil(paint.getTextSize() * 1.4f);
+        int cellWidth = Math.max(1, Math.round(drawWidth * scale));
+        int cellHeight = Math.max(1, Math.round(drawHeight * scale));
+        int rows = (labels.length + COLUMNS - 1) / COLUMNS;
+
+        Bitmap bitmap = Bitmap.createBitmap(cellWidth * COLUMNS, cellHeight * rows, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.scale(scale, scale);
+        for (int i = 0; i < labels.length; i++) {
+            float centerX = (i % COLUMNS) * cellWidth / scale + drawWidth / 2;
+            float centerY = (i / COLUMNS) * cellHeight / scale + drawHeight / 2;
+            // Gleiche Grundlinie wie bisher: y = textSize * 0.3 relativ zur Notenmitte
+            canvas.drawText(labels[i], centerX, centerY + paint.getTextSize() * 0.3f, paint);
+        }
+
+        Sprites built = new Sprites(key, bitmap, cellWidth, cellHeight, drawWidth, drawHeight);
+        sprites = built;
+        rebuildCostNanos = System.nanoTime() - start;
+        if (registry != null) {
+            registry.onEntryChanged(this);
+        }
+        return built;
+    }
+
+    @Override
+    public CacheRegistry.Priority getPriority() {
+        return CacheRegistry.Priority.LABEL_SPRITES;
+    }
+
+    @Override
+    public long getByteCount() {
+        Sprites current = sprites;
+        return current != null ? current.bitmap.getByteCount() : 0;
+    }
+
+    @Override
+    public long getRebuildCostNanos() {
+        return rebuildCostNanos;
+    }
+
+    @Override
+    public void evict() {
+        sprites = null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.rsinkwitz.chorddisc;
+
+import java.util.Arrays;
+import java.util.Locale;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Histogramm für Laufzeiten nach dem Vorbild von HdrHistogram:
+ * logarithmische Gruppen mit je 32 linearen Unterteilungen (ca. 3% Auflösung),
+ * Werte in Mikrosekunden von 1 µs bis ca. 35 Minuten. Aufzeichnen ist allokationsfrei.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 31;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long totalMicros = 0;
+    private long maxMicros = 0;
+
+    /**
+     * Zeichnet eine Dauer in Nanosekunden auf.
+     */
+    synchronized void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts[bucketIndex(micros)]++;
+        totalCount++;
+        totalMicros += micros;
+        if (micros > maxMicros) maxMicros = micros;
+    }
+
+    synchronized long getCount() {
+        return totalCount;
+    }
+
+    synchronized float getMeanMs() {
+        return totalCount == 0 ? 0f : totalMicros / (float) totalCount / 1000f;
+    }
+
+    synchronized float getMaxMs() {
+        return maxMicros / 1000f;
+    }
+
+    /**
+     * @param percentile 0..100
+     * @return Obergrenze des Buckets, in dem das Perzentil liegt (ms)
+     */
+    synchronized float getPercentileMs(double percentile) {
+        if (totalCount == 0) {
+            return 0f;
+        }
+        long threshold = (long) Math.ceil(totalCount * percentile / 100.0);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= Math.max(1, threshold)) {
+                return Math.min(upperBoundMicros(i), maxMicros) / 1000f;
+            }
+        }
+        return maxMicros / 1000f;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalMicros = 0;
+        maxMicros = 0;
+    }
+
+    /**
+     * Kurzform für das Overlay: "n=… p50=… p99=… max=…".
+     */
+    String summary() {
+        return String.format(Locale.US, "n=%d p50=%.2f p99=%.2f max=%.2f",
+            getCount(), getPercentileMs(50), getPercentileMs(99), getMaxMs());
+    }
+
+    JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("count", getCount());
+        json.put("meanMs", getMeanMs());
+        json.put("p50Ms", getPercentileMs(50));
+        json.put("p90Ms", getPercentileMs(90));
+        json.put("p99Ms", getPercentileMs(99));
+        json.put("maxMs", getMaxMs());
+        return json;
+    }
+
+    /**
+     * Werte unter 32 µs haben je einen eigenen Bucket; darüber 32 Buckets pro Zweierpotenz.
+     */
+    private static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
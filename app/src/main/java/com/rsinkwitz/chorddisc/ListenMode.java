@@ -0,0 +1,130 @@
+package com.rsinkwitz.chorddisc;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import com.rsinkwitz.chorddisc.core.DiscPositions;
+import com.rsinkwitz.chorddisc.core.PitchKeyDetector;
+
+/**
+ * Hörmodus: analysiert das Mikrofon auf einem eigenen Audio-Thread und dreht die Scheibe
+ * zur erkannten Tonart. Die Erkennung selbst steckt im PitchKeyDetector (Modul core),
+ * diese Klasse verbindet nur Mikrofon, Analyse-Thread und UI-Thread.
+ */
+class ListenMode {
+
+    private static final String TAG = "ListenMode";
+    private static final int BLOCK_SIZE = 1024; // ca. 23 ms bei 44.1 kHz
+
+    private final ChordDiscView discView;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private volatile boolean running = false;
+    private Thread thread;
+    private int shownPosition = -1;
+    private Runnable stoppedListener; // UI-Thread: Mikrofon ohne stop() beendet
+
+    ListenMode(ChordDiscView discView) {
+        this.discView = discView;
+    }
+
+    /**
+     * Wird auf dem UI-Thread aufgerufen, wenn das Mikrofon nicht verfügbar ist oder
+     * ausfällt (nicht nach stop()).
+     */
+    void setOnStoppedListener(Runnable listener) {
+        stoppedListener = listener;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        shownPosition = -1;
+        thread = new Thread(this::listen, "listen");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        handler.removeCallbacksAndMessages(null);
+        if (thread != null) {
+            // AudioRecord.read kehrt spätestens nach einem Block zurück
+            try {
+                thread.join(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void listen() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+        MicrophonePcmSource source;
+        try {
+            source = new MicrophonePcmSource();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Mikrofon nicht verfügbar", e);
+            notifyStopped();
+            return;
+        }
+
+        PerfMetrics metrics = PerfMetrics.get();
+        PitchKeyDetector detector = new PitchKeyDetector(source.getSampleRate(), this::onDetection);
+        float[] block = new float[BLOCK_SIZE];
+        long analyzed = 0;
+        try {
+            while (running) {
+                int read = source.read(block, 0, BLOCK_SIZE);
+                if (read < 0) {
+                    break;
+                }
+                detector.process(block, 0, read);
+                if (detector.getBlockCount() != analyzed) {
+                    analyzed = detector.getBlockCount();
+                    metrics.recordPitchAnalysis(detector.getLastBlockNanos());
+                    metrics.setPitchCpuLoad(detector.getCpuLoad());
+                }
+            }
+        } finally {
+            source.close();
+        }
+        if (running) {
+            notifyStopped(); // Lesefehler
+        }
+    }
+
+    private void notifyStopped() {
+        running = false;
+        Runnable listener = stoppedListener;
+        if (listener != null) {
+            handler.post(listener);
+        }
+    }
+
+    /**
+     * Läuft auf dem Analyse-Thread; nur die Tonart wird an den UI-Thread weitergegeben.
+     */
+    private void onDetection(PitchKeyDetector detector) {
+        int root = detector.getKeyRoot();
+        if (root < 0) {
+            return;
+        }
+        PerfMetrics.get().recordPitchDetection(detector.getDetectionLatencyMs());
+        // Moll über die parallele Dur-Tonart: deren Grundton steht auf der Scheibe oben
+        int position = DiscPositions.keyPosition(detector.isKeyMajor() ? root : (root + 3) % 12, true);
+        handler.post(() -> {
+            if (running && position != shownPosition) {
+                shownPosition = position;
+                discView.animateToNote(position);
+            }
+        });
+    }
+}
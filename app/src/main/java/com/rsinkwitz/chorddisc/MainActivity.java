@@ -1,29 +1,114 @@
 package com.rsinkwitz.chorddisc;
 
+import android.Manifest;
+import android.content.Intent;
+import android.content.pm.PackageManager;
 import android.content.res.Configuration;
 import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.os.Process;
+import android.os.SystemClock;
 import android.text.Html;
+import android.util.Log;
 import android.text.method.LinkMovementMethod;
+import android.view.Gravity;
+import android.view.MenuItem;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
+import android.widget.ImageView;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.ScrollView;
 import android.widget.TextView;
+import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.PopupMenu;
 import androidx.appcompat.widget.SwitchCompat;
+import androidx.lifecycle.ViewModelProvider;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.rsinkwitz.chorddisc.core.DiscPositions;
+import com.rsinkwitz.chorddisc.core.MidiKeyEstimator;
+import com.rsinkwitz.chorddisc.core.PracticeStats;
+import com.rsinkwitz.chorddisc.core.Progression;
+import com.rsinkwitz.chorddisc.core.TuningSystem;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.Locale;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = "MainActivity";
+
     private ChordDiscView chordDiscView;
     private ChordPlayer chordPlayer;
+    private ChordDiscViewModel viewModel; // Überlebt Konfigurationswechsel
     private boolean isEnglish = false; // Wird in onCreate basierend auf System-Sprache gesetzt
 
+    // Kaltstart: Bild der Scheibe aus dem letzten Lauf, bis die echte View bereit ist
+    private static final long PLACEHOLDER_TIMEOUT_MS = 2000;
+    private ImageView snapshotPlaceholder;
+    private long processStartUptimeMs;
+    private boolean liveDiscShown = false;
+    private final Runnable placeholderTimeout = this::showLiveDisc; // Falls das Aufwärmen hängt
+
+    // Verstecktes Mess-Overlay (Lange auf den Titel drücken)
+    private static final long METRICS_REFRESH_MS = 500;
+    private final Handler metricsHandler = new Handler(Looper.getMainLooper());
+    private TextView metricsOverlay;
+
+    // Hörmodus: Scheibe folgt der über das Mikrofon erkannten Tonart
+    private static final int REQUEST_RECORD_AUDIO = 1;
+    private ListenMode listenMode;
+
+    // Gesten-Aufzeichnung zum Profilieren (Mess-Overlay → lange drücken)
+    private GestureRecorder gestureRecorder;
+
+    // Übungsfolgen (Quintenzirkel, Kadenzen, alle Tonleitern) mit einstellbarem Tempo
+    private static final double PRACTICE_BPM = 120;
+    private static final double PRACTICE_BPM_STEP = 10;
+
+    // Übungsstatistik: gespielte Akkorde und Tonleitern je Tonart (prozessweit)
+    private PracticeHistory practiceHistory;
+
+    // MIDI-Import: Scheibe auf die geschätzte Tonart einer MIDI-Datei stellen
+    private static final int REQUEST_OPEN_MIDI = 2;
+
+    // Mehrere Scheiben (Vergleich verwandter Tonarten bzw. alle 12 Dur-Tonarten)
+    private DiscGridLayout discGrid;
+    private DiscGridLayout.Mode discGridMode;
+    private final Runnable metricsRefresh = new Runnable() {
+        @Override
+        public void run() {
+            if (metricsOverlay != null) {
+                metricsOverlay.setText(PerfMetrics.get().describe(chordDiscView, viewModel.getCacheRegistry()));
+                metricsHandler.postDelayed(this, METRICS_REFRESH_MS);
+            }
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        long createStart = SystemClock.elapsedRealtimeNanos();
+        processStartUptimeMs = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+            ? Process.getStartUptimeMillis() : SystemClock.uptimeMillis();
         super.onCreate(savedInstanceState);
 
         // Erkenne System-Sprache und setze Default
@@ -39,18 +124,39 @@ public class MainActivity extends AppCompatActivity {
         resources.updateConfiguration(config, resources.getDisplayMetrics());
 
         setContentView(R.layout.activity_main);
+        recordFirstFrame();
+
+        // Kaltstart: letztes Bild der Scheibe sofort als Platzhalter zeigen
+        FrameLayout container = findViewById(R.id.chordDiscContainer);
+        DiscSnapshot snapshot = savedInstanceState == null ? DiscSnapshot.loadState(this) : null;
+        if (snapshot != null && snapshot.germanNotation == !isEnglish) {
+            showSnapshotPlaceholder(container);
+        }
 
-        // Initialisiere ChordPlayer
-        chordPlayer = new ChordPlayer(this);
+        // Geräteprofil, Cache-Verwaltung und ChordPlayer leben im ViewModel und werden
+        // bei Konfigurationswechseln (Drehung, Sprache) weiterverwendet
+        viewModel = new ViewModelProvider(this).get(ChordDiscViewModel.class);
+        boolean engineRetained = viewModel.initialize();
+        chordPlayer = viewModel.getChordPlayer();
 
-        // Erstelle ChordDiscView
+        // Erstelle ChordDiscView (größenunabhängige Caches kommen aus dem ViewModel)
         chordDiscView = new ChordDiscView(this, chordPlayer);
+        chordDiscView.setDeviceProfile(viewModel.getDeviceProfile());
+        viewModel.setProfileListener(this::applyDeviceProfile);
+        chordDiscView.setDiscCachePool(viewModel.getDiscCachePool());
+        practiceHistory = PracticeHistory.get(this);
+        chordDiscView.setPracticeHistory(practiceHistory);
 
         // Setze initiale Notation basierend auf Sprache
         chordDiscView.setNotationLanguage(!isEnglish); // true für Deutsch, false für Englisch
 
-        // Füge ChordDiscView zum Container hinzu
-        FrameLayout container = findViewById(R.id.chordDiscContainer);
+        // Füge ChordDiscView zum Container hinzu (hinter dem Platzhalter zunächst unsichtbar,
+        // Layout und Aufwärmen der Caches laufen trotzdem)
+        if (snapshotPlaceholder != null) {
+            chordDiscView.setVisibility(View.INVISIBLE);
+            metricsHandler.postDelayed(placeholderTimeout, PLACEHOLDER_TIMEOUT_MS);
+        }
+        chordDiscView.setOnCachesReadyListener(this::showLiveDisc);
         container.addView(chordDiscView);
 
         // Setup RadioGroup für Tap-Modi
@@ -103,10 +209,12 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
-        // Setze Standard-Modi
-        chordDiscView.setTapMode(ChordDiscView.TapMode.PLAY_CHORD);
-        chordDiscView.setChordType(ChordDiscView.ChordType.HARMONIC);
-        chordDiscView.setScaleType(ChordDiscView.ScaleType.MAJOR);
+        // Setze Modi und Rotation (Standard, vor Konfigurationswechsel gemerkt oder aus dem letzten Lauf)
+        boolean restoreFromSnapshot = !engineRetained && snapshot != null;
+        if (restoreFromSnapshot) {
+            viewModel.applySnapshot(snapshot);
+        }
+        viewModel.restoreDiscState(chordDiscView);
 
         // Setup Toggle für Transparenz
         SwitchCompat toggleTransparency = findViewById(R.id.toggleTransparency);
@@ -122,9 +230,129 @@ public class MainActivity extends AppCompatActivity {
             setLocale(isChecked ? "en" : "de");
         });
 
+        // Setup Toggle für den Hörmodus (Mikrofon)
+        SwitchCompat toggleListen = findViewById(R.id.toggleListen);
+        toggleListen.setOnCheckedChangeListener((buttonView, isChecked) -> setListening(isChecked));
+
+        // Bedienelemente an den Zustand des letzten Laufs anpassen
+        if (restoreFromSnapshot) {
+            syncControls(snapshot, scaleTypeRadioGroup, chordTypeRadioGroup, tapModeRadioGroup,
+                toggleTransparency);
+        }
+
         // Setup Floating Action Button für Hilfe
         FloatingActionButton fabHelp = findViewById(R.id.fabHelp);
         fabHelp.setOnClickListener(v -> showHelpDialog());
+
+        // Menü rechts im Titel (Mehrfach-Ansicht, MIDI-Import, WAV-Export)
+        findViewById(R.id.menuButton).setOnClickListener(this::showMainMenu);
+
+
+        // Verstecktes Mess-Overlay: Lange auf den Titel drücken
+        TextView titleText = findViewById(R.id.titleText);
+        titleText.setOnLongClickListener(v -> {
+            toggleMetricsOverlay();
+            return true;
+        });
+
+        // Messung: Dauer von onCreate, mit und ohne weiterverwendete Engine vergleichbar
+        float createMs = (SystemClock.elapsedRealtimeNanos() - createStart) / 1_000_000f;
+        Log.i(TAG, "onCreate: " + createMs + " ms (Engine " + (engineRetained ? "weiterverwendet" : "neu") + ")");
+    }
+
+    /**
+     * Hält den ersten gezeichneten Frame als Start-Meilenstein fest.
+     */
+    private void recordFirstFrame() {
+        View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                recordStartup("firstFrame");
+                return true;
+            }
+        });
+    }
+
+    private void recordStartup(String milestone) {
+        float millis = SystemClock.uptimeMillis() - processStartUptimeMs;
+        PerfMetrics.get().recordStartup(milestone, millis);
+        Log.i(TAG, "Start: " + milestone + " nach " + millis + " ms");
+    }
+
+    /**
+     * Zeigt das gespeicherte Bild der Scheibe, bis die echte View ihre Caches aufgebaut hat.
+     */
+    private void showSnapshotPlaceholder(FrameLayout container) {
+        Bitmap image = DiscSnapshot.loadImage(this);
+        if (image == null) {
+            return;
+        }
+        snapshotPlaceholder = new ImageView(this);
+        snapshotPlaceholder.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        snapshotPlaceholder.setImageBitmap(image);
+        container.addView(snapshotPlaceholder, new FrameLayout.LayoutParams(
+            FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+    }
+
+    /**
+     * Macht die echte Scheibe sichtbar und blendet den Platzhalter aus (einmalig).
+     */
+    private void showLiveDisc() {
+        if (liveDiscShown || chordDiscView == null) {
+            return;
+        }
+        liveDiscShown = true;
+        metricsHandler.removeCallbacks(placeholderTimeout);
+        chordDiscView.setVisibility(View.VISIBLE);
+        if (snapshotPlaceholder != null) {
+            ImageView placeholder = snapshotPlaceholder;
+            snapshotPlaceholder = null;
+            placeholder.animate().alpha(0f).setDuration(150).withEndAction(() -> {
+                FrameLayout container = findViewById(R.id.chordDiscContainer);
+                container.removeView(placeholder);
+            });
+        }
+        recordStartup("liveDisc");
+        reportFullyDrawn();
+    }
+
+    /**
+     * Setzt RadioGroups und Schalter auf den Zustand des letzten Laufs.
+     * Die Listener übertragen die Werte dabei auf die View; Reihenfolge beachten,
+     * da Dur-Tonleiter automatisch "Harmonie" auswählt.
+     */
+    private void syncControls(DiscSnapshot snapshot, RadioGroup scaleTypeRadioGroup,
+                              RadioGroup chordTypeRadioGroup, RadioGroup tapModeRadioGroup,
+                              SwitchCompat toggleTransparency) {
+        switch (snapshot.scaleType) {
+            case NATURAL_MINOR:
+                scaleTypeRadioGroup.check(R.id.radioNaturalMinor);
+                break;
+            case HARMONIC_MINOR:
+                scaleTypeRadioGroup.check(R.id.radioHarmonicMinor);
+                break;
+            case MAJOR:
+            default:
+                scaleTypeRadioGroup.check(R.id.radioMajorScale);
+                break;
+        }
+        switch (snapshot.chordType) {
+            case ALL_MAJOR:
+                chordTypeRadioGroup.check(R.id.radioAllMajor);
+                break;
+            case ALL_MINOR:
+                chordTypeRadioGroup.check(R.id.radioAllMinor);
+                break;
+            case HARMONIC:
+            default:
+                chordTypeRadioGroup.check(R.id.radioHarmonic);
+                break;
+        }
+        tapModeRadioGroup.check(snapshot.tapMode == ChordDiscView.TapMode.ROTATE_TO_TOP
+            ? R.id.radioRotateToTop : R.id.radioPlayChord);
+        toggleTransparency.setChecked(snapshot.topDiscTransparent);
     }
 
     /**
@@ -145,6 +373,9 @@ public class MainActivity extends AppCompatActivity {
         if (chordDiscView != null) {
             chordDiscView.setNotationLanguage(languageCode.equals("de"));
         }
+        if (discGrid != null) {
+            discGrid.setNotationLanguage(languageCode.equals("de"));
+        }
 
         // Aktualisiere alle UI-Texte (nur wenn Views existieren)
         // Prüfe ob findViewById etwas zurückgibt
@@ -177,6 +408,8 @@ public class MainActivity extends AppCompatActivity {
         TextView languageLabel = findViewById(R.id.languageLabel);
         languageLabel.setText(R.string.toggle_language);
 
+        updateListenIndicator();
+
         // RadioButtons - Scale Type
         RadioButton radioMajorScale = findViewById(R.id.radioMajorScale);
         radioMajorScale.setText(R.string.scale_major);
@@ -232,16 +465,569 @@ public class MainActivity extends AppCompatActivity {
         builder.setTitle(R.string.help_title);
         builder.setView(scrollView);
         builder.setPositiveButton(R.string.help_close, (dialog, which) -> dialog.dismiss());
+        builder.setNeutralButton(R.string.tuning_button, (dialog, which) -> showTuningDialog());
+        builder.setNegativeButton(R.string.practice_button, (dialog, which) -> showPracticeDialog());
 
         AlertDialog dialog = builder.create();
         dialog.show();
     }
 
+    /**
+     * Startet eine Übungsfolge in der aktuellen Tonart; läuft bereits eine, lassen sich
+     * Tempo ändern und die Folge beenden. Die Scheibe dreht sich mit jedem Akkordwechsel mit.
+     */
+    private void showPracticeDialog() {
+        AlertDialog.Builder builder = new AlertDialog.Builder(this).setTitle(R.string.practice_title);
+        if (chordPlayer.isProgressionPlaying()) {
+            CharSequence[] items = {
+                getString(R.string.practice_faster),
+                getString(R.string.practice_slower),
+                getString(R.string.practice_stop)
+            };
+            builder.setItems(items, (dialog, which) -> {
+                double bpm = chordPlayer.getProgressionTempo();
+                if (which == 0) {
+                    chordPlayer.setProgressionTempo(bpm + PRACTICE_BPM_STEP);
+                } else if (which == 1) {
+                    chordPlayer.setProgressionTempo(bpm - PRACTICE_BPM_STEP);
+                } else {
+                    chordPlayer.stopProgression();
+                    return;
+                }
+                Toast.makeText(this, getString(R.string.practice_tempo, (int) chordPlayer.getProgressionTempo()),
+                    Toast.LENGTH_SHORT).show();
+            });
+        } else {
+            Progression.Kind[] kinds = Progression.Kind.values();
+            CharSequence[] items = {
+                getString(R.string.practice_circle_of_fifths),
+                getString(R.string.practice_cadence),
+                getString(R.string.practice_two_five_one),
+                getString(R.string.practice_all_scales),
+                getString(R.string.practice_history)
+            };
+            builder.setItems(items, (dialog, which) -> {
+                if (which == kinds.length) {
+                    showPracticeHistoryDialog();
+                    return;
+                }
+                boolean minor = chordDiscView.getScaleType() != ChordDiscView.ScaleType.MAJOR;
+                Progression sequence = new Progression(kinds[which], chordDiscView.getCurrentNoteIndex(), minor);
+                chordPlayer.playProgression(sequence, PRACTICE_BPM, (root, type) -> chordDiscView.animateToNote(root));
+            });
+        }
+        builder.show();
+    }
+
+    /**
+     * Übungsstatistik je Tonart (Note oben), meistgeübte zuerst. Kommt aus dem Speicher
+     * des PracticeLogWriter, der Dialog liest keine Datei.
+     */
+    private void showPracticeHistoryDialog() {
+        PracticeStats stats = practiceHistory.getStats();
+        if (stats == null) {
+            Toast.makeText(this, R.string.practice_history_loading, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM);
+        StringBuilder message = new StringBuilder();
+        if (stats.total() == 0) {
+            message.append(getString(R.string.practice_history_empty));
+        } else {
+            message.append(getString(R.string.practice_history_total, stats.total(),
+                dateFormat.format(new Date(stats.firstSeconds() * 1000))));
+            Integer[] keys = new Integer[PracticeStats.POSITIONS];
+            for (int key = 0; key < keys.length; key++) {
+                keys[key] = key;
+            }
+            Arrays.sort(keys, (a, b) -> Integer.compare(stats.total(b), stats.total(a)));
+            for (int key : keys) {
+                if (stats.total(key) == 0) {
+                    break;
+                }
+                message.append("\n\n").append(getString(R.string.practice_history_key,
+                    DiscPositions.note(key, !isEnglish), stats.chordCount(key), stats.scaleCount(key),
+                    dateFormat.format(new Date(stats.lastSeconds(key) * 1000))));
+            }
+        }
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.practice_history)
+            .setMessage(message)
+            .setPositiveButton(R.string.help_close, null)
+            .show();
+    }
+
+    /**
+     * Auswahl von Stimmungssystem und Kammerton für Wiedergabe und WAV-Export; die letzten
+     * Einträge schalten Stereo-Wiedergabe sowie Hall und Chorus um (nur Wiedergabe, der
+     * WAV-Export bleibt mono und trocken).
+     */
+    private void showTuningDialog() {
+        TuningSystem[] systems = {TuningSystem.EQUAL_12, TuningSystem.EQUAL_12, TuningSystem.EQUAL_12,
+            TuningSystem.JUST_INTONATION, TuningSystem.EQUAL_19};
+        double[] references = {440, 443, 415, 440, 440};
+        CharSequence[] items = {
+            getString(R.string.tuning_equal_12, 440),
+            getString(R.string.tuning_equal_12, 443),
+            getString(R.string.tuning_equal_12_baroque, 415),
+            getString(R.string.tuning_just),
+            getString(R.string.tuning_equal_19),
+            getString(chordPlayer.isStereo() ? R.string.tuning_stereo_off : R.string.tuning_stereo_on),
+            getString(effectsItem())
+        };
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.tuning_title)
+            .setItems(items, (dialog, which) -> {
+                if (which == systems.length) {
+                    chordPlayer.setStereo(!chordPlayer.isStereo());
+                    Toast.makeText(this, items[which], Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                if (which == systems.length + 1) {
+                    if (!chordPlayer.isEffectsAvailable()) {
+                        Toast.makeText(this, R.string.tuning_effects_unavailable, Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    // Nach automatischer Abschaltung schaltet die Auswahl wieder ein (neuer Versuch)
+                    boolean enable = !chordPlayer.isEffectsEnabled() || chordPlayer.isEffectsAutoDisabled();
+                    chordPlayer.setEffectsEnabled(enable);
+                    Toast.makeText(this, enable ? R.string.tuning_effects_on : R.string.tuning_effects_off,
+                        Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                chordPlayer.setTuning(systems[which], references[which]);
+                Toast.makeText(this, items[which], Toast.LENGTH_SHORT).show();
+            })
+            .show();
+    }
+
+    /**
+     * Eintrag für Hall und Chorus im Stimmungs-Dialog, je nach Zustand des Effektwegs.
+     */
+    private int effectsItem() {
+        if (!chordPlayer.isEffectsAvailable()) {
+            return R.string.tuning_effects_unavailable;
+        }
+        if (chordPlayer.isEffectsAutoDisabled()) {
+            return R.string.tuning_effects_auto_off;
+        }
+        return chordPlayer.isEffectsEnabled() ? R.string.tuning_effects_off : R.string.tuning_effects_on;
+    }
+
+    /**
+     * Schaltet den Hörmodus ein bzw. aus (Schalter „Hörmodus"); beim ersten Mal wird die
+     * Mikrofon-Berechtigung erfragt. Schalter und Beschriftung zeigen danach, ob das Mikrofon läuft.
+     */
+    private void setListening(boolean on) {
+        boolean running = listenMode != null && listenMode.isRunning();
+        if (on == running) {
+            updateListenIndicator();
+            return;
+        }
+        if (!on) {
+            listenMode.stop();
+            Toast.makeText(this, R.string.listen_off, Toast.LENGTH_SHORT).show();
+            updateListenIndicator();
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                && checkSelfPermission(Manifest.permission.RECORD_AUDIO) != PackageManager.PERMISSION_GRANTED) {
+            requestPermissions(new String[]{Manifest.permission.RECORD_AUDIO}, REQUEST_RECORD_AUDIO);
+            return;
+        }
+        startListening();
+    }
+
+    private void startListening() {
+        if (listenMode == null) {
+            listenMode = new ListenMode(chordDiscView);
+            listenMode.setOnStoppedListener(() -> {
+                Toast.makeText(this, R.string.listen_mic_unavailable, Toast.LENGTH_SHORT).show();
+                updateListenIndicator();
+            });
+        }
+        listenMode.start();
+        Toast.makeText(this, R.string.listen_on, Toast.LENGTH_SHORT).show();
+        updateListenIndicator();
+    }
+
+    /**
+     * Gleicht Schalter und Beschriftung des Hörmodus mit dem Mikrofon ab.
+     */
+    private void updateListenIndicator() {
+        boolean running = listenMode != null && listenMode.isRunning();
+        SwitchCompat toggleListen = findViewById(R.id.toggleListen);
+        toggleListen.setChecked(running);
+        TextView listenLabel = findViewById(R.id.listenLabel);
+        listenLabel.setText(running ? R.string.listen_active : R.string.toggle_listen);
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode != REQUEST_RECORD_AUDIO) {
+            return;
+        }
+        if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
+            startListening();
+        } else {
+            Toast.makeText(this, R.string.listen_permission_denied, Toast.LENGTH_SHORT).show();
+            updateListenIndicator();
+        }
+    }
+
+    /**
+     * Öffnet eine MIDI-Datei (Menü „MIDI-Datei öffnen…"); die Scheibe dreht sich danach
+     * zur geschätzten Tonart.
+     */
+    private void openMidiFile() {
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType("audio/*");
+        intent.putExtra(Intent.EXTRA_MIME_TYPES, new String[]{"audio/midi", "audio/x-midi", "audio/mid"});
+        startActivityForResult(intent, REQUEST_OPEN_MIDI);
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (requestCode == REQUEST_OPEN_MIDI && resultCode == RESULT_OK && data != null && data.getData() != null) {
+            importMidi(data.getData());
+        }
+    }
+
+    /**
+     * Schätzt die Tonart der Datei im Hintergrund (die Datei wird gemappt, nicht kopiert)
+     * und stellt danach Tonleiter-Typ und Drehung der Scheibe ein.
+     */
+    private void importMidi(Uri uri) {
+        new Thread(() -> {
+            MidiKeyEstimator estimator = new MidiKeyEstimator();
+            try (ParcelFileDescriptor descriptor = getContentResolver().openFileDescriptor(uri, "r")) {
+                if (descriptor == null) {
+                    throw new FileNotFoundException(uri.toString());
+                }
+                try (FileInputStream in = new FileInputStream(descriptor.getFileDescriptor())) {
+                    estimator.analyze(in.getChannel());
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "MIDI-Import fehlgeschlagen", e);
+                runOnUiThread(() -> Toast.makeText(this, R.string.midi_failed, Toast.LENGTH_LONG).show());
+                return;
+            }
+            Log.i(TAG, "MIDI-Analyse: " + estimator.getNoteCount() + " Noten in "
+                + estimator.getAnalysisNanos() / 1_000_000f + " ms");
+            runOnUiThread(() -> applyMidiKey(estimator));
+        }, "midi-import").start();
+    }
+
+    private void applyMidiKey(MidiKeyEstimator estimator) {
+        int position = estimator.getKeyPosition();
+        if (position < 0) {
+            Toast.makeText(this, R.string.midi_no_notes, Toast.LENGTH_LONG).show();
+            return;
+        }
+        // Moll-Tonarten mit natürlicher Moll-Tonleiter, damit die Löcher zur Tonart passen
+        RadioGroup scaleTypeRadioGroup = findViewById(R.id.scaleTypeRadioGroup);
+        scaleTypeRadioGroup.check(estimator.isKeyMajor() ? R.id.radioMajorScale : R.id.radioNaturalMinor);
+        chordDiscView.animateToNote(position);
+
+        String note = DiscPositions.note(position, !isEnglish);
+        Toast.makeText(this, getString(estimator.isKeyMajor() ? R.string.midi_key_major : R.string.midi_key_minor,
+            note), Toast.LENGTH_LONG).show();
+    }
+
+    /**
+     * Auswahl der Mehrfach-Ansicht (Menü „Mehrere Scheiben…"): aus, verwandte Tonarten
+     * oder alle 12 Dur-Tonarten.
+     */
+    private void showDiscGridDialog() {
+        DiscGridLayout.Mode[] modes = {null, DiscGridLayout.Mode.RELATED_KEYS, DiscGridLayout.Mode.ALL_MAJOR_KEYS};
+        CharSequence[] items = {
+            getString(R.string.disc_grid_off),
+            getString(R.string.disc_grid_related),
+            getString(R.string.disc_grid_all_major)
+        };
+        int checked = Arrays.asList(modes).indexOf(discGridMode);
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.disc_grid_title)
+            .setSingleChoiceItems(items, checked, (dialog, which) -> {
+                setDiscGridMode(modes[which]);
+                dialog.dismiss();
+            })
+            .setNegativeButton(android.R.string.cancel, null)
+            .show();
+    }
+
+    /**
+     * Zeigt die Mehrfach-Ansicht im gegebenen Modus (null = aus).
+     * Die Scheiben liegen über der Hauptscheibe und teilen deren Caches pro Größe.
+     */
+    private void setDiscGridMode(DiscGridLayout.Mode mode) {
+        FrameLayout container = findViewById(R.id.chordDiscContainer);
+        discGridMode = mode;
+        if (mode == null) {
+            if (discGrid != null) {
+                container.removeView(discGrid);
+                discGrid = null;
+            }
+            return;
+        }
+
+        if (discGrid == null) {
+            discGrid = new DiscGridLayout(this, chordPlayer, viewModel.getDeviceProfile(),
+                viewModel.getDiscCachePool());
+            // Unter dem Mess-Overlay einfügen, falls es gerade sichtbar ist
+            int index = metricsOverlay != null ? container.indexOfChild(metricsOverlay) : -1;
+            container.addView(discGrid, index, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        }
+        discGrid.show(mode, chordDiscView);
+    }
+
+    /**
+     * Blendet das Mess-Overlay über der Scheibe ein oder aus.
+     * Ein Tap auf das Overlay speichert die Messwerte als JSON.
+     */
+    private void toggleMetricsOverlay() {
+        FrameLayout container = findViewById(R.id.chordDiscContainer);
+        if (metricsOverlay != null) {
+            metricsHandler.removeCallbacksAndMessages(null);
+            container.removeView(metricsOverlay);
+            metricsOverlay = null;
+            return;
+        }
+
+        metricsOverlay = new TextView(this);
+        metricsOverlay.setTypeface(Typeface.MONOSPACE);
+        metricsOverlay.setTextSize(9);
+        metricsOverlay.setTextColor(Color.WHITE);
+        metricsOverlay.setBackgroundColor(Color.argb(160, 0, 0, 0));
+        metricsOverlay.setPadding(12, 8, 12, 8);
+        metricsOverlay.setOnClickListener(v -> dumpMetrics());
+        metricsOverlay.setOnLongClickListener(v -> {
+            showProfilingDialog();
+            return true;
+        });
+        container.addView(metricsOverlay, new FrameLayout.LayoutParams(
+            FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT,
+            Gravity.TOP | Gravity.START));
+        metricsRefresh.run();
+    }
+
+    /**
+     * Speichert einen Schnappschuss der Messwerte im Hintergrund nach files/metrics/.
+     */
+    private void dumpMetrics() {
+        JSONObject snapshot;
+        try {
+            // Schnappschuss auf dem UI-Thread (liest View-Zustand), Schreiben im Hintergrund
+            snapshot = PerfMetrics.get().toJson(chordDiscView, viewModel.getCacheRegistry());
+        } catch (JSONException e) {
+            Log.w(TAG, "Messwerte nicht serialisierbar", e);
+            return;
+        }
+        new Thread(() -> {
+            try {
+                File file = PerfMetrics.get().dump(getApplicationContext(), snapshot);
+                Log.i(TAG, "Messwerte gespeichert: " + file);
+                runOnUiThread(() -> Toast.makeText(this,
+                    getString(R.string.metrics_dumped, file.getName()), Toast.LENGTH_SHORT).show());
+            } catch (Exception e) {
+                Log.w(TAG, "Messwerte nicht gespeichert", e);
+            }
+        }).start();
+    }
+
+    /**
+     * Menü hinter dem Knopf rechts im Titel.
+     */
+    private void showMainMenu(View anchor) {
+        PopupMenu menu = new PopupMenu(this, anchor);
+        menu.inflate(R.menu.main_menu);
+        menu.setOnMenuItemClickListener(this::onMainMenuItemClick);
+        menu.show();
+    }
+
+    private boolean onMainMenuItemClick(MenuItem item) {
+        int id = item.getItemId();
+        if (id == R.id.menu_disc_grid) {
+            showDiscGridDialog();
+            return true;
+        }
+        if (id == R.id.menu_open_midi) {
+            openMidiFile();
+            return true;
+        }
+        if (id == R.id.menu_export_wav) {
+            confirmExportAllScales();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fragt vor dem Export nach und weist darauf hin, dass die Dateien immer mono und
+     * ohne Effekte sind (WavExporter synthetisiert wie ChordPlayer.noteSample).
+     */
+    private void confirmExportAllScales() {
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.export_title)
+            .setMessage(R.string.export_message)
+            .setPositiveButton(R.string.export_start, (dialog, which) -> exportAllScales())
+            .setNegativeButton(android.R.string.cancel, null)
+            .show();
+    }
+
+    /**
+     * Exportiert alle 19 × 3 Tonleitern als WAV (Menü „Tonleitern als WAV exportieren…").
+     * Ziel: Android/data/&lt;Paket&gt;/files/Music/scales/
+     */
+    private void exportAllScales() {
+        File musicDir = getExternalFilesDir(Environment.DIRECTORY_MUSIC);
+        File directory = new File(musicDir != null ? musicDir : getFilesDir(), "scales"); // Ohne externen Speicher intern
+        String[] labels = chordDiscView.getNoteLabels();
+        WavExporter exporter = new WavExporter(44100, WavFileWriter.BitDepth.PCM_16,
+            chordPlayer.getTuningSystem(), chordPlayer.getReferenceA());
+        Toast.makeText(this, R.string.export_running, Toast.LENGTH_SHORT).show();
+        new Thread(() -> {
+            try {
+                int count = exporter.exportAllScales(directory, labels).size();
+                runOnUiThread(() -> Toast.makeText(this,
+                    getString(R.string.export_done, count, directory.getPath()), Toast.LENGTH_LONG).show());
+            } catch (Exception e) {
+                Log.w(TAG, "WAV-Export fehlgeschlagen", e);
+                runOnUiThread(() -> Toast.makeText(this, R.string.export_failed, Toast.LENGTH_LONG).show());
+            }
+        }, "wav-export").start();
+    }
+
+    /**
+     * Werkzeuge des Mess-Overlays (lange drücken): Gesten aufzeichnen und abspielen.
+     */
+    private void showProfilingDialog() {
+        CharSequence[] items = {
+            getString(gestureRecorder == null ? R.string.gesture_record_start : R.string.gesture_record_stop),
+            getString(R.string.gesture_replay)
+        };
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.profiling_title)
+            .setItems(items, (dialog, which) -> {
+                if (which == 0) {
+                    toggleGestureRecording();
+                } else {
+                    replayLatestGestures();
+                }
+            })
+            .show();
+    }
+
+    /**
+     * Startet oder beendet die Aufzeichnung aller Touch-Events der Scheibe nach files/metrics/.
+     */
+    private void toggleGestureRecording() {
+        if (gestureRecorder != null) {
+            stopGestureRecording();
+            return;
+        }
+        gestureRecorder = new GestureRecorder(this, chordDiscView);
+        chordDiscView.setGestureRecorder(gestureRecorder);
+        Toast.makeText(this, R.string.gesture_recording, Toast.LENGTH_SHORT).show();
+    }
+
+    private void stopGestureRecording() {
+        if (gestureRecorder == null) {
+            return;
+        }
+        chordDiscView.setGestureRecorder(null);
+        gestureRecorder.stop();
+        if (gestureRecorder.getFailure() != null) {
+            Log.w(TAG, "Gesten-Aufzeichnung nicht möglich", gestureRecorder.getFailure());
+        }
+        Log.i(TAG, "Gesten aufgezeichnet: " + gestureRecorder.getFile() + " (" + gestureRecorder.getRecordCount()
+            + " Datensätze, " + gestureRecorder.getDroppedCount() + " verworfen)");
+        Toast.makeText(this, getString(R.string.gesture_recorded, gestureRecorder.getRecordCount(),
+            gestureRecorder.getFile().getName()), Toast.LENGTH_LONG).show();
+        gestureRecorder = null;
+    }
+
+    /**
+     * Spielt die neueste Aufzeichnung offscreen ab; der Bericht liegt danach unter files/metrics/.
+     */
+    private void replayLatestGestures() {
+        stopGestureRecording();
+        File file;
+        try {
+            file = GestureReplay.latestRecording(this);
+        } catch (IOException e) {
+            file = null;
+        }
+        if (file == null) {
+            Toast.makeText(this, R.string.gesture_no_recording, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Toast.makeText(this, R.string.gesture_replay_running, Toast.LENGTH_SHORT).show();
+        new GestureReplay(this).run(file, result -> {
+            String message = result.completed
+                ? getString(R.string.gesture_replay_done, result.events, result.frames, result.medianFrameMs)
+                : getString(R.string.gesture_replay_failed);
+            Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+        });
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (viewModel != null && viewModel.getCacheRegistry() != null) {
+            viewModel.getCacheRegistry().onTrimMemory(level);
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Aufzeichnung abschließen, bevor die Activity ggf. neu erstellt wird
+        stopGestureRecording();
+        // Mikrofon nicht im Hintergrund offen halten
+        if (listenMode != null) {
+            listenMode.stop();
+            updateListenIndicator();
+        }
+        // Übungsfolgen laufen nur im Vordergrund
+        if (chordPlayer != null) {
+            chordPlayer.stopProgression();
+        }
+        // Übungsprotokoll schreiben, bevor der Prozess im Hintergrund beendet werden kann
+        if (practiceHistory != null) {
+            practiceHistory.flush();
+        }
+        // Bild und Zustand für den nächsten Kaltstart sichern (nur wenn die echte Scheibe sichtbar ist)
+        if (chordDiscView != null && liveDiscShown) {
+            DiscSnapshot.save(this, chordDiscView);
+        }
+    }
+
+    /**
+     * Übernimmt das im Hintergrund gemessene Geräteprofil für die sichtbaren Scheiben.
+     */
+    private void applyDeviceProfile(DeviceProfile profile) {
+        chordDiscView.setDeviceProfile(profile);
+        if (discGrid != null) {
+            discGrid.setDeviceProfile(profile);
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (chordPlayer != null) {
-            chordPlayer.release();
+        metricsHandler.removeCallbacks(metricsRefresh);
+        if (viewModel != null) {
+            viewModel.setProfileListener(null);
+        }
+        // ChordPlayer wird erst in ChordDiscViewModel.onCleared freigegeben,
+        // damit eine laufende Wiedergabe den Konfigurationswechsel überlebt
+        if (viewModel != null && chordDiscView != null) {
+            viewModel.saveDiscState(chordDiscView);
         }
     }
 }
@@ -0,0 +1,57 @@
+package com.rsinkwitz.chorddisc;
+
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaRecorder;
+import com.rsinkwitz.chorddisc.core.PcmSource;
+
+/**
+ * Liest Mono-PCM vom Mikrofon (16 Bit) und liefert es als float -1..1.
+ * Setzt die Berechtigung RECORD_AUDIO voraus.
+ */
+class MicrophonePcmSource implements PcmSource {
+
+    static final int SAMPLE_RATE = 44100;
+
+    private final AudioRecord record;
+    private short[] shortBuffer = new short[0];
+
+    MicrophonePcmSource() {
+        int minBuffer = AudioRecord.getMinBufferSize(SAMPLE_RATE, AudioFormat.CHANNEL_IN_MONO,
+            AudioFormat.ENCODING_PCM_16BIT);
+        // Reserve, damit eine verspätete Analyse nicht sofort zu Aussetzern führt
+        record = new AudioRecord(MediaRecorder.AudioSource.MIC, SAMPLE_RATE,
+            AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT, Math.max(minBuffer, 8192) * 2);
+        if (record.getState() != AudioRecord.STATE_INITIALIZED) {
+            record.release();
+            throw new IllegalStateException("AudioRecord konnte nicht initialisiert werden");
+        }
+        record.startRecording();
+    }
+
+    @Override
+    public int getSampleRate() {
+        return SAMPLE_RATE;
+    }
+
+    @Override
+    public int read(float[] buffer, int offset, int length) {
+        if (shortBuffer.length < length) {
+            shortBuffer = new short[length];
+        }
+        int read = record.read(shortBuffer, 0, length);
+        if (read < 0) {
+            return -1;
+        }
+        for (int i = 0; i < read; i++) {
+            buffer[offset + i] = shortBuffer[i] / 32768f;
+        }
+        return read;
+    }
+
+    @Override
+    public void close() {
+        record.stop();
+        record.release();
+    }
+}
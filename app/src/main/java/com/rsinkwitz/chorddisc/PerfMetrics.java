@@ -0,0 +1,352 @@
+package com.rsinkwitz.chorddisc;
+
+import android.content.Context;
+import android.view.Choreographer;
+import com.rsinkwitz.chorddisc.core.EffectsBus;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Sammelt Leistungsmesswerte von ChordDiscView und ChordPlayer:
+ * Zeichendauer pro Stufe, Frame-Abstände und verlorene Frames (Choreographer),
+ * Synthesedauer pro Note, Tap-bis-Ton-Latenz, Audio-Unterläufe und Last des Effektwegs.
+ * Wird im versteckten Debug-Overlay angezeigt und kann als JSON gespeichert werden.
+ */
+public final class PerfMetrics {
+
+    // Zeichenstufen in onDraw
+    public enum DrawStage {
+        BOTTOM_DISC,
+        TOP_DISC,
+        FRAME,
+        BUTTON,
+        ARROWS,
+        TOTAL               // Gesamtes onDraw
+    }
+
+    private static final PerfMetrics INSTANCE = new PerfMetrics();
+
+    private final LatencyHistogram[] drawStages = new LatencyHistogram[DrawStage.values().length];
+    private final LatencyHistogram frameIntervals = new LatencyHistogram();
+    private final LatencyHistogram noteSynthesis = new LatencyHistogram();
+    private final LatencyHistogram tapToSound = new LatencyHistogram();
+    private final LatencyHistogram pitchAnalysis = new LatencyHistogram();   // Rechenzeit pro Analyse
+    private final LatencyHistogram pitchDetection = new LatencyHistogram();  // Ton → Meldung
+    private volatile float pitchCpuLoad = -1f; // Anteil eines Kerns, -1 = Hörmodus nie aktiv
+    private final AtomicLong jankFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private volatile int audioUnderruns = -1; // -1 = nicht verfügbar (vor API 24)
+    private volatile EffectsBus effectsBus;    // Misst selbst, hier nur ausgelesen
+    private volatile long pendingTapNanos = 0;
+    private final Map<String, Float> startupMilestones = new LinkedHashMap<>(); // ms seit Prozessstart
+
+    // Frame-Überwachung (nur UI-Thread), läuft nur während die Scheibe sich bewegt
+    private long frameIntervalNanos = 1_000_000_000L / 60;
+    private long lastFrameTimeNanos = 0;
+    private boolean frameMonitoring = false;
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+        }
+    };
+
+    private PerfMetrics() {
+        for (int i = 0; i < drawStages.length; i++) {
+            drawStages[i] = new LatencyHistogram();
+        }
+    }
+
+    public static PerfMetrics get() {
+        return INSTANCE;
+    }
+
+    // --- Rendering ---
+
+    public void recordDrawStage(DrawStage stage, long nanos) {
+        drawStages[stage.ordinal()].recordNanos(nanos);
+    }
+
+    /**
+     * Setzt die Bildwiederholrate des Displays (für die Erkennung verlorener Frames).
+     */
+    public void setRefreshRate(float refreshRateHz) {
+        if (refreshRateHz > 0) {
+            frameIntervalNanos = (long) (1_000_000_000L / refreshRateHz);
+        }
+    }
+
+    /**
+     * Startet oder stoppt die Frame-Überwachung per Choreographer (nur vom UI-Thread).
+     * Ohne Bewegung zeichnet die View nicht, Abstände wären dann keine Ruckler.
+     */
+    public void setFrameMonitoring(boolean active) {
+        if (active == frameMonitoring) {
+            return;
+        }
+        frameMonitoring = active;
+        lastFrameTimeNanos = 0;
+        if (active) {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        } else {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        if (!frameMonitoring) {
+            return;
+        }
+        if (lastFrameTimeNanos != 0) {
+            long interval = frameTimeNanos - lastFrameTimeNanos;
+            frameIntervals.recordNanos(interval);
+            // Mehr als 1.5 Frame-Intervalle = Ruckler; Anzahl verlorener Frames aufrunden
+            if (interval > frameIntervalNanos * 3 / 2) {
+                jankFrames.incrementAndGet();
+                droppedFrames.addAndGet(Math.round((double) interval / frameIntervalNanos) - 1);
+            }
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    // --- Start ---
+
+    /**
+     * Hält einen Meilenstein des Kaltstarts fest (z.B. erster Frame, echte Scheibe sichtbar).
+     * @param millisSinceStart Zeit seit Prozessstart in Millisekunden
+     */
+    public synchronized void recordStartup(String milestone, float millisSinceStart) {
+        if (!startupMilestones.containsKey(milestone)) {
+            startupMilestones.put(milestone, millisSinceStart);
+        }
+    }
+
+    // --- Audio ---
+
+    public void recordNoteSynthesis(long nanos) {
+        noteSynthesis.recordNanos(nanos);
+    }
+
+    // --- Hörmodus (Tonhöhen-/Tonart-Erkennung) ---
+
+    public void recordPitchAnalysis(long nanos) {
+        pitchAnalysis.recordNanos(nanos);
+    }
+
+    /**
+     * @param latencyMs Verzögerung vom neuen Ton bis zur Meldung (siehe PitchKeyDetector)
+     */
+    public void recordPitchDetection(float latencyMs) {
+        pitchDetection.recordNanos((long) (latencyMs * 1_000_000L));
+    }
+
+    public void setPitchCpuLoad(double load) {
+        pitchCpuLoad = (float) load;
+    }
+
+    /**
+     * Merkt sich den Zeitpunkt eines Taps, der eine Wiedergabe auslöst.
+     */
+    public void markTap() {
+        pendingTapNanos = System.nanoTime();
+    }
+
+    /**
+     * Wird unmittelbar vor der Übergabe des ersten Samples an AudioTrack aufgerufen.
+     */
+    public void onFirstSampleWritten() {
+        long tap = pendingTapNanos;
+        if (tap != 0) {
+            pendingTapNanos = 0;
+            tapToSound.recordNanos(System.nanoTime() - tap);
+        }
+    }
+
+    public void setAudioUnderruns(int underruns) {
+        audioUnderruns = underruns;
+    }
+
+    /**
+     * Effektweg, dessen Blockzeiten im Overlay und im JSON erscheinen (null = keiner).
+     */
+    public void setEffectsBus(EffectsBus bus) {
+        effectsBus = bus;
+    }
+
+    // --- Ausgabe ---
+
+    /**
+     * Mehrzeiliger Text für das Debug-Overlay.
+     */
+    public String describe(ChordDiscView view, CacheRegistry registry) {
+        StringBuilder text = new StringBuilder();
+        for (DrawStage stage : DrawStage.values()) {
+            text.append(String.format(Locale.US, "%-11s %s%n", stage.name(),
+                drawStages[stage.ordinal()].summary()));
+        }
+        text.append("frames      ").append(frameIntervals.summary()).append('\n');
+        text.append("jank ").append(jankFrames.get()).append(" dropped ").append(droppedFrames.get()).append('\n');
+        text.append("synth/note  ").append(noteSynthesis.summary()).append('\n');
+        text.append("tap→sound   ").append(tapToSound.summary()).append('\n');
+        text.append("underruns ").append(audioUnderruns).append('\n');
+        EffectsBus bus = effectsBus;
+        if (bus != null && bus.isEnabled()) {
+            text.append(String.format(Locale.US, "fx/block    last=%.3f max=%.3f load %.2f %%%s%n",
+                bus.getLastBlockNanos() / 1e6, bus.getMaxBlockNanos() / 1e6, bus.getAverageLoad() * 100,
+                bus.isAutoDisabled() ? " AUS" : ""));
+        }
+        if (pitchCpuLoad >= 0) {
+            text.append("pitch/block ").append(pitchAnalysis.summary()).append('\n');
+            text.append("pitch→disc  ").append(pitchDetection.summary()).append('\n');
+            text.append(String.format(Locale.US, "pitch cpu %.2f %%%n", pitchCpuLoad * 100));
+        }
+        synchronized (this) {
+            if (!startupMilestones.isEmpty()) {
+                text.append("start");
+                for (Map.Entry<String, Float> milestone : startupMilestones.entrySet()) {
+                    text.append(String.format(Locale.US, " %s %.0f", milestone.getKey(), milestone.getValue()));
+                }
+                text.append(" ms\n");
+            }
+        }
+        if (view != null) {
+            text.append("quality ").append(view.getRenderQuality())
+                .append(" transitions ").append(view.getQualityTransitionCount())
+                .append(String.format(Locale.US, " first %.1f cached %.1f ms%n",
+                    view.getFirstFrameMs(), view.getFullyCachedMs()));
+        }
+        if (registry != null) {
+            text.append(String.format(Locale.US, "cache %d/%d KB evicted %d KB",
+                registry.getTotalBytes() / 1024, registry.getBudgetBytes() / 1024,
+                registry.getEvictedBytes() / 1024));
+        }
+        return text.toString();
+    }
+
+    public JSONObject toJson(ChordDiscView view, CacheRegistry registry) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("timestampMs", System.currentTimeMillis());
+
+        JSONObject stages = new JSONObject();
+        for (DrawStage stage : DrawStage.values()) {
+            stages.put(stage.name(), drawStages[stage.ordinal()].toJson());
+        }
+        json.put("drawStages", stages);
+        json.put("frameIntervals", frameIntervals.toJson());
+        json.put("jankFrames", jankFrames.get());
+        json.put("droppedFrames", droppedFrames.get());
+        json.put("noteSynthesis", noteSynthesis.toJson());
+        json.put("tapToSound", tapToSound.toJson());
+        json.put("audioUnderruns", audioUnderruns);
+        EffectsBus bus = effectsBus;
+        if (bus != null) {
+            JSONObject effects = new JSONObject();
+            effects.put("enabled", bus.isEnabled());
+            effects.put("autoDisabled", bus.isAutoDisabled());
+            effects.put("lastBlockMs", bus.getLastBlockNanos() / 1e6);
+            effects.put("maxBlockMs", bus.getMaxBlockNanos() / 1e6);
+            effects.put("averageLoad", bus.getAverageLoad());
+            effects.put("maxLoad", bus.getMaxLoad());
+            json.put("effects", effects);
+        }
+        if (pitchCpuLoad >= 0) {
+            JSONObject pitch = new JSONObject();
+            pitch.put("analysis", pitchAnalysis.toJson());
+            pitch.put("detectionLatency", pitchDetection.toJson());
+            pitch.put("cpuLoad", pitchCpuLoad);
+            json.put("pitch", pitch);
+        }
+        synchronized (this) {
+            JSONObject startup = new JSONObject();
+            for (Map.Entry<String, Float> milestone : startupMilestones.entrySet()) {
+                startup.put(milestone.getKey(), milestone.getValue());
+            }
+            json.put("startupMs", startup);
+        }
+
+        if (view != null) {
+            JSONObject render = new JSONObject();
+            render.put("quality", view.getRenderQuality().name());
+            render.put("qualityTransitions", view.getQualityTransitionCount());
+            for (ChordDiscView.RenderQuality quality : ChordDiscView.RenderQuality.values()) {
+                render.put("frames" + quality.name(), view.getQualityFrameCount(quality));
+            }
+            render.put("firstFrameMs", view.getFirstFrameMs());
+            render.put("fullyCachedMs", view.getFullyCachedMs());
+            json.put("render", render);
+        }
+
+        if (registry != null) {
+            JSONObject caches = new JSONObject();
+            caches.put("budgetBytes", registry.getBudgetBytes());
+            caches.put("totalBytes", registry.getTotalBytes());
+            caches.put("evictedBytes", registry.getEvictedBytes());
+            for (CacheRegistry.Priority priority : CacheRegistry.Priority.values()) {
+                JSONObject entry = new JSONObject();
+                entry.put("bytes", registry.getBytes(priority));
+                entry.put("evictions", registry.getEvictionCount(priority));
+                caches.put(priority.name(), entry);
+            }
+            json.put("caches", caches);
+        }
+        return json;
+    }
+
+    /**
+     * Schreibt einen JSON-Schnappschuss nach files/metrics/ (nicht vom UI-Thread aufrufen).
+     * @return geschriebene Datei
+     */
+    public File dump(Context context, JSONObject snapshot) throws IOException, JSONException {
+        return writeJson(context, "perf-" + System.currentTimeMillis() + ".json", snapshot);
+    }
+
+    /**
+     * Schreibt JSON nach files/metrics/&lt;fileName&gt; (vorhandene Datei wird ersetzt).
+     */
+    static File writeJson(Context context, String fileName, JSONObject json) throws IOException, JSONException {
+        File file = new File(metricsDir(context), fileName);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"))) {
+            writer.write(json.toString(2));
+        }
+        return file;
+    }
+
+    /**
+     * Pfad von files/metrics/, ohne das Verzeichnis anzulegen (für Schreib-Threads).
+     */
+    static File metricsPath(Context context) {
+        return new File(context.getFilesDir(), "metrics");
+    }
+
+    static File metricsDir(Context context) throws IOException {
+        File dir = metricsPath(context);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Verzeichnis nicht anlegbar: " + dir);
+        }
+        return dir;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : drawStages) {
+            histogram.reset();
+        }
+        frameIntervals.reset();
+        noteSynthesis.reset();
+        tapToSound.reset();
+        pitchAnalysis.reset();
+        pitchDetection.reset();
+        jankFrames.set(0);
+        droppedFrames.set(0);
+    }
+}
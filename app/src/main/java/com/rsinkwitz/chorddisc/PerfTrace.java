@@ -0,0 +1,74 @@
+package com.rsinkwitz.chorddisc;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Benannte Trace-Abschnitte und Zähler für Perfetto/systrace.
+ * Nur im Build-Typ "profile" aktiv (BuildConfig.TRACE_ENABLED); in Debug und Release
+ * entfernt der Compiler die Aufrufe, da ENABLED eine Konstante ist.
+ */
+public final class PerfTrace {
+
+    public static final boolean ENABLED = BuildConfig.TRACE_ENABLED;
+
+    // Zählernamen (erscheinen als eigene Spuren im Perfetto-Prozess)
+    public static final String COUNTER_VOICES = "ChordDisc.voices";
+    public static final String COUNTER_QUEUE_DEPTH = "ChordDisc.mainQueueDepth";
+    public static final String COUNTER_PHRASE_HIT_RATE = "ChordDisc.phraseHitRate%";
+    public static final String COUNTER_LAYER_HIT_RATE = "ChordDisc.layerHitRate%";
+
+    private PerfTrace() {
+    }
+
+    /**
+     * Beginnt einen Abschnitt (max. 127 Zeichen). Muss auf demselben Thread mit end() beendet werden.
+     */
+    public static void begin(String sectionName) {
+        if (ENABLED) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    public static void end() {
+        if (ENABLED) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Setzt einen Zählerwert (ab API 29, vorher ohne Wirkung).
+     */
+    public static void counter(String counterName, long value) {
+        if (ENABLED && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.setCounter(counterName, value);
+        }
+    }
+
+    /**
+     * Trefferquote in Prozent für einen Zähler (0 wenn noch keine Zugriffe).
+     */
+    public static void hitRate(String counterName, long hits, long misses) {
+        if (ENABLED) {
+            long total = hits + misses;
+            counter(counterName, total == 0 ? 0 : hits * 100 / total);
+        }
+    }
+
+    /**
+     * Umhüllt ein Runnable für handler.post, sodass der Callback als Abschnitt erscheint.
+     */
+    public static Runnable wrap(String sectionName, Runnable runnable) {
+        if (!ENABLED) {
+            return runnable;
+        }
+        return () -> {
+            Trace.beginSection(sectionName);
+            try {
+                runnable.run();
+            } finally {
+                Trace.endSection();
+            }
+        };
+    }
+}
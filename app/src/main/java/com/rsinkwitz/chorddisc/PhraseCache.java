@@ -0,0 +1,95 @@
+package com.rsinkwitz.chorddisc;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU-Cache für synthetisierte Noten (16-Bit-PCM).
+ * Wird vom Audio-Thread befüllt und kann von jedem Thread geräumt werden.
+ */
+class PhraseCache implements CacheRegistry.Entry {
+
+    private final CacheRegistry.Priority priority;
+    private final int maxEntries;
+    private final LinkedHashMap<Long, short[]> phrases = new LinkedHashMap<>(16, 0.75f, true);
+    private CacheRegistry registry;
+    private volatile long byteCount = 0;
+    private volatile long rebuildCostNanos = 0;
+    private long synthNanosTotal = 0; // Für die mittlere Synthesezeit pro Note
+    private long synthCount = 0;
+
+    PhraseCache(CacheRegistry.Priority priority, int maxEntries) {
+        this.priority = priority;
+        this.maxEntries = maxEntries;
+    }
+
+    void setRegistry(CacheRegistry registry) {
+        this.registry = registry;
+        registry.register(this);
+    }
+
+    /**
+     * Schlüssel aus Tonhöhe (Phaseninkrement, auf 1e-9 rad gerundet) und Dauer. Gleiche Tonhöhen
+     * teilen sich den Eintrag, auch über Stimmungswechsel hinweg.
+     */
+    static long key(double phaseIncrement, int durationMs) {
+        return (Math.round(phaseIncrement * 1e9) << 32) | (durationMs & 0xFFFFFFFFL);
+    }
+
+    synchronized short[] get(long key) {
+        return phrases.get(key);
+    }
+
+    /**
+     * @param synthNanos gemessene Zeit der Synthese (für die Räumungsreihenfolge)
+     */
+    void put(long key, short[] pcm, long synthNanos) {
+        synchronized (this) {
+            short[] previous = phrases.put(key, pcm);
+            long bytes = byteCount + pcm.length * 2L - (previous != null ? previous.length * 2L : 0);
+
+            // Älteste Einträge entfernen, wenn zu viele
+            Iterator<Map.Entry<Long, short[]>> iterator = phrases.entrySet().iterator();
+            while (phrases.size() > maxEntries && iterator.hasNext()) {
+                bytes -= iterator.next().getValue().length * 2L;
+                iterator.remove();
+            }
+            byteCount = bytes;
+
+            // Neuaufbau-Kosten = mittlere Synthesezeit * Anzahl Einträge
+            synthNanosTotal += synthNanos;
+            synthCount++;
+            rebuildCostNanos = synthNanosTotal / synthCount * phrases.size();
+        }
+        if (registry != null) {
+            registry.onEntryChanged(this);
+        }
+    }
+
+    synchronized void clear() {
+        phrases.clear();
+        byteCount = 0;
+        rebuildCostNanos = 0;
+    }
+
+    @Override
+    public CacheRegistry.Priority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    @Override
+    public long getRebuildCostNanos() {
+        return rebuildCostNanos;
+    }
+
+    @Override
+    public void evict() {
+        clear();
+    }
+}
@@ -0,0 +1,78 @@
+package com.rsinkwitz.chorddisc;
+
+import android.content.Context;
+import com.rsinkwitz.chorddisc.core.PracticeLog;
+import com.rsinkwitz.chorddisc.core.PracticeLogWriter;
+import com.rsinkwitz.chorddisc.core.PracticeStats;
+import java.io.File;
+
+/**
+ * Merkt sich, welche Akkorde und Tonleitern in welcher Tonart gespielt wurden (Übungsstatistik).
+ * Eine Instanz je Prozess, damit nach einem Konfigurationswechsel nicht zwei Schreiber dieselbe
+ * Datei führen. Der UI-Thread übergibt nur Datensätze und liest die Statistik aus dem Speicher;
+ * Datei files/practice/practice.cdph und Prüfpunkt liest und schreibt der Thread des
+ * PracticeLogWriter.
+ */
+public final class PracticeHistory {
+
+    private static PracticeHistory instance;
+
+    private final PracticeLogWriter writer;
+
+    private PracticeHistory(File directory) {
+        writer = new PracticeLogWriter(directory);
+    }
+
+    /**
+     * Nur UI-Thread. Beim ersten Aufruf startet der Schreib-Thread und lädt die Statistik.
+     */
+    public static PracticeHistory get(Context context) {
+        if (instance == null) {
+            // getFilesDir() liefert den bereits angelegten, zwischengespeicherten Pfad;
+            // das Unterverzeichnis legt der Schreib-Thread an
+            instance = new PracticeHistory(new File(context.getApplicationContext().getFilesDir(), "practice"));
+        }
+        return instance;
+    }
+
+    /**
+     * Akkord auf root gespielt, während key oben steht.
+     */
+    public void recordChord(int root, boolean major, int key) {
+        writer.record(major ? PracticeLog.CHORD_MAJOR : PracticeLog.CHORD_MINOR, root, key);
+    }
+
+    /**
+     * Tonleiter auf root gespielt, während key oben steht.
+     */
+    public void recordScale(int root, ChordDiscView.ScaleType scaleType, int key) {
+        int kind;
+        switch (scaleType) {
+            case NATURAL_MINOR:
+                kind = PracticeLog.SCALE_NATURAL_MINOR;
+                break;
+            case HARMONIC_MINOR:
+                kind = PracticeLog.SCALE_HARMONIC_MINOR;
+                break;
+            case MAJOR:
+            default:
+                kind = PracticeLog.SCALE_MAJOR;
+                break;
+        }
+        writer.record(kind, root, key);
+    }
+
+    /**
+     * Statistik einschließlich des gerade Gespielten; null, solange sie noch geladen wird.
+     */
+    public PracticeStats getStats() {
+        return writer.getStats();
+    }
+
+    /**
+     * Wartende Datensätze jetzt im Hintergrund schreiben (beim Pausieren).
+     */
+    public void flush() {
+        writer.flush();
+    }
+}
@@ -0,0 +1,195 @@
+package com.rsinkwitz.chorddisc;
+
+import com.rsinkwitz.chorddisc.core.PitchTable;
+import com.rsinkwitz.chorddisc.core.TuningSystem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exportiert, was die Scheibe spielt, als WAV-Datei (z.B. für Unterrichtsmaterial):
+ * einzelne Akkorde, Tonleitern und Quintenzirkel-Durchläufe über alle Tonarten.
+ * Die Noten werden Sample für Sample mit derselben Formel wie bei der Wiedergabe erzeugt
+ * und blockweise geschrieben, sodass auch beliebig lange Folgen konstanten Speicher brauchen.
+ */
+public class WavExporter {
+
+    private static final int BLOCK_BYTES = 16 * 1024;
+
+    // Ein direkter Puffer pro Thread, über alle Dateien wiederverwendet
+    private static final ThreadLocal<ByteBuffer> BLOCK_BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BLOCK_BYTES);
+        }
+    };
+
+    private final int sampleRate;
+    private final WavFileWriter.BitDepth bitDepth;
+    private final PitchTable pitchTable;
+
+    public WavExporter(int sampleRate, WavFileWriter.BitDepth bitDepth) {
+        this(sampleRate, bitDepth, TuningSystem.EQUAL_12, PitchTable.DEFAULT_REFERENCE_A);
+    }
+
+    /**
+     * Export in einer anderen Stimmung (z.B. der gerade in ChordPlayer gewählten).
+     */
+    public WavExporter(int sampleRate, WavFileWriter.BitDepth bitDepth, TuningSystem tuning, double referenceA) {
+        this.sampleRate = sampleRate;
+        this.bitDepth = bitDepth;
+        this.pitchTable = new PitchTable(tuning, referenceA, sampleRate);
+    }
+
+    /**
+     * Exportiert einen Akkord wie ChordDiscView beim Tippen auf eine Note
+     * (Dur/Moll z.B. über ChordDiscView.isMajorChordFor bestimmen).
+     * @param tonic Position oben auf der Scheibe (Tonika der reinen Stimmung)
+     */
+    public void exportChord(File file, int noteIndex, boolean isMajor, int tonic) throws IOException {
+        export(file, Arrays.asList(ChordPlayer.chordNotes(noteIndex, isMajor)).iterator(), tonic);
+    }
+
+    /**
+     * Exportiert eine Tonleiter auf- und abwärts wie beim Play-Button (Tonika = Grundton).
+     */
+    public void exportScale(File file, int rootIndex, ChordPlayer.ScaleType scaleType) throws IOException {
+        export(file, Arrays.asList(ChordPlayer.scaleNotes(rootIndex, scaleType)).iterator(), rootIndex);
+    }
+
+    /**
+     * Exportiert die Tonika-Akkorde aller zwölf Tonarten in Quintenfolge.
+     * In reiner Stimmung ist jeder Akkord rein über seinem eigenen Grundton gestimmt.
+     * @param major true = Dur-Akkorde, false = Moll-Akkorde
+     * @param laps Anzahl der Durchläufe durch den Quintenzirkel
+     */
+    public void exportCircleOfFifths(File file, boolean major, int laps) throws IOException {
+        // Eine Tabelle je Tonart vorab statt einer pro Akkord
+        PitchTable[] keyTables = new PitchTable[19];
+        for (int position : ChordPlayer.CIRCLE_OF_FIFTHS) {
+            keyTables[position] = pitchTable.withTonic(position);
+        }
+        try (WavFileWriter writer = new WavFileWriter(file, sampleRate, bitDepth, BLOCK_BUFFER.get())) {
+            CircleOfFifthsNotes notes = new CircleOfFifthsNotes(major, laps);
+            while (notes.hasNext()) {
+                ChordPlayer.Note note = notes.next();
+                write(writer, note, keyTables[note.rootIndex]);
+            }
+        }
+    }
+
+    /**
+     * Schreibt eine beliebig lange Notenfolge. Die Folge wird nur einmal durchlaufen;
+     * Noten außerhalb des Tonumfangs werden wie bei der Wiedergabe übersprungen.
+     * @param tonic Tonika der reinen Stimmung als Position auf der Scheibe (0-18)
+     */
+    public void export(File file, Iterator<ChordPlayer.Note> notes, int tonic) throws IOException {
+        PitchTable table = pitchTable.withTonic(tonic);
+        try (WavFileWriter writer = new WavFileWriter(file, sampleRate, bitDepth, BLOCK_BUFFER.get())) {
+            while (notes.hasNext()) {
+                write(writer, notes.next(), table);
+            }
+        }
+    }
+
+    private void write(WavFileWriter writer, ChordPlayer.Note note, PitchTable table) throws IOException {
+        double increment = note.phaseIncrement(table);
+        if (increment == 0) {
+            return;
+        }
+        int numSamples = (sampleRate * note.durationMs) / 1000;
+        for (int i = 0; i < numSamples; i++) {
+            writer.write(ChordPlayer.noteSample(increment, i, numSamples, sampleRate));
+        }
+    }
+
+    /**
+     * Exportiert alle 19 × 3 Tonleitern parallel auf allen Kernen.
+     * Dateinamen: scale-&lt;Position&gt;-&lt;Typ&gt;.wav
+     * @param labels Beschriftung der 19 Positionen für die Dateinamen (z.B. "C", "Cis")
+     * @return geschriebene Dateien
+     */
+    public List<File> exportAllScales(File directory, String[] labels) throws IOException, InterruptedException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Verzeichnis nicht anlegbar: " + directory);
+        }
+
+        List<Callable<File>> tasks = new ArrayList<>();
+        for (int position = 0; position < 19; position++) {
+            for (ChordPlayer.ScaleType scaleType : ChordPlayer.ScaleType.values()) {
+                final int root = position;
+                final File file = new File(directory, String.format(Locale.US, "scale-%02d-%s-%s.wav",
+                    position, fileSafe(labels[position]), scaleType.name().toLowerCase(Locale.US)));
+                tasks.add(() -> {
+                    exportScale(file, root, scaleType);
+                    return file;
+                });
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<File> files = new ArrayList<>();
+            for (Future<File> result : executor.invokeAll(tasks)) {
+                try {
+                    files.add(result.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+            return files;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String fileSafe(String label) {
+        return label.replaceAll("[^A-Za-z0-9]", "_");
+    }
+
+    /**
+     * Erzeugt die Akkordfolge des Quintenzirkels erst beim Durchlaufen (konstanter Speicher).
+     */
+    private static final class CircleOfFifthsNotes implements Iterator<ChordPlayer.Note> {
+        private final boolean major;
+        private final long totalChords;
+        private long chord = 0;
+        private ChordPlayer.Note[] current = new ChordPlayer.Note[0];
+        private int noteInChord = 0;
+
+        CircleOfFifthsNotes(boolean major, int laps) {
+            this.major = major;
+            this.totalChords = (long) ChordPlayer.CIRCLE_OF_FIFTHS.length * Math.max(0, laps);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return noteInChord < current.length || chord < totalChords;
+        }
+
+        @Override
+        public ChordPlayer.Note next() {
+            if (noteInChord >= current.length) {
+                if (chord >= totalChords) {
+                    throw new NoSuchElementException();
+                }
+                int position = ChordPlayer.CIRCLE_OF_FIFTHS[(int) (chord++ % ChordPlayer.CIRCLE_OF_FIFTHS.length)];
+                current = ChordPlayer.chordNotes(position, major);
+                noteInChord = 0;
+            }
+            return current[noteInChord++];
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rsinkwitz.chorddisc;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Schreibt Mono-PCM (16 oder 24 Bit) blockweise in eine WAV-Datei.
+ * Die Samples laufen über einen wiederverwendeten direkten ByteBuffer in einen FileChannel;
+ * die Größenfelder des Headers werden beim Schließen eingetragen. Der Speicherbedarf
+ * hängt daher nicht von der Länge der Aufnahme ab.
+ */
+public class WavFileWriter implements Closeable {
+
+    // Bittiefe der Samples
+    public enum BitDepth {
+        PCM_16(2),
+        PCM_24(3);
+
+        final int bytesPerSample;
+
+        BitDepth(int bytesPerSample) {
+            this.bytesPerSample = bytesPerSample;
+        }
+    }
+
+    private static final int HEADER_SIZE = 44;
+    private static final long MAX_DATA_BYTES = 0xFFFFFFFFL - HEADER_SIZE + 8; // RIFF-Größe ist 32 Bit
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final BitDepth bitDepth;
+    private final int sampleRate;
+    private final double fullScale; // Größter Sample-Wert der Bittiefe
+    private long dataBytes = 0;
+
+    /**
+     * @param buffer direkter Puffer (wird geleert und wiederverwendet, Größe = Blockgröße)
+     */
+    public WavFileWriter(File file, int sampleRate, BitDepth bitDepth, ByteBuffer buffer) throws IOException {
+        RandomAccessFile output = new RandomAccessFile(file, "rw"); // java.nio.file erst ab API 26
+        output.setLength(0);
+        this.channel = output.getChannel();
+        this.sampleRate = sampleRate;
+        this.bitDepth = bitDepth;
+        this.fullScale = bitDepth == BitDepth.PCM_16 ? Short.MAX_VALUE : 0x7FFFFF;
+        this.buffer = buffer;
+        buffer.clear();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        // Platzhalter-Header, Größen folgen in close()
+        channel.position(HEADER_SIZE);
+    }
+
+    /**
+     * Hängt ein Sample an (Wert im Bereich -1..1, wird begrenzt).
+     */
+    public void write(double sample) throws IOException {
+        if (buffer.remaining() < bitDepth.bytesPerSample) {
+            flush();
+        }
+        double clamped = Math.max(-1.0, Math.min(1.0, sample));
+        int value = (int) (clamped * fullScale);
+        if (bitDepth == BitDepth.PCM_16) {
+            buffer.putShort((short) value);
+        } else {
+            buffer.put((byte) value);
+            buffer.put((byte) (value >> 8));
+            buffer.put((byte) (value >> 16));
+        }
+        dataBytes += bitDepth.bytesPerSample;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if ((dataBytes & 1) != 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.put((byte) 0); // RIFF-Blöcke haben gerade Länge (24 Bit mono)
+            }
+            flush();
+            if (dataBytes > MAX_DATA_BYTES) {
+                throw new IOException("WAV-Datei größer als 4 GB");
+            }
+            writeHeader();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        int blockAlign = bitDepth.bytesPerSample; // Mono
+        buffer.clear();
+        buffer.put(new byte[] {'R', 'I', 'F', 'F'});
+        buffer.putInt((int) (dataBytes + (dataBytes & 1) + HEADER_SIZE - 8));
+        buffer.put(new byte[] {'W', 'A', 'V', 'E', 'f', 'm', 't', ' '});
+        buffer.putInt(16);                          // Größe des fmt-Blocks
+        buffer.putShort((short) 1);                 // PCM
+        buffer.putShort((short) 1);                 // Kanäle
+        buffer.putInt(sampleRate);
+        buffer.putInt(sampleRate * blockAlign);     // Bytes pro Sekunde
+        buffer.putShort((short) blockAlign);
+        buffer.putShort((short) (bitDepth.bytesPerSample * 8));
+        buffer.put(new byte[] {'d', 'a', 't', 'a'});
+        buffer.putInt((int) dataBytes);
+        buffer.flip();
+        channel.position(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,381 @@
+package com.rsinkwitz.chorddisc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import com.rsinkwitz.chorddisc.core.DiscAngle;
+import com.rsinkwitz.chorddisc.core.DiscProportions;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+/**
+ * Render-Regressionsprüfung der echten ChordDiscView mit nativer Grafik (Skia über Robolectric):
+ * alle 19 Rotationen × 3 Tonleiter-Typen × 2 Notationen × Transparenz an/aus, jeweils mit
+ * gecachten Layern (BitmapLayer, LabelAtlas) und direkt gezeichnet (DiscLayerFactory),
+ * in Telefon- und Tablet-Größe. Jeder Fall muss die Pixel-Prüfsumme aus
+ * render-baseline.properties treffen. Dazu ein Drag über 300 Frames als MotionEvents durch
+ * onTouchEvent und Taps auf jede Note in jeder Rotation (HitTestIndex).
+ * Zeichendauer und auf dem Heap allokierte Bytes je Frame werden gegen die Budgets derselben
+ * Datei geprüft.
+ *
+ * Nach gewollten Änderungen der Darstellung: gradlew :app:testDebugUnitTest -PupdateRenderBaseline
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ChordDiscViewRenderTest {
+
+    private static final File BASELINE_FILE =
+        new File(System.getProperty("chorddisc.renderBaseline", "render-baseline.properties"));
+    private static final boolean UPDATE = Boolean.getBoolean("chorddisc.updateRenderBaseline");
+
+    private static final int DRAG_FRAMES = 300;
+    private static final float DRAG_DEGREES_PER_FRAME = 3f;
+    private static final long FRAME_INTERVAL_MS = 16;
+    private static final long WARM_UP_TIMEOUT_MS = 5000;
+    private static final Duration SNAP_IDLE = Duration.ofMillis(600); // SNAP_DURATION_MS plus Reserve
+
+    // Eine Größe der View
+    private static final class Size {
+        final String name;
+        final int width;
+        final int height;
+
+        Size(String name, int width, int height) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static final Size[] SIZES = {
+        new Size("phone", 1080, 1080),
+        new Size("tablet", 1600, 1600)
+    };
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<String> failures = new ArrayList<>();
+    private final Properties baseline = new Properties();
+
+    // Zeichenziel der aktuellen Größe
+    private Bitmap bitmap;
+    private Canvas canvas;
+    private ByteBuffer pixels;
+
+    @Before
+    public void loadBaseline() throws IOException {
+        if (BASELINE_FILE.isFile()) {
+            try (Reader in = new InputStreamReader(new FileInputStream(BASELINE_FILE), StandardCharsets.UTF_8)) {
+                baseline.load(in);
+            }
+        }
+    }
+
+    /**
+     * Alle Zustände der Scheibe in Ruhe (volle Qualität): Pixel-Prüfsumme je Fall,
+     * Median der Zeichendauer je Gruppe von 19 Rotationen.
+     */
+    @Test
+    public void everyStateMatchesReferencePixels() throws IOException, InterruptedException {
+        Map<String, String> checksums = new LinkedHashMap<>();
+        for (Size size : SIZES) {
+            for (boolean layers : new boolean[] {true, false}) {
+                ChordDiscView view = createView(size, layers);
+                String budget = "threshold." + size.name + (layers ? ".caseMedianMs" : ".directCaseMedianMs");
+                double caseMedianMs = budget(budget);
+                long allocatedBudget = (long) budget("threshold.caseAllocatedBytesPerFrame");
+                for (ChordDiscView.ScaleType scaleType : ChordDiscView.ScaleType.values()) {
+                    for (boolean german : new boolean[] {false, true}) {
+                        for (boolean transparent : new boolean[] {false, true}) {
+                            view.setRenderQualityOverride(ChordDiscView.RenderQuality.FULL);
+                            view.setScaleType(scaleType);
+                            view.setNotationLanguage(german);
+                            view.setTopDiscTransparent(transparent);
+                            view.setBottomDiscAngle(0);
+                            awaitWarmUp(view);
+
+                            String group = String.format(Locale.US, "%s.%s.%s.%s.%s", size.name,
+                                layers ? "layers" : "direct", scaleType.name(), german ? "de" : "en",
+                                transparent ? "transparent" : "opaque");
+                            long[] frameNanos = new long[DiscAngle.POSITIONS];
+                            long[] frameBytes = new long[DiscAngle.POSITIONS];
+                            for (int step = 0; step < DiscAngle.POSITIONS; step++) {
+                                view.setBottomDiscAngle(DiscAngle.rotationForTop(step));
+                                long allocatedBefore = allocatedBytes();
+                                long start = System.nanoTime();
+                                view.draw(canvas);
+                                frameNanos[step] = System.nanoTime() - start;
+                                frameBytes[step] = allocatedBytes() - allocatedBefore;
+
+                                String key = String.format(Locale.US, "%s.r%02d", group, step);
+                                String checksum = checksum();
+                                checksums.put(key, checksum);
+                                String expected = baseline.getProperty(key);
+                                if (expected == null) {
+                                    failures.add(key + ": keine Referenz (mit -PupdateRenderBaseline anlegen)");
+                                } else if (!expected.equals(checksum)) {
+                                    failures.add(key + ": Prüfsumme " + checksum + " statt " + expected);
+                                }
+                            }
+                            checkMedianMs(group, frameNanos, caseMedianMs);
+                            checkMedianBytes(group, frameBytes, allocatedBudget);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (UPDATE) {
+            writeBaseline(checksums);
+            failures.removeIf(failure -> failure.contains("Prüfsumme") || failure.contains("keine Referenz"));
+        }
+        assertNoFailures();
+    }
+
+    /**
+     * Kreisförmiger Drag über 300 Frames durch onTouchEvent, nach jedem Move ein Frame mit den
+     * automatischen Qualitätsstufen. Danach muss die Scheibe exakt auf eine Position einrasten.
+     */
+    @Test
+    public void dragThroughTouchEventsStaysInBudget() throws InterruptedException {
+        long allocatedBudget = (long) budget("threshold.dragAllocatedBytesPerFrame");
+        for (Size size : SIZES) {
+            double dragMedianMs = budget("threshold." + size.name + ".dragMedianMs");
+            ChordDiscView view = createView(size, true);
+            view.setBottomDiscAngle(0);
+            awaitWarmUp(view);
+
+            float radius = notePositionRadius(size);
+            long downTime = SystemClock.uptimeMillis();
+            long[] frameNanos = new long[DRAG_FRAMES];
+            long[] frameBytes = new long[DRAG_FRAMES];
+            dispatch(view, MotionEvent.ACTION_DOWN, downTime, 0, 0f, size, radius);
+            for (int frame = 0; frame < DRAG_FRAMES; frame++) {
+                float degrees = (frame + 1) * DRAG_DEGREES_PER_FRAME;
+                dispatch(view, MotionEvent.ACTION_MOVE, downTime, frame + 1, degrees, size, radius);
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                view.draw(canvas);
+                frameNanos[frame] = System.nanoTime() - start;
+                frameBytes[frame] = allocatedBytes() - allocatedBefore;
+            }
+
+            // Die Scheibe folgt dem Finger: 900° Drag = halbe Umdrehung
+            int expected = DiscAngle.fromDegrees(DRAG_FRAMES * DRAG_DEGREES_PER_FRAME);
+            int actual = view.getBottomDiscAngle();
+            if (Math.abs(DiscAngle.delta(expected, actual)) > 2) {
+                failures.add(String.format(Locale.US, "drag/%s: Winkel %d statt %d", size.name, actual, expected));
+            }
+
+            dispatch(view, MotionEvent.ACTION_UP, downTime, DRAG_FRAMES + 1,
+                DRAG_FRAMES * DRAG_DEGREES_PER_FRAME, size, radius);
+            shadowOf(Looper.getMainLooper()).idleFor(SNAP_IDLE);
+            view.draw(canvas);
+            assertEquals("drag/" + size.name + ": eingerastet", DiscAngle.snap(actual), view.getBottomDiscAngle());
+            assertEquals("drag/" + size.name + ": Ruhequalität",
+                ChordDiscView.RenderQuality.FULL, view.getRenderQuality());
+
+            checkMedianMs("drag/" + size.name, frameNanos, dragMedianMs);
+            checkMedianBytes("drag/" + size.name, frameBytes, allocatedBudget);
+        }
+        assertNoFailures();
+    }
+
+    /**
+     * Tap auf jede Note in jeder Rotation (Modus „nach oben drehen"): der Treffer-Index aus dem
+     * Aufwärmen muss die getippte Note finden, die Scheibe dreht sie nach oben.
+     */
+    @Test
+    public void tapFindsEveryNoteInEveryRotation() throws InterruptedException {
+        for (Size size : SIZES) {
+            ChordDiscView view = createView(size, true);
+            view.setTapMode(ChordDiscView.TapMode.ROTATE_TO_TOP);
+            awaitWarmUp(view);
+
+            float radius = notePositionRadius(size);
+            for (int top = 0; top < DiscAngle.POSITIONS; top++) {
+                for (int note = 0; note < DiscAngle.POSITIONS; note++) {
+                    int rotation = DiscAngle.rotationForTop(top);
+                    view.setBottomDiscAngle(rotation);
+                    float degrees = DiscAngle.positionDegrees(note) + DiscAngle.toDegrees(rotation);
+                    long downTime = SystemClock.uptimeMillis();
+                    dispatch(view, MotionEvent.ACTION_DOWN, downTime, 0, degrees, size, radius);
+                    dispatch(view, MotionEvent.ACTION_UP, downTime, 1, degrees, size, radius);
+                    shadowOf(Looper.getMainLooper()).idleFor(SNAP_IDLE);
+                    if (view.getCurrentNoteIndex() != note) {
+                        failures.add(String.format(Locale.US, "tap/%s: oben %d, Note %d getippt, %d oben",
+                            size.name, top, note, view.getCurrentNoteIndex()));
+                    }
+                }
+            }
+        }
+        assertNoFailures();
+    }
+
+    /**
+     * Eigene View mit eigenen Caches (ohne Registry) in der gegebenen Größe.
+     * @param layers true = Layer-Cache (MID), false = direktes Zeichnen (LOW)
+     */
+    private ChordDiscView createView(Size size, boolean layers) {
+        ChordDiscView view = new ChordDiscView(context);
+        view.setDiscCaches(new DiscCaches());
+        view.setDeviceProfile(DeviceProfile.forClass(
+            layers ? DeviceProfile.PerformanceClass.MID : DeviceProfile.PerformanceClass.LOW));
+        view.measure(View.MeasureSpec.makeMeasureSpec(size.width, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(size.height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, size.width, size.height);
+
+        if (bitmap == null || bitmap.getWidth() != size.width || bitmap.getHeight() != size.height) {
+            bitmap = Bitmap.createBitmap(size.width, size.height, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+            pixels = ByteBuffer.allocate(bitmap.getByteCount());
+        }
+        return view;
+    }
+
+    /**
+     * Zeichnet einen Frame (stößt das Aufwärmen für den aktuellen Zustand an) und wartet,
+     * bis alle Artefakte bereitstehen; danach ein weiterer Frame, damit der JIT warm ist.
+     */
+    private void awaitWarmUp(ChordDiscView view) throws InterruptedException {
+        view.draw(canvas);
+        long deadline = System.currentTimeMillis() + WARM_UP_TIMEOUT_MS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            if (view.isWarmUpComplete()) {
+                break;
+            }
+            assertTrue("Aufwärmen nicht abgeschlossen nach " + WARM_UP_TIMEOUT_MS + " ms",
+                System.currentTimeMillis() < deadline);
+            Thread.sleep(5); // Echte Zeit: das Aufwärmen läuft auf einem eigenen Thread
+        }
+        view.draw(canvas);
+    }
+
+    /**
+     * Sendet ein Touch-Event auf dem Notenring; 0° = oben, im Uhrzeigersinn.
+     */
+    private static void dispatch(ChordDiscView view, int action, long downTime, int frame,
+                                 float degrees, Size size, float radius) {
+        double radians = Math.toRadians(degrees - 90f);
+        float x = size.width / 2f + (float) (radius * Math.cos(radians));
+        float y = size.height / 2f + (float) (radius * Math.sin(radians));
+        MotionEvent event = MotionEvent.obtain(downTime, downTime + frame * FRAME_INTERVAL_MS, action, x, y, 0);
+        view.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private static float notePositionRadius(Size size) {
+        return Math.min(size.width, size.height) * DiscProportions.OUTER_RADIUS_OF_MIN_DIMENSION
+            * DiscProportions.NOTE_POSITION_RADIUS;
+    }
+
+    private String checksum() {
+        pixels.rewind();
+        bitmap.copyPixelsToBuffer(pixels);
+        CRC32 crc = new CRC32();
+        crc.update(pixels.array(), 0, pixels.position());
+        return String.format(Locale.US, "%08x", crc.getValue());
+    }
+
+    private void checkMedianMs(String name, long[] frameNanos, double budgetMs) {
+        double medianMs = median(frameNanos) / 1_000_000.0;
+        if (medianMs > budgetMs) {
+            failures.add(String.format(Locale.US, "%s: Median %.2f ms > %.1f ms", name, medianMs, budgetMs));
+        }
+    }
+
+    private void checkMedianBytes(String name, long[] frameBytes, long budgetBytes) {
+        long medianBytes = median(frameBytes);
+        if (medianBytes > budgetBytes) {
+            failures.add(String.format(Locale.US, "%s: %d allokierte Bytes/Frame > %d", name, medianBytes, budgetBytes));
+        }
+    }
+
+    private double budget(String name) {
+        String value = baseline.getProperty(name);
+        assertTrue(name + " fehlt in " + BASELINE_FILE, value != null);
+        return Double.parseDouble(value);
+    }
+
+    private void assertNoFailures() {
+        assertTrue(failures.size() + " Abweichungen:\n" + String.join("\n", failures), failures.isEmpty());
+    }
+
+    /**
+     * Schreibt die Prüfsummen neu; vorhandene Budgets bleiben erhalten.
+     */
+    private void writeBaseline(Map<String, String> checksums) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(BASELINE_FILE), StandardCharsets.UTF_8)) {
+            out.write("# Referenzwerte für ChordDiscViewRenderTest (gradlew :app:testDebugUnitTest)\n");
+            out.write("# Nach gewollten Änderungen der Darstellung neu schreiben: -PupdateRenderBaseline\n\n");
+            for (String name : new String[] {
+                    "threshold.phone.caseMedianMs", "threshold.phone.directCaseMedianMs",
+                    "threshold.phone.dragMedianMs", "threshold.tablet.caseMedianMs",
+                    "threshold.tablet.directCaseMedianMs", "threshold.tablet.dragMedianMs",
+                    "threshold.caseAllocatedBytesPerFrame", "threshold.dragAllocatedBytesPerFrame"}) {
+                out.write(name + "=" + baseline.getProperty(name) + "\n");
+            }
+            String lastGroup = null;
+            for (Map.Entry<String, String> entry : checksums.entrySet()) {
+                String group = entry.getKey().substring(0, entry.getKey().lastIndexOf('.'));
+                if (!group.equals(lastGroup)) {
+                    out.write('\n');
+                    lastGroup = group;
+                }
+                out.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Vom aktuellen Thread auf dem Java-Heap allokierte Bytes (HotSpot), 0 wenn nicht verfügbar.
+     */
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
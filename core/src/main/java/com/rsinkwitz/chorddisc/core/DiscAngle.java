@@ -0,0 +1,129 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Winkel auf der Scheibe als Festkomma: 2^16 Einheiten pro Umdrehung, im Uhrzeigersinn wie
+ * Canvas.rotate, immer normalisiert (0 … 65535). Addieren und Subtrahieren laufen über den
+ * Überlauf der unteren 16 Bit, eine Drehung sammelt also auch nach Millionen Umdrehungen
+ * keinen Fehler an; die kürzeste Differenz zweier Winkel ist ihr Abstand als short.
+ *
+ * Position p (0-18) liegt bei p * 2^16 / 19. Nächste Position und Versatz dazu ergeben sich
+ * exakt aus angle * 19 (obere Bits = Position, untere 16 Bit = Bruchteil), die Winkel der
+ * Positionen stehen in einer Tabelle. Gleitkomma nur an den Rändern: Grad für Canvas und
+ * Speicherstände, Radiant aus atan2 für Touch-Eingaben.
+ */
+public final class DiscAngle {
+
+    public static final int BITS = 16;
+    public static final int UNITS_PER_TURN = 1 << BITS;
+    public static final int MASK = UNITS_PER_TURN - 1;
+    public static final int QUARTER_TURN = UNITS_PER_TURN / 4;
+    public static final int POSITIONS = 19;
+
+    private static final int HALF_POSITION = UNITS_PER_TURN / 2; // Rundung in Positions-Bruchteilen
+    private static final float DEGREES_PER_UNIT = 360f / UNITS_PER_TURN;
+    private static final double UNITS_PER_DEGREE = UNITS_PER_TURN / 360.0;
+    private static final double UNITS_PER_RADIAN = UNITS_PER_TURN / (2 * Math.PI);
+
+    // Winkel jeder Position (gerundet) und derselbe Winkel in Grad für Canvas.rotate
+    private static final int[] POSITION_ANGLES = new int[POSITIONS];
+    private static final float[] POSITION_DEGREES = new float[POSITIONS];
+
+    static {
+        for (int p = 0; p < POSITIONS; p++) {
+            POSITION_ANGLES[p] = (p * UNITS_PER_TURN + POSITIONS / 2) / POSITIONS;
+            POSITION_DEGREES[p] = 360f * p / POSITIONS;
+        }
+    }
+
+    private DiscAngle() {
+    }
+
+    /**
+     * Normalisiert einen beliebigen int-Winkel auf 0 … 65535.
+     */
+    public static int normalize(int angle) {
+        return angle & MASK;
+    }
+
+    /**
+     * Kürzeste vorzeichenbehaftete Drehung von from nach to (-32768 … 32767 Einheiten).
+     */
+    public static int delta(int from, int to) {
+        return (short) (to - from);
+    }
+
+    /**
+     * Nächste Position (0-18) zum Winkel; genau auf halbem Weg gewinnt die höhere.
+     */
+    public static int nearestPosition(int angle) {
+        int scaled = (angle & MASK) * POSITIONS + HALF_POSITION;
+        int position = scaled >>> BITS;
+        return position == POSITIONS ? 0 : position;
+    }
+
+    /**
+     * Versatz des Winkels zur nächsten Position in 1/65536 Positionsabständen
+     * (-32768 … 32767, 0 = genau auf der Position).
+     */
+    public static int positionOffset(int angle) {
+        int scaled = (angle & MASK) * POSITIONS + HALF_POSITION;
+        return (scaled & MASK) - HALF_POSITION;
+    }
+
+    /**
+     * Winkel der Position p (0-18) auf der Scheibe.
+     */
+    public static int positionAngle(int position) {
+        return POSITION_ANGLES[position];
+    }
+
+    /**
+     * Winkel der Position p in Grad (exakt 360 * p / 19, für das Zeichnen).
+     */
+    public static float positionDegrees(int position) {
+        return POSITION_DEGREES[position];
+    }
+
+    /**
+     * Position, die bei Drehung rotation der Scheibe oben (bei 0) steht.
+     */
+    public static int topPosition(int rotation) {
+        return nearestPosition(-rotation);
+    }
+
+    /**
+     * Drehung der Scheibe, bei der die Position oben steht.
+     */
+    public static int rotationForTop(int position) {
+        return -POSITION_ANGLES[position] & MASK;
+    }
+
+    /**
+     * Einrastwinkel: die Drehung, bei der die nächstgelegene Position genau oben steht.
+     */
+    public static int snap(int rotation) {
+        return rotationForTop(topPosition(rotation));
+    }
+
+    /**
+     * Winkel in Grad für Canvas.rotate (0 … 360).
+     */
+    public static float toDegrees(int angle) {
+        return (angle & MASK) * DEGREES_PER_UNIT;
+    }
+
+    /**
+     * Beliebiger Winkel in Grad (auch negativ oder über viele Umdrehungen) als Festkomma.
+     */
+    public static int fromDegrees(double degrees) {
+        return (int) Math.round(degrees * UNITS_PER_DEGREE) & MASK;
+    }
+
+    /**
+     * Winkel aus atan2 (0 = rechts, positiv im Uhrzeigersinn auf dem Bildschirm) in die
+     * Zählung der Scheibe (0 = oben).
+     */
+    public static int fromScreenRadians(double radians) {
+        return ((int) Math.round(radians * UNITS_PER_RADIAN) + QUARTER_TURN) & MASK;
+    }
+}
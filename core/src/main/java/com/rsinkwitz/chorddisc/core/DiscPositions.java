@@ -0,0 +1,60 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Die 19 Positionen der Scheibe: Notennamen (deutsch/englisch), Vorzeichen der Dur-Tonart
+ * und Löcher der Dur-Tonleiter in der oberen Scheibe.
+ */
+public final class DiscPositions {
+
+    // Deutsche Notation: B = Bb, H = B
+    private static final String[] NOTES_DE = {
+        "C", "C♯", "D♭", "D", "D♯", "E♭", "E", "E♯,F♭", "F", "F♯",
+        "G♭", "G", "G♯", "A♭", "A", "A♯", "B", "H", "H♯,C♭"
+    };
+
+    // Englische Notation
+    private static final String[] NOTES_EN = {
+        "C", "C♯", "D♭", "D", "D♯", "E♭", "E", "E♯,F♭", "F", "F♯",
+        "G♭", "G", "G♯", "A♭", "A", "A♯", "B♭", "B", "B♯,C♭"
+    };
+
+    // Anzahl der Vorzeichen der Dur-Tonart ("" = keine gebräuchliche Tonart)
+    private static final String[] SHARP_FLAT = {
+        "0", "7♯", "5♭", "2♯", "", "3♭", "4♯", "", "1♭", "6♯",
+        "", "1♯", "", "4♭", "3♯", "", "2♭", "5♯", ""
+    };
+
+    // Tonhöhenklasse (0 = C … 11 = H) je Position; Enharmonik fällt zusammen, H♯/C♭ zählt als C
+    private static final int[] PITCH_CLASSES = {0, 1, 1, 2, 3, 3, 4, 4, 5, 6, 6, 7, 8, 8, 9, 10, 10, 11, 0};
+
+    // Gebräuchliche Schreibweise der Tonarten je Tonhöhenklasse (0 = C): Position des Grundtons
+    private static final int[] MAJOR_KEY_POSITIONS = {0, 2, 3, 5, 6, 8, 9, 11, 13, 14, 16, 17};
+    private static final int[] MINOR_KEY_POSITIONS = {0, 1, 3, 5, 6, 8, 9, 11, 12, 14, 16, 17};
+
+    private DiscPositions() {
+    }
+
+    public static String note(int position, boolean germanNotation) {
+        return (germanNotation ? NOTES_DE : NOTES_EN)[position];
+    }
+
+    public static String sharpFlat(int position) {
+        return SHARP_FLAT[position];
+    }
+
+    public static boolean isMajorHole(int position) {
+        return DiscScale.MAJOR.isHole(position);
+    }
+
+    /**
+     * Position des Grundtons der Dur- bzw. Moll-Tonart mit der Tonhöhenklasse pitchClass
+     * (0 = C … 11 = H), in der Schreibweise mit den wenigsten Vorzeichen (z.B. D♭-Dur, C♯-Moll).
+     */
+    public static int keyPosition(int pitchClass, boolean major) {
+        return (major ? MAJOR_KEY_POSITIONS : MINOR_KEY_POSITIONS)[pitchClass];
+    }
+
+    public static int pitchClass(int position) {
+        return PITCH_CLASSES[position];
+    }
+}
@@ -0,0 +1,31 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Proportionen der Scheibe relativ zum äußeren Radius, wie in der Papiervorlage
+ * (old-source/CircleCreate2.java). Gemeinsame Grundlage für die App-Darstellung und den Poster-Export.
+ */
+public final class DiscProportions {
+
+    public static final int POSITION_COUNT = 19;
+    public static final float ANGLE_PER_POSITION = 360f / POSITION_COUNT; // 18.947°
+
+    // Anteil der kleineren Dimension, den der äußere Radius einnimmt (96% Durchmesser)
+    public static final float OUTER_RADIUS_OF_MIN_DIMENSION = 0.48f;
+
+    // Relativ zum äußeren Radius
+    public static final float INNER_RADIUS = 0.05f;
+    public static final float NOTE_CIRCLE_RADIUS = 0.13f;
+    public static final float MARKER_CIRCLE_RADIUS = 0.14f;   // Dur-/Moll-Markierung der Papiervorlage
+    public static final float NOTE_POSITION_RADIUS = 0.80f;
+    public static final float INDICATOR_POSITION_RADIUS = 0.55f;
+    public static final float INDICATOR_SIZE = 1.5f / 9f;
+    public static final float TEXT_SIZE = 0.12f;
+    public static final float TEXT_SIZE_SMALL = 0.09f;
+
+    // Positionen der Dur- und Moll-Markierung auf der oberen Scheibe
+    public static final int MAJOR_POSITION = 0;
+    public static final int MINOR_POSITION = 14;
+
+    private DiscProportions() {
+    }
+}
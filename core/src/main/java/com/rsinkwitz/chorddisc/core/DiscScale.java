@@ -0,0 +1,29 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Tonleiter-Typen der oberen Scheibe mit ihren festen Loch-Positionen (Grundton C oben).
+ */
+public enum DiscScale {
+    MAJOR(0, 3, 6, 8, 11, 14, 17),              // Dur: C, D, E, F, G, A, H
+    NATURAL_MINOR(0, 3, 5, 8, 11, 13, 16),      // Natürliches Moll: C, D, Eb, F, G, Ab, Bb
+    HARMONIC_MINOR(0, 3, 5, 8, 11, 13, 17);     // Harmonisches Moll: H statt Bb
+
+    private final boolean[] holes = new boolean[DiscProportions.POSITION_COUNT];
+
+    DiscScale(int... holePositions) {
+        for (int position : holePositions) {
+            holes[position] = true;
+        }
+    }
+
+    public boolean isHole(int position) {
+        return holes[position];
+    }
+
+    /**
+     * Kopie der Loch-Maske (19 Einträge), z.B. als Ausgangspunkt für eigene Loch-Sätze.
+     */
+    public boolean[] holeMask() {
+        return holes.clone();
+    }
+}
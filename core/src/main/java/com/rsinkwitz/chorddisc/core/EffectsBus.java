@@ -0,0 +1,291 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.util.Arrays;
+
+/**
+ * Effektweg nach dem Zusammenführen der Stimmen: leichter Chorus und Hall nach dem Vorbild
+ * von Freeverb (parallele Kammfilter mit gedämpfter Rückkopplung, danach Allpässe; rechter
+ * Kanal mit leicht versetzten Längen). Bearbeitet 16-Bit-Blöcke (mono oder Stereo verschränkt)
+ * an Ort und Stelle.
+ *
+ * Alle Verzögerungsleitungen sind float-Ringpuffer, die der Konstruktor für die Abtastrate
+ * anlegt; process() allokiert nicht, sperrt nicht und ruft keine Winkelfunktion auf (das LFO
+ * des Chorus kommt aus einer Tabelle). Die Rechenzeit jedes Blocks wird als Anteil an der
+ * Blockfrist gemessen und geglättet; liegt sie dauerhaft über maxLoad, schaltet sich der Bus
+ * selbst ab (Durchreichen), damit die Synthese ihre Frist hält.
+ * process() und clear() nur vom Audio-Thread, die übrigen Methoden von jedem Thread.
+ */
+public final class EffectsBus {
+
+    public static final double DEFAULT_MAX_LOAD = 0.25; // Anteil an der Blockfrist
+
+    // Freeverb-Längen bei 44,1 kHz; vier der acht Kammfilter genügen für Sinustöne
+    private static final int[] COMB_TUNING = {1116, 1188, 1277, 1356};
+    private static final int[] ALLPASS_TUNING = {556, 441};
+    private static final int STEREO_SPREAD = 23;
+    private static final int TUNING_RATE = 44100;
+    private static final int CHANNELS = 2;
+
+    private static final float FEEDBACK = 0.84f;        // Raumgröße 0,5
+    private static final float DAMPING = 0.2f;
+    private static final float ALLPASS_FEEDBACK = 0.5f;
+    private static final float REVERB_INPUT = 0.03f;    // Vier Kammfilter summieren sich
+    private static final float DRY = 0.75f;
+    private static final float WET = 0.9f;
+    private static final float CHORUS_MIX = 0.3f;
+
+    private static final double CHORUS_DELAY_MS = 12;
+    private static final double CHORUS_DEPTH_MS = 3;
+    private static final double CHORUS_RATE_HZ = 0.7;
+    private static final int LFO_BITS = 9;
+    private static final int LFO_SHIFT = 32 - LFO_BITS;
+    private static final int LFO_QUARTER = 1 << 30;     // 90° Phasenversatz für rechts
+
+    private static final int MIN_BLOCKS = 32;           // Erst messen, dann urteilen (JIT)
+    private static final double LOAD_SMOOTHING = 0.05;
+
+    private final int sampleRate;
+    private final double maxLoad;
+
+    private final float[][] combLines = new float[CHANNELS * COMB_TUNING.length][];
+    private final int[] combPositions = new int[combLines.length];
+    private final float[] combStores = new float[combLines.length];
+    private final float[][] allpassLines = new float[CHANNELS * ALLPASS_TUNING.length][];
+    private final int[] allpassPositions = new int[allpassLines.length];
+
+    private final float[] chorusLine;
+    private int chorusPosition = 0;
+    private final float[] lfo = new float[1 << LFO_BITS]; // Verzögerung in Samples je Phase
+    private int lfoPhase = 0;
+    private final int lfoIncrement;
+
+    private volatile boolean enabled = false;
+    private volatile boolean resetPending = false;
+    private volatile boolean autoDisabled = false;
+    private volatile long lastBlockNanos = 0;
+    private volatile long maxBlockNanos = 0;
+    private volatile double averageLoad = 0;
+    private long blocks = 0;
+
+    public EffectsBus(int sampleRate) {
+        this(sampleRate, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * Legt alle Verzögerungsleitungen für die Abtastrate an; der Bus ist zunächst aus.
+     * @param maxLoad höchster geglätteter Anteil an der Blockfrist, darüber schaltet er sich ab
+     */
+    public EffectsBus(int sampleRate, double maxLoad) {
+        this.sampleRate = sampleRate;
+        this.maxLoad = maxLoad;
+        for (int channel = 0; channel < CHANNELS; channel++) {
+            int spread = channel * STEREO_SPREAD;
+            for (int c = 0; c < COMB_TUNING.length; c++) {
+                combLines[channel * COMB_TUNING.length + c] = new float[scaled(COMB_TUNING[c] + spread)];
+            }
+            for (int a = 0; a < ALLPASS_TUNING.length; a++) {
+                allpassLines[channel * ALLPASS_TUNING.length + a] = new float[scaled(ALLPASS_TUNING[a] + spread)];
+            }
+        }
+
+        double center = CHORUS_DELAY_MS * sampleRate / 1000;
+        double depth = CHORUS_DEPTH_MS * sampleRate / 1000;
+        for (int i = 0; i < lfo.length; i++) {
+            lfo[i] = (float) (center + depth * Math.sin(2 * Math.PI * i / lfo.length));
+        }
+        chorusLine = new float[(int) Math.ceil(center + depth) + 2];
+        lfoIncrement = (int) Math.round(CHORUS_RATE_HZ / sampleRate * 4294967296.0);
+    }
+
+    private int scaled(int samplesAt44k) {
+        return Math.max(1, (int) ((long) samplesAt44k * sampleRate / TUNING_RATE));
+    }
+
+    /**
+     * Schaltet den Bus ein oder aus. Beim Einschalten beginnen Hall und Messung neu, auch nach
+     * einer automatischen Abschaltung.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            resetPending = true;
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * true, wenn der Bus sich wegen zu hoher Rechenzeit selbst abgeschaltet hat.
+     */
+    public boolean isAutoDisabled() {
+        return autoDisabled;
+    }
+
+    /**
+     * true, wenn process() den Klang tatsächlich bearbeitet.
+     */
+    public boolean isActive() {
+        return enabled && !autoDisabled;
+    }
+
+    /**
+     * Löscht Hallfahne und Chorus-Leitung (z.B. vor einer neuen Wiedergabe).
+     */
+    public void clear() {
+        for (float[] line : combLines) {
+            Arrays.fill(line, 0f);
+        }
+        for (float[] line : allpassLines) {
+            Arrays.fill(line, 0f);
+        }
+        Arrays.fill(combStores, 0f);
+        Arrays.fill(chorusLine, 0f);
+    }
+
+    /**
+     * Bearbeitet frames Frames ab offset an Ort und Stelle.
+     * @param channels 1 (mono) oder 2 (links, rechts verschränkt)
+     */
+    public void process(short[] pcm, int offset, int frames, int channels) {
+        if (!enabled) {
+            return;
+        }
+        if (resetPending) {
+            resetPending = false;
+            clear();
+            blocks = 0;
+            averageLoad = 0;
+            maxBlockNanos = 0;
+            autoDisabled = false;
+        }
+        if (autoDisabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean stereo = channels == 2;
+        int p = offset;
+        for (int f = 0; f < frames; f++) {
+            float input = stereo ? (pcm[p] + pcm[p + 1]) * 0.5f : pcm[p];
+
+            chorusLine[chorusPosition] = input;
+            float chorusLeft = chorusTap(lfoPhase);
+            float chorusRight = stereo ? chorusTap(lfoPhase + LFO_QUARTER) : 0f;
+            lfoPhase += lfoIncrement;
+            if (++chorusPosition == chorusLine.length) {
+                chorusPosition = 0;
+            }
+
+            float reverbInput = (input + chorusLeft * CHORUS_MIX) * REVERB_INPUT;
+            float left = reverb(0, reverbInput);
+            if (stereo) {
+                float right = reverb(1, reverbInput);
+                pcm[p] = clip(pcm[p] * DRY + chorusLeft * CHORUS_MIX + left * WET);
+                pcm[p + 1] = clip(pcm[p + 1] * DRY + chorusRight * CHORUS_MIX + right * WET);
+                p += 2;
+            } else {
+                pcm[p] = clip(pcm[p] * DRY + chorusLeft * CHORUS_MIX + left * WET);
+                p++;
+            }
+        }
+        recordLoad(System.nanoTime() - start, frames);
+    }
+
+    /**
+     * Chorus-Ausgang: Verzögerung aus der LFO-Tabelle, linear zwischen zwei Samples interpoliert.
+     */
+    private float chorusTap(int phase) {
+        float delay = lfo[phase >>> LFO_SHIFT];
+        int whole = (int) delay;
+        float fraction = delay - whole;
+        int length = chorusLine.length;
+        int a = chorusPosition - whole;
+        if (a < 0) {
+            a += length;
+        }
+        int b = a - 1;
+        if (b < 0) {
+            b += length;
+        }
+        return chorusLine[a] + (chorusLine[b] - chorusLine[a]) * fraction;
+    }
+
+    private float reverb(int channel, float input) {
+        float output = 0f;
+        int combBase = channel * COMB_TUNING.length;
+        for (int c = combBase; c < combBase + COMB_TUNING.length; c++) {
+            float[] line = combLines[c];
+            int position = combPositions[c];
+            float delayed = line[position];
+            float store = delayed * (1f - DAMPING) + combStores[c] * DAMPING;
+            combStores[c] = store;
+            line[position] = input + store * FEEDBACK;
+            combPositions[c] = position + 1 == line.length ? 0 : position + 1;
+            output += delayed;
+        }
+        int allpassBase = channel * ALLPASS_TUNING.length;
+        for (int a = allpassBase; a < allpassBase + ALLPASS_TUNING.length; a++) {
+            float[] line = allpassLines[a];
+            int position = allpassPositions[a];
+            float delayed = line[position];
+            line[position] = output + delayed * ALLPASS_FEEDBACK;
+            allpassPositions[a] = position + 1 == line.length ? 0 : position + 1;
+            output = delayed - output;
+        }
+        return output;
+    }
+
+    private static short clip(float value) {
+        if (value > Short.MAX_VALUE) {
+            return Short.MAX_VALUE;
+        }
+        if (value < Short.MIN_VALUE) {
+            return Short.MIN_VALUE;
+        }
+        return (short) value;
+    }
+
+    private void recordLoad(long nanos, int frames) {
+        lastBlockNanos = nanos;
+        if (nanos > maxBlockNanos) {
+            maxBlockNanos = nanos;
+        }
+        double load = nanos * (double) sampleRate / (frames * 1e9);
+        double average = blocks == 0 ? load : averageLoad + (load - averageLoad) * LOAD_SMOOTHING;
+        averageLoad = average;
+        blocks++;
+        if (blocks >= MIN_BLOCKS && average > maxLoad) {
+            autoDisabled = true;
+        }
+    }
+
+    /**
+     * Rechenzeit des letzten Blocks in Nanosekunden.
+     */
+    public long getLastBlockNanos() {
+        return lastBlockNanos;
+    }
+
+    /**
+     * Längster Block seit dem Einschalten in Nanosekunden.
+     */
+    public long getMaxBlockNanos() {
+        return maxBlockNanos;
+    }
+
+    /**
+     * Geglätteter Anteil der Rechenzeit an der Blockfrist (0,01 = 1 % eines Kerns).
+     */
+    public double getAverageLoad() {
+        return averageLoad;
+    }
+
+    public double getMaxLoad() {
+        return maxLoad;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+}
@@ -0,0 +1,40 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Binärformat der Gesten-Aufzeichnung (Big Endian). Nach dem Kopf folgen Datensätze, jeweils
+ * eingeleitet durch ein Typ-Byte:
+ * <pre>
+ * Kopf:    int MAGIC, short VERSION, long Startzeit (Wanduhr, ms)
+ * STATE:   float Rotation, byte Tonleiter, byte Akkord-Typ, byte Tap-Modus, byte transparent
+ * SIZE:    int Breite, int Höhe (Pixel der View)
+ * EVENT:   byte Aktion (maskiert), byte Zeigerindex der Aktion, byte Zeigeranzahl n,
+ *          short Anzahl historischer Samples h, int downTime (ms ab Start),
+ *          n × (byte Zeiger-ID, byte Werkzeugtyp),
+ *          (h + 1) × (int eventTime (ms ab Start), n × (float x, float y, float Druck, float Größe))
+ * </pre>
+ * Die Samples stehen in zeitlicher Reihenfolge, das letzte ist das aktuelle des MotionEvents.
+ * Werte der Enums werden als Ordinalzahl gespeichert; Zeiten relativ zum Start passen in int.
+ */
+public final class GestureLog {
+
+    public static final int MAGIC = 0x4344474C; // "CDGL"
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 4 + 2 + 8;
+
+    public static final byte TYPE_STATE = 1;
+    public static final byte TYPE_SIZE = 2;
+    public static final byte TYPE_EVENT = 3;
+
+    public static final int STATE_BYTES = 1 + 4 + 4;
+    public static final int SIZE_BYTES = 1 + 4 + 4;
+
+    private GestureLog() {
+    }
+
+    /**
+     * Größe eines EVENT-Datensatzes in Bytes.
+     */
+    public static int eventBytes(int pointerCount, int historySize) {
+        return 1 + 3 + 2 + 4 + 2 * pointerCount + (historySize + 1) * (4 + 16 * pointerCount);
+    }
+}
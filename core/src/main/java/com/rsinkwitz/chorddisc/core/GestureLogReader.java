@@ -0,0 +1,223 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Liest eine Gesten-Aufzeichnung (siehe GestureLog) Datensatz für Datensatz aus einem Puffer,
+ * z.B. einer gemappten Datei. Die Werte des aktuellen Datensatzes liegen in wiederverwendeten
+ * Feldern, die nur bei mehr Zeigern oder Samples als bisher wachsen. Endet die Datei mitten in
+ * einem Datensatz (App beendet während der Aufzeichnung), ist der vorige der letzte.
+ */
+public final class GestureLogReader {
+
+    private final ByteBuffer buffer;
+    private final long startMillis;
+
+    private byte type;
+    // STATE
+    private float rotation;
+    private int scaleType;
+    private int chordType;
+    private int tapMode;
+    private boolean transparent;
+    // SIZE
+    private int width;
+    private int height;
+    // EVENT
+    private int action;
+    private int actionIndex;
+    private int pointerCount;
+    private int sampleCount;
+    private int downTime;
+    private int[] pointerIds = new int[2];
+    private int[] toolTypes = new int[2];
+    private int[] eventTimes = new int[8];
+    private float[] coords = new float[8 * 2 * 4]; // Je Sample und Zeiger: x, y, Druck, Größe
+
+    /**
+     * Prüft den Kopf; der Puffer steht danach vor dem ersten Datensatz.
+     * @throws IOException wenn der Puffer keine Gesten-Aufzeichnung enthält
+     */
+    public GestureLogReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.remaining() < GestureLog.HEADER_BYTES || buffer.getInt() != GestureLog.MAGIC) {
+            throw new IOException("Keine Gesten-Aufzeichnung");
+        }
+        short version = buffer.getShort();
+        if (version != GestureLog.VERSION) {
+            throw new IOException("Unbekannte Version " + version);
+        }
+        startMillis = buffer.getLong();
+    }
+
+    /**
+     * Liest den nächsten Datensatz.
+     * @return false am Ende (oder bei abgeschnittenem letzten Datensatz)
+     * @throws IOException bei unbekanntem Datensatz-Typ
+     */
+    public boolean next() throws IOException {
+        int start = buffer.position();
+        try {
+            if (!buffer.hasRemaining()) {
+                return false;
+            }
+            type = buffer.get();
+            switch (type) {
+                case GestureLog.TYPE_STATE:
+                    rotation = buffer.getFloat();
+                    scaleType = buffer.get();
+                    chordType = buffer.get();
+                    tapMode = buffer.get();
+                    transparent = buffer.get() != 0;
+                    return true;
+                case GestureLog.TYPE_SIZE:
+                    width = buffer.getInt();
+                    height = buffer.getInt();
+                    return true;
+                case GestureLog.TYPE_EVENT:
+                    readEvent();
+                    return true;
+                default:
+                    throw new IOException("Unbekannter Datensatz " + type + " bei Byte " + start);
+            }
+        } catch (BufferUnderflowException e) {
+            buffer.position(start);
+            return false;
+        }
+    }
+
+    private void readEvent() {
+        action = buffer.get() & 0xFF;
+        actionIndex = buffer.get() & 0xFF;
+        pointerCount = buffer.get() & 0xFF;
+        sampleCount = (buffer.getShort() & 0xFFFF) + 1;
+        downTime = buffer.getInt();
+
+        if (pointerIds.length < pointerCount) {
+            pointerIds = new int[pointerCount];
+            toolTypes = new int[pointerCount];
+        }
+        if (eventTimes.length < sampleCount) {
+            eventTimes = new int[sampleCount];
+        }
+        if (coords.length < sampleCount * pointerCount * 4) {
+            coords = new float[sampleCount * pointerCount * 4];
+        }
+
+        for (int p = 0; p < pointerCount; p++) {
+            pointerIds[p] = buffer.get();
+            toolTypes[p] = buffer.get();
+        }
+        int c = 0;
+        for (int s = 0; s < sampleCount; s++) {
+            eventTimes[s] = buffer.getInt();
+            for (int p = 0; p < pointerCount * 4; p++) {
+                coords[c++] = buffer.getFloat();
+            }
+        }
+    }
+
+    /**
+     * Startzeit der Aufzeichnung (Wanduhr, ms).
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Typ des aktuellen Datensatzes (GestureLog.TYPE_*).
+     */
+    public byte getType() {
+        return type;
+    }
+
+    public float getRotation() {
+        return rotation;
+    }
+
+    public int getScaleType() {
+        return scaleType;
+    }
+
+    public int getChordType() {
+        return chordType;
+    }
+
+    public int getTapMode() {
+        return tapMode;
+    }
+
+    public boolean isTransparent() {
+        return transparent;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Maskierte Aktion (ACTION_DOWN, ACTION_POINTER_UP …).
+     */
+    public int getAction() {
+        return action;
+    }
+
+    public int getActionIndex() {
+        return actionIndex;
+    }
+
+    public int getPointerCount() {
+        return pointerCount;
+    }
+
+    /**
+     * Anzahl der Samples: historische plus das aktuelle (immer mindestens 1).
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * downTime in ms ab Start der Aufzeichnung.
+     */
+    public int getDownTime() {
+        return downTime;
+    }
+
+    public int getPointerId(int pointer) {
+        return pointerIds[pointer];
+    }
+
+    public int getToolType(int pointer) {
+        return toolTypes[pointer];
+    }
+
+    /**
+     * Zeit des Samples in ms ab Start der Aufzeichnung; das letzte Sample ist das aktuelle.
+     */
+    public int getEventTime(int sample) {
+        return eventTimes[sample];
+    }
+
+    public float getX(int sample, int pointer) {
+        return coords[(sample * pointerCount + pointer) * 4];
+    }
+
+    public float getY(int sample, int pointer) {
+        return coords[(sample * pointerCount + pointer) * 4 + 1];
+    }
+
+    public float getPressure(int sample, int pointer) {
+        return coords[(sample * pointerCount + pointer) * 4 + 2];
+    }
+
+    public float getSize(int sample, int pointer) {
+        return coords[(sample * pointerCount + pointer) * 4 + 3];
+    }
+}
@@ -0,0 +1,176 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Schreibt eine Gesten-Aufzeichnung (siehe GestureLog) über einen eigenen Thread in eine Datei.
+ * Verzeichnis und Datei legt der Schreib-Thread an; der aufrufende Thread (UI-Thread) berührt
+ * keine Datei und füllt nur vorab angelegte Puffer: begin() liefert einen
+ * Puffer mit genug Platz für einen Datensatz, volle Puffer gehen an den Schreib-Thread und
+ * kommen leer zurück. Im Betrieb wird weder allokiert noch blockiert; ist kein Puffer frei
+ * (Speicher zu langsam), wird der Datensatz verworfen und gezählt.
+ * begin() und flush() nur von einem Thread aufrufen.
+ */
+public final class GestureLogWriter implements Closeable {
+
+    public static final int BUFFER_BYTES = 64 * 1024;
+    private static final int BUFFER_COUNT = 4;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final ArrayBlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(BUFFER_COUNT);
+    private final ArrayBlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+    private final Thread thread;
+    private ByteBuffer current;
+    private boolean closed = false;
+    private long records = 0;
+    private long droppedRecords = 0;
+    private volatile long bytesWritten = 0;
+    private volatile IOException failure;
+
+    /**
+     * Legt die Puffer an, schreibt den Kopf und startet den Schreib-Thread, der die Datei
+     * (samt fehlendem Verzeichnis) anlegt. Scheitert das, werden alle Datensätze verworfen.
+     * @param file Ziel; wird vom Schreib-Thread geöffnet und geschlossen
+     * @param startMillis Startzeit der Aufzeichnung (Wanduhr)
+     */
+    public GestureLogWriter(File file, long startMillis) {
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            free.add(ByteBuffer.allocateDirect(BUFFER_BYTES));
+        }
+        current = free.poll();
+        current.putInt(GestureLog.MAGIC).putShort(GestureLog.VERSION).putLong(startMillis);
+
+        thread = new Thread(() -> drain(file), "gesture-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Liefert den Puffer für den nächsten Datensatz mit mindestens maxBytes freiem Platz,
+     * oder null, wenn der Datensatz verworfen werden muss. Der Aufrufer schreibt direkt hinein.
+     */
+    public ByteBuffer begin(int maxBytes) {
+        if (closed || failure != null || maxBytes > BUFFER_BYTES) {
+            droppedRecords++;
+            return null;
+        }
+        if (current == null || current.remaining() < maxBytes) {
+            flush();
+            current = free.poll();
+            if (current == null) {
+                droppedRecords++;
+                return null;
+            }
+            current.clear();
+        }
+        records++;
+        return current;
+    }
+
+    /**
+     * Übergibt die bisher geschriebenen Datensätze an den Schreib-Thread (z.B. am Gestenende).
+     */
+    public void flush() {
+        if (current != null && current.position() > 0) {
+            current.flip();
+            full.add(current); // Nie voll: höchstens BUFFER_COUNT Puffer plus END
+            current = null;
+        }
+    }
+
+    /**
+     * Schreibt den Rest und schließt den Kanal auf dem Schreib-Thread (ohne zu warten).
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        full.add(END);
+    }
+
+    /**
+     * Wartet, bis alles geschrieben und der Kanal geschlossen ist.
+     * @throws IOException der erste Schreibfehler
+     */
+    public void awaitClosed() throws IOException, InterruptedException {
+        close();
+        thread.join();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drain(File file) {
+        FileChannel channel = null;
+        try {
+            File directory = file.getParentFile();
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Verzeichnis nicht anlegbar: " + directory);
+            }
+            channel = new FileOutputStream(file).getChannel();
+        } catch (IOException e) {
+            failure = e; // begin() verwirft ab jetzt, volle Puffer kommen nur leer zurück
+        }
+        try {
+            while (true) {
+                ByteBuffer buffer = full.take();
+                if (buffer == END) {
+                    break;
+                }
+                if (failure == null) {
+                    try {
+                        int length = buffer.remaining();
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        bytesWritten += length;
+                    } catch (IOException e) {
+                        failure = e; // Weitere Datensätze werden verworfen
+                    }
+                }
+                buffer.clear();
+                free.add(buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    public long getDroppedRecordCount() {
+        return droppedRecords;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Erster Fehler beim Anlegen oder Schreiben der Datei, null wenn keiner.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+}
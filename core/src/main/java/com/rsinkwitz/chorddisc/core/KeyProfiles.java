@@ -0,0 +1,95 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Krumhansl-Kessler-Profile der 24 Dur-/Moll-Tonarten und ihre Korrelation mit einem
+ * Chroma-Vektor (12 Tonhöhenklassen, 0 = C). Tonart-Nummern: 0-11 Dur, 12-23 Moll,
+ * jeweils mit dem Grundton als Rest modulo 12. Gemeinsam genutzt von der Echtzeit-Erkennung
+ * (PitchKeyDetector) und der MIDI-Analyse (MidiKeyEstimator).
+ */
+public final class KeyProfiles {
+
+    public static final int KEY_COUNT = 24;
+
+    private static final float[] MAJOR_PROFILE =
+        {6.35f, 2.23f, 3.48f, 2.33f, 4.38f, 4.09f, 2.52f, 5.19f, 2.39f, 3.66f, 2.29f, 2.88f};
+    private static final float[] MINOR_PROFILE =
+        {6.33f, 2.68f, 3.52f, 5.38f, 2.60f, 3.53f, 2.54f, 4.75f, 3.98f, 2.69f, 3.34f, 3.17f};
+
+    // Mittelwertfrei und normiert, damit die Korrelation nur noch die Norm des Chromas braucht
+    private static final float[][] PROFILES = new float[KEY_COUNT][12];
+
+    static {
+        for (int root = 0; root < 12; root++) {
+            for (int i = 0; i < 12; i++) {
+                PROFILES[root][(root + i) % 12] = MAJOR_PROFILE[i];
+                PROFILES[12 + root][(root + i) % 12] = MINOR_PROFILE[i];
+            }
+        }
+        for (float[] profile : PROFILES) {
+            center(profile);
+        }
+    }
+
+    private KeyProfiles() {
+    }
+
+    public static int root(int key) {
+        return key % 12;
+    }
+
+    public static boolean isMajor(int key) {
+        return key < 12;
+    }
+
+    /**
+     * Pearson-Korrelation des Chromas mit allen 24 Profilen; erzeugt keine Objekte.
+     * @param correlations Ausgabe, mindestens KEY_COUNT Einträge (-1..1)
+     * @return Tonart mit der höchsten Korrelation oder -1, wenn das Chroma konstant ist
+     */
+    public static int correlate(float[] chroma, float[] correlations) {
+        float mean = 0;
+        for (int i = 0; i < 12; i++) {
+            mean += chroma[i];
+        }
+        mean /= 12;
+        float norm = 0;
+        for (int i = 0; i < 12; i++) {
+            norm += (chroma[i] - mean) * (chroma[i] - mean);
+        }
+        if (norm == 0) {
+            return -1;
+        }
+        float scale = 1 / (float) Math.sqrt(norm);
+
+        int best = -1;
+        for (int key = 0; key < KEY_COUNT; key++) {
+            float[] profile = PROFILES[key];
+            float dot = 0;
+            for (int i = 0; i < 12; i++) {
+                dot += (chroma[i] - mean) * profile[i];
+            }
+            correlations[key] = dot * scale;
+            if (best < 0 || correlations[key] > correlations[best]) {
+                best = key;
+            }
+        }
+        return best;
+    }
+
+    private static void center(float[] profile) {
+        float mean = 0;
+        for (float value : profile) {
+            mean += value;
+        }
+        mean /= profile.length;
+        float norm = 0;
+        for (int i = 0; i < profile.length; i++) {
+            profile[i] -= mean;
+            norm += profile[i] * profile[i];
+        }
+        norm = (float) Math.sqrt(norm);
+        for (int i = 0; i < profile.length; i++) {
+            profile[i] /= norm;
+        }
+    }
+}
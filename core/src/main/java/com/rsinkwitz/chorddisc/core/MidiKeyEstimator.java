@@ -0,0 +1,242 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Schätzt die Tonart einer Standard-MIDI-Datei (Format 0 und 1).
+ * Die Spuren werden direkt aus dem (gemappten) Puffer gelesen, ohne Ereignislisten anzulegen:
+ * Jede Note trägt ihre Dauer in Ticks zum Histogramm ihrer Tonhöhenklasse bei, das Ergebnis
+ * wird mit den 24 Tonart-Profilen korreliert. Schlagzeug (Kanal 10) zählt nicht mit.
+ * Tempowechsel werden nicht berücksichtigt, die Gewichtung erfolgt in Ticks.
+ * Eine Instanz kann für mehrere Dateien wiederverwendet werden, ist aber nicht thread-sicher.
+ */
+public final class MidiKeyEstimator {
+
+    private static final int HEADER_MAGIC = 0x4D546864; // "MThd"
+    private static final int TRACK_MAGIC = 0x4D54726B;  // "MTrk"
+    private static final int PERCUSSION_CHANNEL = 9;
+
+    // Laufende Noten je Kanal und Tonhöhe (Index kanal * 128 + note)
+    private final long[] noteStart = new long[16 * 128];
+    private final int[] noteDepth = new int[16 * 128];
+    private final long[] pitchClassTicks = new long[12];
+    private final float[] chroma = new float[12];
+    private final float[] correlations = new float[KeyProfiles.KEY_COUNT];
+
+    private int key = -1;
+    private int trackCount = 0;
+    private long noteCount = 0;
+    private long analysisNanos = 0;
+
+    /**
+     * Mappt die Datei und analysiert sie.
+     */
+    public void analyze(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            analyze(in.getChannel());
+        }
+    }
+
+    /**
+     * Analysiert die Datei hinter dem Kanal (z.B. aus einem ParcelFileDescriptor der App).
+     */
+    public void analyze(FileChannel channel) throws IOException {
+        analyze(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    /**
+     * Analysiert eine komplette MIDI-Datei ab der aktuellen Position des Puffers.
+     * @throws IOException wenn der Puffer keine gültige MIDI-Datei enthält
+     */
+    public void analyze(ByteBuffer buffer) throws IOException {
+        long start = System.nanoTime();
+        Arrays.fill(pitchClassTicks, 0);
+        key = -1;
+        trackCount = 0;
+        noteCount = 0;
+
+        try {
+            if (buffer.remaining() < 14 || buffer.getInt() != HEADER_MAGIC) {
+                throw new IOException("Keine MIDI-Datei");
+            }
+            int headerLength = buffer.getInt();
+            int headerEnd = buffer.position() + headerLength;
+            buffer.getShort(); // Format: 0 und 1 werden gleich behandelt, 2 ist praktisch unbenutzt
+            int declaredTracks = buffer.getShort() & 0xFFFF;
+            buffer.position(headerEnd);
+
+            while (trackCount < declaredTracks && buffer.remaining() >= 8) {
+                int type = buffer.getInt();
+                long length = buffer.getInt() & 0xFFFFFFFFL;
+                // Abgeschnittene Dateien sind verbreitet: bis zum Pufferende lesen
+                int end = (int) Math.min(buffer.limit(), buffer.position() + length);
+                if (type == TRACK_MAGIC) {
+                    int limit = buffer.limit();
+                    buffer.limit(end);
+                    readTrack(buffer);
+                    buffer.limit(limit);
+                    trackCount++;
+                }
+                buffer.position(end);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Beschädigte MIDI-Datei", e);
+        }
+
+        long total = 0;
+        for (long ticks : pitchClassTicks) {
+            total += ticks;
+        }
+        if (total > 0) {
+            for (int i = 0; i < 12; i++) {
+                chroma[i] = (float) ((double) pitchClassTicks[i] / total);
+            }
+            key = KeyProfiles.correlate(chroma, correlations);
+        }
+        analysisNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Liest eine Spur bis zum Limit des Puffers. Endet sie mitten in einem Ereignis
+     * (abgeschnittene Datei), zählt alles bis dorthin.
+     */
+    private void readTrack(ByteBuffer buffer) throws IOException {
+        Arrays.fill(noteDepth, 0);
+        long tick = 0;
+        int status = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                tick += readVariableLength(buffer);
+                int data = buffer.get() & 0xFF;
+                if (data >= 0x80) {
+                    status = data;
+                    if (status >= 0xF0) {
+                        if (status == 0xFF) {
+                            buffer.get(); // Meta-Typ (Tempo, Text, Tonart-Angabe …)
+                            skip(buffer, readVariableLength(buffer));
+                        } else if (status == 0xF0 || status == 0xF7) {
+                            skip(buffer, readVariableLength(buffer));
+                        } else {
+                            throw new IOException("Unerwartetes Statusbyte " + Integer.toHexString(status));
+                        }
+                        status = 0; // System-Ereignisse heben den Running Status auf
+                        continue;
+                    }
+                    data = buffer.get() & 0xFF;
+                } else if (status == 0) {
+                    throw new IOException("Datenbyte ohne Status");
+                }
+
+                int command = status & 0xF0;
+                int channel = status & 0x0F;
+                if (command == 0xC0 || command == 0xD0) {
+                    continue; // Nur ein Datenbyte (Programm, Kanal-Druck)
+                }
+                int velocity = buffer.get() & 0xFF;
+                if (channel == PERCUSSION_CHANNEL) {
+                    continue;
+                }
+                if (command == 0x90 && velocity > 0) {
+                    noteOn(channel * 128 + data, tick);
+                } else if (command == 0x80 || command == 0x90) {
+                    noteOff(channel * 128 + data, tick);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // Unvollständiges letztes Ereignis: Spur endet hier
+        }
+
+        // Nicht beendete Noten klingen bis zum Spurende
+        for (int slot = 0; slot < noteDepth.length; slot++) {
+            if (noteDepth[slot] > 0) {
+                pitchClassTicks[(slot & 127) % 12] += tick - noteStart[slot];
+            }
+        }
+    }
+
+    private void noteOn(int slot, long tick) {
+        if (noteDepth[slot] > 0) {
+            // Erneuter Anschlag derselben Note: bisherigen Abschnitt verbuchen
+            pitchClassTicks[(slot & 127) % 12] += tick - noteStart[slot];
+        } else {
+            noteCount++;
+        }
+        noteDepth[slot]++;
+        noteStart[slot] = tick;
+    }
+
+    private void noteOff(int slot, long tick) {
+        if (noteDepth[slot] == 0) {
+            return;
+        }
+        pitchClassTicks[(slot & 127) % 12] += tick - noteStart[slot];
+        noteStart[slot] = tick;
+        noteDepth[slot]--;
+    }
+
+    private static int readVariableLength(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = buffer.get() & 0xFF;
+            value = (value << 7) | (b & 0x7F);
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new IOException("Zu lange Längenangabe");
+    }
+
+    private static void skip(ByteBuffer buffer, int count) {
+        buffer.position(Math.min(buffer.limit(), buffer.position() + count));
+    }
+
+    /**
+     * Grundton der geschätzten Tonart (0 = C … 11 = H) oder -1, wenn die Datei keine Noten enthält.
+     */
+    public int getKeyRoot() {
+        return key < 0 ? -1 : KeyProfiles.root(key);
+    }
+
+    public boolean isKeyMajor() {
+        return KeyProfiles.isMajor(key);
+    }
+
+    /**
+     * Korrelation des Histogramms mit dem Profil der geschätzten Tonart (-1..1).
+     */
+    public float getKeyCorrelation() {
+        return key < 0 ? 0 : correlations[key];
+    }
+
+    /**
+     * Position der geschätzten Tonart auf der Scheibe (siehe DiscPositions.keyPosition) oder -1.
+     */
+    public int getKeyPosition() {
+        return key < 0 ? -1 : DiscPositions.keyPosition(getKeyRoot(), isKeyMajor());
+    }
+
+    /**
+     * Anteil der Tonhöhenklasse (0 = C) an der gesamten Notendauer (0..1).
+     */
+    public float getPitchClassWeight(int pitchClass) {
+        return key < 0 ? 0 : chroma[pitchClass];
+    }
+
+    public int getTrackCount() {
+        return trackCount;
+    }
+
+    public long getNoteCount() {
+        return noteCount;
+    }
+
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+}
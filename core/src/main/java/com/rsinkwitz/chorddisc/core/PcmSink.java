@@ -0,0 +1,18 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Ziel für 16-Bit-PCM (mono oder Stereo mit verschränkten Kanälen), z.B. der AudioTrack der
+ * App oder ein Speicher-Sink auf der JVM.
+ */
+public interface PcmSink {
+
+    /**
+     * Schreibt alle Samples; Echtzeit-Sinks blockieren, bis Platz im Puffer ist.
+     */
+    void write(short[] pcm, int offset, int length);
+
+    /**
+     * Anzahl der bereits hörbaren Frames seit Beginn (Wiedergabekopf).
+     */
+    long getPlayedFrames();
+}
@@ -0,0 +1,18 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Quelle für Mono-PCM als float (-1..1), z.B. Mikrofon in der App oder WAV-Datei auf der JVM.
+ */
+public interface PcmSource extends Closeable {
+
+    int getSampleRate();
+
+    /**
+     * Liest bis zu length Samples (blockiert bei Echtzeit-Quellen bis Daten vorliegen).
+     * @return Anzahl gelesener Samples, -1 am Ende der Quelle
+     */
+    int read(float[] buffer, int offset, int length) throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Was in einer Übungsfolge an einer Stelle erklingt: ein Dreiklang als Arpeggio (Grundton, Terz,
+ * Quinte, der letzte Ton doppelt so lang) oder eine Tonleiter auf- und abwärts mit langem
+ * Schlusston – wie beim Antippen bzw. beim Play-Button. Dauern in Achteln.
+ */
+public enum PhraseType {
+    MAJOR_CHORD(false, 0, 4, 7),
+    MINOR_CHORD(false, 0, 3, 7),
+    DIMINISHED_CHORD(false, 0, 3, 6),
+    MAJOR_SCALE(true, 0, 2, 4, 5, 7, 9, 11, 12),
+    NATURAL_MINOR_SCALE(true, 0, 2, 3, 5, 7, 8, 10, 12),
+    HARMONIC_MINOR_SCALE(true, 0, 2, 3, 5, 7, 8, 11, 12);
+
+    public static final int EIGHTH_MS = 250; // Achtel bei der Einzelwiedergabe (120 BPM)
+
+    private final boolean scale;
+    private final int[] intervals; // Halbtöne über dem Grundton
+
+    PhraseType(boolean scale, int... intervals) {
+        this.scale = scale;
+        this.intervals = intervals;
+    }
+
+    public boolean isScale() {
+        return scale;
+    }
+
+    public int noteCount() {
+        return scale ? intervals.length * 2 - 1 : intervals.length;
+    }
+
+    /**
+     * Intervall der Note n (0 … noteCount()-1); Tonleitern laufen zurück bis zum Grundton.
+     */
+    public int interval(int n) {
+        if (!scale || n < intervals.length) {
+            return intervals[n];
+        }
+        return intervals[intervals.length * 2 - 2 - n];
+    }
+
+    /**
+     * Dauer der Note n in Achteln: alle eins, die letzte zwei.
+     */
+    public int eighths(int n) {
+        return n == noteCount() - 1 ? 2 : 1;
+    }
+}
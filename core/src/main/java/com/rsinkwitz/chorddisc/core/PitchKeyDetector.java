@@ -0,0 +1,313 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.util.Arrays;
+
+/**
+ * Erkennt laufend die klingende Tonhöhenklasse und die Tonart aus PCM-Blöcken.
+ * Ablauf: Dezimierung auf ca. 11 kHz, Ringpuffer, überlappende Hann-Fenster (4096 Samples,
+ * Vorschub 512), FFT, Chroma-Vektor (12 Tonhöhenklassen) und Korrelation des über die Zeit
+ * geglätteten Chromas mit den Krumhansl-Kessler-Profilen der 24 Dur-/Moll-Tonarten.
+ * Nach dem Konstruktor werden keine Objekte mehr erzeugt; process() ist nicht thread-sicher.
+ */
+public final class PitchKeyDetector {
+
+    /**
+     * Wird auf dem Thread von process() aufgerufen, wenn sich Tonhöhe oder Tonart ändern.
+     */
+    public interface Listener {
+        void onDetection(PitchKeyDetector detector);
+    }
+
+    public static final int NO_PITCH = -1;
+
+    private static final double TARGET_RATE = 11025;
+    private static final int WINDOW_SIZE = 4096;
+    private static final int HOP_SIZE = 512;
+    private static final double MIN_FREQUENCY = 65;     // C2
+    private static final double MAX_FREQUENCY = 2100;   // ca. C7
+    private static final float SILENCE_RMS = 0.005f;
+    private static final int STABLE_FRAMES = 2;         // Entprellung der Tonhöhe
+    private static final float KEY_DECAY = 0.97f;       // Gedächtnis der Tonart (ca. 1.5 s)
+    private static final float MIN_KEY_CORRELATION = 0.5f;
+    private static final float KEY_SWITCH_MARGIN = 0.05f; // Hysterese gegen Flackern der Tonart
+
+    private final Listener listener;
+    private final int decimation;
+    private final double analysisRate;
+    private final Fft fft = new Fft(WINDOW_SIZE);
+    private final float[] ring = new float[WINDOW_SIZE];
+    private final float[] hann = new float[WINDOW_SIZE];
+    private final float[] re = new float[WINDOW_SIZE];
+    private final float[] im = new float[WINDOW_SIZE];
+    private final int[] binPitchClass = new int[WINDOW_SIZE / 2];
+    private final int firstBin;
+    private final int lastBin;
+    private final float[] chroma = new float[12];
+    private final float[] keyChroma = new float[12];
+    private final float[] keyCorrelations = new float[KeyProfiles.KEY_COUNT];
+
+    // Dezimierung und Ringpuffer
+    private float decimationSum = 0;
+    private int decimationCount = 0;
+    private int writePosition = 0;
+    private int filled = 0;
+    private int samplesSinceHop = 0;
+    private long analysisSamples = 0;
+
+    // Ergebnis
+    private int pitchClass = NO_PITCH;
+    private float pitchConfidence = 0;
+    private int candidate = NO_PITCH;
+    private int candidateFrames = 0;
+    private long candidateSinceSample = 0;
+    private int key = -1;
+    private float keyCorrelation = 0;
+    private float detectionLatencyMs = 0;
+
+    // Messwerte
+    private long blockCount = 0;
+    private long totalBlockNanos = 0;
+    private long lastBlockNanos = 0;
+    private long maxBlockNanos = 0;
+
+    public PitchKeyDetector(int inputSampleRate, Listener listener) {
+        this.listener = listener;
+        this.decimation = Math.max(1, (int) Math.round(inputSampleRate / TARGET_RATE));
+        this.analysisRate = (double) inputSampleRate / decimation;
+
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            hann[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / (WINDOW_SIZE - 1)));
+        }
+
+        // Zuordnung FFT-Bin → Tonhöhenklasse (MIDI 60 = C)
+        int first = -1;
+        int last = -1;
+        for (int bin = 1; bin < WINDOW_SIZE / 2; bin++) {
+            double frequency = bin * analysisRate / WINDOW_SIZE;
+            if (frequency < MIN_FREQUENCY || frequency > MAX_FREQUENCY) {
+                binPitchClass[bin] = -1;
+                continue;
+            }
+            long midi = Math.round(69 + 12 * Math.log(frequency / 440) / Math.log(2));
+            binPitchClass[bin] = (int) (midi % 12);
+            if (first < 0) {
+                first = bin;
+            }
+            last = bin;
+        }
+        firstBin = first;
+        lastBin = last;
+    }
+
+    /**
+     * Verarbeitet einen Block Mono-Samples (-1..1) in der Eingangs-Abtastrate.
+     */
+    public void process(float[] samples, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            decimationSum += samples[i];
+            if (++decimationCount == decimation) {
+                push(decimationSum / decimation);
+                decimationSum = 0;
+                decimationCount = 0;
+            }
+        }
+    }
+
+    /**
+     * Verwirft Puffer, Ergebnis und Messwerte (z.B. beim erneuten Start des Hörmodus).
+     */
+    public void reset() {
+        Arrays.fill(ring, 0f);
+        Arrays.fill(keyChroma, 0f);
+        decimationSum = 0;
+        decimationCount = 0;
+        writePosition = 0;
+        filled = 0;
+        samplesSinceHop = 0;
+        analysisSamples = 0;
+        pitchClass = NO_PITCH;
+        pitchConfidence = 0;
+        candidate = NO_PITCH;
+        candidateFrames = 0;
+        key = -1;
+        keyCorrelation = 0;
+        detectionLatencyMs = 0;
+        blockCount = 0;
+        totalBlockNanos = 0;
+        lastBlockNanos = 0;
+        maxBlockNanos = 0;
+    }
+
+    private void push(float sample) {
+        ring[writePosition] = sample;
+        writePosition = (writePosition + 1) & (WINDOW_SIZE - 1);
+        analysisSamples++;
+        if (filled < WINDOW_SIZE) {
+            filled++;
+        }
+        if (++samplesSinceHop == HOP_SIZE) {
+            samplesSinceHop = 0;
+            if (filled == WINDOW_SIZE) {
+                analyze();
+            }
+        }
+    }
+
+    private void analyze() {
+        long start = System.nanoTime();
+
+        // Fenster aus dem Ringpuffer (älteste Samples zuerst)
+        float energy = 0;
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            float x = ring[(writePosition + i) & (WINDOW_SIZE - 1)];
+            energy += x * x;
+            re[i] = x * hann[i];
+            im[i] = 0;
+        }
+
+        int frameWinner = NO_PITCH;
+        float frameConfidence = 0;
+        boolean keyChanged = false;
+        if (Math.sqrt(energy / WINDOW_SIZE) >= SILENCE_RMS) {
+            fft.transform(re, im);
+            Arrays.fill(chroma, 0f);
+            float total = 0;
+            for (int bin = firstBin; bin <= lastBin; bin++) {
+                float magnitude = (float) Math.sqrt(re[bin] * re[bin] + im[bin] * im[bin]);
+                chroma[binPitchClass[bin]] += magnitude;
+                total += magnitude;
+            }
+            if (total > 0) {
+                for (int i = 0; i < 12; i++) {
+                    chroma[i] /= total;
+                    keyChroma[i] = keyChroma[i] * KEY_DECAY + chroma[i];
+                    if (chroma[i] > frameConfidence) {
+                        frameConfidence = chroma[i];
+                        frameWinner = i;
+                    }
+                }
+                keyChanged = updateKey();
+            }
+        }
+
+        // Tonhöhe erst nach STABLE_FRAMES gleichen Fenstern übernehmen
+        if (frameWinner == candidate) {
+            candidateFrames++;
+        } else {
+            candidate = frameWinner;
+            candidateFrames = 1;
+            candidateSinceSample = analysisSamples;
+        }
+        boolean pitchChanged = false;
+        if (candidateFrames == STABLE_FRAMES && candidate != pitchClass) {
+            pitchClass = candidate;
+            // Mitte des ersten Fensters mit dem neuen Ton bis zur Bestätigung
+            detectionLatencyMs = (float) ((analysisSamples - candidateSinceSample + WINDOW_SIZE / 2)
+                * 1000 / analysisRate);
+            pitchChanged = true;
+        }
+        if (pitchClass != NO_PITCH && candidate == pitchClass) {
+            pitchConfidence = frameConfidence;
+        }
+
+        lastBlockNanos = System.nanoTime() - start;
+        totalBlockNanos += lastBlockNanos;
+        maxBlockNanos = Math.max(maxBlockNanos, lastBlockNanos);
+        blockCount++;
+
+        if ((pitchChanged || keyChanged) && listener != null) {
+            listener.onDetection(this);
+        }
+    }
+
+    /**
+     * Korreliert das geglättete Chroma mit allen 24 Tonart-Profilen.
+     * @return true, wenn sich die gemeldete Tonart geändert hat
+     */
+    private boolean updateKey() {
+        int best = KeyProfiles.correlate(keyChroma, keyCorrelations);
+        if (best < 0) {
+            return false;
+        }
+        float bestCorrelation = keyCorrelations[best];
+        float currentCorrelation = key < 0 ? -1 : keyCorrelations[key];
+        if (best != key && bestCorrelation >= MIN_KEY_CORRELATION
+                && bestCorrelation > currentCorrelation + KEY_SWITCH_MARGIN) {
+            key = best;
+            keyCorrelation = bestCorrelation;
+            return true;
+        }
+        keyCorrelation = key < 0 ? bestCorrelation : currentCorrelation;
+        return false;
+    }
+
+    /**
+     * Klingende Tonhöhenklasse (0 = C … 11 = H) oder NO_PITCH bei Stille.
+     */
+    public int getPitchClass() {
+        return pitchClass;
+    }
+
+    /**
+     * Anteil der stärksten Tonhöhenklasse am Chroma des letzten Fensters (0..1).
+     */
+    public float getPitchConfidence() {
+        return pitchConfidence;
+    }
+
+    /**
+     * Grundton der erkannten Tonart (0 = C … 11 = H) oder -1, solange keine erkannt ist.
+     */
+    public int getKeyRoot() {
+        return key < 0 ? -1 : KeyProfiles.root(key);
+    }
+
+    public boolean isKeyMajor() {
+        return KeyProfiles.isMajor(key);
+    }
+
+    /**
+     * Korrelation des geglätteten Chromas mit dem Profil der gemeldeten Tonart (-1..1).
+     */
+    public float getKeyCorrelation() {
+        return keyCorrelation;
+    }
+
+    /**
+     * Verzögerung der letzten Tonhöhen-Änderung: von der Mitte des ersten Fensters mit dem
+     * neuen Ton bis zur entprellten Meldung (ohne Rechenzeit).
+     */
+    public float getDetectionLatencyMs() {
+        return detectionLatencyMs;
+    }
+
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    public long getLastBlockNanos() {
+        return lastBlockNanos;
+    }
+
+    public long getMaxBlockNanos() {
+        return maxBlockNanos;
+    }
+
+    public long getAverageBlockNanos() {
+        return blockCount == 0 ? 0 : totalBlockNanos / blockCount;
+    }
+
+    /**
+     * Dauer eines Vorschubs (Echtzeit zwischen zwei Analysen) in Millisekunden.
+     */
+    public double getHopMs() {
+        return HOP_SIZE * 1000 / analysisRate;
+    }
+
+    /**
+     * Anteil eines Kerns, den die Analyse im Mittel belegt (Rechenzeit / Echtzeit).
+     */
+    public double getCpuLoad() {
+        return getAverageBlockNanos() / (getHopMs() * 1_000_000);
+    }
+}
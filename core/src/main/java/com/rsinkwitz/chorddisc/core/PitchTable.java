@@ -0,0 +1,174 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Phaseninkremente (Radiant pro Sample) aller Tonhöhen eines Stimmungssystems bei
+ * gegebenem Kammerton und gegebener Abtastrate, über elf Oktaven (C-1 … H9).
+ * Eine Tonhöhe wird als Position auf der Scheibe (0-18), Intervall in Halbtönen darüber und
+ * Oktave (4 = C4 … H4) angegeben. Die Tabellen werden im Konstruktor berechnet: Stimmung
+ * wechseln heißt Tabelle tauschen, Transponieren heißt anderer Index. Reine Stimmung bezieht
+ * sich auf eine Tonika (die Tonart oben auf der Scheibe); eine neue Tonika heißt neue Tabelle
+ * über withTonic. Unveränderlich und damit ohne Synchronisation von mehreren Threads nutzbar.
+ */
+public final class PitchTable {
+
+    public static final double DEFAULT_REFERENCE_A = 440;
+    public static final int MIDDLE_OCTAVE = 4; // Grundtöne der Scheibe liegen in C4 … H4
+
+    private static final int OCTAVES = 11;          // Oktave -1 bis 9
+    private static final int MIDI_A4 = 69;
+    private static final int STEP_A4 = 19 * 5 + 14;  // A ist Position 14
+
+    // Reine Intervalle über der Tonika (5-Limit), Index = Halbtöne
+    private static final double[] JUST_RATIOS = {
+        1.0, 16.0 / 15, 9.0 / 8, 6.0 / 5, 5.0 / 4, 4.0 / 3,
+        45.0 / 32, 3.0 / 2, 8.0 / 5, 5.0 / 3, 9.0 / 5, 15.0 / 8
+    };
+
+    // Halbton-Intervall → Stufen in 19-TET (kleine Sekunde = diatonischer Halbton = 2 Stufen,
+    // Tritonus als übermäßige Quarte); passt zu den Lochmustern in DiscScale
+    private static final int[] STEPS_19 = {0, 2, 3, 5, 6, 8, 9, 11, 13, 14, 16, 17};
+
+    // Stufe jeder Position in 19-TET, in derselben Oktave wie die Tonhöhenklasse in 12-TET:
+    // H♯/C♭ (Position 18) zählt dort als C und liegt darum eine Oktave tiefer als Stufe 18
+    private static final int[] POSITION_STEPS_19 = new int[19];
+
+    static {
+        for (int position = 0; position < 19; position++) {
+            double cents19 = 1200.0 * position / 19;
+            double cents12 = 100.0 * DiscPositions.pitchClass(position);
+            POSITION_STEPS_19[position] = cents19 - cents12 > 600 ? position - 19 : position;
+        }
+    }
+
+    private final TuningSystem system;
+    private final double referenceA;
+    private final int sampleRate;
+    private final double[] equal12 = new double[12 * OCTAVES];  // Index = MIDI-Notennummer
+    private final double[] equal19 = new double[19 * OCTAVES];  // Index = 19 * (Oktave + 1) + Stufe
+    private final int tonic;
+    private final double[] just;  // Index = MIDI-Notennummer, nur bei reiner Stimmung
+
+    public PitchTable(TuningSystem system, double referenceA, int sampleRate) {
+        this(system, referenceA, sampleRate, 0);
+    }
+
+    /**
+     * @param tonic Tonika als Position auf der Scheibe (0-18), Bezug der reinen Stimmung
+     */
+    public PitchTable(TuningSystem system, double referenceA, int sampleRate, int tonic) {
+        this.system = system;
+        this.referenceA = referenceA;
+        this.sampleRate = sampleRate;
+        this.tonic = tonic;
+
+        double radiansPerHz = 2 * Math.PI / sampleRate;
+        for (int midi = 0; midi < equal12.length; midi++) {
+            equal12[midi] = referenceA * Math.pow(2, (midi - MIDI_A4) / 12.0) * radiansPerHz;
+        }
+        for (int step = 0; step < equal19.length; step++) {
+            equal19[step] = referenceA * Math.pow(2, (step - STEP_A4) / 19.0) * radiansPerHz;
+        }
+        just = justTable();
+    }
+
+    // Gleiche Stimmung mit anderer Tonika: nur die reine Tabelle wird neu berechnet
+    private PitchTable(PitchTable other, int tonic) {
+        this.system = other.system;
+        this.referenceA = other.referenceA;
+        this.sampleRate = other.sampleRate;
+        System.arraycopy(other.equal12, 0, equal12, 0, equal12.length);
+        System.arraycopy(other.equal19, 0, equal19, 0, equal19.length);
+        this.tonic = tonic;
+        this.just = justTable();
+    }
+
+    // Jede Tonhöhe als Tonika (gleichstufig) × reines Intervall darüber × Oktave
+    private double[] justTable() {
+        if (system != TuningSystem.JUST_INTONATION) {
+            return null;
+        }
+        int tonicClass = DiscPositions.pitchClass(tonic);
+        double[] table = new double[12 * OCTAVES];
+        for (int midi = 0; midi < table.length; midi++) {
+            int offset = midi - tonicClass;
+            int octaves = offset >= 0 ? offset / 12 : -1;
+            table[midi] = equal12[tonicClass] * JUST_RATIOS[offset - 12 * octaves] * Math.scalb(1.0, octaves);
+        }
+        return table;
+    }
+
+    public TuningSystem getSystem() {
+        return system;
+    }
+
+    public double getReferenceA() {
+        return referenceA;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Tonika als Position auf der Scheibe (0-18).
+     */
+    public int getTonic() {
+        return tonic;
+    }
+
+    /**
+     * Dieselbe Stimmung mit anderer Tonika. Nur in reiner Stimmung entsteht eine neue Tabelle,
+     * und nur, wenn sich die Tonhöhenklasse ändert; sonst wird diese Tabelle zurückgegeben.
+     */
+    public PitchTable withTonic(int tonic) {
+        if (system != TuningSystem.JUST_INTONATION
+                || DiscPositions.pitchClass(tonic) == DiscPositions.pitchClass(this.tonic)) {
+            return this;
+        }
+        return new PitchTable(this, tonic);
+    }
+
+    /**
+     * Phaseninkrement pro Sample für sin(inkrement * i).
+     * @param position Grundton als Position auf der Scheibe (0-18)
+     * @param interval Halbtöne über dem Grundton (auch negativ oder über eine Oktave)
+     * @param octave Oktave des Grundtons (4 = eingestrichene Oktave)
+     * @return Inkrement oder 0, wenn die Tonhöhe außerhalb des Tonumfangs bzw. über Nyquist liegt
+     */
+    public double phaseIncrement(int position, int interval, int octave) {
+        // Intervall in Oktaven und Stufe zerlegen (ohne Math.floorMod, API 21)
+        int octaves = interval >= 0 ? interval / 12 : -((11 - interval) / 12);
+        int degree = interval - 12 * octaves;
+        int base = octave + 1;
+
+        double increment;
+        switch (system) {
+            case EQUAL_19:
+                increment = lookup(equal19, 19 * (base + octaves) + POSITION_STEPS_19[position] + STEPS_19[degree]);
+                break;
+            case JUST_INTONATION:
+                increment = lookup(just, 12 * (base + octaves) + DiscPositions.pitchClass(position) + degree);
+                break;
+            case EQUAL_12:
+            default:
+                increment = lookup(equal12, 12 * (base + octaves) + DiscPositions.pitchClass(position) + degree);
+                break;
+        }
+        return increment < Math.PI ? increment : 0;
+    }
+
+    /**
+     * Frequenz in Hz (0 außerhalb des Tonumfangs), Parameter wie phaseIncrement.
+     */
+    public double frequency(int position, int interval, int octave) {
+        return phaseIncrement(position, interval, octave) * sampleRate / (2 * Math.PI);
+    }
+
+    public boolean isPlayable(int position, int interval, int octave) {
+        return phaseIncrement(position, interval, octave) > 0;
+    }
+
+    private static double lookup(double[] table, int index) {
+        return index >= 0 && index < table.length ? table[index] : 0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Schreibt ein RGB-PNG (8 Bit pro Kanal) zeilenweise, ohne das Gesamtbild im Speicher zu halten.
+ * Die komprimierten Daten werden in IDAT-Blöcken fester Größe ausgegeben.
+ */
+public class PngStreamWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+    private static final byte FILTER_SUB = 1; // Differenz zum linken Pixel: gut für flächige Grafik
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final byte[] row;              // Gefilterte Zeile inkl. Filter-Byte
+    private final byte[] compressed = new byte[IDAT_CHUNK_SIZE];
+    private int compressedLength = 0;
+    private final CRC32 crc = new CRC32();
+    private int rowsWritten = 0;
+
+    public PngStreamWriter(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0 || (long) width * 3 + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ungültige Bildgröße " + width + "×" + height);
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.row = new byte[width * 3 + 1];
+
+        out.write(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;   // Bittiefe
+        header[9] = 2;   // Farbtyp RGB
+        header[10] = 0;  // Deflate
+        header[11] = 0;  // Standard-Filter
+        header[12] = 0;  // Kein Interlacing
+        writeChunk("IHDR", header, header.length);
+    }
+
+    /**
+     * Schreibt die nächste Zeile.
+     * @param argb Pixel (Alpha wird ignoriert)
+     * @param offset Index des ersten Pixels der Zeile
+     */
+    public void writeRow(int[] argb, int offset) throws IOException {
+        if (rowsWritten >= height) {
+            throw new IllegalStateException("Alle " + height + " Zeilen bereits geschrieben");
+        }
+        row[0] = FILTER_SUB;
+        int previous = 0;
+        for (int x = 0, i = 1; x < width; x++, i += 3) {
+            int pixel = argb[offset + x];
+            row[i] = (byte) ((pixel >> 16) - (previous >> 16));
+            row[i + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+            row[i + 2] = (byte) (pixel - previous);
+            previous = pixel;
+        }
+        deflater.setInput(row);
+        while (!deflater.needsInput()) {
+            drainDeflater();
+        }
+        rowsWritten++;
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowsWritten != height) {
+                throw new IOException("Nur " + rowsWritten + " von " + height + " Zeilen geschrieben");
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                drainDeflater();
+            }
+            if (compressedLength > 0) {
+                writeChunk("IDAT", compressed, compressedLength);
+            }
+            writeChunk("IEND", new byte[0], 0);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /**
+     * Holt komprimierte Daten ab und gibt jeden vollen Puffer als IDAT-Block aus.
+     */
+    private void drainDeflater() throws IOException {
+        compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        if (compressedLength == compressed.length) {
+            writeChunk("IDAT", compressed, compressedLength);
+            compressedLength = 0;
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] lengthBytes = new byte[4];
+        putInt(lengthBytes, 0, length);
+        out.write(lengthBytes);
+
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        byte[] crcBytes = new byte[4];
+        putInt(crcBytes, 0, (int) crc.getValue());
+        out.write(crcBytes);
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
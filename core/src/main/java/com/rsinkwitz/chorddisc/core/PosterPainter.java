@@ -0,0 +1,111 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Zeichnet das Poster der Scheibe wie die Papiervorlage: untere Scheibe (alle 19 Noten
+ * mit Vorzeichen) links, obere Scheibe (Löcher der Dur-Tonleiter, Dur-/Moll-Markierung,
+ * Indikator-Fenster) rechts, jeweils mit Kreuz im Mittelpunkt zum Ausschneiden.
+ * Koordinaten in Poster-Einheiten: Breite 2, Höhe 1 (eine Einheit pro Scheibe).
+ */
+public final class PosterPainter {
+
+    public static final float POSTER_WIDTH = 2f;
+    public static final float POSTER_HEIGHT = 1f;
+
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+    private static final int BLUE = 0xFF0000FF;
+    private static final int RED = 0xFFFF0000;
+
+    private final boolean germanNotation;
+    private final float outerRadius;
+    private final float strokeWidth;
+
+    /**
+     * @param pixelsPerUnit Zielauflösung, bestimmt die Strichstärke (wie 2 px bei 428 px Durchmesser)
+     */
+    public PosterPainter(boolean germanNotation, float pixelsPerUnit) {
+        this.germanNotation = germanNotation;
+        this.outerRadius = DiscProportions.OUTER_RADIUS_OF_MIN_DIMENSION * POSTER_HEIGHT;
+        this.strokeWidth = Math.max(1f / pixelsPerUnit, outerRadius * 2f / 214f);
+    }
+
+    public void paint(VectorSurface surface) {
+        surface.fillRect(0, 0, POSTER_WIDTH, POSTER_HEIGHT, WHITE);
+
+        surface.save();
+        surface.translate(0.5f, 0.5f);
+        paintBottomDisc(surface);
+        surface.restore();
+
+        surface.save();
+        surface.translate(1.5f, 0.5f);
+        paintTopDisc(surface);
+        surface.restore();
+    }
+
+    private void paintBottomDisc(VectorSurface surface) {
+        float noteCircleRadius = outerRadius * DiscProportions.NOTE_CIRCLE_RADIUS;
+        float textSize = outerRadius * DiscProportions.TEXT_SIZE;
+        float textSizeSmall = outerRadius * DiscProportions.TEXT_SIZE_SMALL;
+
+        paintDiscOutline(surface);
+        for (int i = 0; i < DiscProportions.POSITION_COUNT; i++) {
+            surface.save();
+            surface.rotate(DiscProportions.ANGLE_PER_POSITION * i);
+            surface.translate(0, -outerRadius * DiscProportions.NOTE_POSITION_RADIUS);
+            surface.fillCircle(0, 0, noteCircleRadius, WHITE);
+            surface.strokeCircle(0, 0, noteCircleRadius, strokeWidth, BLACK);
+            surface.drawText(DiscPositions.note(i, germanNotation), 0, textSize / 3f, textSize, BLACK);
+            surface.drawText(DiscPositions.sharpFlat(i), 0, noteCircleRadius + textSizeSmall * 1.4f,
+                textSizeSmall, BLACK);
+            surface.restore();
+        }
+    }
+
+    private void paintTopDisc(VectorSurface surface) {
+        float noteCircleRadius = outerRadius * DiscProportions.NOTE_CIRCLE_RADIUS;
+        float markerRadius = outerRadius * DiscProportions.MARKER_CIRCLE_RADIUS;
+        float innerRadius = outerRadius * DiscProportions.INNER_RADIUS;
+
+        paintDiscOutline(surface);
+        for (int i = 0; i < DiscProportions.POSITION_COUNT; i++) {
+            if (!DiscPositions.isMajorHole(i)) {
+                continue;
+            }
+            surface.save();
+            surface.rotate(DiscProportions.ANGLE_PER_POSITION * i);
+            surface.translate(0, -outerRadius * DiscProportions.NOTE_POSITION_RADIUS);
+            if (i == DiscProportions.MAJOR_POSITION) {
+                surface.strokeCircle(0, 0, markerRadius, strokeWidth * 4, BLUE);
+            } else if (i == DiscProportions.MINOR_POSITION) {
+                surface.strokeCircle(0, 0, markerRadius, strokeWidth * 4, RED);
+            }
+            surface.fillCircle(0, 0, noteCircleRadius, WHITE);
+            surface.strokeCircle(0, 0, noteCircleRadius, strokeWidth, BLACK);
+            paintCross(surface, innerRadius);
+            surface.restore();
+        }
+
+        // Indikator-Fenster
+        float size = outerRadius * DiscProportions.INDICATOR_SIZE;
+        float top = -outerRadius * DiscProportions.INDICATOR_POSITION_RADIUS - size / 2;
+        surface.fillRect(-size / 2, top, size, size, WHITE);
+        surface.strokeRect(-size / 2, top, size, size, strokeWidth, BLACK);
+    }
+
+    /**
+     * Äußerer Kreis, Mittelloch und Kreuz (gemeinsam für beide Scheiben).
+     */
+    private void paintDiscOutline(VectorSurface surface) {
+        float innerRadius = outerRadius * DiscProportions.INNER_RADIUS;
+        surface.fillCircle(0, 0, outerRadius, WHITE);
+        surface.strokeCircle(0, 0, outerRadius, strokeWidth, BLACK);
+        surface.strokeCircle(0, 0, innerRadius, strokeWidth, BLACK);
+        paintCross(surface, innerRadius);
+    }
+
+    private void paintCross(VectorSurface surface, float size) {
+        surface.strokeLine(0, -size / 2, 0, size / 2, strokeWidth, BLACK);
+        surface.strokeLine(-size / 2, 0, size / 2, 0, strokeWidth, BLACK);
+    }
+}
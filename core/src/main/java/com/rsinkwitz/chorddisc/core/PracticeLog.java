@@ -0,0 +1,103 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binärformat des Übungsprotokolls (Big Endian): was wann in welcher Tonart gespielt wurde.
+ * Die Datei wird nur angehängt; gültig sind so viele Datensätze, wie der Kopf nennt (dahinter
+ * darf die gemappte Datei mit Nullen aufgefüllt sein).
+ * <pre>
+ * Kopf:      int MAGIC, short VERSION, short RECORD_BYTES, int Anzahl gültiger Datensätze,
+ *            int reserviert
+ * Datensatz: int Zeit (Sekunden seit 1970, vorzeichenlos), byte Art, byte Grundton (0-18),
+ *            byte Tonart (Position oben, 0-18), byte reserviert
+ * </pre>
+ * Ein Datensatz ist zugleich ein long (pack), so wandert er ohne Objekt durch den Puffer.
+ */
+public final class PracticeLog {
+
+    public static final int MAGIC = 0x43445048; // "CDPH"
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 8;
+    public static final int COUNT_OFFSET = 8;
+
+    // Art des Datensatzes
+    public static final int CHORD_MAJOR = 0;
+    public static final int CHORD_MINOR = 1;
+    public static final int SCALE_MAJOR = 2;
+    public static final int SCALE_NATURAL_MINOR = 3;
+    public static final int SCALE_HARMONIC_MINOR = 4;
+    public static final int KINDS = 5;
+
+    private PracticeLog() {
+    }
+
+    /**
+     * Datensatz als long: Zeit in den oberen 32 Bit, darunter Art, Grundton, Tonart.
+     */
+    public static long pack(long epochSeconds, int kind, int root, int key) {
+        return (epochSeconds & 0xFFFFFFFFL) << 32 | (long) (kind & 0xFF) << 24 | (root & 0xFF) << 16 | (key & 0xFF) << 8;
+    }
+
+    public static long seconds(long record) {
+        return record >>> 32;
+    }
+
+    public static int kind(long record) {
+        return (int) (record >>> 24) & 0xFF;
+    }
+
+    public static int root(long record) {
+        return (int) (record >>> 16) & 0xFF;
+    }
+
+    public static int key(long record) {
+        return (int) (record >>> 8) & 0xFF;
+    }
+
+    public static boolean isScale(int kind) {
+        return kind >= SCALE_MAJOR;
+    }
+
+    /**
+     * Schreibt den Kopf einer leeren Datei an den Anfang des Puffers.
+     */
+    public static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(0, MAGIC)
+            .putShort(4, VERSION)
+            .putShort(6, (short) RECORD_BYTES)
+            .putInt(COUNT_OFFSET, 0)
+            .putInt(12, 0);
+    }
+
+    /**
+     * Prüft den Kopf am Anfang des Puffers.
+     * @return Anzahl gültiger Datensätze (höchstens so viele, wie der Puffer fasst)
+     * @throws IOException wenn der Puffer kein Übungsprotokoll enthält
+     */
+    public static int readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Kein Übungsprotokoll");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION || buffer.getShort(6) != RECORD_BYTES) {
+            throw new IOException("Unbekannte Version " + version);
+        }
+        int count = buffer.getInt(COUNT_OFFSET);
+        int capacity = (buffer.limit() - HEADER_BYTES) / RECORD_BYTES;
+        return Math.max(0, Math.min(count, capacity));
+    }
+
+    /**
+     * Datensatz Nummer index (ab 0) aus dem Puffer der ganzen Datei.
+     */
+    public static long record(ByteBuffer buffer, int index) {
+        return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    public static void putRecord(ByteBuffer buffer, int index, long record) {
+        buffer.putLong(HEADER_BYTES + index * RECORD_BYTES, record);
+    }
+}
@@ -0,0 +1,322 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Führt das Übungsprotokoll (siehe PracticeLog) und seine Statistik über einen eigenen Thread.
+ * Der aufrufende Thread (UI-Thread) legt Datensätze nur als long in einen Ringpuffer
+ * (ein Erzeuger, ein Verbraucher, ohne Sperre); Dateien öffnet, liest und schreibt allein der
+ * Schreib-Thread. Er hängt die Datensätze gebündelt an die gemappte Datei an – sobald BATCH
+ * beisammen sind, nach FLUSH_INTERVAL oder auf flush() –, führt die Statistik nach und speichert
+ * sie als Prüfpunkt. Beim Start liest er nur den Prüfpunkt und die Datensätze danach.
+ * Ist der Ringpuffer voll, wird der Datensatz verworfen und gezählt.
+ * record(), add(), flush() und getStats() nur von einem Thread aufrufen.
+ */
+public final class PracticeLogWriter implements Closeable {
+
+    public static final String LOG_FILE = "practice.cdph";
+    public static final String CHECKPOINT_FILE = "practice-stats.bin";
+
+    private static final int RING_SIZE = 1024;
+    private static final int RING_MASK = RING_SIZE - 1;
+    private static final int BATCH = 64;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int MAP_CHUNK_RECORDS = 8192; // Datei wächst in Schritten von 64 KB
+
+    /**
+     * Veröffentlichter Stand: Statistik einschließlich aller Datensätze vor sequence.
+     */
+    private static final class Published {
+        final PracticeStats stats;
+        final long sequence;
+
+        Published(PracticeStats stats, long sequence) {
+            this.stats = stats;
+            this.sequence = sequence;
+        }
+    }
+
+    private final File directory;
+    private final Thread thread;
+    private final long[] ring = new long[RING_SIZE];
+    private volatile long head = 0; // Schreibt nur der Erzeuger
+    private volatile long tail = 0; // Schreibt nur der Schreib-Thread
+    private volatile boolean flushRequested = false;
+    private volatile boolean closed = false;
+    private volatile Published published; // null, bis der Schreib-Thread geladen hat
+    private volatile int persistedRecords = 0;
+    private volatile IOException failure;
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    // Nur Schreib-Thread
+    private RandomAccessFile file;
+    private MappedByteBuffer map;
+    private int capacity = 0; // Datensätze, die die gemappte Datei fasst
+    private int count = 0;    // Gültige Datensätze in der Datei
+    private PracticeStats stats;
+
+    /**
+     * Startet den Schreib-Thread; er legt das Verzeichnis bei Bedarf an und lädt die Statistik.
+     */
+    public PracticeLogWriter(File directory) {
+        this.directory = directory;
+        thread = new Thread(this::run, "practice-log");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Protokolliert, dass jetzt etwas gespielt wurde; allokiert und blockiert nicht.
+     * @param kind Art (PracticeLog.CHORD_MAJOR …)
+     * @param root gespielter Grundton (Position 0-18)
+     * @param key Tonart (Position oben, 0-18)
+     * @return false, wenn der Datensatz verworfen wurde
+     */
+    public boolean record(int kind, int root, int key) {
+        return add(PracticeLog.pack(System.currentTimeMillis() / 1000, kind, root, key));
+    }
+
+    /**
+     * Hängt einen fertigen Datensatz (PracticeLog.pack) an.
+     */
+    public boolean add(long record) {
+        long h = head;
+        if (closed || h - tail >= RING_SIZE) {
+            droppedRecords.incrementAndGet();
+            return false;
+        }
+        ring[(int) h & RING_MASK] = record;
+        head = h + 1;
+        if (h + 1 - tail == BATCH) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Lässt den Schreib-Thread die wartenden Datensätze sofort schreiben (z.B. beim Pausieren).
+     */
+    public void flush() {
+        flushRequested = true;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Statistik einschließlich der noch nicht geschriebenen Datensätze, als eigene Kopie;
+     * null, solange der Schreib-Thread noch lädt. Liest keine Datei.
+     */
+    public PracticeStats getStats() {
+        Published current = published;
+        if (current == null) {
+            return null;
+        }
+        // Plätze ab current.sequence überschreibt nur dieser Thread selbst (tail ≤ sequence)
+        PracticeStats stats = current.stats.copy();
+        long h = head;
+        for (long s = current.sequence; s < h; s++) {
+            stats.apply(ring[(int) s & RING_MASK]);
+        }
+        return stats;
+    }
+
+    /**
+     * Schreibt den Rest und beendet den Schreib-Thread (ohne zu warten).
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Wartet, bis alles geschrieben und die Datei geschlossen ist.
+     * @throws IOException der erste Fehler beim Laden oder Schreiben
+     */
+    public void awaitClosed() throws IOException, InterruptedException {
+        close();
+        thread.join();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void run() {
+        try {
+            open();
+        } catch (IOException e) {
+            failure = e; // Statistik nur noch im Speicher
+            stats = new PracticeStats();
+        }
+        published = new Published(stats.copy(), 0);
+
+        long deadline = System.nanoTime() + FLUSH_INTERVAL_NANOS;
+        while (true) {
+            long pending = head - tail;
+            boolean closing = closed;
+            long now = System.nanoTime();
+            if (pending > 0 && (pending >= BATCH || flushRequested || closing || now - deadline >= 0)) {
+                flushRequested = false;
+                drain(pending);
+                deadline = System.nanoTime() + FLUSH_INTERVAL_NANOS;
+            } else if (closing) {
+                break;
+            } else {
+                if (pending == 0) {
+                    deadline = now + FLUSH_INTERVAL_NANOS;
+                }
+                LockSupport.parkNanos(this, Math.max(1, deadline - now));
+            }
+        }
+        closeFile();
+    }
+
+    private void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Verzeichnis nicht anlegbar: " + directory);
+        }
+        File logFile = new File(directory, LOG_FILE);
+        file = new RandomAccessFile(logFile, "rw");
+        long size = file.length();
+        if (size < PracticeLog.HEADER_BYTES) {
+            mapFile(0);
+            PracticeLog.writeHeader(map);
+        } else {
+            mapFile((int) ((size - PracticeLog.HEADER_BYTES) / PracticeLog.RECORD_BYTES));
+            try {
+                count = PracticeLog.readHeader(map);
+            } catch (IOException e) {
+                // Beschädigte Datei beiseitelegen statt überschreiben, neu beginnen
+                file.close();
+                map = null;
+                File damaged = new File(directory, LOG_FILE + ".damaged-" + System.currentTimeMillis());
+                if (!logFile.renameTo(damaged)) {
+                    throw e;
+                }
+                file = new RandomAccessFile(logFile, "rw");
+                mapFile(0);
+                PracticeLog.writeHeader(map);
+            }
+        }
+        persistedRecords = count;
+
+        stats = loadCheckpoint();
+        if (stats == null || stats.getRecordCount() > count) {
+            stats = new PracticeStats();
+        }
+        stats.catchUp(map, count);
+    }
+
+    /**
+     * Mappt die Datei mit Platz für mindestens records Datensätze (auf ganze Schritte
+     * aufgerundet); die Datei wächst dabei mit.
+     */
+    private void mapFile(int records) throws IOException {
+        int chunks = Math.max(1, (records + MAP_CHUNK_RECORDS - 1) / MAP_CHUNK_RECORDS);
+        capacity = chunks * MAP_CHUNK_RECORDS;
+        long bytes = PracticeLog.HEADER_BYTES + (long) capacity * PracticeLog.RECORD_BYTES;
+        map = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    }
+
+    private void drain(long pending) {
+        long from = tail;
+        long to = from + pending;
+        for (long s = from; s < to; s++) {
+            stats.apply(ring[(int) s & RING_MASK]);
+        }
+        if (failure == null) {
+            try {
+                write(from, to);
+            } catch (IOException e) {
+                failure = e; // Weitere Datensätze zählen nur noch im Speicher
+            }
+        }
+        published = new Published(stats.copy(), to);
+        tail = to; // Erst jetzt darf der Erzeuger die Plätze wiederverwenden
+    }
+
+    private void write(long from, long to) throws IOException {
+        int records = (int) (to - from);
+        if (count + records > capacity) {
+            mapFile(count + records);
+        }
+        for (long s = from; s < to; s++) {
+            PracticeLog.putRecord(map, count++, ring[(int) s & RING_MASK]);
+        }
+        // Anzahl erst nach den Datensätzen: ein Abbruch dazwischen verliert nur diesen Block
+        map.putInt(PracticeLog.COUNT_OFFSET, count);
+        map.force();
+        persistedRecords = count;
+        writeCheckpoint();
+    }
+
+    private PracticeStats loadCheckpoint() {
+        File checkpoint = new File(directory, CHECKPOINT_FILE);
+        if (!checkpoint.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpoint)))) {
+            return PracticeStats.readFrom(in);
+        } catch (IOException e) {
+            return null; // Statistik wird aus dem Protokoll neu aufgebaut
+        }
+    }
+
+    /**
+     * Schreibt den Prüfpunkt über eine temporäre Datei, damit immer ein vollständiger liegt.
+     */
+    private void writeCheckpoint() throws IOException {
+        File temporary = new File(directory, CHECKPOINT_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            stats.writeTo(out);
+        }
+        if (!temporary.renameTo(new File(directory, CHECKPOINT_FILE))) {
+            throw new IOException("Prüfpunkt nicht umbenennbar: " + temporary);
+        }
+    }
+
+    private void closeFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Datensätze, die sicher in der Datei stehen.
+     */
+    public int getPersistedRecordCount() {
+        return persistedRecords;
+    }
+
+    public long getDroppedRecordCount() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * Erster Fehler beim Laden oder Schreiben, null wenn keiner.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,150 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Zusammenfassung des Übungsprotokolls je Tonart (Position oben): Anzahl je Art, zuletzt
+ * gespielt. Wird fortlaufend nachgeführt – apply() für jeden neuen Datensatz, catchUp() für
+ * den Rest der Datei ab dem zuletzt verarbeiteten –, so kostet das Öffnen der Statistik auch
+ * nach Jahren nichts. Der Stand samt Position im Protokoll lässt sich als Prüfpunkt speichern.
+ * Nicht threadsicher; für andere Threads eine Kopie weitergeben.
+ */
+public final class PracticeStats {
+
+    public static final int POSITIONS = 19;
+
+    private static final int CHECKPOINT_MAGIC = 0x43445053; // "CDPS"
+    private static final short CHECKPOINT_VERSION = 1;
+
+    private int records = 0;
+    private long firstSeconds = 0; // 0 = noch nichts gespielt
+    private final int[] counts = new int[POSITIONS * PracticeLog.KINDS];
+    private final long[] lastSeconds = new long[POSITIONS];
+
+    /**
+     * Nimmt den nächsten Datensatz des Protokolls auf; unbekannte Werte (beschädigte Datei)
+     * zählen nur als verarbeitet.
+     */
+    public void apply(long record) {
+        records++;
+        int key = PracticeLog.key(record);
+        int kind = PracticeLog.kind(record);
+        if (key >= POSITIONS || kind >= PracticeLog.KINDS) {
+            return;
+        }
+        long seconds = PracticeLog.seconds(record);
+        counts[key * PracticeLog.KINDS + kind]++;
+        if (seconds > lastSeconds[key]) {
+            lastSeconds[key] = seconds;
+        }
+        if (firstSeconds == 0 || seconds < firstSeconds) {
+            firstSeconds = seconds;
+        }
+    }
+
+    /**
+     * Verarbeitet die Datensätze von getRecordCount() bis count aus dem Puffer der ganzen Datei.
+     */
+    public void catchUp(ByteBuffer log, int count) {
+        for (int index = records; index < count; index++) {
+            apply(PracticeLog.record(log, index));
+        }
+    }
+
+    public PracticeStats copy() {
+        PracticeStats copy = new PracticeStats();
+        copy.records = records;
+        copy.firstSeconds = firstSeconds;
+        System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+        System.arraycopy(lastSeconds, 0, copy.lastSeconds, 0, lastSeconds.length);
+        return copy;
+    }
+
+    /**
+     * Anzahl der verarbeiteten Datensätze = Position im Protokoll.
+     */
+    public int getRecordCount() {
+        return records;
+    }
+
+    public int count(int key, int kind) {
+        return counts[key * PracticeLog.KINDS + kind];
+    }
+
+    public int chordCount(int key) {
+        return count(key, PracticeLog.CHORD_MAJOR) + count(key, PracticeLog.CHORD_MINOR);
+    }
+
+    public int scaleCount(int key) {
+        return count(key, PracticeLog.SCALE_MAJOR) + count(key, PracticeLog.SCALE_NATURAL_MINOR)
+            + count(key, PracticeLog.SCALE_HARMONIC_MINOR);
+    }
+
+    public int total(int key) {
+        return chordCount(key) + scaleCount(key);
+    }
+
+    public int total() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Zuletzt in der Tonart gespielt (Sekunden seit 1970), 0 = nie.
+     */
+    public long lastSeconds(int key) {
+        return lastSeconds[key];
+    }
+
+    /**
+     * Erster Datensatz überhaupt (Sekunden seit 1970), 0 = noch keiner.
+     */
+    public long firstSeconds() {
+        return firstSeconds;
+    }
+
+    /**
+     * Speichert den Stand als Prüfpunkt.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeShort(CHECKPOINT_VERSION);
+        out.writeInt(records);
+        out.writeLong(firstSeconds);
+        for (int count : counts) {
+            out.writeInt(count);
+        }
+        for (long seconds : lastSeconds) {
+            out.writeLong(seconds);
+        }
+    }
+
+    /**
+     * Liest einen mit writeTo gespeicherten Prüfpunkt.
+     * @throws IOException wenn die Daten kein gültiger Prüfpunkt sind
+     */
+    public static PracticeStats readFrom(DataInput in) throws IOException {
+        if (in.readInt() != CHECKPOINT_MAGIC || in.readShort() != CHECKPOINT_VERSION) {
+            throw new IOException("Kein Prüfpunkt der Übungsstatistik");
+        }
+        PracticeStats stats = new PracticeStats();
+        stats.records = in.readInt();
+        stats.firstSeconds = in.readLong();
+        for (int i = 0; i < stats.counts.length; i++) {
+            stats.counts[i] = in.readInt();
+        }
+        for (int i = 0; i < stats.lastSeconds.length; i++) {
+            stats.lastSeconds[i] = in.readLong();
+        }
+        if (stats.records < 0) {
+            throw new IOException("Ungültiger Prüfpunkt");
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,113 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Endlose Übungsfolge als Cursor: next() rückt zur nächsten Phrase vor, ohne Listen anzulegen.
+ * Stufen werden auf den 19 Positionen der Scheibe gerechnet (Quarte = 8, Quinte = 11,
+ * große Sekunde = 3 Positionen), damit die Schreibweise zur Tonart passt (z.B. Fis-Dur → Cis).
+ */
+public final class Progression {
+
+    public enum Kind {
+        CIRCLE_OF_FIFTHS,   // Tonika-Akkorde aller 12 Tonarten in Quinten, ab der aktuellen Tonart
+        I_IV_V_I,           // Kadenz in der aktuellen Tonart (Moll: i–iv–V–i)
+        II_V_I,             // ii–V–I in der aktuellen Tonart (Moll: ii°–V–i)
+        ALL_SCALES          // Dur, natürliches und harmonisches Moll auf allen 12 Grundtönen
+    }
+
+    private static final int[] CADENCE_STEPS = {0, 8, 11, 0};
+    private static final PhraseType[] CADENCE_MAJOR =
+        {PhraseType.MAJOR_CHORD, PhraseType.MAJOR_CHORD, PhraseType.MAJOR_CHORD, PhraseType.MAJOR_CHORD};
+    private static final PhraseType[] CADENCE_MINOR =
+        {PhraseType.MINOR_CHORD, PhraseType.MINOR_CHORD, PhraseType.MAJOR_CHORD, PhraseType.MINOR_CHORD};
+
+    private static final int[] TWO_FIVE_ONE_STEPS = {3, 11, 0};
+    private static final PhraseType[] TWO_FIVE_ONE_MAJOR =
+        {PhraseType.MINOR_CHORD, PhraseType.MAJOR_CHORD, PhraseType.MAJOR_CHORD};
+    private static final PhraseType[] TWO_FIVE_ONE_MINOR =
+        {PhraseType.DIMINISHED_CHORD, PhraseType.MAJOR_CHORD, PhraseType.MINOR_CHORD};
+
+    private static final PhraseType[] SCALES =
+        {PhraseType.MAJOR_SCALE, PhraseType.NATURAL_MINOR_SCALE, PhraseType.HARMONIC_MINOR_SCALE};
+
+    private final Kind kind;
+    private final int tonic;
+    private final boolean minor;
+    private long index = -1;
+    private int root;
+    private PhraseType type;
+
+    /**
+     * @param tonic Position der Tonika auf der Scheibe (0-18)
+     * @param minor true, wenn die aktuelle Tonart Moll ist
+     */
+    public Progression(Kind kind, int tonic, boolean minor) {
+        this.kind = kind;
+        this.tonic = tonic;
+        this.minor = minor;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Rückt zur nächsten Phrase vor (die Folge wiederholt sich endlos).
+     */
+    public void next() {
+        index++;
+        switch (kind) {
+            case CIRCLE_OF_FIFTHS: {
+                int pitchClass = (DiscPositions.pitchClass(tonic) + 7 * (int) (index % 12)) % 12;
+                root = DiscPositions.keyPosition(pitchClass, !minor);
+                type = minor ? PhraseType.MINOR_CHORD : PhraseType.MAJOR_CHORD;
+                break;
+            }
+            case I_IV_V_I: {
+                int step = (int) (index % CADENCE_STEPS.length);
+                root = (tonic + CADENCE_STEPS[step]) % 19;
+                type = (minor ? CADENCE_MINOR : CADENCE_MAJOR)[step];
+                break;
+            }
+            case II_V_I: {
+                int step = (int) (index % TWO_FIVE_ONE_STEPS.length);
+                root = (tonic + TWO_FIVE_ONE_STEPS[step]) % 19;
+                type = (minor ? TWO_FIVE_ONE_MINOR : TWO_FIVE_ONE_MAJOR)[step];
+                break;
+            }
+            case ALL_SCALES:
+            default: {
+                long tonicStep = index / SCALES.length % 12;
+                int pitchClass = (DiscPositions.pitchClass(tonic) + 7 * (int) tonicStep) % 12;
+                type = SCALES[(int) (index % SCALES.length)];
+                root = DiscPositions.keyPosition(pitchClass, type == PhraseType.MAJOR_SCALE);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Nummer der aktuellen Phrase ab 0 (-1 vor dem ersten next()).
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Grundton der aktuellen Phrase als Position auf der Scheibe (0-18).
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    public PhraseType getType() {
+        return type;
+    }
+
+    /**
+     * Tonika der Tonart, in der die aktuelle Phrase steht (Bezug der reinen Stimmung):
+     * bei Kadenzen die Tonika der Folge, bei Quintenzirkel und Tonleitern der Grundton der Phrase.
+     */
+    public int getKey() {
+        return kind == Kind.I_IV_V_I || kind == Kind.II_V_I ? tonic : root;
+    }
+}
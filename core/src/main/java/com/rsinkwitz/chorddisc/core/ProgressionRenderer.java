@@ -0,0 +1,169 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Rendert eine Übungsfolge lückenlos in beliebig große Blöcke (16-Bit-Mono oder -Stereo).
+ * Die Notengrenzen werden aus der aufsummierten idealen Position berechnet, nicht aus
+ * gerundeten Einzeldauern: Auch nach Stunden und Tempowechseln liegt jeder Notenanfang
+ * weniger als ein Sample neben dem exakten Zeitpunkt. render() erzeugt keine Objekte;
+ * Tempo und Stimmung dürfen von anderen Threads geändert werden und gelten ab der nächsten Note.
+ * In Stereo steht jede Note nach ihrer Lage zum Grundton der Phrase im Panorama (siehe
+ * StereoPan); die Scheibe dreht sich mit, der Grundton steht also oben.
+ */
+public final class ProgressionRenderer {
+
+    public static final double MIN_BPM = 30;
+    public static final double MAX_BPM = 300;
+
+    /**
+     * Wird auf dem Render-Thread aufgerufen, wenn eine neue Phrase beginnt.
+     */
+    public interface Listener {
+        /**
+         * @param frame Frame-Nummer (ab 0), ab der die Phrase erklingt
+         */
+        void onPhraseStart(long frame, int root, PhraseType type);
+    }
+
+    private final Progression progression;
+    private final int sampleRate;
+    private Listener listener;
+    private volatile PitchTable[] keyTables;  // Index = Tonhöhenklasse der Tonika
+    private volatile double bpm;
+
+    private long frame = 0;
+    private double idealNoteEnd = 0;  // Ideale Endposition der aktuellen Note in Frames
+    private int noteInPhrase = -1;
+    private int noteSamples = 0;
+    private int notePosition = 0;
+    private double phaseIncrement = 0;
+    private int leftGain = StereoPan.GAIN_ONE;
+    private int rightGain = StereoPan.GAIN_ONE;
+    private long noteCount = 0;
+
+    public ProgressionRenderer(Progression progression, PitchTable pitchTable, double bpm, Listener listener) {
+        this.progression = progression;
+        this.keyTables = keyTables(pitchTable);
+        this.sampleRate = pitchTable.getSampleRate();
+        this.listener = listener;
+        setTempo(bpm);
+    }
+
+    /**
+     * Setzt den Listener (vor dem ersten render(), z.B. wenn er erst auf dem Render-Thread entsteht).
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Tempo in Vierteln pro Minute; 120 entspricht den Notendauern der Einzelwiedergabe.
+     */
+    public void setTempo(double bpm) {
+        this.bpm = Math.max(MIN_BPM, Math.min(MAX_BPM, bpm));
+    }
+
+    public double getTempo() {
+        return bpm;
+    }
+
+    /**
+     * Neue Stimmung (Abtastrate muss gleich bleiben).
+     */
+    public void setPitchTable(PitchTable table) {
+        if (table.getSampleRate() == sampleRate) {
+            keyTables = keyTables(table);
+        }
+    }
+
+    // Tabellen für alle zwölf Tonarten vorab, damit ein Tonartwechsel in render() nur ein Index ist
+    private static PitchTable[] keyTables(PitchTable table) {
+        PitchTable[] tables = new PitchTable[12];
+        for (int pitchClass = 0; pitchClass < 12; pitchClass++) {
+            tables[pitchClass] = table.withTonic(DiscPositions.keyPosition(pitchClass, true));
+        }
+        return tables;
+    }
+
+    /**
+     * Füllt length Samples ab offset; die Folge endet nie.
+     */
+    public void render(short[] out, int offset, int length) {
+        render(out, offset, length, false);
+    }
+
+    /**
+     * Füllt frames Stereo-Frames (links, rechts verschränkt, also 2 * frames Samples) ab offset.
+     */
+    public void renderStereo(short[] out, int offset, int frames) {
+        render(out, offset, frames, true);
+    }
+
+    private void render(short[] out, int offset, int frames, boolean stereo) {
+        int o = offset;
+        for (int f = 0; f < frames; f++) {
+            if (notePosition == noteSamples) {
+                startNextNote(frame + f);
+            }
+            double sample = phaseIncrement == 0 ? 0
+                : SineTone.sample(phaseIncrement, notePosition, noteSamples, sampleRate);
+            int value = (short) (sample * Short.MAX_VALUE);
+            if (stereo) {
+                out[o++] = (short) ((value * leftGain) >> 15);
+                out[o++] = (short) ((value * rightGain) >> 15);
+            } else {
+                out[o++] = (short) value;
+            }
+            notePosition++;
+        }
+        frame += frames;
+    }
+
+    private void startNextNote(long start) {
+        PhraseType type = progression.getType();
+        if (type == null || ++noteInPhrase == type.noteCount()) {
+            progression.next();
+            type = progression.getType();
+            noteInPhrase = 0;
+            if (listener != null) {
+                listener.onPhraseStart(start, progression.getRoot(), type);
+            }
+        }
+
+        // Achtel bei bpm Vierteln pro Minute = 30 / bpm Sekunden
+        idealNoteEnd += type.eighths(noteInPhrase) * 30.0 * sampleRate / bpm;
+        noteSamples = (int) Math.max(1, Math.round(idealNoteEnd) - start);
+        notePosition = 0;
+        PitchTable pitchTable = keyTables[DiscPositions.pitchClass(progression.getKey())];
+        phaseIncrement = pitchTable.phaseIncrement(progression.getRoot(), type.interval(noteInPhrase),
+            PitchTable.MIDDLE_OCTAVE);
+        int pan = StereoPan.offset(progression.getRoot(), type.interval(noteInPhrase), progression.getRoot());
+        leftGain = StereoPan.left(pan);
+        rightGain = StereoPan.right(pan);
+        noteCount++;
+    }
+
+    /**
+     * Bisher gerenderte Frames.
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * Exakte (ungerundete) Endposition der aktuellen Note in Frames, zum Nachprüfen der Drift.
+     */
+    public double getIdealNoteEnd() {
+        return idealNoteEnd;
+    }
+
+    /**
+     * Frame, an dem die aktuelle Note endet (gerundete Grenze).
+     */
+    public long getNoteEndFrame() {
+        return frame + noteSamples - notePosition;
+    }
+
+    public long getNoteCount() {
+        return noteCount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Klangformel aller Noten: Sinus mit linearem Fade-out am Ende. Gemeinsam für
+ * Einzelwiedergabe, Übungsfolgen und WAV-Export, damit alle Wege gleich klingen.
+ */
+public final class SineTone {
+
+    public static final double AMPLITUDE = 0.6;
+    public static final int FADE_OUT_MS = 100;
+
+    private SineTone() {
+    }
+
+    /**
+     * Sample i einer Note mit numSamples Samples.
+     * @param phaseIncrement Radiant pro Sample aus der PitchTable
+     * @return Wert im Bereich -AMPLITUDE..AMPLITUDE
+     */
+    public static double sample(double phaseIncrement, int i, int numSamples, int sampleRate) {
+        double sample = Math.sin(phaseIncrement * i);
+
+        double envelope = 1.0;
+        int fadeStartSample = numSamples - (sampleRate * FADE_OUT_MS / 1000);
+        if (i > fadeStartSample) {
+            envelope = 1.0 - ((double) (i - fadeStartSample) / (numSamples - fadeStartSample));
+        }
+        return sample * AMPLITUDE * envelope;
+    }
+
+    /**
+     * Anzahl der Samples einer Note (abgerundet wie bei der Einzelwiedergabe).
+     */
+    public static int sampleCount(int durationMs, int sampleRate) {
+        return (sampleRate * durationMs) / 1000;
+    }
+
+    /**
+     * Schreibt die Samples from … from+count-1 einer Note als 16-Bit-Werte nach out ab offset.
+     * Eine Note lässt sich so in einem Stück oder blockweise erzeugen, mit identischem Ergebnis.
+     */
+    public static void render(double phaseIncrement, int from, int count, int numSamples, int sampleRate,
+                              short[] out, int offset) {
+        for (int i = 0; i < count; i++) {
+            out[offset + i] = (short) (sample(phaseIncrement, from + i, numSamples, sampleRate) * Short.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Stereo-Panorama nach der Lage einer Note auf der Scheibe: Die Position oben steht in der
+ * Mitte, im Uhrzeigersinn wandert der Ton nach rechts, unten wieder zur Mitte und links
+ * zurück nach oben – eine Tonleiter läuft hörbar einmal um den Kreis. Die Verstärkungen
+ * (Constant Power: links² + rechts² = 1) stehen für alle 19 Abstände zur Mitte vorab als
+ * 16-Bit-Festkomma in Tabellen; beim Rendern gibt es keine Winkelfunktion pro Sample.
+ */
+public final class StereoPan {
+
+    public static final int POSITIONS = 19;
+    public static final int GAIN_ONE = 1 << 15; // Verstärkung 1.0 im Festkomma
+
+    // Halbton-Intervall → Positionen im Uhrzeigersinn (wie die Hervorhebung der Scheibe)
+    private static final int[] INTERVAL_OFFSETS = {0, 2, 3, 5, 6, 8, 9, 11, 13, 14, 16, 17};
+
+    private static final int[] LEFT = new int[POSITIONS];
+    private static final int[] RIGHT = new int[POSITIONS];
+
+    static {
+        for (int offset = 0; offset < POSITIONS; offset++) {
+            double pan = Math.sin(2 * Math.PI * offset / POSITIONS); // -1 links … 1 rechts
+            double angle = (pan + 1) * Math.PI / 4;
+            LEFT[offset] = (int) Math.round(Math.cos(angle) * GAIN_ONE);
+            RIGHT[offset] = (int) Math.round(Math.sin(angle) * GAIN_ONE);
+        }
+    }
+
+    private StereoPan() {
+    }
+
+    /**
+     * Abstand (0-18) der Note root + interval von der Position center im Uhrzeigersinn.
+     * @param center Position, die oben auf der Scheibe steht (Mitte des Stereobilds)
+     */
+    public static int offset(int root, int interval, int center) {
+        int degree = interval % 12;
+        if (degree < 0) {
+            degree += 12; // Ohne Math.floorMod (API 21)
+        }
+        return ((root + INTERVAL_OFFSETS[degree] - center) % POSITIONS + POSITIONS) % POSITIONS;
+    }
+
+    /**
+     * Verstärkung links (0 … GAIN_ONE) für den Abstand offset (0-18).
+     */
+    public static int left(int offset) {
+        return LEFT[offset];
+    }
+
+    /**
+     * Verstärkung rechts (0 … GAIN_ONE) für den Abstand offset (0-18).
+     */
+    public static int right(int offset) {
+        return RIGHT[offset];
+    }
+
+    /**
+     * Verteilt frames Mono-Samples ab from auf ein Stereo-Paar (links, rechts verschränkt)
+     * nach out ab outOffset; die Verstärkung gilt für den ganzen Block.
+     */
+    public static void interleave(short[] mono, int from, int frames, int offset, short[] out, int outOffset) {
+        int left = LEFT[offset];
+        int right = RIGHT[offset];
+        int o = outOffset;
+        for (int i = from; i < from + frames; i++) {
+            int sample = mono[i];
+            out[o++] = (short) ((sample * left) >> 15);
+            out[o++] = (short) ((sample * right) >> 15);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Erzeugt die Bastelvorlage der Scheibe als SVG (Nachfolger von old-source/CircleCreate2.java):
+ * untere Scheibe oben auf der Seite, obere Scheibe mit Löchern darunter.
+ * Größe, Notation, Tonleiter-Typ und Loch-Satz sind Parameter; die Ausgabe geht
+ * ohne printf über SvgNumberWriter direkt in einen Writer/Appendable.
+ * Eine Instanz ist unveränderlich und kann von mehreren Threads benutzt werden.
+ */
+public final class SvgDiscGenerator {
+
+    // Maße der Originalvorlage (Radius 214), werden mit dem Radius skaliert
+    private static final double REFERENCE_RADIUS = 214;
+    private static final double REFERENCE_CENTER_X = 389.7;
+    private static final double REFERENCE_CENTER_Y = 326.5;
+    private static final double REFERENCE_CENTER_Y2 = 793.5;
+    private static final double REFERENCE_INNER_RADIUS = 10;
+    private static final double REFERENCE_FONT_SIZE = 30;
+    private static final double REFERENCE_NOTE_TEXT_Y = 10;
+    private static final double REFERENCE_SHARP_FLAT_TEXT_Y = 60;
+    private static final double REFERENCE_STROKE = 2;
+    private static final double REFERENCE_MARKER_STROKE = 8;
+
+    public static final double DEFAULT_RADIUS = REFERENCE_RADIUS;
+    private static final int DECIMALS = 3;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final double outerRadius;
+    private final boolean germanNotation;
+    private final DiscScale scale;
+    private final boolean[] holes;
+
+    public SvgDiscGenerator(double outerRadius, boolean germanNotation, DiscScale scale) {
+        this(outerRadius, germanNotation, scale, scale.holeMask());
+    }
+
+    /**
+     * @param holes eigener Loch-Satz (19 Einträge), z.B. für Modi oder Übungsvorlagen
+     */
+    public SvgDiscGenerator(double outerRadius, boolean germanNotation, DiscScale scale, boolean[] holes) {
+        if (!(outerRadius > 0)) {
+            throw new IllegalArgumentException("outerRadius: " + outerRadius);
+        }
+        if (holes.length != DiscProportions.POSITION_COUNT) {
+            throw new IllegalArgumentException("holes: " + holes.length + " statt "
+                + DiscProportions.POSITION_COUNT + " Einträge");
+        }
+        this.outerRadius = outerRadius;
+        this.germanNotation = germanNotation;
+        this.scale = scale;
+        this.holes = holes.clone();
+    }
+
+    /**
+     * Dateiname der Variante, z.B. "tonleitern-de-major.svg".
+     */
+    public String fileName() {
+        return "tonleitern-" + (germanNotation ? "de" : "en") + "-"
+            + scale.name().toLowerCase(Locale.US) + ".svg";
+    }
+
+    public void writeTo(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF_8))) {
+            generate(writer);
+        }
+    }
+
+    public void generate(Appendable target) throws IOException {
+        SvgNumberWriter out = new SvgNumberWriter(target, DECIMALS);
+        double k = outerRadius / REFERENCE_RADIUS;
+        double centerX = REFERENCE_CENTER_X * k;
+        double centerY = REFERENCE_CENTER_Y * k;
+        double centerY2 = REFERENCE_CENTER_Y2 * k;
+        double width = 2 * centerX;
+        double height = centerY2 + centerY;
+
+        out.text("<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n");
+        out.text("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" width=\"").number(width)
+            .text("\" height=\"").number(height)
+            .text("\" viewBox=\"0 0 ").number(width).text(" ").number(height).text("\">\n");
+        out.text("   <g font-size=\"").number(REFERENCE_FONT_SIZE * k)
+            .text("\" font-family=\"sans-serif\" fill=\"black\" stroke=\"none\" text-anchor=\"middle\">\n");
+
+        writeBottomDisc(out, k, centerX, centerY);
+        writeTopDisc(out, k, centerX, centerY2);
+
+        out.text("   </g>\n");
+        out.text("</svg>\n");
+        out.flush();
+    }
+
+    /**
+     * Untere Scheibe (oben auf der Seite): alle 19 Noten mit Vorzeichen der Dur-Tonart.
+     */
+    private void writeBottomDisc(SvgNumberWriter out, double k, double centerX, double centerY)
+            throws IOException {
+        double innerRadius = REFERENCE_INNER_RADIUS * k;
+        double stroke = REFERENCE_STROKE * k;
+
+        openGroup(out, centerX, centerY);
+        circle(out, "   ", outerRadius, "black", stroke);
+        circle(out, "   ", innerRadius, "black", stroke);
+        cross(out, innerRadius, stroke);
+        for (int i = 0; i < DiscProportions.POSITION_COUNT; i++) {
+            openPosition(out, i);
+            circle(out, "      ", outerRadius * DiscProportions.NOTE_CIRCLE_RADIUS, "black", stroke);
+            out.text("      <text y=\"").number(REFERENCE_NOTE_TEXT_Y * k).text("\">")
+                .escaped(DiscPositions.note(i, germanNotation)).text("</text>\n");
+            String sharpFlat = DiscPositions.sharpFlat(i);
+            if (!sharpFlat.isEmpty()) {
+                out.text("      <text y=\"").number(REFERENCE_SHARP_FLAT_TEXT_Y * k).text("\">")
+                    .escaped(sharpFlat).text("</text>\n");
+            }
+            out.text("   </g>\n");
+        }
+        out.text("</g>\n");
+    }
+
+    /**
+     * Obere Scheibe (unten auf der Seite): Löcher mit Dur-/Moll-Markierung und Indikator-Fenster.
+     */
+    private void writeTopDisc(SvgNumberWriter out, double k, double centerX, double centerY)
+            throws IOException {
+        double innerRadius = REFERENCE_INNER_RADIUS * k;
+        double stroke = REFERENCE_STROKE * k;
+        double markerRadius = outerRadius * DiscProportions.MARKER_CIRCLE_RADIUS;
+
+        openGroup(out, centerX, centerY);
+        circle(out, "   ", outerRadius, "black", stroke);
+        circle(out, "   ", innerRadius, "black", stroke);
+        cross(out, innerRadius, stroke);
+        for (int i = 0; i < DiscProportions.POSITION_COUNT; i++) {
+            if (!holes[i]) {
+                continue;
+            }
+            openPosition(out, i);
+            if (i == DiscProportions.MAJOR_POSITION) {
+                circle(out, "      ", markerRadius, "blue", REFERENCE_MARKER_STROKE * k);
+            }
+            if (i == DiscProportions.MINOR_POSITION) {
+                circle(out, "      ", markerRadius, "red", REFERENCE_MARKER_STROKE * k);
+            }
+            circle(out, "      ", outerRadius * DiscProportions.NOTE_CIRCLE_RADIUS, "black", stroke);
+            cross(out, innerRadius, stroke);
+            out.text("   </g>\n");
+        }
+
+        double size = outerRadius * DiscProportions.INDICATOR_SIZE;
+        out.text("   <rect x=\"").number(-size / 2)
+            .text("\" y=\"").number(-outerRadius * DiscProportions.INDICATOR_POSITION_RADIUS - size / 2)
+            .text("\" width=\"").number(size).text("\" height=\"").number(size)
+            .text("\" stroke=\"black\" stroke-width=\"").number(stroke).text("\" fill=\"white\"/>\n");
+        out.text("</g>\n");
+    }
+
+    private static void openGroup(SvgNumberWriter out, double x, double y) throws IOException {
+        out.text("<g transform=\"translate(").number(x).text(" ").number(y).text(")\">\n");
+    }
+
+    private void openPosition(SvgNumberWriter out, int position) throws IOException {
+        out.text("   <g transform=\"rotate(").number(360d / DiscProportions.POSITION_COUNT * position)
+            .text(") translate(0 ").number(-outerRadius * DiscProportions.NOTE_POSITION_RADIUS).text(")\">\n");
+    }
+
+    private static void circle(SvgNumberWriter out, String indent, double radius, String color, double stroke)
+            throws IOException {
+        out.text(indent).text("<circle r=\"").number(radius).text("\" stroke=\"").text(color)
+            .text("\" stroke-width=\"").number(stroke).text("\" fill=\"white\"/>\n");
+    }
+
+    private static void cross(SvgNumberWriter out, double size, double stroke) throws IOException {
+        double half = size / 2;
+        out.text("   <line x1=\"0\" y1=\"").number(-half).text("\" x2=\"0\" y2=\"").number(half)
+            .text("\" stroke=\"black\" stroke-width=\"").number(stroke).text("\"/>\n");
+        out.text("   <line x1=\"").number(-half).text("\" y1=\"0\" x2=\"").number(half)
+            .text("\" y2=\"0\" stroke=\"black\" stroke-width=\"").number(stroke).text("\"/>\n");
+    }
+
+    /**
+     * Alle Varianten für einen Radius: beide Notationen × alle Tonleiter-Typen.
+     */
+    public static List<SvgDiscGenerator> allVariants(double outerRadius) {
+        List<SvgDiscGenerator> variants = new ArrayList<>();
+        for (boolean german : new boolean[] {true, false}) {
+            for (DiscScale scale : DiscScale.values()) {
+                variants.add(new SvgDiscGenerator(outerRadius, german, scale));
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Schreibt die Varianten parallel auf dem ForkJoin-Pool in das Verzeichnis.
+     * @return geschriebene Dateien in der Reihenfolge der Varianten
+     */
+    public static List<File> writeAll(List<SvgDiscGenerator> variants, File directory, ForkJoinPool pool)
+            throws IOException, InterruptedException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Verzeichnis nicht anlegbar: " + directory);
+        }
+
+        List<Callable<File>> tasks = new ArrayList<>();
+        for (SvgDiscGenerator variant : variants) {
+            final File file = new File(directory, variant.fileName());
+            tasks.add(() -> {
+                variant.writeTo(file);
+                return file;
+            });
+        }
+
+        List<File> files = new ArrayList<>();
+        for (Future<File> result : pool.invokeAll(tasks)) {
+            try {
+                files.add(result.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+        return files;
+    }
+}
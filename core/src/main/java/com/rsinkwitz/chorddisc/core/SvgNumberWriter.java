@@ -0,0 +1,141 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Gepufferte Ausgabe für SVG-Text mit eigener Zahlenformatierung.
+ * Ersetzt printf/String.format: Zahlen werden ohne Zwischen-Strings direkt in den
+ * Zeichenpuffer geschrieben (feste Nachkommastellen, abschließende Nullen entfernt).
+ * Nicht thread-sicher; jeder Thread braucht eine eigene Instanz.
+ */
+public final class SvgNumberWriter {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // Darüber reicht long für den skalierten Wert nicht sicher aus
+    private static final double MAX_FIXED = 1e12;
+
+    private final Appendable out;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] digits = new char[20];
+    private final int decimals;
+    private final long scale;
+    private int length = 0;
+
+    /**
+     * @param decimals maximale Nachkommastellen (0 bis 6)
+     */
+    public SvgNumberWriter(Appendable out, int decimals) {
+        if (decimals < 0 || decimals > 6) {
+            throw new IllegalArgumentException("decimals: " + decimals);
+        }
+        this.out = out;
+        this.decimals = decimals;
+        long s = 1;
+        for (int i = 0; i < decimals; i++) {
+            s *= 10;
+        }
+        this.scale = s;
+    }
+
+    public SvgNumberWriter text(String text) throws IOException {
+        int count = text.length();
+        if (count > BUFFER_SIZE - length) {
+            flush();
+            if (count > BUFFER_SIZE) {
+                out.append(text);
+                return this;
+            }
+        }
+        text.getChars(0, count, buffer, length);
+        length += count;
+        return this;
+    }
+
+    /**
+     * Schreibt Text mit maskierten XML-Sonderzeichen (für Inhalte von text-Elementen).
+     */
+    public SvgNumberWriter escaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': text("&amp;"); break;
+                case '<': text("&lt;"); break;
+                case '>': text("&gt;"); break;
+                case '"': text("&quot;"); break;
+                default: put(c);
+            }
+        }
+        return this;
+    }
+
+    public SvgNumberWriter number(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Keine endliche Zahl: " + value);
+        }
+        if (Math.abs(value) >= MAX_FIXED) {
+            return text(Double.toString(value));
+        }
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (scaled == 0) {
+            return put('0');
+        }
+        if (value < 0) {
+            put('-');
+        }
+        putLong(scaled / scale);
+
+        long fraction = scaled % scale;
+        if (fraction != 0) {
+            int places = decimals;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                places--;
+            }
+            put('.');
+            int count = 0;
+            for (int i = 0; i < places; i++) {
+                digits[count++] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            while (count > 0) {
+                put(digits[--count]);
+            }
+        }
+        return this;
+    }
+
+    public void flush() throws IOException {
+        if (length == 0) {
+            return;
+        }
+        if (out instanceof Writer) {
+            ((Writer) out).write(buffer, 0, length);
+        } else if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(buffer, 0, length);
+        } else {
+            out.append(CharBuffer.wrap(buffer, 0, length));
+        }
+        length = 0;
+    }
+
+    private SvgNumberWriter put(char c) throws IOException {
+        if (length == BUFFER_SIZE) {
+            flush();
+        }
+        buffer[length++] = c;
+        return this;
+    }
+
+    private void putLong(long value) throws IOException {
+        int count = 0;
+        do {
+            digits[count++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            put(digits[--count]);
+        }
+    }
+}
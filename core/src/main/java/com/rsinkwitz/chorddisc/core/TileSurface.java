@@ -0,0 +1,22 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Zeichenfläche für eine Kachel mit fester Pixelgröße. Wird für jede Kachel wiederverwendet.
+ */
+public interface TileSurface extends VectorSurface {
+
+    int getTileWidth();
+
+    int getTileHeight();
+
+    /**
+     * Leert die Kachel und setzt die Transformation: Poster-Einheiten → Kachel-Pixel,
+     * verschoben um die linke obere Ecke der Kachel im Gesamtbild.
+     */
+    void begin(float pixelsPerUnit, int tileLeft, int tileTop);
+
+    /**
+     * Liest die Kachel zeilenweise als ARGB (Länge mindestens Breite × Höhe).
+     */
+    void readPixels(int[] argb);
+}
@@ -0,0 +1,75 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Rendert das Poster in beliebiger Auflösung (z.B. 24000×12000) kachelweise als PNG.
+ * Jede Kachel wird mit eigener Transformation in einen wiederverwendeten Kachelpuffer gezeichnet
+ * und in ein Zeilenband kopiert, das direkt an den PNG-Encoder geht. Der Speicherbedarf ist
+ * damit Kachelpuffer + ein Band (Breite × Kachelhöhe) statt eines Bitmaps in voller Größe.
+ */
+public class TiledPosterRenderer {
+
+    /**
+     * Erzeugt die Kachel-Zeichenfläche (z.B. java.awt auf der JVM).
+     */
+    public interface SurfaceFactory {
+        TileSurface create(int tileWidth, int tileHeight);
+    }
+
+    /**
+     * Fortschritt nach jedem fertigen Band (Aufruf auf dem rendernden Thread).
+     */
+    public interface ProgressListener {
+        void onProgress(int rowsDone, int totalRows);
+    }
+
+    private final SurfaceFactory surfaceFactory;
+    private final int tileSize;
+
+    public TiledPosterRenderer(SurfaceFactory surfaceFactory, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize muss positiv sein");
+        }
+        this.surfaceFactory = surfaceFactory;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Rendert das Poster mit der gegebenen Höhe (Breite = 2 × Höhe) in den Stream.
+     * Der Stream wird geschlossen.
+     */
+    public void render(PosterPainter painter, int height, OutputStream out, ProgressListener listener)
+            throws IOException {
+        int width = Math.round(height * PosterPainter.POSTER_WIDTH / PosterPainter.POSTER_HEIGHT);
+        float pixelsPerUnit = height / PosterPainter.POSTER_HEIGHT;
+
+        TileSurface surface = surfaceFactory.create(tileSize, tileSize);
+        int[] tilePixels = new int[tileSize * tileSize];
+        int[] band = new int[width * tileSize];
+
+        try (PngStreamWriter png = new PngStreamWriter(out, width, height)) {
+            for (int bandTop = 0; bandTop < height; bandTop += tileSize) {
+                int bandHeight = Math.min(tileSize, height - bandTop);
+
+                for (int tileLeft = 0; tileLeft < width; tileLeft += tileSize) {
+                    int tileWidth = Math.min(tileSize, width - tileLeft);
+                    surface.begin(pixelsPerUnit, tileLeft, bandTop);
+                    painter.paint(surface);
+                    surface.readPixels(tilePixels);
+                    for (int y = 0; y < bandHeight; y++) {
+                        System.arraycopy(tilePixels, y * tileSize, band, y * width + tileLeft, tileWidth);
+                    }
+                }
+
+                for (int y = 0; y < bandHeight; y++) {
+                    png.writeRow(band, y * width);
+                }
+                if (listener != null) {
+                    listener.onProgress(bandTop + bandHeight, height);
+                }
+            }
+        }
+    }
+}
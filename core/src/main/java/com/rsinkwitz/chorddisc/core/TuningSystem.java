@@ -0,0 +1,10 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Stimmungssysteme der Tonerzeugung (siehe PitchTable).
+ */
+public enum TuningSystem {
+    EQUAL_12,           // Gleichstufig, 12 Töne pro Oktave (Enharmonik fällt zusammen)
+    JUST_INTONATION,    // Reine Stimmung über dem Grundton des Akkords bzw. der Tonleiter
+    EQUAL_19            // Gleichstufig, 19 Töne pro Oktave: genau die 19 Positionen der Scheibe
+}
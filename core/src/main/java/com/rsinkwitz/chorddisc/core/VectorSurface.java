@@ -0,0 +1,32 @@
+package com.rsinkwitz.chorddisc.core;
+
+/**
+ * Minimale Zeichenfläche für die Scheibe (Kreise, Linien, Rechtecke, zentrierter Text)
+ * mit Transformationsstapel. Farben als ARGB-Int, Winkel in Grad.
+ * Implementierungen z.B. für java.awt (JVM) oder android.graphics.Canvas.
+ */
+public interface VectorSurface {
+
+    void save();
+
+    void restore();
+
+    void translate(float dx, float dy);
+
+    void rotate(float degrees);
+
+    void fillCircle(float cx, float cy, float radius, int color);
+
+    void strokeCircle(float cx, float cy, float radius, float strokeWidth, int color);
+
+    void strokeLine(float x1, float y1, float x2, float y2, float strokeWidth, int color);
+
+    void fillRect(float left, float top, float width, float height, int color);
+
+    void strokeRect(float left, float top, float width, float height, float strokeWidth, int color);
+
+    /**
+     * Text horizontal zentriert, y = Grundlinie.
+     */
+    void drawText(String text, float x, float y, float textSize, int color);
+}
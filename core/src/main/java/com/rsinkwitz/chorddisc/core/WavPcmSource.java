@@ -0,0 +1,149 @@
+package com.rsinkwitz.chorddisc.core;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Liest eine PCM-WAV-Datei (16 oder 24 Bit, beliebige Kanalzahl) und mischt sie zu Mono.
+ * Gedacht als reproduzierbare Eingabe für die Tonhöhen-/Tonart-Erkennung ohne Mikrofon.
+ */
+public final class WavPcmSource implements PcmSource {
+
+    private static final int BLOCK_FRAMES = 1024;
+
+    private final InputStream in;
+    private final int sampleRate;
+    private final int channels;
+    private final int bytesPerSample;
+    private final byte[] block;
+    private long remainingBytes;
+
+    public WavPcmSource(File file) throws IOException {
+        this(new FileInputStream(file));
+    }
+
+    public WavPcmSource(InputStream stream) throws IOException {
+        in = new BufferedInputStream(stream, 1 << 16);
+        try {
+            byte[] header = new byte[12];
+            readFully(header, 12);
+            if (!chunkId(header, 0).equals("RIFF") || !chunkId(header, 8).equals("WAVE")) {
+                throw new IOException("Keine WAV-Datei");
+            }
+
+            int format = 0;
+            int rate = 0;
+            int channelCount = 0;
+            int bits = 0;
+            byte[] chunkHeader = new byte[8];
+            while (true) {
+                readFully(chunkHeader, 8);
+                String id = chunkId(chunkHeader, 0);
+                long size = littleEndianInt(chunkHeader, 4) & 0xFFFFFFFFL;
+                if (id.equals("fmt ")) {
+                    byte[] fmt = new byte[(int) size];
+                    readFully(fmt, fmt.length);
+                    format = fmt[0] & 0xFF | (fmt[1] & 0xFF) << 8;
+                    channelCount = fmt[2] & 0xFF | (fmt[3] & 0xFF) << 8;
+                    rate = littleEndianInt(fmt, 4);
+                    bits = fmt[14] & 0xFF | (fmt[15] & 0xFF) << 8;
+                    skip(size & 1);
+                } else if (id.equals("data")) {
+                    remainingBytes = size;
+                    break;
+                } else {
+                    skip(size + (size & 1)); // Chunks sind auf gerade Längen aufgefüllt
+                }
+            }
+
+            // 1 = PCM, 0xFFFE = WAVE_FORMAT_EXTENSIBLE (bei 24 Bit üblich)
+            if ((format != 1 && format != 0xFFFE) || (bits != 16 && bits != 24) || channelCount < 1) {
+                throw new IOException("Nicht unterstütztes Format: " + format + ", " + bits + " Bit, "
+                    + channelCount + " Kanäle");
+            }
+            sampleRate = rate;
+            channels = channelCount;
+            bytesPerSample = bits / 8;
+            block = new byte[BLOCK_FRAMES * channels * bytesPerSample];
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public int read(float[] buffer, int offset, int length) throws IOException {
+        int frameBytes = channels * bytesPerSample;
+        int frames = (int) Math.min(Math.min(length, BLOCK_FRAMES), remainingBytes / frameBytes);
+        if (frames <= 0) {
+            return -1;
+        }
+        readFully(block, frames * frameBytes);
+        remainingBytes -= (long) frames * frameBytes;
+
+        float scale = 1f / (channels * (bytesPerSample == 2 ? 32768f : 8388608f));
+        int position = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int sum = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                if (bytesPerSample == 2) {
+                    sum += (short) (block[position] & 0xFF | block[position + 1] << 8);
+                } else {
+                    sum += (block[position] & 0xFF | (block[position + 1] & 0xFF) << 8
+                        | block[position + 2] << 16);
+                }
+                position += bytesPerSample;
+            }
+            buffer[offset + frame] = sum * scale;
+        }
+        return frames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readFully(byte[] target, int length) throws IOException {
+        int done = 0;
+        while (done < length) {
+            int count = in.read(target, done, length - done);
+            if (count < 0) {
+                throw new EOFException("WAV-Datei unvollständig");
+            }
+            done += count;
+        }
+    }
+
+    private void skip(long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("WAV-Datei unvollständig");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    private static String chunkId(byte[] bytes, int offset) {
+        return new String(bytes, offset, 4, StandardCharsets.US_ASCII);
+    }
+
+    private static int littleEndianInt(byte[] bytes, int offset) {
+        return bytes[offset] & 0xFF | (bytes[offset + 1] & 0xFF) << 8
+            | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
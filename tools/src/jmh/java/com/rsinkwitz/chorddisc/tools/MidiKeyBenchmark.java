@@ -0,0 +1,109 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.MidiKeyEstimator;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dauer der Tonart-Schätzung für eine ca. 10 MB große MIDI-Datei mit 16 Spuren
+ * (inkl. Mappen der Datei). Start: gradlew :tools:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MidiKeyBenchmark {
+
+    private static final int TARGET_BYTES = 10 * 1024 * 1024;
+    private static final int TRACKS = 16;
+    // Harmonisches a-Moll als MIDI-Noten (A3 … G#4)
+    private static final int[] SCALE = {57, 59, 60, 62, 64, 65, 68};
+
+    private final MidiKeyEstimator estimator = new MidiKeyEstimator();
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("chorddisc-benchmark", ".mid");
+        writeSyntheticFile(file, TARGET_BYTES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int analyzeFile() throws IOException {
+        estimator.analyze(file);
+        return estimator.getKeyPosition();
+    }
+
+    /**
+     * Schreibt eine Format-1-Datei mit TRACKS Spuren, Running Status, Note-On mit Anschlag 0
+     * als Note-Off und einer Schlagzeugspur, insgesamt etwa targetBytes groß.
+     */
+    static void writeSyntheticFile(File target, int targetBytes) throws IOException {
+        Random random = new Random(42);
+        int eventsPerTrack = targetBytes / TRACKS / 7; // ca. 7 Bytes pro Note (an + aus)
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+            out.writeInt(0x4D546864);
+            out.writeInt(6);
+            out.writeShort(1);
+            out.writeShort(TRACKS);
+            out.writeShort(480);
+
+            for (int track = 0; track < TRACKS; track++) {
+                int channel = track == TRACKS - 1 ? 9 : track % 9;
+                ByteArrayOutputStream events = new ByteArrayOutputStream(eventsPerTrack * 8);
+                events.write(new byte[]{0, (byte) (0xC0 | channel), (byte) (track * 5)}, 0, 3);
+                events.write(0);
+                events.write(0x90 | channel);
+                boolean first = true;
+                for (int i = 0; i < eventsPerTrack; i++) {
+                    int note = SCALE[random.nextInt(SCALE.length)] + 12 * (random.nextInt(3) - 1);
+                    if (!first) {
+                        events.write(0); // Delta, Running Status
+                    }
+                    first = false;
+                    events.write(note);
+                    events.write(64 + random.nextInt(63));
+                    writeVariableLength(events, 60 + random.nextInt(900));
+                    events.write(note);
+                    events.write(0);
+                }
+                events.write(new byte[]{0, (byte) 0xFF, 0x2F, 0}, 0, 4);
+
+                out.writeInt(0x4D54726B);
+                out.writeInt(events.size());
+                events.writeTo(out);
+            }
+        }
+    }
+
+    private static void writeVariableLength(ByteArrayOutputStream out, int value) {
+        if (value >= 0x80) {
+            out.write(0x80 | (value >> 7));
+        }
+        out.write(value & 0x7F);
+    }
+}
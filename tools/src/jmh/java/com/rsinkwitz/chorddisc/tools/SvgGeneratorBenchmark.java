@@ -0,0 +1,84 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.DiscScale;
+import com.rsinkwitz.chorddisc.core.SvgDiscGenerator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Dokumente pro Sekunde des SVG-Generators (ohne Dateisystem, Ausgabe in einen zählenden Writer).
+ * Start: gradlew :tools:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SvgGeneratorBenchmark {
+
+    private SvgDiscGenerator single;
+    private List<SvgDiscGenerator> variants;
+
+    @Setup
+    public void setUp() {
+        single = new SvgDiscGenerator(SvgDiscGenerator.DEFAULT_RADIUS, true, DiscScale.MAJOR);
+        variants = SvgDiscGenerator.allVariants(SvgDiscGenerator.DEFAULT_RADIUS);
+    }
+
+    @Benchmark
+    public long singleDocument() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        single.generate(writer);
+        return writer.count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void allVariantsParallel(Blackhole blackhole) {
+        ForkJoinPool.commonPool().submit(() -> variants.parallelStream().forEach(variant -> {
+            CountingWriter writer = new CountingWriter();
+            try {
+                variant.generate(writer);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            blackhole.consume(writer.count);
+        })).join();
+    }
+
+    /**
+     * Verwirft die Zeichen und zählt nur mit.
+     */
+    private static final class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.DiscAngle;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Eigenschaftsprüfung des Festkomma-Winkels (DiscAngle), wie ihn ChordDiscView nutzt.
+ *
+ * 1. Alle 65536 Winkel: nächste Position und Versatz stimmen mit der exakten Rechnung in long
+ *    überein, Einrastwinkel bringen ihre Position genau nach oben, die Treffererkennung findet
+ *    dieselbe Note wie die Suche über alle 19 Positionen.
+ * 2. Drehen ohne Drift: Ein Finger kreist zufällig vor und zurück, insgesamt über Millionen
+ *    Umdrehungen. Seine Lage ist in ganzen Ticks (TICKS_PER_TURN je Umdrehung, teilerfremd zu
+ *    2^16) exakt bekannt; die Scheibe wird wie in onTouchEvent nur über Winkeldifferenzen
+ *    gedreht. Nach jeder Geste muss ihr Winkel auf eine Einheit genau der exakten Fingerdrehung
+ *    folgen und die Note oben stimmen. Zum Vergleich läuft das frühere float-Modell mit.
+ *
+ * Exit-Code 1 bei einer Verletzung.
+ * Aufruf: AngleCheck [Umdrehungen] [Seed]
+ */
+public final class AngleCheck {
+
+    private static final long TICKS_PER_TURN = 1_000_003; // Primzahl
+    private static final int EVENTS_PER_GESTURE = 120;
+    private static final int POSITIONS = DiscAngle.POSITIONS;
+
+    private AngleCheck() {
+    }
+
+    public static void main(String[] args) {
+        long turns = args.length >= 1 ? Long.parseLong(args[0]) : 2_000_000;
+        long seed = args.length >= 2 ? Long.parseLong(args[1]) : 19;
+
+        long start = System.nanoTime();
+        int failures = checkAllAngles();
+        failures += checkSpinning(turns, new Random(seed));
+        System.out.printf(Locale.US, "%d Verletzungen in %.1f s%n", failures, (System.nanoTime() - start) / 1e9);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int checkAllAngles() {
+        int failures = 0;
+        for (int angle = 0; angle < DiscAngle.UNITS_PER_TURN; angle++) {
+            // Exakt: Position = angle * 19 / 2^16, gerundet
+            long scaled = (long) angle * POSITIONS;
+            int exact = (int) (((scaled + DiscAngle.UNITS_PER_TURN / 2) >> DiscAngle.BITS) % POSITIONS);
+            int offset = (int) (scaled - (((scaled + DiscAngle.UNITS_PER_TURN / 2) >> DiscAngle.BITS) << DiscAngle.BITS));
+            if (DiscAngle.nearestPosition(angle) != exact || DiscAngle.positionOffset(angle) != offset) {
+                failures += report("Winkel %d: Position %d/%d, Versatz %d/%d", angle,
+                    DiscAngle.nearestPosition(angle), exact, DiscAngle.positionOffset(angle), offset);
+            }
+            if (DiscAngle.topPosition(DiscAngle.snap(angle)) != DiscAngle.topPosition(angle)) {
+                failures += report("Einrasten bei %d wechselt die Note oben", angle);
+            }
+            // Die Tabelle der Positionswinkel ist auf eine Einheit gerundet: genau auf halbem
+            // Weg (Versatz innerhalb von 19/65536) darf die Suche die Nachbarposition finden
+            boolean midway = Math.abs(offset) > DiscAngle.UNITS_PER_TURN / 2 - POSITIONS;
+            if (nearestBySearch(angle) != exact && !midway) {
+                failures += report("Winkel %d: Suche über alle Positionen findet %d statt %d",
+                    angle, nearestBySearch(angle), exact);
+            }
+        }
+        for (int position = 0; position < POSITIONS; position++) {
+            int rotation = DiscAngle.rotationForTop(position);
+            if (DiscAngle.topPosition(rotation) != position || Math.abs(DiscAngle.positionOffset(-rotation)) > POSITIONS) {
+                failures += report("Position %d steht bei Drehung %d nicht genau oben", position, rotation);
+            }
+            int degrees = DiscAngle.fromDegrees(-position * 360.0 / POSITIONS);
+            if (degrees != rotation) {
+                failures += report("Position %d: %d aus Grad statt %d", position, degrees, rotation);
+            }
+        }
+        System.out.println("Alle " + DiscAngle.UNITS_PER_TURN + " Winkel geprüft");
+        return failures;
+    }
+
+    /**
+     * Nächste Position durch Vergleich mit allen 19 Positionswinkeln (wie die frühere Schleife
+     * der Treffererkennung).
+     */
+    private static int nearestBySearch(int angle) {
+        int best = -1;
+        int bestDiff = Integer.MAX_VALUE;
+        for (int position = 0; position < POSITIONS; position++) {
+            int diff = Math.abs(DiscAngle.delta(DiscAngle.positionAngle(position), angle));
+            if (diff < bestDiff) {
+                best = position;
+                bestDiff = diff;
+            }
+        }
+        return best;
+    }
+
+    private static int checkSpinning(long turns, Random random) {
+        long targetTicks = turns * TICKS_PER_TURN;
+        long fingerTicks = 0;        // Exakte Fingerdrehung seit Beginn
+        int discAngle = 0;           // Modell der View
+        float floatRotation = 0f;    // Früheres Modell: Grad, unbegrenzt aufsummiert
+        float lastFloatTouch = 0f;
+        int lastTouch = DiscAngle.fromScreenRadians(screenRadians(0));
+        long events = 0;
+        long gestures = 0;
+        int failures = 0;
+        int floatMismatches = 0;
+        double worstFloatDrift = 0;
+
+        while (fingerTicks < targetTicks) {
+            for (int e = 0; e < EVENTS_PER_GESTURE; e++) {
+                // Überwiegend vorwärts, gelegentlich zurück; immer weniger als eine halbe Umdrehung
+                fingerTicks += random.nextInt(40_000) - 8_000;
+                double radians = screenRadians(fingerTicks);
+
+                int touch = DiscAngle.fromScreenRadians(radians);
+                discAngle = DiscAngle.normalize(discAngle + DiscAngle.delta(lastTouch, touch));
+                lastTouch = touch;
+
+                float floatTouch = (float) Math.toDegrees(radians) + 90f;
+                float deltaAngle = floatTouch - lastFloatTouch;
+                if (deltaAngle > 180) deltaAngle -= 360;
+                if (deltaAngle < -180) deltaAngle += 360;
+                floatRotation += deltaAngle;
+                lastFloatTouch = floatTouch;
+                events++;
+            }
+            gestures++;
+
+            // Exakte Scheibendrehung in Einheiten (Finger startete bei Tick 0, Scheibe bei 0)
+            long phaseTicks = Math.floorMod(fingerTicks, TICKS_PER_TURN);
+            double exactUnits = (double) phaseTicks * DiscAngle.UNITS_PER_TURN / TICKS_PER_TURN;
+            double error = Math.abs(DiscAngle.delta((int) Math.round(exactUnits), discAngle));
+            if (error > 1) {
+                failures += report("Nach %d Gesten (%d Umdrehungen): Scheibe %d, exakt %.2f",
+                    gestures, fingerTicks / TICKS_PER_TURN, discAngle, exactUnits);
+                break;
+            }
+            int exactTop = DiscAngle.topPosition((int) Math.round(exactUnits));
+            if (Math.abs(DiscAngle.positionOffset((int) Math.round(-exactUnits))) < DiscAngle.UNITS_PER_TURN / 2 - 64
+                    && DiscAngle.topPosition(discAngle) != exactTop) {
+                failures += report("Nach %d Gesten: Note oben %d statt %d", gestures,
+                    DiscAngle.topPosition(discAngle), exactTop);
+                break;
+            }
+
+            // Früheres Modell: wie weit liegt es daneben?
+            double floatDegrees = ((-floatRotation % 360) + 360) % 360;
+            double exactDegrees = ((-exactUnits * 360 / DiscAngle.UNITS_PER_TURN) % 360 + 360) % 360;
+            double drift = Math.abs(floatDegrees - exactDegrees);
+            drift = Math.min(drift, 360 - drift);
+            worstFloatDrift = Math.max(worstFloatDrift, drift);
+            if (Math.round(floatDegrees / (360.0 / POSITIONS)) % POSITIONS != DiscAngle.topPosition(discAngle)) {
+                floatMismatches++;
+            }
+        }
+
+        System.out.printf(Locale.US, "%d Umdrehungen, %d Gesten, %d Events: Festkomma folgt dem Finger auf eine Einheit (%.4f°)%n",
+            fingerTicks / TICKS_PER_TURN, gestures, events, 360.0 / DiscAngle.UNITS_PER_TURN);
+        System.out.printf(Locale.US, "Früheres float-Modell: bis %.1f° daneben, %d von %d Gesten mit falscher Note oben%n",
+            worstFloatDrift, floatMismatches, gestures);
+        return failures;
+    }
+
+    /**
+     * Fingerlage wie atan2 sie liefert (-π … π, 0 = rechts) für die exakte Drehung in Ticks;
+     * bei Tick 0 steht der Finger oben.
+     */
+    private static double screenRadians(long ticks) {
+        double turn = (double) Math.floorMod(ticks, TICKS_PER_TURN) / TICKS_PER_TURN;
+        double radians = turn * 2 * Math.PI - Math.PI / 2;
+        return radians >= Math.PI ? radians - 2 * Math.PI : radians;
+    }
+
+    private static int report(String format, Object... values) {
+        System.err.println(String.format(Locale.US, format, values));
+        return 1;
+    }
+}
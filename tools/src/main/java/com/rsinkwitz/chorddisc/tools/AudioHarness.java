@@ -0,0 +1,457 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.EffectsBus;
+import com.rsinkwitz.chorddisc.core.PhraseType;
+import com.rsinkwitz.chorddisc.core.PitchTable;
+import com.rsinkwitz.chorddisc.core.SineTone;
+import com.rsinkwitz.chorddisc.core.StereoPan;
+import com.rsinkwitz.chorddisc.core.TuningSystem;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Ende-zu-Ende-Prüfung der Klangerzeugung: Rendert alles, was die Einzelwiedergabe spielen
+ * kann – Dur- und Moll-Akkord sowie die drei Tonleitern auf allen 19 Grundtönen – für beide
+ * Abtastraten der Geräteprofile und alle Stimmungen blockweise in einen FingerprintSink.
+ * Gemessen werden Echtzeitfaktor (Audio-Sekunden pro CPU-Sekunde), allokierte Bytes,
+ * Spitzenbelegung des Heaps und Renderzeit je Block gegenüber der Blockfrist.
+ * Jede Konfiguration läuft zusätzlich in Stereo wie die Wiedergabe der App: Noten mono
+ * rendern und blockweise nach ihrer Lage zum Grundton verteilen (StereoPan). Die Stereo-
+ * Synthese darf höchstens maxStereoCost-mal so lange brauchen wie die Mono-Synthese, und die
+ * Energie beider Kanäle zusammen muss der Mono-Energie entsprechen (Constant Power).
+ * Je Abtastrate läuft gleichstufig in Stereo außerdem der Effektweg (Hall und Chorus) mit; er
+ * darf sich dabei nicht wegen zu hoher Last abschalten. Außerdem muss jede Stimmung jeden Ton in
+ * dieselbe Oktave legen wie die gleichstufige 12-Ton-Stimmung.
+ *
+ * Die Referenzdatei enthält je Konfiguration Prüfsumme, Frames, Energie und Nulldurchgänge
+ * sowie die Schwellen für die Laufzeit. Exit-Code 1, wenn eine Schwelle gerissen wird oder sich
+ * der Klang ändert; eine abweichende Prüfsumme bei sonst gleichen Werten (andere JVM rundet
+ * Math.sin anders) ist nur eine Warnung.
+ * Aufruf: AudioHarness &lt;Referenzdatei&gt; [--update]
+ */
+public final class AudioHarness {
+
+    private static final int BLOCK_FRAMES = 1024;
+    private static final int[] SAMPLE_RATES = {44100, 22050}; // Geräteprofile
+    private static final PhraseType[] PHRASES = {
+        PhraseType.MAJOR_CHORD, PhraseType.MINOR_CHORD,
+        PhraseType.MAJOR_SCALE, PhraseType.NATURAL_MINOR_SCALE, PhraseType.HARMONIC_MINOR_SCALE
+    };
+
+    // Schwellen, falls die Referenzdatei keine eigenen angibt
+    private static final double DEFAULT_MIN_RTF = 100;
+    private static final double DEFAULT_MAX_P99_BLOCK_SHARE = 0.05; // Anteil an der Blockfrist
+    private static final double DEFAULT_MAX_WORST_BLOCK_SHARE = 1.0; // Frist verpasst = Aussetzer
+    private static final long DEFAULT_MAX_ALLOCATED_BYTES = 256 * 1024;
+    private static final double DEFAULT_MAX_STEREO_COST = 1.3; // Stereo- zu Mono-Synthesezeit
+
+    // Toleranzen für den Klangvergleich bei abweichender Prüfsumme
+    private static final double MEAN_SQUARE_TOLERANCE = 1e-6; // relativ
+    private static final long ZERO_CROSSING_TOLERANCE = 4;    // ein Halbton auf einer Note ändert mehr
+    private static final double STEREO_ENERGY_TOLERANCE = 1e-3; // relativ, Rundung der Festkomma-Verstärkung
+    private static final double MAX_TUNING_CENTS = 100; // Abstand zu 12-TET; eine Oktave daneben sind 1200
+
+    private static final class Result {
+        final int sampleRate;
+        final TuningSystem system;
+        final boolean stereo;
+        final EffectsBus effects;
+        final FingerprintSink sink = new FingerprintSink();
+        long[] blockNanos;
+        int blocks = 0;
+        long cpuNanos;
+
+        Result(int sampleRate, TuningSystem system, boolean stereo, boolean effects) {
+            this.sampleRate = sampleRate;
+            this.system = system;
+            this.stereo = stereo;
+            this.effects = effects ? new EffectsBus(sampleRate) : null;
+            if (effects) {
+                this.effects.setEnabled(true);
+            }
+        }
+
+        String key() {
+            return sampleRate + "." + system.name() + (stereo ? ".stereo" : "") + (effects != null ? ".effects" : "");
+        }
+
+        int channels() {
+            return stereo ? 2 : 1;
+        }
+
+        double audioSeconds() {
+            return (double) sink.getPlayedFrames() / channels() / sampleRate; // Sink zählt Samples
+        }
+
+        long synthesisNanos() {
+            long sum = 0;
+            for (int i = 0; i < blocks; i++) {
+                sum += blockNanos[i];
+            }
+            return sum;
+        }
+
+        double deadlineNanos() {
+            return BLOCK_FRAMES * 1e9 / sampleRate;
+        }
+    }
+
+    private AudioHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Aufruf: AudioHarness <Referenzdatei> [--update]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        boolean update = args.length >= 2 && args[1].equals("--update");
+        Properties baseline = new Properties();
+        if (baselineFile.isFile()) {
+            try (Reader in = new InputStreamReader(new FileInputStream(baselineFile), StandardCharsets.UTF_8)) {
+                baseline.load(in);
+            }
+        } else if (!update) {
+            System.err.println("Referenzdatei fehlt: " + baselineFile + " (mit --update anlegen)");
+            System.exit(2);
+        }
+
+        // Aufwärmen, damit der JIT nicht in die Blockzeiten fällt
+        for (int sampleRate : SAMPLE_RATES) {
+            for (TuningSystem system : TuningSystem.values()) {
+                render(new Result(sampleRate, system, false, false));
+                render(new Result(sampleRate, system, true, false));
+            }
+            render(new Result(sampleRate, TuningSystem.EQUAL_12, true, true));
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (int sampleRate : SAMPLE_RATES) {
+            for (TuningSystem system : TuningSystem.values()) {
+                for (boolean stereo : new boolean[]{false, true}) {
+                    Result result = new Result(sampleRate, system, stereo, false);
+                    result.blockNanos = new long[maxBlocks(sampleRate)];
+                    results.add(result);
+                }
+            }
+            Result result = new Result(sampleRate, TuningSystem.EQUAL_12, true, true);
+            result.blockNanos = new long[maxBlocks(sampleRate)];
+            results.add(result);
+        }
+        long allocatedBefore = allocatedBytes(threads);
+        for (Result result : results) {
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            render(result);
+            result.cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        }
+        long allocated = allocatedBytes(threads) - allocatedBefore;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+
+        if (update) {
+            writeBaseline(baselineFile, baseline, results);
+            System.out.println("Referenz geschrieben: " + baselineFile);
+            return;
+        }
+        boolean ok = check(baseline, results, allocated, peakHeap);
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Rendert alle Phrasen lückenlos hintereinander in Blöcken zu BLOCK_FRAMES. Gemessen wird nur
+     * die Synthese eines Blocks (in Stereo samt Verteilung auf die Kanäle), nicht die Arbeit des
+     * Sinks. Ohne blockNanos wird nicht gemessen.
+     */
+    private static void render(Result result) {
+        int sampleRate = result.sampleRate;
+        PitchTable table = new PitchTable(result.system, PitchTable.DEFAULT_REFERENCE_A, sampleRate);
+        short[] block = new short[BLOCK_FRAMES];
+        short[] stereoBlock = result.stereo ? new short[2 * BLOCK_FRAMES] : null;
+        int filled = 0;
+        long blockNanos = 0;
+
+        for (int root = 0; root < 19; root++) {
+            for (PhraseType type : PHRASES) {
+                for (int n = 0; n < type.noteCount(); n++) {
+                    double increment = table.phaseIncrement(root, type.interval(n), PitchTable.MIDDLE_OCTAVE);
+                    if (increment == 0) {
+                        continue; // Wie bei der Wiedergabe übersprungen
+                    }
+                    int numSamples = SineTone.sampleCount(type.eighths(n) * PhraseType.EIGHTH_MS, sampleRate);
+                    int pan = StereoPan.offset(root, type.interval(n), root); // Grundton oben
+                    int position = 0;
+                    while (position < numSamples) {
+                        int count = Math.min(numSamples - position, BLOCK_FRAMES - filled);
+                        long start = System.nanoTime();
+                        SineTone.render(increment, position, count, numSamples, sampleRate, block, filled);
+                        if (stereoBlock != null) {
+                            StereoPan.interleave(block, filled, count, pan, stereoBlock, 2 * filled);
+                        }
+                        if (result.effects != null) {
+                            result.effects.process(stereoBlock != null ? stereoBlock : block,
+                                result.channels() * filled, count, result.channels());
+                        }
+                        blockNanos += System.nanoTime() - start;
+                        position += count;
+                        filled += count;
+                        if (filled == BLOCK_FRAMES) {
+                            emit(result, stereoBlock != null ? stereoBlock : block, filled, blockNanos);
+                            filled = 0;
+                            blockNanos = 0;
+                        }
+                    }
+                }
+            }
+        }
+        if (filled > 0) {
+            emit(result, stereoBlock != null ? stereoBlock : block, filled, blockNanos);
+        }
+    }
+
+    private static void emit(Result result, short[] block, int frames, long nanos) {
+        result.sink.write(block, 0, frames * result.channels());
+        if (result.blockNanos != null) {
+            result.blockNanos[result.blocks++] = nanos;
+        }
+    }
+
+    /**
+     * Obergrenze der Blockanzahl (alle Noten spielbar angenommen).
+     */
+    private static int maxBlocks(int sampleRate) {
+        long frames = 0;
+        for (PhraseType type : PHRASES) {
+            for (int n = 0; n < type.noteCount(); n++) {
+                frames += SineTone.sampleCount(type.eighths(n) * PhraseType.EIGHTH_MS, sampleRate);
+            }
+        }
+        return (int) (frames * 19 / BLOCK_FRAMES + 1);
+    }
+
+    private static boolean check(Properties baseline, List<Result> results, long allocated, long peakHeap) {
+        double minRtf = doubleProperty(baseline, "threshold.minRtf", DEFAULT_MIN_RTF);
+        double maxP99Share = doubleProperty(baseline, "threshold.maxP99BlockShare", DEFAULT_MAX_P99_BLOCK_SHARE);
+        double maxWorstShare = doubleProperty(baseline, "threshold.maxWorstBlockShare", DEFAULT_MAX_WORST_BLOCK_SHARE);
+        long maxAllocated = (long) doubleProperty(baseline, "threshold.maxAllocatedBytes", DEFAULT_MAX_ALLOCATED_BYTES);
+        double maxStereoCost = doubleProperty(baseline, "threshold.maxStereoCost", DEFAULT_MAX_STEREO_COST);
+
+        boolean ok = true;
+        double audioSeconds = 0;
+        long cpuNanos = 0;
+        for (Result result : results) {
+            audioSeconds += result.audioSeconds();
+            cpuNanos += result.cpuNanos;
+
+            long[] sorted = Arrays.copyOf(result.blockNanos, result.blocks);
+            Arrays.sort(sorted);
+            long p99 = sorted[(int) (sorted.length * 0.99)];
+            long worst = sorted[sorted.length - 1];
+            double rtf = result.audioSeconds() / (result.cpuNanos / 1e9);
+            FingerprintSink sink = result.sink;
+            System.out.printf(Locale.US,
+                "%-22s %6.1f s Audio, %5.0fx Echtzeit, Block p99 %.3f ms / max %.3f ms (Frist %.1f ms), Prüfsumme %016x%n",
+                result.key(), result.audioSeconds(), rtf, p99 / 1e6, worst / 1e6, result.deadlineNanos() / 1e6,
+                sink.getHash());
+
+            if (rtf < minRtf) {
+                System.err.printf(Locale.US, "%s: Echtzeitfaktor %.0f unter %.0f%n", result.key(), rtf, minRtf);
+                ok = false;
+            }
+            if (p99 > maxP99Share * result.deadlineNanos()) {
+                System.err.printf(Locale.US, "%s: Block-p99 %.3f ms über %.0f%% der Frist%n",
+                    result.key(), p99 / 1e6, maxP99Share * 100);
+                ok = false;
+            }
+            if (worst > maxWorstShare * result.deadlineNanos()) {
+                System.err.printf(Locale.US, "%s: Schlechtester Block %.3f ms über %.0f%% der Frist%n",
+                    result.key(), worst / 1e6, maxWorstShare * 100);
+                ok = false;
+            }
+            ok &= compareSound(baseline, result);
+            if (result.effects != null) {
+                EffectsBus bus = result.effects;
+                System.out.printf(Locale.US, "%-22s Effekte: Last %.2f %% der Frist (Abschaltung ab %.0f %%), längster Block %.3f ms%n",
+                    "", bus.getAverageLoad() * 100, bus.getMaxLoad() * 100, bus.getMaxBlockNanos() / 1e6);
+                if (bus.isAutoDisabled()) {
+                    System.err.println(result.key() + ": Effektweg hat sich wegen zu hoher Last abgeschaltet");
+                    ok = false;
+                }
+            }
+        }
+        ok &= checkStereo(results, maxStereoCost);
+        ok &= checkOctaves();
+
+        System.out.printf(Locale.US, "Gesamt: %.0f s Audio in %.2f s CPU (%.0fx Echtzeit), %d Bytes allokiert, Heap-Spitze %d KB%n",
+            audioSeconds, cpuNanos / 1e9, audioSeconds / (cpuNanos / 1e9), allocated, peakHeap / 1024);
+        if (allocated > maxAllocated) {
+            System.err.printf(Locale.US, "Beim Rendern %d Bytes allokiert (erlaubt %d)%n", allocated, maxAllocated);
+            ok = false;
+        }
+        return ok;
+    }
+
+    /**
+     * Jede Stimmung muss jeden Ton (Grundton auf allen 19 Positionen, Intervalle bis zur Oktave)
+     * in dieselbe Oktave legen wie die gleichstufige 12-Ton-Stimmung; sonst springt beim
+     * Stimmungswechsel z.B. der letzte Ton einer Tonleiter eine Oktave.
+     */
+    private static boolean checkOctaves() {
+        boolean ok = true;
+        PitchTable reference = new PitchTable(TuningSystem.EQUAL_12, PitchTable.DEFAULT_REFERENCE_A, SAMPLE_RATES[0]);
+        double worst = 0;
+        for (TuningSystem system : TuningSystem.values()) {
+            PitchTable table = new PitchTable(system, PitchTable.DEFAULT_REFERENCE_A, SAMPLE_RATES[0]);
+            for (int position = 0; position < 19; position++) {
+                for (int interval = 0; interval <= 12; interval++) {
+                    double cents = 1200 * Math.log(table.frequency(position, interval, PitchTable.MIDDLE_OCTAVE)
+                        / reference.frequency(position, interval, PitchTable.MIDDLE_OCTAVE)) / Math.log(2);
+                    worst = Math.max(worst, Math.abs(cents));
+                    if (Math.abs(cents) > MAX_TUNING_CENTS) {
+                        System.err.printf(Locale.US, "%s: Position %d + %d Halbtöne liegt %.0f Cent neben 12-TET%n",
+                            system, position, interval, cents);
+                        ok = false;
+                    }
+                }
+            }
+        }
+        System.out.printf(Locale.US, "Oktavlage: alle Stimmungen höchstens %.0f Cent neben 12-TET (erlaubt %.0f)%n",
+            worst, MAX_TUNING_CENTS);
+        return ok;
+    }
+
+    /**
+     * Vergleicht jede Stereo-Konfiguration ohne Effekte mit ihrer Mono-Konfiguration
+     * (direkt davor in results).
+     */
+    private static boolean checkStereo(List<Result> results, double maxStereoCost) {
+        boolean ok = true;
+        long monoNanos = 0;
+        long stereoNanos = 0;
+        for (int i = 1; i < results.size(); i++) {
+            Result stereo = results.get(i);
+            if (!stereo.stereo || stereo.effects != null) {
+                continue;
+            }
+            Result mono = results.get(i - 1);
+            monoNanos += mono.synthesisNanos();
+            stereoNanos += stereo.synthesisNanos();
+
+            // Je Frame: links² + rechts² = Mono², die Sink mittelt über beide Kanäle
+            double monoEnergy = mono.sink.getMeanSquare();
+            double stereoEnergy = 2 * stereo.sink.getMeanSquare();
+            if (Math.abs(stereoEnergy - monoEnergy) > STEREO_ENERGY_TOLERANCE * monoEnergy) {
+                System.err.printf(Locale.US, "%s: Stereo-Energie %.9f statt %.9f%n",
+                    stereo.key(), stereoEnergy, monoEnergy);
+                ok = false;
+            }
+        }
+        double cost = (double) stereoNanos / monoNanos;
+        System.out.printf(Locale.US, "Stereo: %.2fx Synthesezeit gegenüber Mono (erlaubt %.2fx)%n", cost, maxStereoCost);
+        if (cost > maxStereoCost) {
+            System.err.printf(Locale.US, "Stereo-Synthese %.2fx so teuer wie Mono (erlaubt %.2fx)%n", cost, maxStereoCost);
+            ok = false;
+        }
+        return ok;
+    }
+
+    private static boolean compareSound(Properties baseline, Result result) {
+        String prefix = result.key() + ".";
+        String hash = baseline.getProperty(prefix + "hash");
+        if (hash == null) {
+            System.err.println(result.key() + ": keine Referenz (mit --update anlegen)");
+            return false;
+        }
+        FingerprintSink sink = result.sink;
+        if (Long.parseUnsignedLong(hash, 16) == sink.getHash()) {
+            return true;
+        }
+
+        long frames = Long.parseLong(baseline.getProperty(prefix + "frames", "-1"));
+        double meanSquare = Double.parseDouble(baseline.getProperty(prefix + "meanSquare", "-1"));
+        long crossings = Long.parseLong(baseline.getProperty(prefix + "zeroCrossings", "-1"));
+        boolean same = frames == sink.getPlayedFrames()
+            && Math.abs(sink.getMeanSquare() - meanSquare) <= MEAN_SQUARE_TOLERANCE * meanSquare
+            && Math.abs(sink.getZeroCrossings() - crossings) <= ZERO_CROSSING_TOLERANCE;
+        if (same) {
+            System.out.println(result.key() + ": Prüfsumme weicht ab, Energie und Tonhöhen stimmen (Rundung der JVM)");
+            return true;
+        }
+        System.err.printf(Locale.US, "%s: Klang geändert – Frames %d/%d, Energie %.9f/%.9f, Nulldurchgänge %d/%d%n",
+            result.key(), sink.getPlayedFrames(), frames, sink.getMeanSquare(), meanSquare,
+            sink.getZeroCrossings(), crossings);
+        return false;
+    }
+
+    /**
+     * Schreibt die Klangwerte neu; vorhandene Schwellen bleiben erhalten.
+     */
+    private static void writeBaseline(File file, Properties old, List<Result> results) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write("# Referenzwerte für AudioHarness (gradlew :tools:audioCheck)\n");
+            out.write("# Nach gewollten Klangänderungen neu schreiben: gradlew :tools:audioCheck -PupdateAudioBaseline\n\n");
+            out.write(String.format(Locale.US, "threshold.minRtf=%s%n",
+                old.getProperty("threshold.minRtf", String.valueOf(DEFAULT_MIN_RTF))));
+            out.write(String.format(Locale.US, "threshold.maxP99BlockShare=%s%n",
+                old.getProperty("threshold.maxP99BlockShare", String.valueOf(DEFAULT_MAX_P99_BLOCK_SHARE))));
+            out.write(String.format(Locale.US, "threshold.maxWorstBlockShare=%s%n",
+                old.getProperty("threshold.maxWorstBlockShare", String.valueOf(DEFAULT_MAX_WORST_BLOCK_SHARE))));
+            out.write(String.format(Locale.US, "threshold.maxAllocatedBytes=%s%n",
+                old.getProperty("threshold.maxAllocatedBytes", String.valueOf(DEFAULT_MAX_ALLOCATED_BYTES))));
+            out.write(String.format(Locale.US, "threshold.maxStereoCost=%s%n",
+                old.getProperty("threshold.maxStereoCost", String.valueOf(DEFAULT_MAX_STEREO_COST))));
+            for (Result result : results) {
+                FingerprintSink sink = result.sink;
+                String prefix = result.key() + ".";
+                out.write('\n');
+                out.write(String.format(Locale.US, "%shash=%016x%n", prefix, sink.getHash()));
+                out.write(String.format(Locale.US, "%sframes=%d%n", prefix, sink.getPlayedFrames()));
+                out.write(String.format(Locale.US, "%smeanSquare=%.12f%n", prefix, sink.getMeanSquare()));
+                out.write(String.format(Locale.US, "%szeroCrossings=%d%n", prefix, sink.getZeroCrossings()));
+            }
+        }
+    }
+
+    private static double doubleProperty(Properties properties, String name, double fallback) {
+        String value = properties.getProperty(name);
+        return value == null ? fallback : Double.parseDouble(value);
+    }
+
+    /**
+     * Vom aktuellen Thread allokierte Bytes (HotSpot), -1 wenn nicht verfügbar.
+     */
+    private static long allocatedBytes(ThreadMXBean bean) {
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,142 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.TileSurface;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Kachel-Zeichenfläche mit java.awt (headless) für den Poster-Export auf der JVM.
+ */
+public class AwtTileSurface implements TileSurface {
+
+    private final BufferedImage image;
+    private final int[] pixels;
+    private final Graphics2D graphics;
+    private final Deque<AffineTransform> transforms = new ArrayDeque<>();
+    private final Ellipse2D.Float ellipse = new Ellipse2D.Float();
+    private final Line2D.Float line = new Line2D.Float();
+    private final Rectangle2D.Float rect = new Rectangle2D.Float();
+
+    public AwtTileSurface(int width, int height) {
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+    }
+
+    @Override
+    public int getTileWidth() {
+        return image.getWidth();
+    }
+
+    @Override
+    public int getTileHeight() {
+        return image.getHeight();
+    }
+
+    @Override
+    public void begin(float pixelsPerUnit, int tileLeft, int tileTop) {
+        transforms.clear();
+        graphics.setTransform(new AffineTransform());
+        graphics.setBackground(Color.WHITE);
+        graphics.clearRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.translate(-tileLeft, -tileTop);
+        graphics.scale(pixelsPerUnit, pixelsPerUnit);
+    }
+
+    @Override
+    public void readPixels(int[] argb) {
+        System.arraycopy(pixels, 0, argb, 0, pixels.length);
+    }
+
+    @Override
+    public void save() {
+        transforms.push(graphics.getTransform());
+    }
+
+    @Override
+    public void restore() {
+        graphics.setTransform(transforms.pop());
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        graphics.translate(dx, dy);
+    }
+
+    @Override
+    public void rotate(float degrees) {
+        graphics.rotate(Math.toRadians(degrees));
+    }
+
+    @Override
+    public void fillCircle(float cx, float cy, float radius, int color) {
+        ellipse.setFrame(cx - radius, cy - radius, radius * 2, radius * 2);
+        graphics.setColor(new Color(color, true));
+        graphics.fill(ellipse);
+    }
+
+    @Override
+    public void strokeCircle(float cx, float cy, float radius, float strokeWidth, int color) {
+        ellipse.setFrame(cx - radius, cy - radius, radius * 2, radius * 2);
+        stroke(ellipse, strokeWidth, color);
+    }
+
+    @Override
+    public void strokeLine(float x1, float y1, float x2, float y2, float strokeWidth, int color) {
+        line.setLine(x1, y1, x2, y2);
+        stroke(line, strokeWidth, color);
+    }
+
+    @Override
+    public void fillRect(float left, float top, float width, float height, int color) {
+        rect.setRect(left, top, width, height);
+        graphics.setColor(new Color(color, true));
+        graphics.fill(rect);
+    }
+
+    @Override
+    public void strokeRect(float left, float top, float width, float height, float strokeWidth, int color) {
+        rect.setRect(left, top, width, height);
+        stroke(rect, strokeWidth, color);
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, float textSize, int color) {
+        if (text.isEmpty()) {
+            return;
+        }
+        // Schrift in Pixelgröße erzeugen und die Skalierung herausrechnen (sonst grobe Glyphen)
+        double scale = Math.sqrt(Math.abs(graphics.getTransform().getDeterminant()));
+        Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 1).deriveFont((float) (textSize * scale));
+        AffineTransform saved = graphics.getTransform();
+        graphics.translate(x, y);
+        graphics.scale(1 / scale, 1 / scale);
+        graphics.setFont(font);
+        graphics.setColor(new Color(color, true));
+        FontMetrics metrics = graphics.getFontMetrics();
+        graphics.drawString(text, -metrics.stringWidth(text) / 2f, 0f);
+        graphics.setTransform(saved);
+    }
+
+    private void stroke(java.awt.Shape shape, float strokeWidth, int color) {
+        graphics.setStroke(new BasicStroke(strokeWidth));
+        graphics.setColor(new Color(color, true));
+        graphics.draw(shape);
+    }
+}
@@ -0,0 +1,56 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.PcmSource;
+import com.rsinkwitz.chorddisc.core.PitchKeyDetector;
+import com.rsinkwitz.chorddisc.core.WavPcmSource;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Spielt eine WAV-Datei durch die Tonhöhen-/Tonart-Erkennung (wie der Hörmodus der App)
+ * und gibt jede Änderung mit Zeitpunkt, Verzögerung und Rechenzeit pro Block aus.
+ * Aufruf: DetectTool &lt;Datei.wav&gt; [Blockgröße]
+ */
+public final class DetectTool {
+
+    private static final String[] PITCH_NAMES =
+        {"C", "C♯", "D", "E♭", "E", "F", "F♯", "G", "A♭", "A", "B♭", "B"};
+
+    private DetectTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Aufruf: DetectTool <Datei.wav> [Blockgröße]");
+            System.exit(2);
+        }
+        int blockSize = args.length >= 2 ? Integer.parseInt(args[1]) : 1024;
+
+        try (PcmSource source = new WavPcmSource(new File(args[0]))) {
+            int sampleRate = source.getSampleRate();
+            long[] position = new long[1];
+            PitchKeyDetector detector = new PitchKeyDetector(sampleRate, d -> {
+                int pitch = d.getPitchClass();
+                int key = d.getKeyRoot();
+                System.out.printf(Locale.US, "%8.3f s  Ton %-3s (%.2f)  Tonart %-8s (%.2f)  Verzögerung %.0f ms%n",
+                    (double) position[0] / sampleRate,
+                    pitch == PitchKeyDetector.NO_PITCH ? "-" : PITCH_NAMES[pitch], d.getPitchConfidence(),
+                    key < 0 ? "-" : PITCH_NAMES[key] + (d.isKeyMajor() ? "-Dur" : "-Moll"), d.getKeyCorrelation(),
+                    d.getDetectionLatencyMs());
+            });
+
+            float[] block = new float[blockSize];
+            int count;
+            while ((count = source.read(block, 0, blockSize)) > 0) {
+                detector.process(block, 0, count);
+                position[0] += count;
+            }
+
+            System.out.printf(Locale.US, "%d Analysen, Rechenzeit pro Analyse: Mittel %.3f ms, Max %.3f ms; "
+                    + "Vorschub %.1f ms, CPU-Last %.2f %% eines Kerns%n",
+                detector.getBlockCount(), detector.getAverageBlockNanos() / 1e6, detector.getMaxBlockNanos() / 1e6,
+                detector.getHopMs(), detector.getCpuLoad() * 100);
+        }
+    }
+}
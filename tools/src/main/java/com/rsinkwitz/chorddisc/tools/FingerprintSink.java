@@ -0,0 +1,64 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.PcmSink;
+
+/**
+ * Speicher-Sink für Prüfläufe: behält keine Samples, sondern nur, was zum Vergleich nötig ist –
+ * eine exakte Prüfsumme (FNV-1a über alle 16-Bit-Werte), Energie, Spitzenwert und Nulldurchgänge.
+ * Die Prüfsumme erkennt jede Änderung; Energie und Nulldurchgänge (≈ Tonhöhe) bleiben auch dann
+ * vergleichbar, wenn eine andere JVM Math.sin im letzten Bit anders rundet.
+ */
+final class FingerprintSink implements PcmSink {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long hash = FNV_OFFSET;
+    private long frames = 0;
+    private double sumOfSquares = 0;
+    private int peak = 0;
+    private long zeroCrossings = 0;
+    private boolean negative = false;
+
+    @Override
+    public void write(short[] pcm, int offset, int length) {
+        long h = hash;
+        for (int i = offset; i < offset + length; i++) {
+            short sample = pcm[i];
+            h = (h ^ (sample & 0xFF)) * FNV_PRIME;
+            h = (h ^ ((sample >> 8) & 0xFF)) * FNV_PRIME;
+            sumOfSquares += (double) sample * sample;
+            peak = Math.max(peak, Math.abs(sample));
+            if ((sample < 0) != negative) {
+                negative = sample < 0;
+                zeroCrossings++;
+            }
+        }
+        hash = h;
+        frames += length;
+    }
+
+    @Override
+    public long getPlayedFrames() {
+        return frames;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Mittlere Leistung relativ zum Vollausschlag (0..1).
+     */
+    public double getMeanSquare() {
+        return frames == 0 ? 0 : sumOfSquares / frames / ((double) Short.MAX_VALUE * Short.MAX_VALUE);
+    }
+
+    public int getPeak() {
+        return peak;
+    }
+
+    public long getZeroCrossings() {
+        return zeroCrossings;
+    }
+}
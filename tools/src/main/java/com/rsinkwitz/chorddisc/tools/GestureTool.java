@@ -0,0 +1,168 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.GestureLog;
+import com.rsinkwitz.chorddisc.core.GestureLogReader;
+import com.rsinkwitz.chorddisc.core.GestureLogWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * Gesten-Aufzeichnungen der App auf der JVM: liest eine Datei (aus files/metrics/ per adb geholt)
+ * und fasst sie zusammen – Gesten, Events, Samples, Abtastrate, Zeiger –, oder schreibt mit
+ * --synthetic eine künstliche Drehgeste über denselben GestureLogWriter wie die App und misst
+ * dabei Allokationen und verworfene Datensätze des aufzeichnenden Threads.
+ * Aufruf: GestureTool &lt;datei.cdgl&gt; | GestureTool --synthetic &lt;datei.cdgl&gt; [Sekunden]
+ */
+public final class GestureTool {
+
+    private static final int ACTION_DOWN = 0;   // Werte wie android.view.MotionEvent
+    private static final int ACTION_UP = 1;
+    private static final int ACTION_MOVE = 2;
+    private static final int INPUT_RATE_HZ = 120;
+    private static final int FRAME_RATE_HZ = 60;
+
+    private GestureTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("--synthetic")) {
+            double seconds = args.length >= 3 ? Double.parseDouble(args[2]) : 60;
+            writeSynthetic(new File(args[1]), seconds);
+            summarize(new File(args[1]));
+        } else if (args.length == 1) {
+            summarize(new File(args[0]));
+        } else {
+            System.err.println("Aufruf: GestureTool <datei.cdgl> | GestureTool --synthetic <datei.cdgl> [Sekunden]");
+            System.exit(2);
+        }
+    }
+
+    private static void summarize(File file) throws IOException {
+        long start = System.nanoTime();
+        long gestures = 0;
+        long events = 0;
+        long samples = 0;
+        long sizeChanges = 0;
+        int maxPointers = 0;
+        int maxSamples = 0;
+        int firstTime = Integer.MAX_VALUE;
+        int lastTime = Integer.MIN_VALUE;
+        long startMillis;
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            GestureLogReader reader = new GestureLogReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            startMillis = reader.getStartMillis();
+            while (reader.next()) {
+                if (reader.getType() == GestureLog.TYPE_SIZE) {
+                    sizeChanges++;
+                    System.out.printf("Größe %d × %d%n", reader.getWidth(), reader.getHeight());
+                } else if (reader.getType() == GestureLog.TYPE_EVENT) {
+                    events++;
+                    samples += reader.getSampleCount();
+                    if (reader.getAction() == ACTION_DOWN) {
+                        gestures++;
+                    }
+                    maxPointers = Math.max(maxPointers, reader.getPointerCount());
+                    maxSamples = Math.max(maxSamples, reader.getSampleCount());
+                    firstTime = Math.min(firstTime, reader.getEventTime(0));
+                    lastTime = Math.max(lastTime, reader.getEventTime(reader.getSampleCount() - 1));
+                }
+            }
+        }
+        double decodeMs = (System.nanoTime() - start) / 1e6;
+        double seconds = events == 0 ? 0 : (lastTime - firstTime) / 1000.0;
+
+        System.out.printf(Locale.US, "%s: %d Bytes, Aufnahme ab %tF %<tT%n", file.getName(), file.length(), startMillis);
+        System.out.printf(Locale.US, "%d Gesten, %d Events, %d Samples über %.1f s (%d Größenänderungen)%n",
+            gestures, events, samples, seconds, sizeChanges);
+        if (seconds > 0) {
+            System.out.printf(Locale.US, "%.0f Events/s, %.0f Samples/s, bis %d Samples und %d Zeiger je Event%n",
+                events / seconds, samples / seconds, maxSamples, maxPointers);
+        }
+        System.out.printf(Locale.US, "Gelesen in %.1f ms%n", decodeMs);
+    }
+
+    /**
+     * Kreisbewegung um die Mitte einer 1080 × 1920-View: 120 Hz Eingabe, zu 60-Hz-Events
+     * gebündelt (je ein historisches Sample), alle zwei Sekunden eine neue Geste. Läuft etwa
+     * 60-mal schneller als echt (1 ms Pause je Sekunde Aufnahme); gemessen wird nur das Schreiben.
+     */
+    private static void writeSynthetic(File file, double seconds) throws IOException, InterruptedException {
+        int width = 1080;
+        int height = 1920;
+        float radius = width * 0.4f;
+        int samplesPerEvent = INPUT_RATE_HZ / FRAME_RATE_HZ;
+        long frames = (long) (seconds * FRAME_RATE_HZ);
+
+        GestureLogWriter writer = new GestureLogWriter(file, System.currentTimeMillis());
+        ByteBuffer out = writer.begin(GestureLog.SIZE_BYTES);
+        out.put(GestureLog.TYPE_SIZE).putInt(width).putInt(height);
+
+        long allocatedBefore = allocatedBytes();
+        long recordNanos = 0;
+        int downTime = 0;
+        for (long frame = 0; frame < frames; frame++) {
+            if (frame % FRAME_RATE_HZ == 0) {
+                Thread.sleep(1); // Dem Schreib-Thread Zeit lassen wie im echten Betrieb
+            }
+            long start = System.nanoTime();
+            int eventTime = (int) (frame * 1000 / FRAME_RATE_HZ);
+            int action;
+            int history;
+            if (frame % (2 * FRAME_RATE_HZ) == 0) {
+                action = ACTION_DOWN;
+                history = 0;
+                downTime = eventTime;
+            } else if (frame % (2 * FRAME_RATE_HZ) == 2 * FRAME_RATE_HZ - 1) {
+                action = ACTION_UP;
+                history = 0;
+            } else {
+                action = ACTION_MOVE;
+                history = samplesPerEvent - 1;
+            }
+            out = writer.begin(GestureLog.eventBytes(1, history));
+            if (out == null) {
+                recordNanos += System.nanoTime() - start;
+                continue;
+            }
+            out.put(GestureLog.TYPE_EVENT).put((byte) action).put((byte) 0).put((byte) 1)
+                .putShort((short) history).putInt(downTime)
+                .put((byte) 0).put((byte) 1); // Zeiger 0, Finger
+            for (int s = history; s >= 0; s--) {
+                int time = eventTime - s * 1000 / INPUT_RATE_HZ;
+                double angle = time / 1000.0 * Math.PI; // Halbe Umdrehung pro Sekunde
+                out.putInt(time)
+                    .putFloat(width / 2f + (float) (radius * Math.cos(angle)))
+                    .putFloat(height / 2f + (float) (radius * Math.sin(angle)))
+                    .putFloat(1f)
+                    .putFloat(0.1f);
+            }
+            if (action == ACTION_UP) {
+                writer.flush();
+            }
+            recordNanos += System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        writer.awaitClosed();
+
+        System.out.printf(Locale.US, "Synthetisch: %d Datensätze in %.1f ms (%.2f µs/Event), %d verworfen, %d Bytes allokiert%n",
+            writer.getRecordCount(), recordNanos / 1e6, recordNanos / 1e3 / Math.max(1, frames),
+            writer.getDroppedRecordCount(), allocated);
+    }
+
+    /**
+     * Vom aktuellen Thread allokierte Bytes (HotSpot), -1 wenn nicht verfügbar.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
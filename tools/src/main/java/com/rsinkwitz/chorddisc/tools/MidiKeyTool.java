@@ -0,0 +1,51 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.DiscPositions;
+import com.rsinkwitz.chorddisc.core.MidiKeyEstimator;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Schätzt die Tonart von MIDI-Dateien wie der MIDI-Import der App und gibt Tonart,
+ * Scheibenposition, Tonhöhen-Histogramm und Rechenzeit aus.
+ * Aufruf: MidiKeyTool &lt;Datei.mid&gt; [weitere Dateien …]
+ */
+public final class MidiKeyTool {
+
+    private static final String[] PITCH_NAMES =
+        {"C", "C♯", "D", "E♭", "E", "F", "F♯", "G", "A♭", "A", "B♭", "B"};
+
+    private MidiKeyTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Aufruf: MidiKeyTool <Datei.mid> [weitere Dateien …]");
+            System.exit(2);
+        }
+
+        MidiKeyEstimator estimator = new MidiKeyEstimator();
+        for (String path : args) {
+            File file = new File(path);
+            estimator.analyze(file);
+            int position = estimator.getKeyPosition();
+            System.out.printf(Locale.US, "%s: %d Spuren, %d Noten, %.1f MB in %.1f ms%n", file.getName(),
+                estimator.getTrackCount(), estimator.getNoteCount(), file.length() / 1e6,
+                estimator.getAnalysisNanos() / 1e6);
+            if (position < 0) {
+                System.out.println("  keine Noten");
+                continue;
+            }
+            System.out.printf(Locale.US, "  Tonart %s%s (%.2f), Position %d%n",
+                DiscPositions.note(position, false), estimator.isKeyMajor() ? "-Dur" : "-Moll",
+                estimator.getKeyCorrelation(), position);
+            StringBuilder histogram = new StringBuilder("  ");
+            for (int i = 0; i < 12; i++) {
+                histogram.append(String.format(Locale.US, "%s %.0f%%  ", PITCH_NAMES[i],
+                    estimator.getPitchClassWeight(i) * 100));
+            }
+            System.out.println(histogram);
+        }
+    }
+}
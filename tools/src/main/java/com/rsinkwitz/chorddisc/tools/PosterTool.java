@@ -0,0 +1,46 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.PosterPainter;
+import com.rsinkwitz.chorddisc.core.TiledPosterRenderer;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Rendert das Poster der Scheibe als PNG auf der JVM.
+ * Aufruf: PosterTool &lt;Höhe in Pixeln&gt; &lt;Datei.png&gt; [de|en] [Kachelgröße]
+ */
+public final class PosterTool {
+
+    private static final int DEFAULT_TILE_SIZE = 512;
+
+    private PosterTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Aufruf: PosterTool <Höhe> <Datei.png> [de|en] [Kachelgröße]");
+            System.exit(2);
+        }
+        int height = Integer.parseInt(args[0]);
+        File file = new File(args[1]);
+        boolean german = args.length < 3 || !args[2].equalsIgnoreCase("en");
+        int tileSize = args.length >= 4 ? Integer.parseInt(args[3]) : DEFAULT_TILE_SIZE;
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Verzeichnis nicht anlegbar: " + parent);
+        }
+
+        long start = System.nanoTime();
+        TiledPosterRenderer renderer = new TiledPosterRenderer(AwtTileSurface::new, tileSize);
+        PosterPainter painter = new PosterPainter(german, height / PosterPainter.POSTER_HEIGHT);
+        renderer.render(painter, height, new BufferedOutputStream(new FileOutputStream(file), 1 << 16),
+            (rowsDone, totalRows) -> System.out.printf(Locale.US, "\r%5.1f %%", 100.0 * rowsDone / totalRows));
+
+        System.out.printf(Locale.US, "%nPoster geschrieben: %s (%d×%d px, %.1f s)%n", file,
+            height * 2, height, (System.nanoTime() - start) / 1e9);
+    }
+}
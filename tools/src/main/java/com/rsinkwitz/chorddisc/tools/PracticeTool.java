@@ -0,0 +1,144 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.DiscPositions;
+import com.rsinkwitz.chorddisc.core.PracticeLog;
+import com.rsinkwitz.chorddisc.core.PracticeLogWriter;
+import com.rsinkwitz.chorddisc.core.PracticeStats;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Übungsprotokoll der App auf der JVM: fasst ein Verzeichnis mit practice.cdph (aus
+ * files/practice/ per adb geholt) je Tonart zusammen, oder schreibt mit --simulate Jahre
+ * täglichen Übens über denselben PracticeLogWriter wie die App und misst, wie lange das Laden
+ * der Statistik mit und ohne Prüfpunkt dauert. Exit-Code 1, wenn Prüfpunkt und vollständiges
+ * Durchlesen verschiedene Zahlen ergeben.
+ * Aufruf: PracticeTool &lt;verzeichnis&gt; | PracticeTool --simulate &lt;verzeichnis&gt; [Jahre]
+ */
+public final class PracticeTool {
+
+    private static final int RECORDS_PER_DAY = 60;
+    private static final long FIRST_DAY = 1_577_836_800L; // 1.1.2020
+
+    private PracticeTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean consistent;
+        if (args.length >= 2 && args[0].equals("--simulate")) {
+            int years = args.length >= 3 ? Integer.parseInt(args[2]) : 5;
+            File directory = new File(args[1]);
+            simulate(directory, years);
+            consistent = summarize(directory);
+        } else if (args.length == 1) {
+            consistent = summarize(new File(args[0]));
+        } else {
+            System.err.println("Aufruf: PracticeTool <verzeichnis> | PracticeTool --simulate <verzeichnis> [Jahre]");
+            System.exit(2);
+            return;
+        }
+        if (!consistent) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Liest das ganze Protokoll, vergleicht mit dem Prüfpunkt und gibt die Statistik aus.
+     */
+    private static boolean summarize(File directory) throws IOException, InterruptedException {
+        PracticeStats full = new PracticeStats();
+        long start = System.nanoTime();
+        try (FileInputStream in = new FileInputStream(new File(directory, PracticeLogWriter.LOG_FILE))) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            full.catchUp(log, PracticeLog.readHeader(log));
+        }
+        double scanMs = (System.nanoTime() - start) / 1e6;
+
+        // Wie die App: Prüfpunkt plus Rest, auf dem Schreib-Thread
+        start = System.nanoTime();
+        PracticeLogWriter writer = new PracticeLogWriter(directory);
+        PracticeStats loaded;
+        while ((loaded = writer.getStats()) == null) {
+            Thread.sleep(0, 100_000);
+        }
+        double loadMs = (System.nanoTime() - start) / 1e6;
+        writer.awaitClosed();
+
+        System.out.printf(Locale.US, "%d Datensätze: vollständig gelesen in %.2f ms, geladen wie die App in %.2f ms%n",
+            full.getRecordCount(), scanMs, loadMs);
+        if (full.total() > 0) {
+            System.out.println("Seit " + date(full.firstSeconds()));
+        }
+        boolean consistent = loaded.getRecordCount() == full.getRecordCount();
+        for (int key = 0; key < PracticeStats.POSITIONS; key++) {
+            for (int kind = 0; kind < PracticeLog.KINDS; kind++) {
+                consistent &= loaded.count(key, kind) == full.count(key, kind);
+            }
+            consistent &= loaded.lastSeconds(key) == full.lastSeconds(key);
+            if (full.total(key) > 0) {
+                System.out.printf(Locale.US, "%-6s %7d Akkorde (%d Dur, %d Moll), %7d Tonleitern, zuletzt %s%n",
+                    DiscPositions.note(key, true), full.chordCount(key),
+                    full.count(key, PracticeLog.CHORD_MAJOR), full.count(key, PracticeLog.CHORD_MINOR),
+                    full.scaleCount(key), date(full.lastSeconds(key)));
+            }
+        }
+        if (!consistent) {
+            System.err.println("Prüfpunkt und Protokoll stimmen nicht überein");
+        }
+        return consistent;
+    }
+
+    /**
+     * Schreibt years Jahre mit je RECORDS_PER_DAY Datensätzen in ein leeres Verzeichnis und
+     * misst das Laden mit Prüfpunkt und nach dessen Löschen.
+     */
+    private static void simulate(File directory, int years) throws IOException, InterruptedException {
+        new File(directory, PracticeLogWriter.LOG_FILE).delete();
+        new File(directory, PracticeLogWriter.CHECKPOINT_FILE).delete();
+
+        Random random = new Random(19);
+        PracticeLogWriter writer = new PracticeLogWriter(directory);
+        long start = System.nanoTime();
+        int days = years * 365;
+        for (int day = 0; day < days; day++) {
+            long seconds = FIRST_DAY + day * 86_400L + 18 * 3600;
+            int key = random.nextInt(PracticeStats.POSITIONS);
+            for (int i = 0; i < RECORDS_PER_DAY; i++) {
+                long record = PracticeLog.pack(seconds + i * 20, random.nextInt(PracticeLog.KINDS),
+                    random.nextInt(PracticeStats.POSITIONS), key);
+                while (!writer.add(record)) {
+                    writer.flush(); // Ringpuffer voll: auf den Schreib-Thread warten
+                    Thread.yield();
+                }
+            }
+        }
+        long dropped = writer.getDroppedRecordCount();
+        writer.awaitClosed();
+        System.out.printf(Locale.US, "%d Jahre simuliert: %d Datensätze geschrieben in %.0f ms (%d Versuche bei vollem Puffer)%n",
+            years, writer.getPersistedRecordCount(), (System.nanoTime() - start) / 1e6, dropped);
+
+        // Ohne Prüfpunkt baut der Schreib-Thread die Statistik aus dem ganzen Protokoll auf
+        new File(directory, PracticeLogWriter.CHECKPOINT_FILE).delete();
+        start = System.nanoTime();
+        writer = new PracticeLogWriter(directory);
+        while (writer.getStats() == null) {
+            Thread.sleep(0, 100_000);
+        }
+        System.out.printf(Locale.US, "Laden ohne Prüfpunkt: %.2f ms%n", (System.nanoTime() - start) / 1e6);
+        writer.add(PracticeLog.pack(FIRST_DAY + days * 86_400L, PracticeLog.SCALE_MAJOR, 0, 0));
+        writer.awaitClosed(); // Schreibt den Prüfpunkt wieder
+    }
+
+    private static LocalDate date(long epochSeconds) {
+        return Instant.ofEpochSecond(epochSeconds).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,98 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.PitchTable;
+import com.rsinkwitz.chorddisc.core.Progression;
+import com.rsinkwitz.chorddisc.core.ProgressionRenderer;
+import com.rsinkwitz.chorddisc.core.TuningSystem;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Rendert eine Übungsfolge so schnell wie möglich (ohne Ausgabe) und prüft, dass jeder
+ * Phrasenanfang höchstens ein Sample vom exakten Zeitpunkt abweicht und der Heap nicht wächst.
+ * Nach der Hälfte wechselt das Tempo auf bpm2, falls angegeben.
+ * Aufruf: SequenceTool &lt;CIRCLE_OF_FIFTHS|I_IV_V_I|II_V_I|ALL_SCALES&gt; [bpm] [Minuten] [bpm2]
+ */
+public final class SequenceTool {
+
+    private static final int SAMPLE_RATE = 44100;
+    private static final int BLOCK_FRAMES = 1024;
+
+    private SequenceTool() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Aufruf: SequenceTool <CIRCLE_OF_FIFTHS|I_IV_V_I|II_V_I|ALL_SCALES> [bpm] [Minuten] [bpm2]");
+            System.exit(2);
+        }
+        Progression.Kind kind = Progression.Kind.valueOf(args[0]);
+        double bpm = args.length >= 2 ? Double.parseDouble(args[1]) : 120;
+        double minutes = args.length >= 3 ? Double.parseDouble(args[2]) : 60;
+        double bpm2 = args.length >= 4 ? Double.parseDouble(args[3]) : bpm;
+
+        long totalFrames = (long) (minutes * 60 * SAMPLE_RATE);
+        long switchFrame = totalFrames / 2;
+
+        // Unabhängige Soll-Zeitpunkte der Phrasen: Summe der Achtel mal Dauer eines Achtels
+        double[] ideal = new double[1];
+        double[] maxDrift = new double[1];
+        long[] phrases = new long[1];
+        ProgressionRenderer[] holder = new ProgressionRenderer[1];
+        ProgressionRenderer renderer = new ProgressionRenderer(new Progression(kind, 0, false),
+            new PitchTable(TuningSystem.EQUAL_12, PitchTable.DEFAULT_REFERENCE_A, SAMPLE_RATE), bpm,
+            (frame, root, type) -> {
+                maxDrift[0] = Math.max(maxDrift[0], Math.abs(frame - ideal[0]));
+                if (frame >= switchFrame) {
+                    holder[0].setTempo(bpm2); // Gilt ab dieser Phrase
+                }
+                ideal[0] += (type.noteCount() + 1) * 30.0 * SAMPLE_RATE / holder[0].getTempo();
+                phrases[0]++;
+            });
+        holder[0] = renderer;
+
+        short[] block = new short[BLOCK_FRAMES];
+        long heapBefore = usedHeap();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long worstBlockNanos = 0;
+        while (renderer.getFrame() < totalFrames) {
+            long blockStart = System.nanoTime();
+            renderer.render(block, 0, BLOCK_FRAMES);
+            worstBlockNanos = Math.max(worstBlockNanos, System.nanoTime() - blockStart);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long heapAfter = usedHeap();
+
+        double audioSeconds = (double) renderer.getFrame() / SAMPLE_RATE;
+        System.out.printf(Locale.US, "%s, %.0f → %.0f BPM: %.1f min Audio, %d Phrasen, %d Noten%n",
+            kind, bpm, bpm2, audioSeconds / 60, phrases[0], renderer.getNoteCount());
+        System.out.printf(Locale.US, "Rechenzeit %.2f s (%.0fx Echtzeit), schlechtester Block %.3f ms (Frist %.1f ms)%n",
+            seconds, audioSeconds / seconds, worstBlockNanos / 1e6, BLOCK_FRAMES * 1000.0 / SAMPLE_RATE);
+        System.out.printf(Locale.US, "Max. Abweichung der Phrasenanfänge: %.3f Samples%n", maxDrift[0]);
+        System.out.printf(Locale.US, "Allokiert beim Rendern: %d Bytes, Heap vorher %d KB, nachher %d KB%n",
+            allocated, heapBefore / 1024, heapAfter / 1024);
+        if (maxDrift[0] > 1) {
+            System.err.println("Drift über einem Sample");
+            System.exit(1);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Vom aktuellen Thread allokierte Bytes (HotSpot), -1 wenn nicht verfügbar.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.rsinkwitz.chorddisc.tools;
+
+import com.rsinkwitz.chorddisc.core.SvgDiscGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Schreibt alle SVG-Bastelvorlagen (Notation × Tonleiter-Typ) parallel in ein Verzeichnis.
+ * Aufruf: SvgTool &lt;Verzeichnis&gt; [Radius]
+ */
+public final class SvgTool {
+
+    private SvgTool() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Aufruf: SvgTool <Verzeichnis> [Radius]");
+            System.exit(2);
+        }
+        File directory = new File(args[0]);
+        double radius = args.length >= 2 ? Double.parseDouble(args[1]) : SvgDiscGenerator.DEFAULT_RADIUS;
+
+        long start = System.nanoTime();
+        List<File> files = SvgDiscGenerator.writeAll(SvgDiscGenerator.allVariants(radius), directory,
+            ForkJoinPool.commonPool());
+        for (File file : files) {
+            System.out.println(file);
+        }
+        System.out.printf(Locale.US, "%d Vorlagen geschrieben (%.1f ms)%n", files.size(),
+            (System.nanoTime() - start) / 1e6);
+    }
+}